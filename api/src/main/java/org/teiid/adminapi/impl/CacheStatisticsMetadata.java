@@ -26,6 +26,9 @@ public class CacheStatisticsMetadata extends AdminObjectImpl implements CacheSta
     private double hitRatio;
     private int totalEntries;
     private int requestCount;
+    private int hitCount;
+    private int missCount;
+    private long evictionCount;
 
     @Override
     public int getRequestCount() {
@@ -54,11 +57,41 @@ public class CacheStatisticsMetadata extends AdminObjectImpl implements CacheSta
         this.totalEntries = value;
     }
 
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(int hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(int missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * @return the number of entries removed by the cache due to size or expiration
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("hitRatio=").append(hitRatio);//$NON-NLS-1$
         sb.append("; totalEntries=").append(totalEntries); //$NON-NLS-1$
         sb.append("; requestCount=").append(requestCount); //$NON-NLS-1$
+        sb.append("; hitCount=").append(hitCount); //$NON-NLS-1$
+        sb.append("; missCount=").append(missCount); //$NON-NLS-1$
+        sb.append("; evictionCount=").append(evictionCount); //$NON-NLS-1$
         return sb.toString();
     }
 }
@@ -691,6 +691,14 @@ public class MetadataFactory extends NamespaceContainer {
         return this.dataTypes;
     }
 
+    /**
+     * get the roles defined by grants and policies, keyed by role name
+     * @return
+     */
+    public Map<String, Role> getRoles() {
+        return this.roles;
+    }
+
     /**
      * To be called if the MetadataFactory is deserialized to set the canonical system
      * type value.
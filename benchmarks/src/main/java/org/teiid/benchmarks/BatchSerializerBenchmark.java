@@ -0,0 +1,96 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.teiid.client.BatchSerializer;
+import org.teiid.core.types.DataTypeManager.DefaultDataTypes;
+
+/**
+ * Client batch serialization of a mixed type batch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchSerializerBenchmark {
+
+    private static final String[] TYPES = {DefaultDataTypes.INTEGER, DefaultDataTypes.STRING,
+            DefaultDataTypes.TIMESTAMP, DefaultDataTypes.BIG_DECIMAL, DefaultDataTypes.DOUBLE};
+
+    @Param({"256", "4096"})
+    int rows;
+
+    private List<List<?>> batch;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        batch = new ArrayList<List<?>>(rows);
+        long time = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            batch.add(Arrays.asList(i, "value" + i, new Timestamp(time + i), BigDecimal.valueOf(i, 2), i / 3d)); //$NON-NLS-1$
+        }
+        serialized = write();
+    }
+
+    private byte[] write() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(serialized == null ? 1 << 16 : serialized.length);
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        BatchSerializer.writeBatch(oos, TYPES, batch);
+        oos.close();
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeBatch() throws IOException {
+        return write();
+    }
+
+    @Benchmark
+    public List<List<Object>> readBatch() throws IOException, ClassNotFoundException {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serialized));
+        return BatchSerializer.readBatch(ois, TYPES);
+    }
+
+}
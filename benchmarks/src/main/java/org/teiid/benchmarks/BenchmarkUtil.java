@@ -0,0 +1,65 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import org.teiid.common.buffer.BlockedException;
+import org.teiid.common.buffer.TupleBatch;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.processor.relational.RelationalNode;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.util.CommandContext;
+
+final class BenchmarkUtil {
+
+    private BenchmarkUtil() {
+    }
+
+    static ElementSymbol element(String name, Class<?> type) {
+        ElementSymbol es = new ElementSymbol(name);
+        es.setType(type);
+        return es;
+    }
+
+    static CommandContext createContext() {
+        return new CommandContext("pid", "bench", null, null, 1); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Fully process the node and return the number of rows produced
+     */
+    static long process(RelationalNode node) throws TeiidComponentException, TeiidProcessingException {
+        node.open();
+        long rows = 0;
+        while (true) {
+            try {
+                TupleBatch batch = node.nextBatch();
+                rows += batch.getRowCount();
+                if (batch.getTerminationFlag()) {
+                    break;
+                }
+            } catch (BlockedException e) {
+                //retry
+            }
+        }
+        node.close();
+        return rows;
+    }
+
+}
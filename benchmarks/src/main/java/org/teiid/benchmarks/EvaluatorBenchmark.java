@@ -0,0 +1,118 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.common.buffer.BlockedException;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.query.eval.Evaluator;
+import org.teiid.query.processor.relational.RelationalNode;
+import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.lang.MatchCriteria;
+import org.teiid.query.sql.lang.SetCriteria;
+import org.teiid.query.sql.symbol.Constant;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.sql.symbol.Expression;
+
+/**
+ * {@link Evaluator#evaluate(Criteria, List)} over common row filters
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    @Param({"COMPARE", "IN", "LIKE", "IS_NULL", "COMPOUND"})
+    String criteria;
+
+    private Evaluator evaluator;
+    private Criteria crit;
+    private List<List<?>> tuples;
+
+    @Setup
+    public void setup() {
+        ElementSymbol e1 = BenchmarkUtil.element("e1", Integer.class); //$NON-NLS-1$
+        ElementSymbol e2 = BenchmarkUtil.element("e2", String.class); //$NON-NLS-1$
+        List<ElementSymbol> elements = Arrays.asList(e1, e2);
+        Map<Expression, Integer> map = RelationalNode.createLookupMap(elements);
+        evaluator = new Evaluator(map, null, BenchmarkUtil.createContext());
+
+        CompareCriteria compare = new CompareCriteria(e1, CompareCriteria.GE, new Constant(500));
+        List<Constant> values = new ArrayList<Constant>();
+        for (int i = 0; i < 10; i++) {
+            values.add(new Constant(i * 100));
+        }
+        SetCriteria in = new SetCriteria(e1, values);
+        MatchCriteria like = new MatchCriteria(e2, new Constant("value%5")); //$NON-NLS-1$
+        IsNullCriteria isNull = new IsNullCriteria(e2);
+        switch (criteria) {
+        case "COMPARE": //$NON-NLS-1$
+            crit = compare;
+            break;
+        case "IN": //$NON-NLS-1$
+            crit = in;
+            break;
+        case "LIKE": //$NON-NLS-1$
+            crit = like;
+            break;
+        case "IS_NULL": //$NON-NLS-1$
+            crit = isNull;
+            break;
+        default:
+            crit = new CompoundCriteria(CompoundCriteria.OR, new CompoundCriteria(CompoundCriteria.AND, compare, like), in);
+        }
+
+        tuples = new ArrayList<List<?>>(1000);
+        for (int i = 0; i < 1000; i++) {
+            tuples.add(Arrays.asList(i, i % 10 == 0 ? null : "value" + i)); //$NON-NLS-1$
+        }
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole bh) throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+        for (List<?> tuple : tuples) {
+            bh.consume(evaluator.evaluate(crit, tuple));
+        }
+    }
+
+}
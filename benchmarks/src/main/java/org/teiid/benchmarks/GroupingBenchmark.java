@@ -0,0 +1,100 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.processor.relational.FakeRelationalNode;
+import org.teiid.query.processor.relational.GroupingNode;
+import org.teiid.query.sql.lang.OrderBy;
+import org.teiid.query.sql.symbol.AggregateSymbol;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.util.CommandContext;
+
+/**
+ * {@link GroupingNode} aggregation with sort or hash based grouping
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GroupingBenchmark {
+
+    @Param({"false", "true"})
+    boolean hash;
+
+    @Param({"100000"})
+    int rows;
+
+    @Param({"100", "10000"})
+    int groups;
+
+    private BufferManagerImpl bufferManager;
+    private List<?>[] tuples;
+
+    @Setup
+    public void setup() {
+        bufferManager = BufferManagerFactory.getTestBufferManager(1 << 24, 256);
+        tuples = new List<?>[rows];
+        for (int i = 0; i < rows; i++) {
+            tuples[i] = Arrays.asList((i * 7919) % groups, i);
+        }
+    }
+
+    @Benchmark
+    public long group() throws TeiidComponentException, TeiidProcessingException {
+        ElementSymbol col1 = BenchmarkUtil.element("col1", Integer.class); //$NON-NLS-1$
+        ElementSymbol col2 = BenchmarkUtil.element("col2", Integer.class); //$NON-NLS-1$
+
+        FakeRelationalNode child = new FakeRelationalNode(1, tuples);
+        child.setElements(Arrays.asList(col1, col2));
+
+        GroupingNode node = new GroupingNode(2);
+        node.setElements(Arrays.asList(col1, new AggregateSymbol("COUNT", false, col2), //$NON-NLS-1$
+                new AggregateSymbol("SUM", false, col2), new AggregateSymbol("MAX", false, col2))); //$NON-NLS-1$ //$NON-NLS-2$
+        node.setOrderBy(new OrderBy(Arrays.asList(col1)).getOrderByItems());
+        node.setHashGrouping(hash);
+        node.addChild(child);
+
+        CommandContext context = BenchmarkUtil.createContext();
+        child.initialize(context, bufferManager, null);
+        node.initialize(context, bufferManager, null);
+        return BenchmarkUtil.process(node);
+    }
+
+}
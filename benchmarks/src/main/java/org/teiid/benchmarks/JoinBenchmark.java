@@ -0,0 +1,126 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.processor.relational.EnhancedSortMergeJoinStrategy;
+import org.teiid.query.processor.relational.FakeRelationalNode;
+import org.teiid.query.processor.relational.HashJoinStrategy;
+import org.teiid.query.processor.relational.JoinNode;
+import org.teiid.query.processor.relational.JoinStrategy;
+import org.teiid.query.processor.relational.MergeJoinStrategy;
+import org.teiid.query.processor.relational.MergeJoinStrategy.SortOption;
+import org.teiid.query.sql.lang.JoinType;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.util.CommandContext;
+
+/**
+ * An inner equi-join of unsorted inputs
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JoinBenchmark {
+
+    @Param({"ENHANCED_SORT", "MERGE", "HASH"})
+    String strategy;
+
+    @Param({"10000"})
+    int leftRows;
+
+    @Param({"100000"})
+    int rightRows;
+
+    private BufferManagerImpl bufferManager;
+    private List<?>[] leftTuples;
+    private List<?>[] rightTuples;
+
+    @Setup
+    public void setup() {
+        bufferManager = BufferManagerFactory.getTestBufferManager(1 << 24, 256);
+        leftTuples = new List<?>[leftRows];
+        for (int i = 0; i < leftRows; i++) {
+            leftTuples[i] = Arrays.asList((i * 7919) % leftRows, i);
+        }
+        rightTuples = new List<?>[rightRows];
+        for (int i = 0; i < rightRows; i++) {
+            rightTuples[i] = Arrays.asList((i * 104729) % rightRows, i);
+        }
+    }
+
+    private JoinStrategy createStrategy() {
+        switch (strategy) {
+        case "ENHANCED_SORT": //$NON-NLS-1$
+            return new EnhancedSortMergeJoinStrategy(SortOption.SORT, SortOption.SORT);
+        case "MERGE": //$NON-NLS-1$
+            return new MergeJoinStrategy(SortOption.SORT, SortOption.SORT, false);
+        default:
+            return new HashJoinStrategy();
+        }
+    }
+
+    @Benchmark
+    public long join() throws TeiidComponentException, TeiidProcessingException {
+        ElementSymbol l1 = BenchmarkUtil.element("l1", Integer.class); //$NON-NLS-1$
+        ElementSymbol l2 = BenchmarkUtil.element("l2", Integer.class); //$NON-NLS-1$
+        ElementSymbol r1 = BenchmarkUtil.element("r1", Integer.class); //$NON-NLS-1$
+        ElementSymbol r2 = BenchmarkUtil.element("r2", Integer.class); //$NON-NLS-1$
+
+        FakeRelationalNode left = new FakeRelationalNode(1, leftTuples);
+        left.setElements(Arrays.asList(l1, l2));
+        FakeRelationalNode right = new FakeRelationalNode(2, rightTuples);
+        right.setElements(Arrays.asList(r1, r2));
+
+        JoinNode join = new JoinNode(3);
+        join.setElements(Arrays.asList(l1, l2, r1, r2));
+        join.setJoinType(JoinType.JOIN_INNER);
+        join.setJoinExpressions(Arrays.asList(l1), Arrays.asList(r1));
+        join.setJoinStrategy(createStrategy());
+        join.addChild(left);
+        join.addChild(right);
+
+        CommandContext context = BenchmarkUtil.createContext();
+        left.initialize(context, bufferManager, null);
+        right.initialize(context, bufferManager, null);
+        join.initialize(context, bufferManager, null);
+        return BenchmarkUtil.process(join);
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.teiid.api.exception.query.QueryParserException;
+import org.teiid.query.parser.QueryParser;
+import org.teiid.query.sql.lang.Command;
+
+/**
+ * {@link QueryParser#parseCommand(String)} of representative queries
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({
+        "SELECT e1, e2 FROM pm1.g1 WHERE e3 = true AND e2 IN (1, 2, 3) ORDER BY e1",
+        "SELECT g1.e1, max(g2.e2) FROM pm1.g1 AS g1 INNER JOIN pm2.g2 AS g2 ON g1.e1 = g2.e1 LEFT OUTER JOIN pm1.g3 ON g3.e2 = g2.e2 WHERE g1.e4 > 1.5 GROUP BY g1.e1 HAVING count(*) > 2",
+        "INSERT INTO pm1.g1 (e1, e2, e3, e4) VALUES ('a', 1, false, 2.0)",
+        "WITH x AS (SELECT e1, e2 FROM pm1.g1) SELECT e1, CASE WHEN e2 > 0 THEN 'pos' ELSE 'neg' END FROM x WHERE e1 LIKE 'a%' AND EXISTS (SELECT 1 FROM pm2.g1 WHERE pm2.g1.e1 = x.e1) UNION ALL SELECT e1, 'other' FROM pm1.g2"
+    })
+    String sql;
+
+    private QueryParser parser = QueryParser.getQueryParser();
+
+    @Benchmark
+    public Command parse() throws QueryParserException {
+        return parser.parseCommand(sql);
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.analysis.AnalysisRecord;
+import org.teiid.query.metadata.QueryMetadataInterface;
+import org.teiid.query.optimizer.QueryOptimizer;
+import org.teiid.query.optimizer.TestOptimizer;
+import org.teiid.query.optimizer.capabilities.CapabilitiesFinder;
+import org.teiid.query.parser.QueryParser;
+import org.teiid.query.processor.ProcessorPlan;
+import org.teiid.query.resolver.QueryResolver;
+import org.teiid.query.rewriter.QueryRewriter;
+import org.teiid.query.sql.lang.Command;
+import org.teiid.query.unittest.RealMetadataFactory;
+import org.teiid.query.util.CommandContext;
+
+/**
+ * Resolving, rewriting and planning federated queries against the test metadata
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlanningBenchmark {
+
+    @Param({
+        "SELECT pm1.g1.e1, pm2.g1.e2 FROM pm1.g1, pm2.g1 WHERE pm1.g1.e1 = pm2.g1.e1 AND pm1.g1.e3 = true",
+        "SELECT pm1.g1.e1, max(pm2.g2.e2) FROM pm1.g1 INNER JOIN pm2.g2 ON pm1.g1.e1 = pm2.g2.e1 LEFT OUTER JOIN pm1.g3 ON pm1.g3.e2 = pm2.g2.e2 GROUP BY pm1.g1.e1 ORDER BY pm1.g1.e1",
+        "SELECT e1 FROM vm1.g1 WHERE e2 IN (SELECT e2 FROM pm2.g1 WHERE e3 = false) UNION SELECT e1 FROM pm1.g2",
+        "SELECT x.e1, x.e2, y.e1 FROM (SELECT e1, count(*) AS e2 FROM pm1.g1 GROUP BY e1) AS x, vm1.g4 AS y WHERE x.e1 = y.e1"
+    })
+    String sql;
+
+    private QueryMetadataInterface metadata;
+    private CapabilitiesFinder capFinder;
+
+    @Setup
+    public void setup() {
+        metadata = RealMetadataFactory.example1Cached();
+        //sources that do not support joins, so that joins are planned federated
+        capFinder = TestOptimizer.getGenericFinder(false);
+    }
+
+    @Benchmark
+    public ProcessorPlan plan() throws TeiidComponentException, TeiidProcessingException {
+        Command command = QueryParser.getQueryParser().parseCommand(sql);
+        QueryResolver.resolveCommand(command, metadata);
+        CommandContext context = new CommandContext();
+        command = QueryRewriter.rewrite(command, metadata, context);
+        return QueryOptimizer.optimizePlan(command, metadata, null, capFinder, new AnalysisRecord(false, false), context);
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.STree;
+import org.teiid.common.buffer.STree.InsertMode;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.query.sql.symbol.ElementSymbol;
+
+/**
+ * {@link STree} inserts and searches.
+ * <br>
+ * The readWrite group runs searches concurrently with an updating thread.  The non-concurrent
+ * tree is guarded by a read write lock, as a TempTable would, while the concurrent tree is used directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class STreeBenchmark {
+
+    @Param({"false", "true"})
+    boolean concurrent;
+
+    @Param({"100000"})
+    int size;
+
+    private BufferManagerImpl bufferManager;
+    private List<ElementSymbol> elements;
+    private STree tree;
+    private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        Random random = new Random();
+        Integer pending;
+    }
+
+    @Setup
+    public void setup() throws TeiidComponentException {
+        bufferManager = BufferManagerFactory.createBufferManager();
+        elements = Arrays.asList(BenchmarkUtil.element("x", Integer.class), BenchmarkUtil.element("y", String.class)); //$NON-NLS-1$ //$NON-NLS-2$
+        tree = createTree();
+        //even keys are present, odd keys are used for updates
+        for (int i = 0; i < size; i++) {
+            tree.insert(Arrays.asList(i * 2, String.valueOf(i)), InsertMode.NEW, -1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        tree.remove();
+    }
+
+    private STree createTree() {
+        if (concurrent) {
+            return bufferManager.createConcurrentSTree(elements, "bench", 1); //$NON-NLS-1$
+        }
+        return bufferManager.createSTree(elements, "bench", 1); //$NON-NLS-1$
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long insert(ThreadState state) throws TeiidComponentException {
+        STree local = createTree();
+        try {
+            for (int i = 0; i < 10000; i++) {
+                local.insert(Arrays.asList(state.random.nextInt(), null), InsertMode.NEW, -1);
+            }
+            return local.getRowCount();
+        } finally {
+            local.remove();
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public List<?> find(ThreadState state) throws TeiidComponentException {
+        List<Integer> key = Arrays.asList(state.random.nextInt(size) * 2);
+        if (concurrent) {
+            return tree.find(key);
+        }
+        lock.readLock().lock();
+        try {
+            return tree.find(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public List<?> update(ThreadState state) throws TeiidComponentException {
+        if (!concurrent) {
+            lock.writeLock().lock();
+        }
+        try {
+            //alternate between adding and removing an odd key to keep the size stable
+            if (state.pending == null) {
+                state.pending = state.random.nextInt(size) * 2 + 1;
+                return tree.insert(Arrays.asList(state.pending, null), InsertMode.NEW, -1);
+            }
+            List<?> result = tree.remove(Arrays.asList(state.pending));
+            state.pending = null;
+            return result;
+        } finally {
+            if (!concurrent) {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.TupleBuffer;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.processor.CollectionTupleSource;
+import org.teiid.query.processor.relational.SortUtility;
+import org.teiid.query.processor.relational.SortUtility.Mode;
+import org.teiid.query.sql.symbol.ElementSymbol;
+
+/**
+ * {@link SortUtility} sorting more rows than fit in the memory budget, which
+ * requires an external merge of the sorted runs
+ */
+@State(Scope.Thread)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"100000"})
+    int rows;
+
+    @Param({"SORT", "DUP_REMOVE"})
+    Mode mode;
+
+    private BufferManagerImpl bufferManager;
+    private List<ElementSymbol> elements;
+    private List<List<?>> tuples;
+
+    @Setup
+    public void setup() {
+        bufferManager = BufferManagerFactory.getTestBufferManager(1 << 20, 256);
+        elements = Arrays.asList(BenchmarkUtil.element("x", Integer.class), BenchmarkUtil.element("y", String.class)); //$NON-NLS-1$ //$NON-NLS-2$
+        tuples = new ArrayList<List<?>>(rows);
+        Random r = new Random(0);
+        for (int i = 0; i < rows; i++) {
+            int val = r.nextInt(rows);
+            tuples.add(Arrays.asList(val, String.valueOf(val)));
+        }
+    }
+
+    @Benchmark
+    public long sort() throws TeiidComponentException, TeiidProcessingException {
+        SortUtility su = new SortUtility(new CollectionTupleSource(tuples.iterator()), elements.subList(0, 1),
+                Collections.nCopies(1, Boolean.TRUE), mode, bufferManager, "bench", elements); //$NON-NLS-1$
+        TupleBuffer result = su.sort();
+        try {
+            return result.getRowCount();
+        } finally {
+            result.remove();
+        }
+    }
+
+}
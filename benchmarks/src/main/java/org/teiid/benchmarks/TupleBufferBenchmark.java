@@ -0,0 +1,94 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.teiid.common.buffer.BufferManager.TupleSourceType;
+import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.TupleBuffer;
+import org.teiid.common.buffer.TupleSource;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.sql.symbol.ElementSymbol;
+
+/**
+ * Writing and reading back a {@link TupleBuffer} larger than the memory budget,
+ * which serializes the {@link org.teiid.common.buffer.TupleBatch}es through the buffer manager cache
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TupleBufferBenchmark {
+
+    @Param({"100000"})
+    int rows;
+
+    private BufferManagerImpl bufferManager;
+    private List<ElementSymbol> elements;
+    private List<List<?>> tuples;
+
+    @Setup
+    public void setup() {
+        bufferManager = BufferManagerFactory.getTestBufferManager(1 << 20, 256);
+        elements = Arrays.asList(BenchmarkUtil.element("x", Integer.class), BenchmarkUtil.element("y", String.class)); //$NON-NLS-1$ //$NON-NLS-2$
+        tuples = new ArrayList<List<?>>(rows);
+        for (int i = 0; i < rows; i++) {
+            tuples.add(Arrays.asList(i, "value" + i)); //$NON-NLS-1$
+        }
+    }
+
+    @Benchmark
+    public long writeAndRead() throws TeiidComponentException, TeiidProcessingException {
+        TupleBuffer tb = bufferManager.createTupleBuffer(elements, "bench", TupleSourceType.PROCESSOR); //$NON-NLS-1$
+        try {
+            for (List<?> tuple : tuples) {
+                tb.addTuple(tuple);
+            }
+            tb.close();
+            TupleSource ts = tb.createIndexedTupleSource();
+            long count = 0;
+            while (ts.nextTuple() != null) {
+                count++;
+            }
+            return count;
+        } finally {
+            tb.remove();
+        }
+    }
+
+}
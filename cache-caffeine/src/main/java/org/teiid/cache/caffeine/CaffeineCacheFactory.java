@@ -26,15 +26,38 @@ import java.util.concurrent.TimeUnit;
 
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.teiid.cache.Cachable;
 import org.teiid.cache.Cache;
 import org.teiid.cache.CacheFactory;
+import org.teiid.cache.EvictingCache;
+import org.teiid.core.util.PropertiesUtils;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Expiry;
-
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Creates caffeine caches.
+ * <br>
+ * The result set and prepared plan caches are bounded by the estimated byte size of
+ * their {@link Cachable} entries rather than by entry count, each with their own budget.
+ * Other caches are bounded by entry count.
+ */
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class CaffeineCacheFactory implements CacheFactory {
 
+    public static final String RESULTSET_CACHE = "resultset"; //$NON-NLS-1$
+    public static final String PREPAREDPLAN_CACHE = "preparedplan"; //$NON-NLS-1$
+
+    static final int MAX_ENTRIES = 512;
+    //weights are in kilobytes so that large entries do not overflow the int weight
+    static final int WEIGHT_SHIFT = 10;
+    //fallback size for values that do not provide an estimate
+    static final int DEFAULT_ENTRY_SIZE = 1 << 12;
+
+    private long resultSetMaxBytes = PropertiesUtils.getHierarchicalProperty("org.teiid.cache.resultSetMaxBytes", 256L << 20, Long.class); //$NON-NLS-1$
+    private long preparedPlanMaxBytes = PropertiesUtils.getHierarchicalProperty("org.teiid.cache.preparedPlanMaxBytes", 32L << 20, Long.class); //$NON-NLS-1$
+
     static class ExpiringValue<V> {
         private V value;
         private Long ttl;
@@ -55,14 +78,37 @@ public class CaffeineCacheFactory implements CacheFactory {
         }
     }
 
-    static class CaffeineCache<K, V> implements Cache<K, V> {
+    static class SizeWeigher<K, V> implements Weigher<K, ExpiringValue<V>> {
+        @Override
+        public int weigh(@NonNull K key, @NonNull ExpiringValue<V> value) {
+            long size = DEFAULT_ENTRY_SIZE;
+            if (value.value instanceof Cachable) {
+                size = ((Cachable)value.value).getSizeEstimate();
+            }
+            return (int)Math.min(Integer.MAX_VALUE, Math.max(1, size >> WEIGHT_SHIFT));
+        }
+    }
+
+    static class CaffeineCache<K, V> implements EvictingCache<K, V> {
         private String name;
+        private com.github.benmanes.caffeine.cache.Cache<K, ExpiringValue<V>> cache;
         private Map<K, ExpiringValue<V>> delegate;
 
         CaffeineCache(String cacheName, int maxSize) {
+            this(cacheName, Caffeine.newBuilder().maximumSize(maxSize));
+        }
+
+        /**
+         * Create a cache bounded by the estimated byte size of the entries
+         */
+        CaffeineCache(String cacheName, long maxBytes) {
+            this(cacheName, Caffeine.newBuilder().maximumWeight(Math.max(1, maxBytes >> WEIGHT_SHIFT)).weigher(new SizeWeigher<K, V>()));
+        }
+
+        private CaffeineCache(String cacheName, Caffeine builder) {
             this.name = cacheName;
-            this.delegate = Caffeine.newBuilder()
-                    .maximumSize(maxSize)
+            this.cache = builder
+                    .recordStats()
                     .expireAfter(new Expiry<K, ExpiringValue<V>>() {
                         @Override
                         public long expireAfterCreate(@NonNull K key, @NonNull ExpiringValue<V> value, long currentTime) {
@@ -90,7 +136,8 @@ public class CaffeineCacheFactory implements CacheFactory {
                             return currentDuration;
                         }
                     })
-                    .build().asMap();
+                    .build();
+            this.delegate = this.cache.asMap();
         }
 
         @Override
@@ -144,14 +191,55 @@ public class CaffeineCacheFactory implements CacheFactory {
         public Set<K> keySet() {
             return delegate.keySet();
         }
+
+        @Override
+        public long getEvictionCount() {
+            return cache.stats().evictionCount();
+        }
+
+        void cleanUp() {
+            cache.cleanUp();
+        }
     }
 
     private Map<String, Cache> map = new HashMap<>();
 
     @Override
     public <K, V> Cache<K, V> get(String name) {
-        map.put(name, new CaffeineCache<K,V>(name, 512));
-        return map.get(name);
+        CaffeineCache<K, V> cache = null;
+        if (name.startsWith(RESULTSET_CACHE)) {
+            cache = new CaffeineCache<K,V>(name, resultSetMaxBytes);
+        } else if (name.startsWith(PREPAREDPLAN_CACHE)) {
+            cache = new CaffeineCache<K,V>(name, preparedPlanMaxBytes);
+        } else {
+            cache = new CaffeineCache<K,V>(name, MAX_ENTRIES);
+        }
+        map.put(name, cache);
+        return cache;
+    }
+
+    public long getResultSetMaxBytes() {
+        return resultSetMaxBytes;
+    }
+
+    /**
+     * Set the estimated byte budget of each result set cache.
+     * Defaults to the org.teiid.cache.resultSetMaxBytes system property or 256MB.
+     */
+    public void setResultSetMaxBytes(long resultSetMaxBytes) {
+        this.resultSetMaxBytes = resultSetMaxBytes;
+    }
+
+    public long getPreparedPlanMaxBytes() {
+        return preparedPlanMaxBytes;
+    }
+
+    /**
+     * Set the estimated byte budget of the prepared plan cache.
+     * Defaults to the org.teiid.cache.preparedPlanMaxBytes system property or 32MB.
+     */
+    public void setPreparedPlanMaxBytes(long preparedPlanMaxBytes) {
+        this.preparedPlanMaxBytes = preparedPlanMaxBytes;
     }
 
     @Override
@@ -21,8 +21,12 @@ package org.teiid.cache.caffeine;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.teiid.cache.Cachable;
 import org.teiid.cache.Cache;
+import org.teiid.cache.caffeine.CaffeineCacheFactory.CaffeineCache;
 
+@SuppressWarnings("nls")
 public class TestCaffeineCacheFactory {
 
     @Test public void testCache() throws InterruptedException {
@@ -38,4 +42,40 @@ public class TestCaffeineCacheFactory {
         assertNull(cache.get("key"));
     }
 
+    private static Cachable cachable(long size) {
+        Cachable c = Mockito.mock(Cachable.class);
+        Mockito.when(c.getSizeEstimate()).thenReturn(size);
+        return c;
+    }
+
+    @Test public void testWeightedEviction() {
+        CaffeineCacheFactory factory = new CaffeineCacheFactory();
+        factory.setResultSetMaxBytes(1 << 20);
+        Cache<Integer, Cachable> cache = factory.get(CaffeineCacheFactory.RESULTSET_CACHE);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, cachable(1 << 16), null);
+        }
+        ((CaffeineCache<Integer, Cachable>)cache).cleanUp();
+        //only 16 64k entries fit in 1MB
+        assertTrue(cache.size() <= 16);
+        assertEquals(100 - cache.size(), ((CaffeineCache<Integer, Cachable>)cache).getEvictionCount());
+    }
+
+    @Test public void testSeparateBudgets() {
+        CaffeineCacheFactory factory = new CaffeineCacheFactory();
+        factory.setResultSetMaxBytes(1 << 20);
+        factory.setPreparedPlanMaxBytes(1 << 24);
+        Cache<Integer, Cachable> rs = factory.get(CaffeineCacheFactory.RESULTSET_CACHE);
+        Cache<Integer, Cachable> plans = factory.get(CaffeineCacheFactory.PREPAREDPLAN_CACHE);
+        for (int i = 0; i < 100; i++) {
+            rs.put(i, cachable(1 << 16), null);
+            plans.put(i, cachable(1 << 16), null);
+        }
+        ((CaffeineCache<Integer, Cachable>)rs).cleanUp();
+        ((CaffeineCache<Integer, Cachable>)plans).cleanUp();
+        assertTrue(rs.size() <= 16);
+        assertEquals(100, plans.size());
+        assertEquals(0, ((CaffeineCache<Integer, Cachable>)plans).getEvictionCount());
+    }
+
 }
@@ -65,5 +65,6 @@ public class JDBCPlugin { // extends Plugin {
         TEIID20037,
         TEIID20038,
         TEIID20039,
+        TEIID20040,
     }
 }
@@ -43,6 +43,7 @@ public class Handshake implements Externalizable {
     private byte[] publicKeyLarge;
     private AuthenticationType authType = AuthenticationType.USERPASSWORD;
     private boolean cbc = true;
+    private boolean compression;
 
     public Handshake() {
 
@@ -126,6 +127,18 @@ public class Handshake implements Externalizable {
         this.cbc = cbc;
     }
 
+    /**
+     * From the server, if compression of large server messages is supported.
+     * From the client, if compression should be used.
+     */
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
     @Override
     public void readExternal(ObjectInput in) throws IOException,
             ClassNotFoundException {
@@ -145,8 +158,17 @@ public class Handshake implements Externalizable {
             cbc = in.readBoolean();
         } catch (OptionalDataException e) {
             cbc = false;
+            return;
         } catch (EOFException e) {
             cbc = false;
+            return;
+        }
+        try {
+            compression = in.readBoolean();
+        } catch (OptionalDataException e) {
+            compression = false;
+        } catch (EOFException e) {
+            compression = false;
         }
     }
 
@@ -162,6 +184,7 @@ public class Handshake implements Externalizable {
             out.write(publicKeyLarge);
         }
         out.writeBoolean(cbc);
+        out.writeBoolean(compression);
     }
 
 }
@@ -0,0 +1,359 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.net.socket;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.teiid.core.util.PropertiesUtils;
+import org.teiid.jdbc.JDBCPlugin;
+import org.teiid.net.CommunicationException;
+import org.teiid.net.HostInfo;
+
+/**
+ * Creates logical {@link ObjectChannel}s that share a small number of sockets to each host.
+ * <br>
+ * Each logical channel performs its own handshake and logon, so the server side sees a normal
+ * client instance per channel.  Frames are tagged with the logical channel id.  There is no dedicated
+ * reader thread - as with {@link SocketServerInstanceImpl#read}, whichever caller is waiting reads
+ * from the shared socket and hands off frames intended for other channels.
+ * <br>
+ * Requires a server that understands {@link MultiplexedMessage}s.
+ */
+public final class MultiplexedObjectChannelFactory implements ObjectChannelFactory {
+
+    private static final String MIN_SERVER_VERSION = "16.00"; //$NON-NLS-1$
+
+    private static Logger log = Logger.getLogger("org.teiid.client.sockets"); //$NON-NLS-1$
+
+    final class SharedChannel {
+        private final ObjectChannel channel;
+        private final int soTimeout;
+        private final Map<Integer, LogicalChannel> channels = new HashMap<Integer, LogicalChannel>();
+        private int nextId;
+        private boolean hasReader;
+        private IOException failure;
+
+        SharedChannel(ObjectChannel channel, int soTimeout) {
+            this.channel = channel;
+            this.soTimeout = soTimeout;
+        }
+
+        synchronized int getChannelCount() {
+            return channels.size();
+        }
+
+        boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        LogicalChannel open() throws IOException {
+            LogicalChannel result = null;
+            synchronized (this) {
+                if (failure != null) {
+                    throw failure;
+                }
+                result = new LogicalChannel(this, nextId++);
+                channels.put(result.id, result);
+            }
+            try {
+                channel.write(new MultiplexedMessage(result.id, MultiplexedMessage.OPEN, null)).get();
+            } catch (Exception e) {
+                remove(result);
+                throw new IOException(e);
+            }
+            return result;
+        }
+
+        /**
+         * @return true if no logical channels remain
+         */
+        synchronized boolean remove(LogicalChannel logical) {
+            if (channels.remove(logical.id) != null) {
+                logical.closed = true;
+                notifyAll();
+            }
+            return channels.isEmpty();
+        }
+
+        Object read(LogicalChannel logical) throws IOException, ClassNotFoundException {
+            long start = System.currentTimeMillis();
+            while (true) {
+                synchronized (this) {
+                    Object result = logical.pending.poll();
+                    if (result != null) {
+                        return result;
+                    }
+                    if (logical.closed) {
+                        if (failure != null) {
+                            throw failure;
+                        }
+                        throw new EOFException();
+                    }
+                    if (hasReader) {
+                        long wait = 0;
+                        if (soTimeout > 0) {
+                            wait = soTimeout - (System.currentTimeMillis() - start);
+                            if (wait <= 0) {
+                                OioOjbectChannelFactory.checkTimeout();
+                                throw new SocketTimeoutException();
+                            }
+                        }
+                        try {
+                            this.wait(wait);
+                        } catch (InterruptedException e) {
+                            throw new InterruptedIOException();
+                        }
+                        continue;
+                    }
+                    hasReader = true;
+                }
+                Object packet = null;
+                try {
+                    packet = channel.read();
+                } catch (IOException e) {
+                    if (!channel.isOpen()) {
+                        failed(e);
+                    }
+                    throw e;
+                } finally {
+                    synchronized (this) {
+                        hasReader = false;
+                        if (packet != null) {
+                            received(packet);
+                        }
+                        notifyAll();
+                    }
+                }
+            }
+        }
+
+        private void received(Object packet) {
+            if (!(packet instanceof MultiplexedMessage)) {
+                if (log.isLoggable(Level.FINE)) {
+                    log.log(Level.FINE, "packet ignored:" + packet); //$NON-NLS-1$
+                }
+                return;
+            }
+            MultiplexedMessage message = (MultiplexedMessage)packet;
+            LogicalChannel logical = channels.get(message.getChannelId());
+            if (logical == null) {
+                return;
+            }
+            if (message.getType() == MultiplexedMessage.CLOSE) {
+                channels.remove(logical.id);
+                logical.closed = true;
+            } else if (message.getContents() != null) {
+                logical.pending.add(message.getContents());
+            }
+        }
+
+        private synchronized void failed(IOException e) {
+            failure = e;
+            for (LogicalChannel logical : channels.values()) {
+                logical.closed = true;
+            }
+            notifyAll();
+        }
+
+    }
+
+    final class LogicalChannel implements ObjectChannel {
+        private final SharedChannel shared;
+        private final int id;
+        private final ArrayDeque<Object> pending = new ArrayDeque<Object>();
+        private volatile boolean closed;
+
+        LogicalChannel(SharedChannel shared, int id) {
+            this.shared = shared;
+            this.id = id;
+        }
+
+        @Override
+        public Object read() throws IOException, ClassNotFoundException {
+            return shared.read(this);
+        }
+
+        @Override
+        public Future<?> write(Object msg) {
+            return shared.channel.write(new MultiplexedMessage(id, MultiplexedMessage.DATA, msg));
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed && shared.isOpen();
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress() {
+            return shared.channel.getRemoteAddress();
+        }
+
+        @Override
+        public InetAddress getLocalAddress() {
+            return shared.channel.getLocalAddress();
+        }
+    }
+
+    private OioOjbectChannelFactory channelFactory;
+    private Map<HostInfo, List<SharedChannel>> sharedChannels = new HashMap<HostInfo, List<SharedChannel>>();
+    private int maxChannelsPerSocket = 64;
+    private long synchronousTtl = 240000L;
+
+    public MultiplexedObjectChannelFactory(Properties props) {
+        this.channelFactory = new OioOjbectChannelFactory(props);
+        PropertiesUtils.setBeanProperties(this, props, "org.teiid.sockets", true); //$NON-NLS-1$
+    }
+
+    @Override
+    public synchronized ObjectChannel createObjectChannel(HostInfo info) throws CommunicationException, IOException {
+        List<SharedChannel> channels = this.sharedChannels.get(info);
+        if (channels == null) {
+            channels = new ArrayList<SharedChannel>(2);
+            this.sharedChannels.put(info, channels);
+        }
+        SharedChannel target = null;
+        for (Iterator<SharedChannel> iter = channels.iterator(); iter.hasNext();) {
+            SharedChannel shared = iter.next();
+            if (!shared.isOpen()) {
+                iter.remove();
+                continue;
+            }
+            int count = shared.getChannelCount();
+            if (count < maxChannelsPerSocket && (target == null || count < target.getChannelCount())) {
+                target = shared;
+            }
+        }
+        if (target == null) {
+            target = connect(info);
+            channels.add(target);
+        }
+        return target.open();
+    }
+
+    private SharedChannel connect(HostInfo info) throws CommunicationException, IOException {
+        ObjectChannel channel = this.channelFactory.createObjectChannel(info);
+        boolean success = false;
+        try {
+            Handshake handshake = readHandshake(channel, info);
+            if (MIN_SERVER_VERSION.compareTo(handshake.getVersion()) > 0) {
+                throw new SingleInstanceCommunicationException(JDBCPlugin.Event.TEIID20040, null, JDBCPlugin.Util.gs(JDBCPlugin.Event.TEIID20040, handshake.getVersion()));
+            }
+            success = true;
+            return new SharedChannel(channel, getSoTimeout());
+        } finally {
+            if (!success) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * The server greets the shared socket with a handshake, which is only used to confirm the server version.
+     */
+    private Handshake readHandshake(ObjectChannel channel, HostInfo info) throws IOException, CommunicationException {
+        boolean sentInit = false;
+        long handShakeRetries = 1;
+        if (getSoTimeout() > 0) {
+            handShakeRetries = Math.max(1, synchronousTtl/getSoTimeout());
+        }
+        for (int i = 0;; i++) {
+            try {
+                Object obj = channel.read();
+                if (!(obj instanceof Handshake)) {
+                    throw new SingleInstanceCommunicationException(JDBCPlugin.Event.TEIID20009, null, JDBCPlugin.Util.gs(JDBCPlugin.Event.TEIID20009));
+                }
+                return (Handshake)obj;
+            } catch (ClassNotFoundException e) {
+                throw new SingleInstanceCommunicationException(JDBCPlugin.Event.TEIID20010, e, e.getMessage());
+            } catch (SocketTimeoutException e) {
+                if (!sentInit && !info.isSsl()) {
+                    channel.write(null);
+                    sentInit = true;
+                }
+                if (i >= handShakeRetries - 1) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    synchronized void release(LogicalChannel logical) {
+        SharedChannel shared = logical.shared;
+        boolean open = !logical.closed;
+        boolean empty = shared.remove(logical);
+        if (open && shared.isOpen()) {
+            shared.channel.write(new MultiplexedMessage(logical.id, MultiplexedMessage.CLOSE, null));
+        }
+        if (empty) {
+            closeShared(shared);
+        }
+    }
+
+    private void closeShared(SharedChannel shared) {
+        for (List<SharedChannel> channels : this.sharedChannels.values()) {
+            if (channels.remove(shared)) {
+                break;
+            }
+        }
+        log.finer("closing shared socket"); //$NON-NLS-1$
+        shared.channel.close();
+    }
+
+    @Override
+    public int getSoTimeout() {
+        return this.channelFactory.getSoTimeout();
+    }
+
+    public int getMaxChannelsPerSocket() {
+        return maxChannelsPerSocket;
+    }
+
+    public void setMaxChannelsPerSocket(int maxChannelsPerSocket) {
+        this.maxChannelsPerSocket = Math.max(1, maxChannelsPerSocket);
+    }
+
+    public long getSynchronousTtl() {
+        return synchronousTtl;
+    }
+
+    public void setSynchronousTtl(long synchronousTtl) {
+        this.synchronousTtl = synchronousTtl;
+    }
+
+}
@@ -112,11 +112,7 @@ public final class OioOjbectChannelFactory implements ObjectChannelFactory {
             try {
                 return inputStream.readObject();
             } catch (SocketTimeoutException e) {
-                Long timeout = TIMEOUTS.get();
-                if (timeout != null && timeout < System.currentTimeMillis()) {
-                    TIMEOUTS.set(null);
-                    throw new InterruptedIOException(JDBCPlugin.Util.gs(JDBCPlugin.Event.TEIID20035));
-                }
+                checkTimeout();
                 throw e;
             } catch (IOException e) {
                 close();
@@ -141,6 +137,17 @@ public final class OioOjbectChannelFactory implements ObjectChannelFactory {
         }
     }
 
+    /**
+     * Check if the login timeout set for the current thread has been exceeded
+     */
+    static void checkTimeout() throws InterruptedIOException {
+        Long timeout = TIMEOUTS.get();
+        if (timeout != null && timeout < System.currentTimeMillis()) {
+            TIMEOUTS.set(null);
+            throw new InterruptedIOException(JDBCPlugin.Util.gs(JDBCPlugin.Event.TEIID20035));
+        }
+    }
+
     private Properties props;
     private int receiveBufferSize = 0;
     private int sendBufferSize = 0;
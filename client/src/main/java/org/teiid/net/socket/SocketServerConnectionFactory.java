@@ -51,6 +51,8 @@ public class SocketServerConnectionFactory implements ServerConnectionFactory, S
 
     //config properties
     private long synchronousTtl = 240000L;
+    private boolean multiplex;
+    private boolean compression;
 
     public static synchronized SocketServerConnectionFactory getInstance() {
         if (INSTANCE == null) {
@@ -83,12 +85,17 @@ public class SocketServerConnectionFactory implements ServerConnectionFactory, S
 
     public void initialize(Properties info) {
         PropertiesUtils.setBeanProperties(this, info, "org.teiid.sockets", true); //$NON-NLS-1$
-        this.channelFactory = new OioOjbectChannelFactory(info);
+        if (multiplex) {
+            this.channelFactory = new MultiplexedObjectChannelFactory(info);
+        } else {
+            this.channelFactory = new OioOjbectChannelFactory(info);
+        }
     }
 
     @Override
     public SocketServerInstance getServerInstance(HostInfo info) throws CommunicationException, IOException {
         SocketServerInstanceImpl ssii = new SocketServerInstanceImpl(info, getSynchronousTtl(), this.channelFactory.getSoTimeout());
+        ssii.setCompression(this.compression);
         ssii.connect(this.channelFactory);
         return ssii;
     }
@@ -120,6 +127,30 @@ public class SocketServerConnectionFactory implements ServerConnectionFactory, S
         this.synchronousTtl = synchronousTTL;
     }
 
+    public boolean isMultiplex() {
+        return multiplex;
+    }
+
+    /**
+     * @param multiplex true if connections should share sockets to each host.
+     * Requires a server that supports multiplexed channels.
+     */
+    public void setMultiplex(boolean multiplex) {
+        this.multiplex = multiplex;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * @param compression true if large results should be compressed by the server.
+     * Useful when bandwidth rather than cpu is the bottleneck.
+     */
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
     @Override
     public String resolveHostname(InetAddress addr) {
         //only wait 100 milli seconds by default
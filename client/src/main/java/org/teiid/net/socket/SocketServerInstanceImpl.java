@@ -76,6 +76,7 @@ public class SocketServerInstanceImpl implements SocketServerInstance {
 
     private boolean hasReader;
     private int soTimeout;
+    private boolean compression;
 
     public SocketServerInstanceImpl(HostInfo info, long synchTimeout, int soTimeout) {
         if (!info.isResolved()) {
@@ -99,6 +100,13 @@ public class SocketServerInstanceImpl implements SocketServerInstance {
         }
     }
 
+    /**
+     * @param compression true if the server should be asked to compress large messages
+     */
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
     @Override
     public HostInfo getHostInfo() {
         return info;
@@ -154,6 +162,7 @@ public class SocketServerInstanceImpl implements SocketServerInstance {
             }*/
             serverVersion = handshake.getVersion();
             handshake.setVersion();
+            handshake.setCompression(this.compression && handshake.isCompression());
 
             byte[] serverPublicKey = handshake.getPublicKey();
             byte[] serverPublicKeyLarge = handshake.getPublicKeyLarge();
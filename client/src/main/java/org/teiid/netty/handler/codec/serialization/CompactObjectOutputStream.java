@@ -56,6 +56,7 @@ import org.teiid.core.util.ReaderInputStream;
 import org.teiid.jdbc.JDBCPlugin;
 import org.teiid.net.socket.Handshake;
 import org.teiid.net.socket.Message;
+import org.teiid.net.socket.MultiplexedMessage;
 import org.teiid.net.socket.ServiceInvocationStruct;
 
 
@@ -90,6 +91,7 @@ public class CompactObjectOutputStream extends ObjectOutputStream {
         addKnownClass(Message.class, (byte)4);
         addKnownClass(SerializableReader.class, (byte)5);
         addKnownClass(SerializableInputStream.class, (byte)6);
+        addKnownClass(MultiplexedMessage.class, (byte)7);
 
         addKnownClass(DQP.class, (byte)10);
         addKnownClass(LobChunk.class, (byte)11);
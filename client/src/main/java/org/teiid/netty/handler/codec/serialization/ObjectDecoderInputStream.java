@@ -19,6 +19,8 @@ package org.teiid.netty.handler.codec.serialization;
 
 import java.io.*;
 import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import org.teiid.core.types.InputStreamFactory;
 import org.teiid.core.types.InputStreamFactory.StreamFactoryReference;
@@ -39,6 +41,11 @@ import org.teiid.jdbc.JDBCPlugin;
  */
 public class ObjectDecoderInputStream extends ObjectInputStream {
 
+    /**
+     * Set on the length of a frame whose object data is deflated
+     */
+    public static final int COMPRESSED = 0x80000000;
+
     private final AccessibleBufferedInputStream in;
     private final DataInput dis;
     private final ClassLoader classLoader;
@@ -46,6 +53,8 @@ public class ObjectDecoderInputStream extends ObjectInputStream {
 
     private int remaining;
     private boolean foundLength;
+    private boolean compressed;
+    private Inflater inflater;
 
     private InputStream subStream = new InputStream() {
 
@@ -91,6 +100,10 @@ public class ObjectDecoderInputStream extends ObjectInputStream {
                 clearRemaining();
                 remaining = dis.readInt();
                 foundLength = true;
+                if (remaining != COMPRESSED && (remaining & COMPRESSED) != 0) {
+                    compressed = true;
+                    remaining &= ~COMPRESSED;
+                }
                 if (remaining <= 0) {
                     throw new StreamCorruptedException("invalid data length: " + remaining); //$NON-NLS-1$
                 }
@@ -99,7 +112,22 @@ public class ObjectDecoderInputStream extends ObjectInputStream {
                 }
             }
             foundLength = false;
-            CompactObjectInputStream cois = new CompactObjectInputStream(subStream, classLoader);
+            InputStream data = subStream;
+            if (compressed) {
+                compressed = false;
+                int length = dis.readInt();
+                remaining -= 4;
+                if (length <= 0 || length > maxObjectSize) {
+                    throw new StreamCorruptedException(JDBCPlugin.Util.gs(JDBCPlugin.Event.TEIID20028, length, maxObjectSize));
+                }
+                if (inflater == null) {
+                    inflater = new Inflater();
+                } else {
+                    inflater.reset();
+                }
+                data = new InflaterInputStream(subStream, inflater);
+            }
+            CompactObjectInputStream cois = new CompactObjectInputStream(data, classLoader);
             result = cois.readObject();
             streams = ExternalizeUtil.readList(cois, StreamFactoryReference.class);
             streamIndex = 0;
@@ -169,6 +197,9 @@ public class ObjectDecoderInputStream extends ObjectInputStream {
 
     @Override
     public void close() throws IOException {
+        if (inflater != null) {
+            inflater.end();
+        }
         in.close();
     }
 
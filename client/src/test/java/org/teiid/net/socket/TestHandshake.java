@@ -19,6 +19,8 @@
 package org.teiid.net.socket;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.FileInputStream;
 import java.io.ObjectInputStream;
@@ -33,6 +35,15 @@ public class TestHandshake {
         ObjectInputStream ois = new ObjectInputStream(new FileInputStream(UnitTestUtil.getTestDataFile("handshake.ser")));
         Handshake hs = (Handshake)ois.readObject();
         assertEquals(AuthenticationType.USERPASSWORD, hs.getAuthType());
+        assertFalse(hs.isCompression());
+    }
+
+    @Test public void testCompression() throws Exception {
+        Handshake hs = new Handshake();
+        hs.setCompression(true);
+        hs = UnitTestUtil.helpSerialize(hs);
+        assertTrue(hs.isCompression());
+        assertTrue(hs.isCbc());
     }
 
     @Test public void testVersionNormalization() throws Exception {
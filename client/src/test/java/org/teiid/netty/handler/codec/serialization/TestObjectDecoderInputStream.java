@@ -30,6 +30,7 @@ import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.Deflater;
 
 import org.junit.Test;
 import org.teiid.core.types.ClobImpl;
@@ -87,4 +88,35 @@ public class TestObjectDecoderInputStream {
         Object result = in.readObject();
         assertTrue(result instanceof ClobImpl);
     }
+    @Test public void testCompressedFrame() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectEncoderOutputStream out = new ObjectEncoderOutputStream(new DataOutputStream(baos), 512);
+        List<String> obj = Arrays.asList(new String(new char[1000]), "a", "b");
+        out.writeObject(obj);
+        out.close();
+        byte[] frame = baos.toByteArray();
+
+        //deflate the object data and mark the frame as compressed
+        Deflater deflater = new Deflater();
+        deflater.setInput(frame, 4, frame.length - 4);
+        deflater.finish();
+        byte[] deflated = new byte[frame.length];
+        int length = deflater.deflate(deflated);
+        assertTrue(deflater.finished());
+        deflater.end();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(compressed);
+        dos.writeInt(ObjectDecoderInputStream.COMPRESSED | (length + 4));
+        dos.writeInt(frame.length - 4);
+        dos.write(deflated, 0, length);
+        //followed by an uncompressed frame
+        dos.write(frame);
+        dos.close();
+        assertTrue(compressed.size() < 2 * frame.length);
+
+        ObjectDecoderInputStream in = new ObjectDecoderInputStream(new AccessibleBufferedInputStream(new ByteArrayInputStream(compressed.toByteArray()), 1024), Thread.currentThread().getContextClassLoader(), 4096);
+        assertEquals(obj, in.readObject());
+        assertEquals(obj, in.readObject());
+        in.close();
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.core.util;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size bounded cache that stripes its entries over independently locked {@link LRUCache} segments,
+ * so that concurrent readers and writers only contend when they hash to the same segment.
+ * <br>
+ * Eviction is least recently used within a segment, so the overall ordering is approximate.
+ * Hit, miss and eviction counts are kept for reporting.
+ */
+public class StripedLRUCache<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 4370735446391536325L;
+
+    private static final int MIN_SEGMENT_SIZE = 16;
+    private static final int MAX_SEGMENTS = 64;
+
+    private static final class Segment<K, V> extends LRUCache<K, V> {
+
+        private static final long serialVersionUID = -2298366620187212294L;
+
+        private final LongAdder evictions;
+
+        Segment(int maxSize, LongAdder evictions) {
+            super(maxSize);
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (super.removeEldestEntry(eldest)) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final Segment<K, V>[] segments;
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StripedLRUCache(int maxSize) {
+        ArgCheck.isPositive(maxSize);
+        this.maxSize = maxSize;
+        int target = Math.min(MAX_SEGMENTS, Runtime.getRuntime().availableProcessors() * 2);
+        int count = 1;
+        while (count < target && (count << 1) * MIN_SEGMENT_SIZE <= maxSize) {
+            count <<= 1;
+        }
+        @SuppressWarnings("unchecked")
+        Segment<K, V>[] s = new Segment[count];
+        int segmentSize = (maxSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            s[i] = new Segment<K, V>(segmentSize, evictions);
+        }
+        this.segments = s;
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    public V get(Object key) {
+        Segment<K, V> segment = segmentFor(key);
+        V result = null;
+        synchronized (segment) {
+            result = segment.get(key);
+        }
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    public V put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.put(key, value);
+        }
+    }
+
+    public V remove(Object key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.core.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("nls")
+public class TestStripedLRUCache {
+
+    @Test public void testBounded() {
+        StripedLRUCache<Integer, String> cache = new StripedLRUCache<Integer, String>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, String.valueOf(i));
+        }
+        assertTrue(cache.size() <= 100 + 64);
+        assertEquals(1000 - cache.size(), cache.getEvictionCount());
+        assertEquals("999", cache.get(999));
+    }
+
+    @Test public void testStats() {
+        StripedLRUCache<String, String> cache = new StripedLRUCache<String, String>(10);
+        cache.put("a", "b");
+        assertEquals("b", cache.get("a"));
+        assertNull(cache.get("c"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals("b", cache.remove("a"));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+}
@@ -37,6 +37,11 @@ public interface CassandraConnection extends Connection {
      * */
     public ResultSetFuture executeQuery(String query);
 
+    /**
+     * Executes a CQL query with the given page size.
+     * */
+    public ResultSetFuture executeQuery(String query, int fetchSize);
+
     /**
      * Returns metadata about Cassandra keyspace (column families, columns metadata etc.)
      * */
@@ -38,6 +38,7 @@ import org.teiid.translator.ProcedureExecution;
 import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.Translator;
 import org.teiid.translator.TranslatorException;
+import org.teiid.translator.TranslatorProperty;
 import org.teiid.translator.UpdateExecution;
 
 import com.datastax.driver.core.VersionNumber;
@@ -55,6 +56,8 @@ public class CassandraExecutionFactory extends ExecutionFactory<ConnectionFactor
     }
 
     private VersionNumber version;
+    private int pageSize;
+    private int prefetchDepth = 1;
 
     @Override
     public void start() throws TranslatorException {
@@ -67,7 +70,7 @@ public class CassandraExecutionFactory extends ExecutionFactory<ConnectionFactor
     public ResultSetExecution createResultSetExecution(QueryExpression command,
             ExecutionContext executionContext, RuntimeMetadata metadata,
             CassandraConnection connection) throws TranslatorException {
-        return new CassandraQueryExecution(command, connection, executionContext);
+        return configure(new CassandraQueryExecution(command, connection, executionContext));
     }
 
     @Override
@@ -83,7 +86,7 @@ public class CassandraExecutionFactory extends ExecutionFactory<ConnectionFactor
             CassandraConnection connection) throws TranslatorException {
         String nativeQuery = command.getMetadataObject().getProperty(SQLStringVisitor.TEIID_NATIVE_QUERY, false);
         if (nativeQuery != null) {
-            return new CassandraDirectQueryExecution(nativeQuery, command.getArguments(), command, connection, executionContext, false);
+            return configure(new CassandraDirectQueryExecution(nativeQuery, command.getArguments(), command, connection, executionContext, false));
         }
         throw new TranslatorException("Missing native-query extension metadata."); //$NON-NLS-1$
     }
@@ -93,7 +96,31 @@ public class CassandraExecutionFactory extends ExecutionFactory<ConnectionFactor
             Command command, ExecutionContext executionContext,
             RuntimeMetadata metadata, CassandraConnection connection)
             throws TranslatorException {
-        return new CassandraDirectQueryExecution((String) arguments.get(0).getArgumentValue().getValue(), arguments.subList(1, arguments.size()), command, connection, executionContext, true);
+        return configure(new CassandraDirectQueryExecution((String) arguments.get(0).getArgumentValue().getValue(), arguments.subList(1, arguments.size()), command, connection, executionContext, true));
+    }
+
+    private <T extends CassandraQueryExecution> T configure(T execution) {
+        execution.setPageSize(this.pageSize);
+        execution.setPrefetchDepth(this.prefetchDepth);
+        return execution;
+    }
+
+    @TranslatorProperty(display="Page Size", description="The number of rows fetched per page.  A value less than 1 uses the driver default.", advanced=true)
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    @TranslatorProperty(display="Prefetch Depth", description="The next page is requested asynchronously once the rows not yet processed fall to this number of pages.  A value less than 1 only requests the next page when the current one is exhausted.", advanced=true)
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    public void setPrefetchDepth(int prefetchDepth) {
+        this.prefetchDepth = prefetchDepth;
     }
 
     @Override
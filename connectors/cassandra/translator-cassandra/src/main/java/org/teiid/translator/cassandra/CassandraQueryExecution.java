@@ -35,9 +35,11 @@ import org.teiid.translator.TranslatorException;
 
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.GuavaCompatibility;
+import com.datastax.driver.core.QueryOptions;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.ListenableFuture;
 
 public class CassandraQueryExecution implements ResultSetExecution {
 
@@ -45,8 +47,11 @@ public class CassandraQueryExecution implements ResultSetExecution {
     private CassandraConnection connection;
     private ResultSetFuture resultSetFuture;
     private ResultSet resultSet;
+    private ListenableFuture<ResultSet> fetchFuture;
     private ExecutionContext executionContext;
     protected boolean returnsArray;
+    private int pageSize;
+    private int prefetchDepth = 1;
 
     public CassandraQueryExecution(Command query, CassandraConnection connection, ExecutionContext context){
         this.query = query;
@@ -59,6 +64,7 @@ public class CassandraQueryExecution implements ResultSetExecution {
         LogManager.logDetail(LogConstants.CTX_CONNECTOR, CassandraExecutionFactory.UTIL.getString("close_query")); //$NON-NLS-1$
         this.resultSet = null;
         this.resultSetFuture = null;
+        this.fetchFuture = null;
     }
 
     @Override
@@ -67,6 +73,9 @@ public class CassandraQueryExecution implements ResultSetExecution {
         if (resultSetFuture != null) {
             resultSetFuture.cancel(true);
         }
+        if (fetchFuture != null) {
+            fetchFuture.cancel(true);
+        }
     }
 
     @Override
@@ -80,8 +89,16 @@ public class CassandraQueryExecution implements ResultSetExecution {
     protected void execute(String cql) {
         LogManager.logDetail(LogConstants.CTX_CONNECTOR, "Source-Query:", cql); //$NON-NLS-1$
         this.executionContext.logCommand(cql);
-        resultSetFuture = connection.executeQuery(cql);
-        resultSetFuture.addListener(new Runnable() {
+        if (pageSize > 0) {
+            resultSetFuture = connection.executeQuery(cql, pageSize);
+        } else {
+            resultSetFuture = connection.executeQuery(cql);
+        }
+        addDataAvailableListener(resultSetFuture);
+    }
+
+    private void addDataAvailableListener(ListenableFuture<ResultSet> future) {
+        future.addListener(new Runnable() {
 
             @Override
             public void run() {
@@ -98,10 +115,39 @@ public class CassandraQueryExecution implements ResultSetExecution {
         if (resultSet == null) {
             this.resultSet = this.resultSetFuture.getUninterruptibly();
         }
-        //TODO: use asynch for results fetching
+        if (!resultSet.isFullyFetched()) {
+            //fetch the next page while the available rows are processed, rather than blocking in one()
+            int available = resultSet.getAvailableWithoutFetching();
+            if (available <= prefetchDepth * (pageSize > 0 ? pageSize : QueryOptions.DEFAULT_FETCH_SIZE)) {
+                fetchMoreResults();
+            }
+            if (available == 0 && !fetchFuture.isDone()) {
+                throw DataNotAvailableException.NO_POLLING;
+            }
+        }
         return getRow(resultSet.one());
     }
 
+    /**
+     * The driver allows only a single page fetch at a time, so further pages
+     * are requested as each fetch completes.
+     */
+    private void fetchMoreResults() {
+        if (fetchFuture != null && !fetchFuture.isDone()) {
+            return;
+        }
+        fetchFuture = resultSet.fetchMoreResults();
+        addDataAvailableListener(fetchFuture);
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public void setPrefetchDepth(int prefetchDepth) {
+        this.prefetchDepth = prefetchDepth;
+    }
+
     /**
      * Iterates through all columns in the {@code row}. For each column, returns its value as Java type
      * that matches the CQL type in switch part. Otherwise returns the value as bytes composing the value.
@@ -24,11 +24,22 @@ import java.util.List;
 
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.teiid.cdk.api.TranslationUtility;
+import org.teiid.cdk.unittest.FakeTranslationFactory;
+import org.teiid.language.Command;
+import org.teiid.language.QueryExpression;
+import org.teiid.metadata.RuntimeMetadata;
+import org.teiid.translator.DataNotAvailableException;
+import org.teiid.translator.ExecutionContext;
+import org.teiid.translator.ResultSetExecution;
 
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 
+@SuppressWarnings("nls")
 public class TestCassandraQueryExecution {
 
     @Test public void testGetRowWithNull() {
@@ -43,4 +54,46 @@ public class TestCassandraQueryExecution {
         assertNull(val.get(0));
     }
 
+    @Test public void testPrefetch() throws Exception {
+        CassandraExecutionFactory cef = new CassandraExecutionFactory();
+        cef.setPageSize(2);
+
+        TranslationUtility util = FakeTranslationFactory.getInstance().getExampleTranslationUtility();
+        Command command = util.parseCommand("select e1 from pm1.g1");
+        ExecutionContext ec = Mockito.mock(ExecutionContext.class);
+        RuntimeMetadata rm = Mockito.mock(RuntimeMetadata.class);
+        CassandraConnection connection = Mockito.mock(CassandraConnection.class);
+
+        ResultSetFuture rsf = Mockito.mock(ResultSetFuture.class);
+        ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.stub(rsf.getUninterruptibly()).toReturn(rs);
+        Mockito.stub(connection.executeQuery(Mockito.anyString(), Mockito.eq(2))).toReturn(rsf);
+
+        Row row = Mockito.mock(Row.class);
+        ColumnDefinitions cd = Mockito.mock(ColumnDefinitions.class);
+        Mockito.stub(row.getColumnDefinitions()).toReturn(cd);
+        Mockito.stub(rs.one()).toReturn(row);
+        Mockito.stub(rs.getAvailableWithoutFetching()).toReturn(1).toReturn(0).toReturn(2);
+        ResultSetFuture fetch = Mockito.mock(ResultSetFuture.class);
+        Mockito.stub(rs.fetchMoreResults()).toReturn(fetch);
+
+        ResultSetExecution execution = cef.createResultSetExecution((QueryExpression)command, ec, rm, connection);
+        execution.execute();
+
+        //the next page is requested before the current one is exhausted
+        assertNotNull(execution.next());
+        Mockito.verify(rs).fetchMoreResults();
+
+        try {
+            execution.next();
+            fail();
+        } catch (DataNotAvailableException e) {
+            //the fetch is still in progress
+        }
+
+        Mockito.stub(fetch.isDone()).toReturn(true);
+        assertNotNull(execution.next());
+        Mockito.verify(rs, Mockito.times(2)).fetchMoreResults();
+    }
+
 }
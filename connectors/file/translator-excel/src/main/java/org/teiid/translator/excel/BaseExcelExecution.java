@@ -76,6 +76,8 @@ public class BaseExcelExecution implements Execution {
     protected FormulaEvaluator evaluator;
     private DataFormatter dataFormatter;
     protected Workbook workbook;
+    private boolean streaming;
+    private XlsxSheetReader sheetReader;
 
     public BaseExcelExecution(ExecutionContext executionContext,
             RuntimeMetadata metadata, VirtualFileConnection connection, boolean immutable) {
@@ -110,6 +112,12 @@ public class BaseExcelExecution implements Execution {
     private Iterator<Row> readXLSFile(VirtualFile xlsFile,
             InputStream xlsFileStream) throws IOException, TranslatorException {
         String extension = ExcelMetadataProcessor.getFileExtension(xlsFile);
+        closeSheetReader();
+        if (streaming && extension.equalsIgnoreCase("xlsx")) { //$NON-NLS-1$
+            this.sheetReader = new XlsxSheetReader(xlsFileStream, this.visitor.getSheetName(), Math.max(0, this.visitor.getFirstDataRowNumber()));
+            this.evaluator = this.sheetReader.createFormulaEvaluator();
+            return this.sheetReader;
+        }
         if (extension.equalsIgnoreCase("xls")) { //$NON-NLS-1$
             workbook = new HSSFWorkbook(xlsFileStream);
         }
@@ -283,8 +291,16 @@ public class BaseExcelExecution implements Execution {
         }
     }
 
+    private void closeSheetReader() {
+        if (this.sheetReader != null) {
+            this.sheetReader.close();
+            this.sheetReader = null;
+        }
+    }
+
     @Override
     public void close() {
+        closeSheetReader();
     }
 
     @Override
@@ -295,4 +311,12 @@ public class BaseExcelExecution implements Execution {
     public void setDataFormatter(DataFormatter dataFormatter) {
         this.dataFormatter = dataFormatter;
     }
+
+    /**
+     * Read .xlsx files a row at a time from the sheet xml rather than loading the whole workbook.
+     * Only applicable to reads.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
 }
@@ -0,0 +1,334 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.translator.excel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.StaxHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.teiid.core.TeiidRuntimeException;
+import org.xml.sax.SAXException;
+
+/**
+ * Reads the rows of a single .xlsx sheet by pulling the sheet xml through a
+ * {@link XMLStreamReader} rather than building the whole workbook.
+ * <br>
+ * Each row is materialized into a scratch streaming workbook, which holds the
+ * equivalent cell styles and date system, and then detached from it so that only
+ * the current row is held in memory.  Formula cells return their cached results.
+ */
+class XlsxSheetReader implements Iterator<Row>, Closeable {
+
+    private static final XMLInputFactory INPUT_FACTORY = StaxHelper.newXMLInputFactory();
+
+    private File file;
+    private OPCPackage pkg;
+    private InputStream sheetStream;
+    private XMLStreamReader reader;
+    private ReadOnlySharedStringsTable strings;
+    private StylesTable styles;
+    private SXSSFWorkbook scratch;
+    private SXSSFSheet scratchSheet;
+    private Map<Integer, CellStyle> styleMap = new HashMap<Integer, CellStyle>();
+    private int firstRowNumber;
+    private int rowNumber = -1;
+    private Row next;
+
+    /**
+     * @param xlsxStream the stream is consumed, but not closed
+     * @param firstRowNumber the 0-based number of the first row to return, rows before it are skipped without reading their cells
+     */
+    XlsxSheetReader(InputStream xlsxStream, String sheetName, int firstRowNumber) throws IOException {
+        this.firstRowNumber = firstRowNumber;
+        //the package needs random access to the parts, so spool to disk rather than inflating into memory
+        this.file = File.createTempFile(getClass().getSimpleName(), ".xlsx"); //$NON-NLS-1$
+        try {
+            Files.copy(xlsxStream, this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            this.pkg = OPCPackage.open(this.file, PackageAccess.READ);
+            XSSFReader xssfReader = new XSSFReader(this.pkg);
+            this.strings = new ReadOnlySharedStringsTable(this.pkg);
+            this.styles = xssfReader.getStylesTable();
+            this.scratch = new SXSSFWorkbook(new XSSFWorkbook(), -1);
+            if (isDate1904(xssfReader)) {
+                CTWorkbook ctWorkbook = this.scratch.getXSSFWorkbook().getCTWorkbook();
+                (ctWorkbook.isSetWorkbookPr()?ctWorkbook.getWorkbookPr():ctWorkbook.addNewWorkbookPr()).setDate1904(true);
+            }
+            this.scratchSheet = this.scratch.createSheet();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator)xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream is = sheets.next();
+                if (sheets.getSheetName().equals(sheetName)) {
+                    this.sheetStream = is;
+                    this.reader = INPUT_FACTORY.createXMLStreamReader(is);
+                    break;
+                }
+                is.close();
+            }
+        } catch (OpenXML4JException | SAXException | XMLStreamException e) {
+            close();
+            throw new IOException(e);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private static boolean isDate1904(XSSFReader xssfReader) throws IOException, OpenXML4JException, XMLStreamException {
+        try (InputStream is = xssfReader.getWorkbookData()) {
+            XMLStreamReader workbookReader = INPUT_FACTORY.createXMLStreamReader(is);
+            try {
+                while (workbookReader.hasNext()) {
+                    if (workbookReader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    String name = workbookReader.getLocalName();
+                    if ("workbookPr".equals(name)) { //$NON-NLS-1$
+                        String value = workbookReader.getAttributeValue(null, "date1904"); //$NON-NLS-1$
+                        return "1".equals(value) || "true".equals(value); //$NON-NLS-1$ //$NON-NLS-2$
+                    }
+                    if ("sheets".equals(name)) { //$NON-NLS-1$
+                        break;
+                    }
+                }
+            } finally {
+                workbookReader.close();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * An evaluator for the returned rows
+     */
+    FormulaEvaluator createFormulaEvaluator() {
+        return this.scratch.getCreationHelper().createFormulaEvaluator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next == null && this.reader != null) {
+            try {
+                this.next = readRow();
+            } catch (XMLStreamException e) {
+                throw new TeiidRuntimeException(e);
+            }
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = this.next;
+        this.next = null;
+        return row;
+    }
+
+    private Row readRow() throws XMLStreamException {
+        while (this.reader.hasNext()) {
+            int event = this.reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(this.reader.getLocalName())) { //$NON-NLS-1$
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT || !"row".equals(this.reader.getLocalName())) { //$NON-NLS-1$
+                continue;
+            }
+            String ref = this.reader.getAttributeValue(null, "r"); //$NON-NLS-1$
+            this.rowNumber = ref == null ? this.rowNumber + 1 : Integer.parseInt(ref) - 1;
+            if (this.rowNumber < this.firstRowNumber) {
+                skipElement();
+                continue;
+            }
+            Row row = this.scratchSheet.createRow(this.rowNumber);
+            int column = -1;
+            while (this.reader.hasNext()) {
+                event = this.reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT && "row".equals(this.reader.getLocalName())) { //$NON-NLS-1$
+                    break;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && "c".equals(this.reader.getLocalName())) { //$NON-NLS-1$
+                    String cellRef = this.reader.getAttributeValue(null, "r"); //$NON-NLS-1$
+                    column = cellRef == null ? column + 1 : new CellReference(cellRef).getCol();
+                    readCell(row.createCell(column));
+                }
+            }
+            //detach the row so that the scratch sheet does not grow, the cells remain usable
+            this.scratchSheet.removeRow(row);
+            return row;
+        }
+        return null;
+    }
+
+    private void readCell(Cell cell) throws XMLStreamException {
+        String type = this.reader.getAttributeValue(null, "t"); //$NON-NLS-1$
+        String style = this.reader.getAttributeValue(null, "s"); //$NON-NLS-1$
+        if (style != null) {
+            CellStyle cellStyle = getCellStyle(Integer.parseInt(style));
+            if (cellStyle != null) {
+                cell.setCellStyle(cellStyle);
+            }
+        }
+        String value = null;
+        while (this.reader.hasNext()) {
+            int event = this.reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(this.reader.getLocalName())) { //$NON-NLS-1$
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String name = this.reader.getLocalName();
+            if ("v".equals(name)) { //$NON-NLS-1$
+                value = this.reader.getElementText();
+            } else if ("is".equals(name)) { //$NON-NLS-1$
+                value = readInlineString();
+            } else {
+                //formula text and extensions are not needed
+                skipElement();
+            }
+        }
+        if (value == null) {
+            return;
+        }
+        if (type == null || type.equals("n")) { //$NON-NLS-1$
+            if (!value.isEmpty()) {
+                cell.setCellValue(Double.parseDouble(value));
+            }
+        } else if (type.equals("s")) { //$NON-NLS-1$
+            cell.setCellValue(this.strings.getEntryAt(Integer.parseInt(value)));
+        } else if (type.equals("str") || type.equals("inlineStr")) { //$NON-NLS-1$ //$NON-NLS-2$
+            cell.setCellValue(value);
+        } else if (type.equals("b")) { //$NON-NLS-1$
+            cell.setCellValue("1".equals(value) || "true".equals(value)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        //errors and dates in the iso format are left blank
+    }
+
+    private String readInlineString() throws XMLStreamException {
+        StringBuilder result = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && this.reader.hasNext()) {
+            int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("t".equals(this.reader.getLocalName())) { //$NON-NLS-1$
+                    result.append(this.reader.getElementText());
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return result.toString();
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && this.reader.hasNext()) {
+            int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Only the data format of the source style is needed for conversion and formatting
+     */
+    private CellStyle getCellStyle(int index) {
+        if (index == 0 || this.styles == null || index >= this.styles.getNumCellStyles()) {
+            return null;
+        }
+        CellStyle result = this.styleMap.get(index);
+        if (result == null) {
+            XSSFCellStyle source = this.styles.getStyleAt(index);
+            result = this.scratch.createCellStyle();
+            result.setDataFormat(this.scratch.createDataFormat().getFormat(source.getDataFormatString()));
+            this.styleMap.put(index, result);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        this.next = null;
+        try {
+            if (this.reader != null) {
+                this.reader.close();
+            }
+        } catch (XMLStreamException e) {
+            //ignore
+        }
+        this.reader = null;
+        try {
+            if (this.sheetStream != null) {
+                this.sheetStream.close();
+            }
+        } catch (IOException e) {
+            //ignore
+        }
+        this.sheetStream = null;
+        if (this.pkg != null) {
+            this.pkg.revert();
+            this.pkg = null;
+        }
+        if (this.scratch != null) {
+            this.scratch.dispose();
+            this.scratch = null;
+        }
+        if (this.file != null) {
+            this.file.delete();
+            this.file = null;
+        }
+    }
+
+}
@@ -232,7 +232,10 @@ public class BaseParquetExecution implements Execution {
     private long pageRowCount;
     protected HashMap<String, Comparable<?>> partitionedColumnsValue = new HashMap<>();
     private FilterCompat.Filter rowGroupFilter;
+    private FilterPredicate rowFilterPredicate;
     private FilterPredicate filePathFilter;
+    private boolean columnarRead;
+    private ParquetColumnarReader columnarReader;
 
     public BaseParquetExecution(ExecutionContext executionContext,
                                 RuntimeMetadata metadata, VirtualFileConnection connection, boolean immutable) {
@@ -242,6 +245,21 @@ public class BaseParquetExecution implements Execution {
         this.immutable = immutable;
     }
 
+    /**
+     * Read flat primitive columns directly from the column readers rather than assembling {@link Group}s.
+     * Has no effect if the projected columns include lists or other nested types.
+     */
+    public void setColumnarRead(boolean columnarRead) {
+        this.columnarRead = columnarRead;
+    }
+
+    /**
+     * @return true if the rows should be obtained via {@link #nextColumnarRow()}
+     */
+    protected boolean isColumnarRead() {
+        return columnarReader != null;
+    }
+
     public void visit(LanguageObject command) throws TranslatorException {
         this.visitor.visitNode(command);
     }
@@ -252,11 +270,11 @@ public class BaseParquetExecution implements Execution {
         if(!this.visitor.getPartitionedColumns().isEmpty()) {
             path = getDirectoryPath(path, this.visitor.getPartitionedComparisons());
         }
-        FilterPredicate predicate = getRowGroupFilter(this.visitor.getNonPartionedConditions());
-        if (predicate == null) {
+        this.rowFilterPredicate = getRowGroupFilter(this.visitor.getNonPartionedConditions());
+        if (rowFilterPredicate == null) {
             this.rowGroupFilter = FilterCompat.NOOP;
         } else {
-            this.rowGroupFilter = FilterCompat.get(predicate);
+            this.rowGroupFilter = FilterCompat.get(rowFilterPredicate);
         }
         filePathFilter = getRowGroupFilter(this.visitor.getPartitionedConditions());
         this.parquetFiles = VirtualFileConnection.Util.getFiles(path, this.connection, true, false);
@@ -434,10 +452,27 @@ public class BaseParquetExecution implements Execution {
             File localFile = createTempFile(parquetFileStream);
             Path path = new Path(localFile.toURI());
             Configuration config = new Configuration();
-            reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, config), ParquetReadOptions.builder().withRecordFilter(rowGroupFilter).build());
+            reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, config), ParquetReadOptions.builder()
+                    .withRecordFilter(rowGroupFilter)
+                    .useStatsFilter(true)
+                    .useDictionaryFilter(true)
+                    .useColumnIndexFilter(true)
+                    .build());
             MessageType schema = reader.getFooter().getFileMetaData().getSchema();
             filteredSchema = getFilteredSchema(schema, this.visitor.getAllColumns());
+            //only read the column chunks that are needed
+            reader.setRequestedSchema(filteredSchema);
             columnIO = new ColumnIOFactory().getColumnIO(filteredSchema);
+            if (columnarRead) {
+                if (ParquetColumnarReader.isSupported(filteredSchema)) {
+                    columnarReader = new ParquetColumnarReader(filteredSchema, reader.getFooter().getFileMetaData().getCreatedBy(), rowFilterPredicate);
+                } else if (columnarReader == null) {
+                    //fall back to the record reader
+                    columnarRead = false;
+                } else {
+                    throw new TranslatorException("The file " + parquetFile.getPath() + " contains nested columns that are not present in the previous files.");
+                }
+            }
         } catch (IOException e) {
             throw new TranslatorException(e);
         }
@@ -518,6 +553,37 @@ public class BaseParquetExecution implements Execution {
         }
     }
 
+    /**
+     * Get the next row of Teiid values in projected schema order when {@link #isColumnarRead()}.
+     * <br>
+     * Row groups and pages are first filtered by their statistics, dictionaries, and column indexes,
+     * then the remaining rows are filtered by the {@link ParquetColumnarReader}.
+     */
+    public Object[] nextColumnarRow() throws TranslatorException {
+        try {
+            while (columnIO != null) {
+                Object[] row = columnarReader.next();
+                if (row != null) {
+                    return row;
+                }
+                PageReadStore nextRowGroup = this.reader.readNextFilteredRowGroup();
+                if (nextRowGroup == null) {
+                    VirtualFile nextParquetFile = getNextParquetFile();
+                    if (nextParquetFile == null) {
+                        columnIO = null;
+                        return null; //terminal condition
+                    }
+                    readParquetFile(nextParquetFile);
+                    continue; //try again on the next file
+                }
+                columnarReader.setRowGroup(nextRowGroup);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new TranslatorException(e);
+        }
+    }
+
     protected VirtualFile getNextParquetFile() throws TranslatorException {
         while (this.parquetFiles.length > this.fileCount.get()) {
             VirtualFile f = this.parquetFiles[this.fileCount.getAndIncrement()];
@@ -0,0 +1,401 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.teiid.translator.parquet;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReadStore;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.And;
+import org.apache.parquet.filter2.predicate.Operators.Column;
+import org.apache.parquet.filter2.predicate.Operators.ColumnFilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.Eq;
+import org.apache.parquet.filter2.predicate.Operators.Gt;
+import org.apache.parquet.filter2.predicate.Operators.GtEq;
+import org.apache.parquet.filter2.predicate.Operators.LogicalNotUserDefined;
+import org.apache.parquet.filter2.predicate.Operators.Lt;
+import org.apache.parquet.filter2.predicate.Operators.LtEq;
+import org.apache.parquet.filter2.predicate.Operators.Not;
+import org.apache.parquet.filter2.predicate.Operators.NotEq;
+import org.apache.parquet.filter2.predicate.Operators.Or;
+import org.apache.parquet.filter2.predicate.Operators.UserDefined;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveComparator;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+/**
+ * Reads flat primitive columns directly from the {@link ColumnReader}s of a row group
+ * rather than assembling {@link org.apache.parquet.example.data.Group} records.
+ * <br>
+ * Values are decoded a column at a time into batches of up to {@link #BATCH_SIZE} rows.
+ * The columns referenced by the row filter are decoded first so that the remaining columns
+ * only need to be materialized for the rows that pass.
+ */
+class ParquetColumnarReader {
+
+    static final int BATCH_SIZE = 1024;
+
+    /**
+     * The column readers only require the converters for dictionary support,
+     * which we don't use as the values are read directly.
+     */
+    private static final GroupConverter NO_OP_CONVERTER = new GroupConverter() {
+        private PrimitiveConverter primitiveConverter = new PrimitiveConverter() {};
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return primitiveConverter;
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+        }
+    };
+
+    private MessageType schema;
+    private String createdBy;
+    private List<ColumnDescriptor> columns;
+    private FilterPredicate filter;
+    private RowFilter rowFilter;
+    private boolean[] filterColumns;
+
+    private ColumnReader[] readers;
+    private long rowsRemaining;
+    private Object[][] values;
+    private boolean[] selected;
+    private int batchRows;
+    private int batchIndex;
+
+    /**
+     * @return true if each of the fields is a non-repeated primitive
+     */
+    static boolean isSupported(MessageType schema) {
+        for (Type type : schema.getFields()) {
+            if (!type.isPrimitive() || type.isRepetition(Repetition.REPEATED)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param schema the projected schema
+     * @param filter the row filter, may be null
+     */
+    ParquetColumnarReader(MessageType schema, String createdBy, FilterPredicate filter) {
+        this.schema = schema;
+        this.createdBy = createdBy;
+        this.columns = schema.getColumns();
+        this.filter = filter;
+        this.values = new Object[columns.size()][BATCH_SIZE];
+        this.selected = new boolean[BATCH_SIZE];
+        this.filterColumns = new boolean[columns.size()];
+        if (filter != null) {
+            Set<ColumnPath> paths = new LinkedHashSet<>();
+            collectColumns(filter, paths);
+            Map<ColumnPath, Integer> indexes = new HashMap<>();
+            PrimitiveComparator<?>[] comparators = new PrimitiveComparator<?>[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                ColumnDescriptor column = columns.get(i);
+                ColumnPath path = ColumnPath.get(column.getPath());
+                if (paths.contains(path)) {
+                    filterColumns[i] = true;
+                    indexes.put(path, i);
+                    comparators[i] = column.getPrimitiveType().comparator();
+                }
+            }
+            this.rowFilter = new RowFilter(indexes, comparators);
+        }
+    }
+
+    /**
+     * Set the next row group to read.  Any remaining rows from the previous row group are discarded.
+     */
+    void setRowGroup(PageReadStore rowGroup) {
+        ColumnReadStore readStore = new ColumnReadStoreImpl(rowGroup, NO_OP_CONVERTER, schema, createdBy);
+        this.readers = new ColumnReader[columns.size()];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = readStore.getColumnReader(columns.get(i));
+        }
+        this.rowsRemaining = rowGroup.getRowCount();
+        this.batchRows = 0;
+        this.batchIndex = 0;
+    }
+
+    /**
+     * @return the next row of Teiid values in schema order or null if the row group is exhausted
+     */
+    Object[] next() {
+        while (true) {
+            while (batchIndex < batchRows) {
+                int row = batchIndex++;
+                if (selected[row]) {
+                    Object[] result = new Object[columns.size()];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = toValue(values[i][row], columns.get(i).getPrimitiveType());
+                    }
+                    return result;
+                }
+            }
+            if (rowsRemaining <= 0) {
+                return null;
+            }
+            readBatch();
+        }
+    }
+
+    private void readBatch() {
+        int rows = (int)Math.min(BATCH_SIZE, rowsRemaining);
+        rowsRemaining -= rows;
+        batchRows = rows;
+        batchIndex = 0;
+        if (filter == null) {
+            for (int row = 0; row < rows; row++) {
+                selected[row] = true;
+            }
+            for (int i = 0; i < readers.length; i++) {
+                readColumn(i, rows, false);
+            }
+            return;
+        }
+        for (int i = 0; i < readers.length; i++) {
+            if (filterColumns[i]) {
+                readColumn(i, rows, false);
+            }
+        }
+        rowFilter.values = values;
+        for (int row = 0; row < rows; row++) {
+            rowFilter.row = row;
+            selected[row] = filter.accept(rowFilter);
+        }
+        for (int i = 0; i < readers.length; i++) {
+            if (!filterColumns[i]) {
+                readColumn(i, rows, true);
+            }
+        }
+    }
+
+    /**
+     * Decode the next rows values for a single column
+     * @param skip if true the values for unselected rows are skipped rather than decoded
+     */
+    private void readColumn(int index, int rows, boolean skip) {
+        ColumnReader reader = readers[index];
+        Object[] columnValues = values[index];
+        int maxDefinitionLevel = columns.get(index).getMaxDefinitionLevel();
+        PrimitiveType.PrimitiveTypeName type = columns.get(index).getPrimitiveType().getPrimitiveTypeName();
+        for (int row = 0; row < rows; row++) {
+            Object value = null;
+            if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                if (skip && !selected[row]) {
+                    reader.skip();
+                } else {
+                    value = readValue(reader, type);
+                }
+            }
+            columnValues[row] = value;
+            reader.consume();
+        }
+    }
+
+    private static Object readValue(ColumnReader reader, PrimitiveType.PrimitiveTypeName type) {
+        switch (type) {
+        case INT64:
+            return reader.getLong();
+        case INT32:
+            return reader.getInteger();
+        case BOOLEAN:
+            return reader.getBoolean();
+        case FLOAT:
+            return reader.getFloat();
+        case DOUBLE:
+            return reader.getDouble();
+        case INT96:
+        case BINARY:
+        case FIXED_LEN_BYTE_ARRAY:
+            return reader.getBinary();
+        }
+        throw new AssertionError(type);
+    }
+
+    /**
+     * Convert a parquet value consistent with the {@link ParquetExecution} record handling
+     */
+    static Object toValue(Object value, PrimitiveType type) {
+        if (!(value instanceof Binary)) {
+            return value;
+        }
+        Binary binary = (Binary)value;
+        switch (type.getPrimitiveTypeName()) {
+        case INT96:
+            return new BigInteger(binary.getBytesUnsafe());
+        case BINARY:
+            if (type.getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation) {
+                return binary.toStringUsingUTF8();
+            }
+            return binary.getBytesUnsafe();
+        default:
+            return binary.getBytesUnsafe();
+        }
+    }
+
+    private static void collectColumns(FilterPredicate predicate, Set<ColumnPath> paths) {
+        if (predicate instanceof ColumnFilterPredicate) {
+            paths.add(((ColumnFilterPredicate<?>)predicate).getColumn().getColumnPath());
+        } else if (predicate instanceof And) {
+            collectColumns(((And)predicate).getLeft(), paths);
+            collectColumns(((And)predicate).getRight(), paths);
+        } else if (predicate instanceof Or) {
+            collectColumns(((Or)predicate).getLeft(), paths);
+            collectColumns(((Or)predicate).getRight(), paths);
+        } else if (predicate instanceof Not) {
+            collectColumns(((Not)predicate).getPredicate(), paths);
+        } else if (predicate instanceof UserDefined) {
+            paths.add(((UserDefined<?, ?>)predicate).getColumn().getColumnPath());
+        } else if (predicate instanceof LogicalNotUserDefined) {
+            paths.add(((LogicalNotUserDefined<?, ?>)predicate).getUserDefined().getColumn().getColumnPath());
+        }
+    }
+
+    /**
+     * Evaluates the {@link FilterPredicate} against a single decoded row using the
+     * same null semantics as the parquet record level filter.
+     */
+    private static class RowFilter implements FilterPredicate.Visitor<Boolean> {
+
+        private Map<ColumnPath, Integer> indexes;
+        private PrimitiveComparator<?>[] comparators;
+        private Object[][] values;
+        private int row;
+
+        public RowFilter(Map<ColumnPath, Integer> indexes, PrimitiveComparator<?>[] comparators) {
+            this.indexes = indexes;
+            this.comparators = comparators;
+        }
+
+        private Object getValue(Column<?> column) {
+            Integer index = indexes.get(column.getColumnPath());
+            if (index == null) {
+                //the reference column for a partition predicate need not be read
+                return null;
+            }
+            return values[index][row];
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends Comparable<T>> int compare(ColumnFilterPredicate<T> predicate, Object value) {
+            PrimitiveComparator<T> comparator = (PrimitiveComparator<T>)comparators[indexes.get(predicate.getColumn().getColumnPath())];
+            return comparator.compare((T)value, predicate.getValue());
+        }
+
+        @Override
+        public <T extends Comparable<T>> Boolean visit(Eq<T> eq) {
+            Object value = getValue(eq.getColumn());
+            if (eq.getValue() == null) {
+                return value == null;
+            }
+            return value != null && compare(eq, value) == 0;
+        }
+
+        @Override
+        public <T extends Comparable<T>> Boolean visit(NotEq<T> notEq) {
+            Object value = getValue(notEq.getColumn());
+            if (notEq.getValue() == null) {
+                return value != null;
+            }
+            return value == null || compare(notEq, value) != 0;
+        }
+
+        @Override
+        public <T extends Comparable<T>> Boolean visit(Lt<T> lt) {
+            Object value = getValue(lt.getColumn());
+            return value != null && compare(lt, value) < 0;
+        }
+
+        @Override
+        public <T extends Comparable<T>> Boolean visit(LtEq<T> ltEq) {
+            Object value = getValue(ltEq.getColumn());
+            return value != null && compare(ltEq, value) <= 0;
+        }
+
+        @Override
+        public <T extends Comparable<T>> Boolean visit(Gt<T> gt) {
+            Object value = getValue(gt.getColumn());
+            return value != null && compare(gt, value) > 0;
+        }
+
+        @Override
+        public <T extends Comparable<T>> Boolean visit(GtEq<T> gtEq) {
+            Object value = getValue(gtEq.getColumn());
+            return value != null && compare(gtEq, value) >= 0;
+        }
+
+        @Override
+        public Boolean visit(And and) {
+            return and.getLeft().accept(this) && and.getRight().accept(this);
+        }
+
+        @Override
+        public Boolean visit(Or or) {
+            return or.getLeft().accept(this) || or.getRight().accept(this);
+        }
+
+        @Override
+        public Boolean visit(Not not) {
+            return !not.getPredicate().accept(this);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> Boolean visit(
+                UserDefined<T, U> udp) {
+            return udp.getUserDefinedPredicate().keep((T)getValue(udp.getColumn()));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> Boolean visit(
+                LogicalNotUserDefined<T, U> udp) {
+            UserDefined<T, U> userDefined = udp.getUserDefined();
+            return !userDefined.getUserDefinedPredicate().keep((T)getValue(userDefined.getColumn()));
+        }
+    }
+
+}
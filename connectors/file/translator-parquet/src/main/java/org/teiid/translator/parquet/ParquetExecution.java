@@ -46,6 +46,13 @@ public class ParquetExecution extends BaseParquetExecution implements ResultSetE
 
     @Override
     public List<?> next() throws TranslatorException, DataNotAvailableException {
+        if (isColumnarRead()) {
+            Object[] values = nextColumnarRow();
+            if (values == null) {
+                return null;
+            }
+            return projectRow(values);
+        }
         Group row = nextRow();
         if (row == null) {
             return null;
@@ -86,6 +93,20 @@ public class ParquetExecution extends BaseParquetExecution implements ResultSetE
         return output;
     }
 
+    List<Object> projectRow(Object[] values) {
+        final List<Object> output = new ArrayList<Object>();
+        int field = 0;
+        List<String> expectedColumnNames = this.visitor.getProjectedColumnNames();
+        for (int i = 0; i < expectedColumnNames.size(); i++) {
+            if(this.visitor.getPartitionedColumns().containsKey(expectedColumnNames.get(i))){
+                output.add(partitionedColumnsValue.get(expectedColumnNames.get(i)));
+            } else {
+                output.add(values[field++]);
+            }
+        }
+        return output;
+    }
+
     private ArrayImpl getList(Group group) throws TranslatorException {
         ArrayList<Object> outputList = new ArrayList<Object>();
         int fieldCount = group.getType().getFieldCount();
@@ -29,10 +29,13 @@ import org.teiid.translator.MetadataProcessor;
 import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.Translator;
 import org.teiid.translator.TranslatorException;
+import org.teiid.translator.TranslatorProperty;
 
 @Translator(name="parquet", description="Parquet file translator")
 public class ParquetExecutionFactory extends ExecutionFactory<ConnectionFactory, VirtualFileConnection> {
 
+    private boolean columnarRead = true;
+
     public ParquetExecutionFactory() {
         setSourceRequiredForMetadata(true);
         setTransactionSupport(TransactionSupport.NONE);
@@ -42,9 +45,18 @@ public class ParquetExecutionFactory extends ExecutionFactory<ConnectionFactory,
     public ResultSetExecution createResultSetExecution(QueryExpression command, ExecutionContext executionContext, RuntimeMetadata metadata, VirtualFileConnection connection)
             throws TranslatorException {
         ParquetExecution ex = new ParquetExecution((Select)command, executionContext, metadata, connection, this.isImmutable());
+        ex.setColumnarRead(this.columnarRead);
         return ex;
     }
 
+    @TranslatorProperty(display="Columnar Read", description="Read flat tables directly from the column readers rather than assembling each row as a record.", advanced=true)
+    public boolean isColumnarRead() {
+        return columnarRead;
+    }
+
+    public void setColumnarRead(boolean columnarRead) {
+        this.columnarRead = columnarRead;
+    }
 
     @Override
     public MetadataProcessor<VirtualFileConnection> getMetadataProcessor(){
@@ -25,7 +25,12 @@ import org.teiid.translator.ResultSetExecution;
 public class TestParquetExecution {
 
     static ArrayList<?> helpExecute(String ddl, VirtualFileConnection connection, String query) throws Exception {
+        return helpExecute(ddl, connection, query, true);
+    }
+
+    static ArrayList<?> helpExecute(String ddl, VirtualFileConnection connection, String query, boolean columnarRead) throws Exception {
         ParquetExecutionFactory translator = new ParquetExecutionFactory();
+        translator.setColumnarRead(columnarRead);
         translator.start();
 
         TransformationMetadata metadata = RealMetadataFactory.fromDDL(ddl, "vdb", "parquet");
@@ -407,4 +412,21 @@ public class TestParquetExecution {
         Assert.assertEquals("[[1, Aditya], [2, Animesh]]", results.toString());
     }
 
+    @Test
+    public void testParquetExecutionRecordRead() throws Exception {
+        String ddl = "CREATE FOREIGN TABLE Table1 (\n" +
+                "   firstname string ,\n" +
+                "   id long ,\n" +
+                "   lastname string ,\n" +
+                "   CONSTRAINT PK0 PRIMARY KEY(id)\n" +
+                ") OPTIONS (\"teiid_parquet:LOCATION\" 'people1.parquet');";
+
+        VirtualFileConnection connection = new JavaVirtualFileConnection(UnitTestUtil.getTestDataPath());
+
+        String query = "select lastname, id from Table1 WHERE firstName <> 'Aditya' and id <= 3";
+        ArrayList<?> results = helpExecute(ddl, connection, query, false);
+        Assert.assertEquals("[[Sharma, 2], [Khapra, 3]]", results.toString());
+        Assert.assertEquals(results, helpExecute(ddl, connection, query, true));
+    }
+
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.translator.jdbc;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.teiid.translator.TranslatorException;
+
+/**
+ * A source specific loader for bulk inserts, such as the PostgreSQL COPY command.
+ * <br>
+ * Obtained from {@link JDBCExecutionFactory#getBulkLoader(org.teiid.language.Insert, org.teiid.translator.ExecutionContext, java.sql.Connection)}
+ * for a single insert.  When no loader is available prepared batches are used instead.
+ */
+public interface BulkLoader {
+
+    /**
+     * Load all of the parameter values into the insert target.
+     * @param values the parameter values of the insert
+     * @return the number of rows loaded
+     */
+    long load(Iterator<? extends List<?>> values) throws SQLException, TranslatorException;
+
+}
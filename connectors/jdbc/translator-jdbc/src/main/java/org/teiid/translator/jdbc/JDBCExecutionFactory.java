@@ -152,6 +152,7 @@ public class JDBCExecutionFactory extends ExecutionFactory<DataSource, Connectio
     private boolean useCommentsInSourceQuery;
     private Version version;
     private int maxInsertBatchSize = 2048;
+    private boolean useBulkLoader;
     private DatabaseCalender databaseCalender;
     private boolean supportsGeneratedKeys;
     private StructRetrieval structRetrieval = StructRetrieval.OBJECT;
@@ -561,6 +562,30 @@ public class JDBCExecutionFactory extends ExecutionFactory<DataSource, Connectio
         this.maxInsertBatchSize = maxInsertBatchSize;
     }
 
+    @TranslatorProperty(display="Use Bulk Loader", description="If true, bulk inserts will use the source specific loader when one is available, rather than prepared batches.  Default false.", advanced=true)
+    public boolean isUseBulkLoader() {
+        return useBulkLoader;
+    }
+
+    public void setUseBulkLoader(boolean useBulkLoader) {
+        this.useBulkLoader = useBulkLoader;
+    }
+
+    /**
+     * Return a source specific {@link BulkLoader} for the insert, which will have parameter values.
+     * <br>
+     * Only called if {@link #isUseBulkLoader()} and generated keys are not requested.
+     * The default implementation returns null, so that prepared batches are used.
+     * @param insert
+     * @param context
+     * @param connection
+     * @return the loader or null if the insert should use prepared batches
+     * @throws TranslatorException
+     */
+    public BulkLoader getBulkLoader(Insert insert, ExecutionContext context, Connection connection) throws TranslatorException {
+        return null;
+    }
+
     /**
      * Gets the database calendar.  This will be set to the time zone
      * specified by the property {@link #setDatabaseTimeZone(String)}, or
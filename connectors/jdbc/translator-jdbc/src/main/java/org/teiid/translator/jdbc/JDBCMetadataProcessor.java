@@ -23,6 +23,7 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.*;
 import java.util.regex.Pattern;
@@ -118,6 +119,7 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
     private boolean importLargeAsLob;
     private boolean useIntegralTypes;
     private boolean useTypeInfo = true;
+    private boolean bulkImport;
     Set<String> unsignedTypes = new HashSet<String>();
     Map<String, Integer> typeMapping = new TreeMap<>();
 
@@ -213,7 +215,7 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
         }
 
         if (importKeys) {
-            getPrimaryKeys(metadataFactory, metadata, tables);
+            getPrimaryKeys(metadataFactory, metadata, tables, tableMap);
             getIndexes(metadataFactory, metadata, tables, !importIndexes);
             if (importForeignKeys) {
                 getForeignKeys(metadataFactory, metadata, tables, tableMap);
@@ -475,14 +477,20 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
             DatabaseMetaData metadata, Map<String, TableInfo> tableMap, Connection conn)
             throws SQLException {
         LogManager.logDetail(LogConstants.CTX_CONNECTOR, "JDBCMetadataProcessor - Importing columns"); //$NON-NLS-1$
+        if (bulkImport) {
+            //a single call for all tables in the schema pattern, the rows for excluded tables are skipped
+            ResultSet columns = metadata.getColumns(catalog, schemaPattern, tableNamePattern, columnNamePattern);
+            processColumns(metadataFactory, tableMap, columns, conn, true);
+            return;
+        }
         for (TableInfo ti : new LinkedHashSet<TableInfo>(tableMap.values())) {
             ResultSet columns = metadata.getColumns(ti.catalog, ti.schema, ti.name, columnNamePattern);
-            processColumns(metadataFactory, tableMap, columns, conn);
+            processColumns(metadataFactory, tableMap, columns, conn, false);
         }
     }
 
     private void processColumns(MetadataFactory metadataFactory,
-            Map<String, TableInfo> tableMap, ResultSet columns, Connection conn)
+            Map<String, TableInfo> tableMap, ResultSet columns, Connection conn, boolean fullNameOnly)
             throws SQLException {
         int rsColumns = columns.getMetaData().getColumnCount();
         while (columns.next()) {
@@ -492,6 +500,10 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
             String fullTableName = getFullyQualifiedName(tableCatalog, tableSchema, tableName);
             TableInfo tableInfo = tableMap.get(fullTableName);
             if (tableInfo == null) {
+                //the unqualified name is ambiguous when the rows span tables
+                if (fullNameOnly) {
+                    continue;
+                }
                 tableInfo = tableMap.get(tableName);
                 if (tableInfo == null) {
                     continue;
@@ -649,31 +661,72 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
     }
 
     private void getPrimaryKeys(MetadataFactory metadataFactory,
-            DatabaseMetaData metadata, Collection<TableInfo> tables)
+            DatabaseMetaData metadata, Collection<TableInfo> tables, Map<String, TableInfo> tableMap)
             throws SQLException {
         LogManager.logDetail(LogConstants.CTX_CONNECTOR, "JDBCMetadataProcessor - Importing primary keys"); //$NON-NLS-1$
+        if (bulkImport) {
+            ResultSet pks = executeBulkPrimaryKeyQuery(metadata.getConnection());
+            if (pks != null) {
+                try {
+                    processPrimaryKeys(metadataFactory, pks, null, tableMap);
+                } finally {
+                    close(pks);
+                }
+                return;
+            }
+        }
         for (TableInfo tableInfo : tables) {
             ResultSet pks = metadata.getPrimaryKeys(tableInfo.catalog, tableInfo.schema, tableInfo.name);
-            TreeMap<Short, String> keyColumns = null;
-            String pkName = null;
-            while (pks.next()) {
-                String columnName = pks.getString(4);
-                short seqNum = safeGetShort(pks, 5);
-                if (keyColumns == null) {
-                    keyColumns = new TreeMap<Short, String>();
+            try {
+                processPrimaryKeys(metadataFactory, pks, tableInfo, tableMap);
+            } finally {
+                pks.close();
+            }
+        }
+    }
+
+    /**
+     * Process {@link DatabaseMetaData#getPrimaryKeys(String, String, String)} rows
+     * @param tableInfo the table if the rows are for a single table, or null to look up the table for each row
+     */
+    private void processPrimaryKeys(MetadataFactory metadataFactory, ResultSet pks,
+            TableInfo tableInfo, Map<String, TableInfo> tableMap) throws SQLException {
+        Map<TableInfo, TreeMap<Short, String>> allKeyColumns = new LinkedHashMap<TableInfo, TreeMap<Short, String>>();
+        Map<TableInfo, String> pkNames = new HashMap<TableInfo, String>();
+        while (pks.next()) {
+            TableInfo info = tableInfo;
+            if (info == null) {
+                info = tableMap.get(getFullyQualifiedName(pks.getString(1), pks.getString(2), pks.getString(3)));
+                if (info == null) {
+                    continue;
                 }
-                keyColumns.put(seqNum, columnName);
+            }
+            String columnName = pks.getString(4);
+            short seqNum = safeGetShort(pks, 5);
+            TreeMap<Short, String> keyColumns = allKeyColumns.get(info);
+            if (keyColumns == null) {
+                keyColumns = new TreeMap<Short, String>();
+                allKeyColumns.put(info, keyColumns);
+            }
+            keyColumns.put(seqNum, columnName);
+            if (!pkNames.containsKey(info)) {
+                String pkName = pks.getString(6);
                 if (pkName == null) {
-                    pkName = pks.getString(6);
-                    if (pkName == null) {
-                        pkName = "PK_" + tableInfo.table.getName().toUpperCase(); //$NON-NLS-1$
-                    }
+                    pkName = "PK_" + info.table.getName().toUpperCase(); //$NON-NLS-1$
                 }
+                pkNames.put(info, pkName);
             }
-            if (keyColumns != null) {
-                metadataFactory.addPrimaryKey(pkName, new ArrayList<String>(keyColumns.values()), tableInfo.table);
-            }
-            pks.close();
+        }
+        for (Map.Entry<TableInfo, TreeMap<Short, String>> entry : allKeyColumns.entrySet()) {
+            metadataFactory.addPrimaryKey(pkNames.get(entry.getKey()), new ArrayList<String>(entry.getValue().values()), entry.getKey().table);
+        }
+    }
+
+    private void close(ResultSet rs) throws SQLException {
+        Statement stmt = rs.getStatement();
+        rs.close();
+        if (stmt != null) {
+            stmt.close();
         }
     }
 
@@ -708,6 +761,17 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
     private void getForeignKeys(MetadataFactory metadataFactory,
             DatabaseMetaData metadata, Collection<TableInfo> tables, Map<String, TableInfo> tableMap) throws SQLException {
         LogManager.logDetail(LogConstants.CTX_CONNECTOR, "JDBCMetadataProcessor - Importing foreign keys"); //$NON-NLS-1$
+        if (bulkImport) {
+            ResultSet fks = executeBulkImportedKeyQuery(metadata.getConnection());
+            if (fks != null) {
+                try {
+                    processForeignKeys(metadataFactory, fks, null, tableMap);
+                } finally {
+                    close(fks);
+                }
+                return;
+            }
+        }
         for (TableInfo tableInfo : tables) {
             if (!getForeignKeysForTable(tableInfo.catalog, tableInfo.schema, tableInfo.name, tableInfo.type)) {
                 continue;
@@ -723,59 +787,85 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
                 }
                 continue;
             }
-            HashMap<String, FKInfo> allKeys = new HashMap<String, FKInfo>();
-            while (fks.next()) {
-                String columnName = fks.getString(8);
-                short seqNum = safeGetShort(fks, 9);
-                String pkColumnName = fks.getString(4);
-
-                String fkName = fks.getString(12);
-                if (fkName == null) {
-                    fkName = "FK_" + tableInfo.table.getName().toUpperCase(); //$NON-NLS-1$
-                }
-
-                FKInfo fkInfo = allKeys.get(fkName);
-
-                if (fkInfo == null) {
-                    fkInfo = new FKInfo();
-                    allKeys.put(fkName, fkInfo);
-
-                    String tableCatalog = fks.getString(1);
-                    String tableSchema = fks.getString(2);
-                    String tableName = fks.getString(3);
-                    String fullTableName = getFullyQualifiedName(tableCatalog, tableSchema, tableName);
-                    fkInfo.pkTable = tableMap.get(fullTableName);
-                    if (fkInfo.pkTable == null) {
-                        //throw new TranslatorException(JDBCPlugin.Util.getString("JDBCMetadataProcessor.cannot_find_primary", fullTableName)); //$NON-NLS-1$
-                        fkInfo.valid = false;
-                        continue;
-                    }
-                }
+            try {
+                processForeignKeys(metadataFactory, fks, tableInfo, tableMap);
+            } finally {
+                fks.close();
+            }
+        }
+    }
 
-                if (!fkInfo.valid) {
+    /**
+     * Process {@link DatabaseMetaData#getImportedKeys(String, String, String)} rows
+     * @param tableInfo the table if the rows are for a single table, or null to look up the foreign key table for each row
+     */
+    private void processForeignKeys(MetadataFactory metadataFactory, ResultSet fks,
+            TableInfo tableInfo, Map<String, TableInfo> tableMap) throws SQLException {
+        Map<TableInfo, HashMap<String, FKInfo>> allTableKeys = new LinkedHashMap<TableInfo, HashMap<String, FKInfo>>();
+        while (fks.next()) {
+            TableInfo info = tableInfo;
+            if (info == null) {
+                info = tableMap.get(getFullyQualifiedName(fks.getString(5), fks.getString(6), fks.getString(7)));
+                if (info == null) {
                     continue;
                 }
+            }
+            HashMap<String, FKInfo> allKeys = allTableKeys.get(info);
+            if (allKeys == null) {
+                allKeys = new HashMap<String, FKInfo>();
+                allTableKeys.put(info, allKeys);
+            }
+            String columnName = fks.getString(8);
+            short seqNum = safeGetShort(fks, 9);
+            String pkColumnName = fks.getString(4);
+
+            String fkName = fks.getString(12);
+            if (fkName == null) {
+                fkName = "FK_" + info.table.getName().toUpperCase(); //$NON-NLS-1$
+            }
+
+            FKInfo fkInfo = allKeys.get(fkName);
+
+            if (fkInfo == null) {
+                fkInfo = new FKInfo();
+                allKeys.put(fkName, fkInfo);
 
-                if (fkInfo.keyColumns.put(seqNum, columnName) != null) {
-                    //We can't gracefully handle two unnamed fks
+                String tableCatalog = fks.getString(1);
+                String tableSchema = fks.getString(2);
+                String tableName = fks.getString(3);
+                String fullTableName = getFullyQualifiedName(tableCatalog, tableSchema, tableName);
+                fkInfo.pkTable = tableMap.get(fullTableName);
+                if (fkInfo.pkTable == null) {
+                    //throw new TranslatorException(JDBCPlugin.Util.getString("JDBCMetadataProcessor.cannot_find_primary", fullTableName)); //$NON-NLS-1$
                     fkInfo.valid = false;
+                    continue;
                 }
-                fkInfo.referencedKeyColumns.put(seqNum, pkColumnName);
             }
 
-            for (Map.Entry<String, FKInfo> entry : allKeys.entrySet()) {
+            if (!fkInfo.valid) {
+                continue;
+            }
+
+            if (fkInfo.keyColumns.put(seqNum, columnName) != null) {
+                //We can't gracefully handle two unnamed fks
+                fkInfo.valid = false;
+            }
+            fkInfo.referencedKeyColumns.put(seqNum, pkColumnName);
+        }
+
+        for (Map.Entry<TableInfo, HashMap<String, FKInfo>> tableEntry : allTableKeys.entrySet()) {
+            for (Map.Entry<String, FKInfo> entry : tableEntry.getValue().entrySet()) {
                 FKInfo info = entry.getValue();
                 if (!info.valid) {
                     continue;
                 }
 
                 KeyRecord record = autoCreateUniqueKeys(autoCreateUniqueConstraints, metadataFactory, entry.getKey(), info.referencedKeyColumns, info.pkTable.table);
-                ForeignKey fk = metadataFactory.addForeignKey(entry.getKey(), new ArrayList<String>(info.keyColumns.values()), new ArrayList<String>(info.referencedKeyColumns.values()), info.pkTable.table.getName(), tableInfo.table);
+                ForeignKey fk = metadataFactory.addForeignKey(entry.getKey(), new ArrayList<String>(info.keyColumns.values()), new ArrayList<String>(info.referencedKeyColumns.values()), info.pkTable.table.getName(), tableEntry.getKey().table);
                 if (record != null) {
                     fk.setReferenceKey(record);
                 }
             }
-            fks.close();
         }
     }
 
@@ -960,6 +1050,31 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
         return null;
     }
 
+    /**
+     * Return a result set for the primary keys of all tables matching the schema and table name patterns,
+     * with the same leading columns as {@link DatabaseMetaData#getPrimaryKeys(String, String, String)} -
+     * table_cat, table_schem, table_name, column_name, key_seq, pk_name -
+     * or null if the primary keys should be retrieved per table.  Used only with bulk import.
+     * @param conn
+     * @return
+     * @throws SQLException
+     */
+    protected ResultSet executeBulkPrimaryKeyQuery(Connection conn) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Return a result set for the foreign keys of all tables matching the schema and table name patterns,
+     * with the same columns as {@link DatabaseMetaData#getImportedKeys(String, String, String)} through fk_name,
+     * or null if the foreign keys should be retrieved per table.  Used only with bulk import.
+     * @param conn
+     * @return
+     * @throws SQLException
+     */
+    protected ResultSet executeBulkImportedKeyQuery(Connection conn) throws SQLException {
+        return null;
+    }
+
     /**
      * Override to control or disable the default index logic
      * @param catalogName
@@ -1399,4 +1514,13 @@ public class JDBCMetadataProcessor implements MetadataProcessor<Connection>{
         this.useTypeInfo = useTypeInfo;
     }
 
+    @TranslatorProperty(display="Bulk Import", category=PropertyType.IMPORT, description="true to retrieve columns, and primary and foreign keys if the translator supports it, with schema wide calls rather than per table.")
+    public boolean isBulkImport() {
+        return bulkImport;
+    }
+
+    public void setBulkImport(boolean bulkImport) {
+        this.bulkImport = bulkImport;
+    }
+
 }
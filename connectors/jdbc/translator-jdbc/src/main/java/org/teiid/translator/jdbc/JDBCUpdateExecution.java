@@ -66,7 +66,7 @@ public class JDBCUpdateExecution extends JDBCBaseExecution implements UpdateExec
     public void execute() throws TranslatorException {
         if (command instanceof BatchedUpdates) {
             execute(((BatchedUpdates)command));
-        } else {
+        } else if (!executeBulkLoad()) {
             // translate command
             TranslatedCommand translatedComm = translateCommand(command);
 
@@ -164,6 +164,33 @@ public class JDBCUpdateExecution extends JDBCBaseExecution implements UpdateExec
         return result;
     }
 
+    /**
+     * Use the source specific loader for a bulk insert if one is available
+     * @return true if the insert was loaded
+     */
+    private boolean executeBulkLoad() throws TranslatorException {
+        if (!(command instanceof Insert) || !executionFactory.isUseBulkLoader()) {
+            return false;
+        }
+        Insert insert = (Insert)command;
+        if (insert.getParameterValues() == null
+                || (executionFactory.supportsGeneratedKeys(context, command) && context.getGeneratedKeyColumns() != null)) {
+            return false;
+        }
+        BulkLoader loader = executionFactory.getBulkLoader(insert, context, connection);
+        if (loader == null) {
+            return false;
+        }
+        try {
+            long count = loader.load(insert.getParameterValues());
+            result = new int[(int)count];
+            Arrays.fill(result, 1);
+        } catch (SQLException e) {
+            throw new JDBCExecutionException(JDBCPlugin.Event.TEIID11013, e, insert.toString());
+        }
+        return true;
+    }
+
     private void executeBatch(int commandCount,
                               int[] results,
                               List<TranslatedCommand> commands) throws TranslatorException {
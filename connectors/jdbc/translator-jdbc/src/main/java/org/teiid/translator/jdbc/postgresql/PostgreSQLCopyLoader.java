@@ -0,0 +1,241 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.translator.jdbc.postgresql;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.teiid.core.types.BinaryType;
+import org.teiid.language.ColumnReference;
+import org.teiid.language.Expression;
+import org.teiid.language.ExpressionValueSource;
+import org.teiid.language.Insert;
+import org.teiid.language.Literal;
+import org.teiid.language.Parameter;
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+import org.teiid.translator.TranslatorException;
+import org.teiid.translator.TypeFacility;
+import org.teiid.translator.jdbc.BulkLoader;
+import org.teiid.translator.jdbc.SQLConversionVisitor;
+
+/**
+ * Loads a bulk insert with COPY FROM STDIN in csv format using the driver CopyManager.
+ * <br>
+ * The rows are rendered as they are read by the driver, so the parameter values are not
+ * materialized.  The driver classes are accessed reflectively as the driver is not a dependency
+ * of the translator.
+ */
+public class PostgreSQLCopyLoader implements BulkLoader {
+
+    private static final String PG_CONNECTION = "org.postgresql.PGConnection"; //$NON-NLS-1$
+
+    private static final Set<Class<?>> SUPPORTED_TYPES = new HashSet<Class<?>>(Arrays.asList(
+            TypeFacility.RUNTIME_TYPES.STRING, TypeFacility.RUNTIME_TYPES.CHAR, TypeFacility.RUNTIME_TYPES.BOOLEAN,
+            TypeFacility.RUNTIME_TYPES.BYTE, TypeFacility.RUNTIME_TYPES.SHORT, TypeFacility.RUNTIME_TYPES.INTEGER,
+            TypeFacility.RUNTIME_TYPES.LONG, TypeFacility.RUNTIME_TYPES.BIG_INTEGER, TypeFacility.RUNTIME_TYPES.FLOAT,
+            TypeFacility.RUNTIME_TYPES.DOUBLE, TypeFacility.RUNTIME_TYPES.BIG_DECIMAL, TypeFacility.RUNTIME_TYPES.DATE,
+            TypeFacility.RUNTIME_TYPES.TIME, TypeFacility.RUNTIME_TYPES.TIMESTAMP, TypeFacility.RUNTIME_TYPES.VARBINARY,
+            TypeFacility.RUNTIME_TYPES.CLOB, TypeFacility.RUNTIME_TYPES.JSON));
+
+    /**
+     * Reads the rows as csv, quoting all non-null values so that empty strings and nulls are distinguished
+     */
+    private final class CsvReader extends Reader {
+        private final Iterator<? extends List<?>> values;
+        private StringBuilder row = new StringBuilder();
+        private int position;
+        private long count;
+
+        CsvReader(Iterator<? extends List<?>> values) {
+            this.values = values;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (position == row.length()) {
+                if (!values.hasNext()) {
+                    return -1;
+                }
+                row.setLength(0);
+                position = 0;
+                try {
+                    appendRow(values.next(), row);
+                } catch (SQLException e) {
+                    throw new IOException(e);
+                }
+                count++;
+            }
+            int toCopy = Math.min(len, row.length() - position);
+            row.getChars(position, position + toCopy, cbuf, off);
+            position += toCopy;
+            return toCopy;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private final PostgreSQLExecutionFactory executionFactory;
+    private final Object copyManager;
+    private final String sql;
+    private final List<Expression> rowValues;
+
+    /**
+     * @param insert an insert with an {@link ExpressionValueSource} of only parameters and literals
+     * @param copyManager the driver CopyManager, or any object with a copyIn(String, Reader) method
+     */
+    public PostgreSQLCopyLoader(Insert insert, Object copyManager, PostgreSQLExecutionFactory executionFactory) {
+        this.executionFactory = executionFactory;
+        this.copyManager = copyManager;
+        this.rowValues = ((ExpressionValueSource)insert.getValueSource()).getValues();
+        this.sql = getCopySql(insert);
+    }
+
+    /**
+     * @return true if the insert values can be loaded with COPY
+     */
+    static boolean canLoad(Insert insert) {
+        if (insert.isUpsert() || !(insert.getValueSource() instanceof ExpressionValueSource)) {
+            return false;
+        }
+        for (ColumnReference column : insert.getColumns()) {
+            if (!SUPPORTED_TYPES.contains(column.getType())) {
+                return false;
+            }
+        }
+        for (Expression ex : ((ExpressionValueSource)insert.getValueSource()).getValues()) {
+            if (!(ex instanceof Parameter) && !(ex instanceof Literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the driver CopyManager from the connection
+     * @return the CopyManager or null if it is not accessible
+     */
+    static Object getCopyManager(Connection connection) {
+        try {
+            Class<?> pgConnection = Class.forName(PG_CONNECTION, true, connection.getClass().getClassLoader());
+            Object pg = connection.unwrap(pgConnection);
+            return pgConnection.getMethod("getCopyAPI").invoke(pg); //$NON-NLS-1$
+        } catch (SQLException | ReflectiveOperationException e) {
+            LogManager.logDetail(LogConstants.CTX_CONNECTOR, e, "Could not obtain the PostgreSQL CopyManager, prepared batches will be used"); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    private String getCopySql(Insert insert) {
+        SQLConversionVisitor visitor = executionFactory.getSQLConversionVisitor();
+        visitor.append(insert.getTable());
+        StringBuilder result = new StringBuilder("COPY ").append(visitor.toString()).append(" ("); //$NON-NLS-1$ //$NON-NLS-2$
+        for (int i = 0; i < insert.getColumns().size(); i++) {
+            if (i > 0) {
+                result.append(", "); //$NON-NLS-1$
+            }
+            ColumnReference column = insert.getColumns().get(i);
+            visitor = executionFactory.getSQLConversionVisitor();
+            visitor.append(new ColumnReference(null, column.getName(), column.getMetadataObject(), column.getType()));
+            result.append(visitor.toString());
+        }
+        return result.append(") FROM STDIN WITH CSV").toString(); //$NON-NLS-1$
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public long load(Iterator<? extends List<?>> values) throws SQLException, TranslatorException {
+        CsvReader reader = new CsvReader(values);
+        try {
+            Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class); //$NON-NLS-1$
+            copyIn.invoke(copyManager, sql, reader);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException)e.getCause();
+            }
+            throw new TranslatorException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new TranslatorException(e);
+        }
+        return reader.count;
+    }
+
+    void appendRow(List<?> row, StringBuilder builder) throws SQLException {
+        for (int i = 0; i < rowValues.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            Expression ex = rowValues.get(i);
+            Object value = null;
+            if (ex instanceof Parameter) {
+                value = row.get(((Parameter)ex).getValueIndex());
+            } else {
+                value = ((Literal)ex).getValue();
+            }
+            if (value == null) {
+                continue;
+            }
+            builder.append('"');
+            String text = getText(value);
+            for (int j = 0; j < text.length(); j++) {
+                char c = text.charAt(j);
+                if (c == '"') {
+                    builder.append('"');
+                }
+                builder.append(c);
+            }
+            builder.append('"');
+        }
+        builder.append('\n');
+    }
+
+    private String getText(Object value) throws SQLException {
+        if (value instanceof java.util.Date) {
+            return executionFactory.formatDateValue((java.util.Date)value);
+        }
+        if (value instanceof BinaryType) {
+            return "\\x" + value; //$NON-NLS-1$
+        }
+        if (value instanceof Clob) {
+            Clob clob = (Clob)value;
+            return clob.getSubString(1, (int)clob.length());
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal)value).toPlainString();
+        }
+        return value.toString();
+    }
+
+}
@@ -47,6 +47,7 @@ import org.teiid.language.AggregateFunction;
 import org.teiid.language.Array;
 import org.teiid.language.Expression;
 import org.teiid.language.Function;
+import org.teiid.language.Insert;
 import org.teiid.language.LanguageObject;
 import org.teiid.language.Like;
 import org.teiid.language.Like.MatchMode;
@@ -64,6 +65,7 @@ import org.teiid.translator.TranslatorException;
 import org.teiid.translator.TranslatorProperty;
 import org.teiid.translator.TypeFacility;
 import org.teiid.translator.jdbc.AliasModifier;
+import org.teiid.translator.jdbc.BulkLoader;
 import org.teiid.translator.jdbc.ConvertModifier;
 import org.teiid.translator.jdbc.EscapeSyntaxModifier;
 import org.teiid.translator.jdbc.ExtractFunctionModifier;
@@ -399,6 +401,19 @@ public class PostgreSQLExecutionFactory extends JDBCExecutionFactory {
         return "TIMESTAMP '" + formatDateValue(timestampValue) + "'"; //$NON-NLS-1$//$NON-NLS-2$
     }
 
+    @Override
+    public BulkLoader getBulkLoader(Insert insert, ExecutionContext context,
+            Connection connection) throws TranslatorException {
+        if (!PostgreSQLCopyLoader.canLoad(insert)) {
+            return null;
+        }
+        Object copyManager = PostgreSQLCopyLoader.getCopyManager(connection);
+        if (copyManager == null) {
+            return null;
+        }
+        return new PostgreSQLCopyLoader(insert, copyManager, this);
+    }
+
     @Override
     public int getTimestampNanoPrecision() {
         return 6;
@@ -98,6 +98,38 @@ public class PostgreSQLMetadataProcessor
         return "nextval('" + StringUtil.replaceAll(fullyQualifiedName, "'", "''") + "')"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
     }
 
+    @Override
+    protected ResultSet executeBulkPrimaryKeyQuery(Connection conn)
+            throws SQLException {
+        String query = "select null::varchar as table_cat, n.nspname as table_schem, c.relname as table_name, a.attname as column_name, k.n as key_seq, con.conname as pk_name " //$NON-NLS-1$
+                + "from pg_constraint con join pg_class c on c.oid = con.conrelid join pg_namespace n on n.oid = c.relnamespace " //$NON-NLS-1$
+                + "cross join generate_series(1, array_upper(con.conkey, 1)) as k(n) " //$NON-NLS-1$
+                + "join pg_attribute a on a.attrelid = con.conrelid and a.attnum = con.conkey[k.n] " //$NON-NLS-1$
+                + "where con.contype = 'p' and n.nspname like ? escape '\\' and c.relname like ? escape '\\'"; //$NON-NLS-1$
+        PreparedStatement ps = conn.prepareStatement(query);
+        ps.setString(1, getSchemaPattern()==null?"%":getSchemaPattern()); //$NON-NLS-1$
+        ps.setString(2, getTableNamePattern()==null?"%":getTableNamePattern()); //$NON-NLS-1$
+        return ps.executeQuery();
+    }
+
+    @Override
+    protected ResultSet executeBulkImportedKeyQuery(Connection conn)
+            throws SQLException {
+        String query = "select null::varchar as pktable_cat, pn.nspname as pktable_schem, pc.relname as pktable_name, pa.attname as pkcolumn_name, " //$NON-NLS-1$
+                + "null::varchar as fktable_cat, fn.nspname as fktable_schem, fc.relname as fktable_name, fa.attname as fkcolumn_name, k.n as key_seq, " //$NON-NLS-1$
+                + "null::int as update_rule, null::int as delete_rule, con.conname as fk_name " //$NON-NLS-1$
+                + "from pg_constraint con join pg_class fc on fc.oid = con.conrelid join pg_namespace fn on fn.oid = fc.relnamespace " //$NON-NLS-1$
+                + "join pg_class pc on pc.oid = con.confrelid join pg_namespace pn on pn.oid = pc.relnamespace " //$NON-NLS-1$
+                + "cross join generate_series(1, array_upper(con.conkey, 1)) as k(n) " //$NON-NLS-1$
+                + "join pg_attribute fa on fa.attrelid = con.conrelid and fa.attnum = con.conkey[k.n] " //$NON-NLS-1$
+                + "join pg_attribute pa on pa.attrelid = con.confrelid and pa.attnum = con.confkey[k.n] " //$NON-NLS-1$
+                + "where con.contype = 'f' and fn.nspname like ? escape '\\' and fc.relname like ? escape '\\'"; //$NON-NLS-1$
+        PreparedStatement ps = conn.prepareStatement(query);
+        ps.setString(1, getSchemaPattern()==null?"%":getSchemaPattern()); //$NON-NLS-1$
+        ps.setString(2, getTableNamePattern()==null?"%":getTableNamePattern()); //$NON-NLS-1$
+        return ps.executeQuery();
+    }
+
     @Override
     protected Table addTable(MetadataFactory metadataFactory,
             String tableCatalog, String tableSchema, String tableName,
@@ -113,6 +113,40 @@ public class SQLServerExecutionFactory extends SybaseExecutionFactory {
             return ps.executeQuery();
         }
 
+        @Override
+        protected ResultSet executeBulkPrimaryKeyQuery(Connection conn)
+                throws SQLException {
+            String query = "select db_name() as table_cat, s.name as table_schem, t.name as table_name, c.name as column_name, ic.key_ordinal as key_seq, k.name as pk_name " //$NON-NLS-1$
+                    + "from sys.key_constraints k join sys.tables t on t.object_id = k.parent_object_id join sys.schemas s on s.schema_id = t.schema_id " //$NON-NLS-1$
+                    + "join sys.index_columns ic on ic.object_id = k.parent_object_id and ic.index_id = k.unique_index_id " //$NON-NLS-1$
+                    + "join sys.columns c on c.object_id = ic.object_id and c.column_id = ic.column_id " //$NON-NLS-1$
+                    + "where k.type = 'PK' and db_name() like ? and s.name like ? escape '\\' and t.name like ? escape '\\'"; //$NON-NLS-1$
+            PreparedStatement ps = conn.prepareStatement(query);
+            ps.setString(1, getCatalog()==null?"%":getCatalog()); //$NON-NLS-1$
+            ps.setString(2, getSchemaPattern()==null?"%":getSchemaPattern()); //$NON-NLS-1$
+            ps.setString(3, getTableNamePattern()==null?"%":getTableNamePattern()); //$NON-NLS-1$
+            return ps.executeQuery();
+        }
+
+        @Override
+        protected ResultSet executeBulkImportedKeyQuery(Connection conn)
+                throws SQLException {
+            String query = "select db_name() as pktable_cat, ps.name as pktable_schem, pt.name as pktable_name, pc.name as pkcolumn_name, " //$NON-NLS-1$
+                    + "db_name() as fktable_cat, fs.name as fktable_schem, ft.name as fktable_name, fc.name as fkcolumn_name, fkc.constraint_column_id as key_seq, " //$NON-NLS-1$
+                    + "null as update_rule, null as delete_rule, fk.name as fk_name " //$NON-NLS-1$
+                    + "from sys.foreign_keys fk join sys.foreign_key_columns fkc on fkc.constraint_object_id = fk.object_id " //$NON-NLS-1$
+                    + "join sys.tables ft on ft.object_id = fk.parent_object_id join sys.schemas fs on fs.schema_id = ft.schema_id " //$NON-NLS-1$
+                    + "join sys.columns fc on fc.object_id = fkc.parent_object_id and fc.column_id = fkc.parent_column_id " //$NON-NLS-1$
+                    + "join sys.tables pt on pt.object_id = fk.referenced_object_id join sys.schemas ps on ps.schema_id = pt.schema_id " //$NON-NLS-1$
+                    + "join sys.columns pc on pc.object_id = fkc.referenced_object_id and pc.column_id = fkc.referenced_column_id " //$NON-NLS-1$
+                    + "where db_name() like ? and fs.name like ? escape '\\' and ft.name like ? escape '\\'"; //$NON-NLS-1$
+            PreparedStatement ps = conn.prepareStatement(query);
+            ps.setString(1, getCatalog()==null?"%":getCatalog()); //$NON-NLS-1$
+            ps.setString(2, getSchemaPattern()==null?"%":getSchemaPattern()); //$NON-NLS-1$
+            ps.setString(3, getTableNamePattern()==null?"%":getTableNamePattern()); //$NON-NLS-1$
+            return ps.executeQuery();
+        }
+
         @Override
         protected String modifyProcedureNameInSource(String nameInSource) {
             Matcher m = PROCEDURE_PATTERN.matcher(nameInSource);
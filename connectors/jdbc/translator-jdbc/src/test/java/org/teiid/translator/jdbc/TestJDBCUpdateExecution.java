@@ -29,6 +29,7 @@ import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Test;
@@ -43,6 +44,7 @@ import org.teiid.language.ExpressionValueSource;
 import org.teiid.language.Insert;
 import org.teiid.language.Literal;
 import org.teiid.language.Parameter;
+import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.TranslatorBatchException;
 
 @SuppressWarnings("nls")
@@ -336,4 +338,41 @@ public class TestJDBCUpdateExecution {
             assertArrayEquals(new int[] {1}, counts);
         }
     }
+    @Test public void testBulkLoader() throws Exception {
+        Insert command = (Insert)TranslationHelper.helpTranslate(TranslationHelper.BQT_VDB, "insert into BQT1.SmallA (IntKey) values (1)"); //$NON-NLS-1$
+        Parameter param = new Parameter();
+        param.setType(Integer.class);
+        param.setValueIndex(0);
+        ExpressionValueSource evs = new ExpressionValueSource(Arrays.asList((Expression)param));
+        command.setValueSource(evs);
+        List<List<?>> vals = new ArrayList<List<?>>();
+        for (int i = 0; i < 3; i++) {
+            vals.add(Arrays.asList(i));
+        }
+        command.setParameterValues(vals.iterator());
+        Connection connection = Mockito.mock(Connection.class);
+
+        JDBCExecutionFactory config = new JDBCExecutionFactory() {
+            @Override
+            public BulkLoader getBulkLoader(Insert insert, ExecutionContext context, Connection conn) {
+                return new BulkLoader() {
+                    @Override
+                    public long load(Iterator<? extends List<?>> values) {
+                        long count = 0;
+                        for (; values.hasNext(); values.next()) {
+                            count++;
+                        }
+                        return count;
+                    }
+                };
+            }
+        };
+        config.setUseBulkLoader(true);
+
+        JDBCUpdateExecution updateExecution = new JDBCUpdateExecution(command, connection, new FakeExecutionContextImpl(), config);
+        updateExecution.execute();
+        assertArrayEquals(new int[] {1, 1, 1}, updateExecution.getUpdateCounts());
+        Mockito.verify(connection, Mockito.never()).prepareStatement(Mockito.anyString());
+    }
+
 }
@@ -20,20 +20,32 @@ package org.teiid.translator.jdbc;
 
 import static org.junit.Assert.*;
 
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.teiid.metadata.Column;
+import org.teiid.metadata.ForeignKey;
 import org.teiid.metadata.MetadataFactory;
 import org.teiid.metadata.Table;
 import org.teiid.query.metadata.SystemMetadata;
+import org.teiid.translator.TranslatorException;
+import org.teiid.translator.jdbc.oracle.OracleMetadataProcessor;
+import org.teiid.translator.jdbc.postgresql.PostgreSQLMetadataProcessor;
+import org.teiid.translator.jdbc.sqlserver.SQLServerExecutionFactory;
 
 @SuppressWarnings("nls")
 public class TestMetadataProcessor {
@@ -88,4 +100,240 @@ public class TestMetadataProcessor {
         assertEquals("string[]", jmp.getRuntimeType(Types.ARRAY, "varchar[]", 100, 0));
     }
 
+    @Test public void testPerTableImport() throws Exception {
+        JDBCMetadataProcessor processor = createProcessor();
+        MetadataFactory mf = createMetadataFactory();
+        DatabaseMetaData dmd = createMetadata();
+
+        processor.getConnectorMetadata(dmd.getConnection(), mf);
+
+        Mockito.verify(dmd).getColumns(null, "s", "a", null);
+        Mockito.verify(dmd).getColumns(null, "t", "b", null);
+        Mockito.verify(dmd, Mockito.never()).getColumns(null, "%", null, null);
+        assertKeys(mf);
+    }
+
+    @Test public void testBulkImport() throws Exception {
+        JDBCMetadataProcessor processor = createProcessor();
+        processor.setBulkImport(true);
+        MetadataFactory mf = createMetadataFactory();
+        DatabaseMetaData dmd = createMetadata();
+
+        processor.getConnectorMetadata(dmd.getConnection(), mf);
+
+        Mockito.verify(dmd).getColumns(null, "%", null, null);
+        Mockito.verify(dmd, Mockito.never()).getColumns(null, "s", "a", null);
+        //without bulk key queries the keys are still retrieved per table
+        Mockito.verify(dmd).getPrimaryKeys(null, "s", "a");
+        Mockito.verify(dmd).getImportedKeys(null, "t", "b");
+        assertKeys(mf);
+    }
+
+    @Test public void testBulkImportKeyQueries() throws Exception {
+        final ResultSet pks = createResultSet(
+                new Object[] {null, "t", "b", "id", 1, null},
+                new Object[] {null, "s", "a", "y", 2, "pk_a"},
+                new Object[] {null, "s", "c", "z", 1, "pk_c"},
+                new Object[] {null, "s", "a", "x", 1, "pk_a"});
+        final ResultSet fks = createResultSet(
+                new Object[] {null, "s", "a", "y", null, "s", "c", "cy", 1, null, null, "fk_c_a"},
+                new Object[] {null, "s", "a", "y", null, "t", "b", "ay", 2, null, null, "fk_b_a"},
+                new Object[] {null, "s", "a", "x", null, "t", "b", "ax", 1, null, null, "fk_b_a"});
+        JDBCMetadataProcessor processor = new JDBCMetadataProcessor() {
+            @Override
+            protected ResultSet executeBulkPrimaryKeyQuery(Connection conn)
+                    throws SQLException {
+                return pks;
+            }
+            @Override
+            protected ResultSet executeBulkImportedKeyQuery(Connection conn)
+                    throws SQLException {
+                return fks;
+            }
+        };
+        setProperties(processor);
+        processor.setBulkImport(true);
+        MetadataFactory mf = createMetadataFactory();
+        DatabaseMetaData dmd = createMetadata();
+
+        processor.getConnectorMetadata(dmd.getConnection(), mf);
+
+        Mockito.verify(dmd, Mockito.never()).getPrimaryKeys(null, "s", "a");
+        Mockito.verify(dmd, Mockito.never()).getImportedKeys(null, "t", "b");
+        Mockito.verify(pks).close();
+        Mockito.verify(fks).close();
+        assertKeys(mf);
+        assertEquals("PK_T.B", mf.getSchema().getTable("t.b").getPrimaryKey().getName());
+    }
+
+    @Test public void testBulkKeyQueries() throws Exception {
+        for (JDBCMetadataProcessor processor : Arrays.asList(new OracleMetadataProcessor(), new PostgreSQLMetadataProcessor(), (JDBCMetadataProcessor)new SQLServerExecutionFactory().getMetadataProcessor())) {
+            processor.setSchemaPattern("s");
+            processor.setTableNamePattern("t%");
+            Connection conn = Mockito.mock(Connection.class);
+            PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+            ResultSet rs = createResultSet();
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            Mockito.stub(conn.prepareStatement(Mockito.anyString())).toReturn(ps);
+            Mockito.stub(ps.executeQuery()).toReturn(rs);
+
+            assertSame(rs, processor.executeBulkPrimaryKeyQuery(conn));
+            assertSame(rs, processor.executeBulkImportedKeyQuery(conn));
+
+            Mockito.verify(conn, Mockito.times(2)).prepareStatement(sql.capture());
+            assertColumnOrder(sql.getAllValues().get(0), "table_schem", "table_name", "column_name", "key_seq", "pk_name");
+            assertColumnOrder(sql.getAllValues().get(1), "pktable_schem", "pktable_name", "pkcolumn_name", "fktable_schem", "fktable_name", "fkcolumn_name", "key_seq", "fk_name");
+            Mockito.verify(ps, Mockito.times(2)).setString(Mockito.anyInt(), Mockito.eq("s"));
+            Mockito.verify(ps, Mockito.times(2)).setString(Mockito.anyInt(), Mockito.eq("t%"));
+        }
+    }
+
+    private static void assertColumnOrder(String sql, String... columns) {
+        int index = -1;
+        for (String column : columns) {
+            int next = sql.indexOf(" as " + column, index + 1);
+            if (next < 0) {
+                next = sql.indexOf("." + column, index + 1);
+            }
+            assertTrue(sql, next > index);
+            index = next;
+        }
+    }
+
+    private static void assertKeys(MetadataFactory mf) {
+        Table a = mf.getSchema().getTable("s.a");
+        Table b = mf.getSchema().getTable("t.b");
+        assertNull(mf.getSchema().getTable("s.c"));
+        assertEquals(Arrays.asList("x", "y"), getNames(a.getColumns()));
+        assertEquals(Arrays.asList("id", "ax", "ay"), getNames(b.getColumns()));
+
+        //composite key columns are in key sequence order
+        assertEquals("pk_a", a.getPrimaryKey().getName());
+        assertEquals(Arrays.asList("x", "y"), getNames(a.getPrimaryKey().getColumns()));
+        assertEquals(Arrays.asList("id"), getNames(b.getPrimaryKey().getColumns()));
+
+        //cross schema composite foreign key
+        assertEquals(1, b.getForeignKeys().size());
+        ForeignKey fk = b.getForeignKeys().get(0);
+        assertEquals("fk_b_a", fk.getName());
+        assertEquals(Arrays.asList("ax", "ay"), getNames(fk.getColumns()));
+        assertSame(a.getPrimaryKey(), fk.getReferenceKey());
+        assertTrue(a.getForeignKeys().isEmpty());
+    }
+
+    private static List<String> getNames(List<Column> columns) {
+        List<String> names = new ArrayList<String>();
+        for (Column column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+
+    private static JDBCMetadataProcessor createProcessor() {
+        JDBCMetadataProcessor processor = new JDBCMetadataProcessor();
+        setProperties(processor);
+        return processor;
+    }
+
+    private static void setProperties(JDBCMetadataProcessor processor) {
+        processor.setSchemaPattern("%");
+        processor.setUseFullSchemaName(true);
+    }
+
+    private static MetadataFactory createMetadataFactory() {
+        return new MetadataFactory("vdb", 1, "x", SystemMetadata.getInstance().getRuntimeTypeMap(), new Properties(), null);
+    }
+
+    /**
+     * Table s.a(x, y) with primary key (x, y) and table t.b(id, ax, ay) with a foreign key (ax, ay) to s.a.
+     * Bulk column results also contain rows for s.c, which is not an imported table.
+     */
+    private static DatabaseMetaData createMetadata() throws SQLException, TranslatorException {
+        final Connection conn = Mockito.mock(Connection.class);
+        DatabaseMetaData dmd = Mockito.mock(DatabaseMetaData.class, new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                Class<?> type = invocation.getMethod().getReturnType();
+                if (type == ResultSet.class) {
+                    return createResultSet();
+                }
+                if (type == Connection.class) {
+                    return conn;
+                }
+                return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+        });
+        Mockito.stub(conn.getMetaData()).toReturn(dmd);
+
+        Mockito.stub(dmd.getTables(null, "%", null, null)).toReturn(createResultSet(
+                new Object[] {null, "s", "a", "TABLE", null},
+                new Object[] {null, "t", "b", "TABLE", null}));
+
+        Object[][] a = new Object[][] {column("s", "a", "x"), column("s", "a", "y")};
+        Object[][] b = new Object[][] {column("t", "b", "id"), column("t", "b", "ax"), column("t", "b", "ay")};
+        Mockito.stub(dmd.getColumns(null, "s", "a", null)).toReturn(createResultSet(a));
+        Mockito.stub(dmd.getColumns(null, "t", "b", null)).toReturn(createResultSet(b));
+        Mockito.stub(dmd.getColumns(null, "%", null, null)).toReturn(createResultSet(
+                a[0], a[1], column("s", "c", "z"), b[0], b[1], b[2]));
+
+        Mockito.stub(dmd.getPrimaryKeys(null, "s", "a")).toReturn(createResultSet(
+                new Object[] {null, "s", "a", "y", 2, "pk_a"},
+                new Object[] {null, "s", "a", "x", 1, "pk_a"}));
+        Mockito.stub(dmd.getPrimaryKeys(null, "t", "b")).toReturn(createResultSet(
+                new Object[] {null, "t", "b", "id", 1, null}));
+        Mockito.stub(dmd.getImportedKeys(null, "t", "b")).toReturn(createResultSet(
+                new Object[] {null, "s", "a", "y", null, "t", "b", "ay", 2, null, null, "fk_b_a"},
+                new Object[] {null, "s", "a", "x", null, "t", "b", "ax", 1, null, null, "fk_b_a"}));
+        return dmd;
+    }
+
+    private static Object[] column(String schema, String table, String name) {
+        return new Object[] {null, schema, table, name, Types.INTEGER, "integer", 10, null, 0, 10, DatabaseMetaData.columnNoNulls, null, null, null, null, 0};
+    }
+
+    /**
+     * Create a forward only {@link ResultSet} over the given rows
+     */
+    static ResultSet createResultSet(final Object[]... rows) throws SQLException {
+        final ResultSetMetaData rsmd = Mockito.mock(ResultSetMetaData.class);
+        Mockito.stub(rsmd.getColumnCount()).toReturn(rows.length == 0?0:rows[0].length);
+        return Mockito.mock(ResultSet.class, new Answer<Object>() {
+            int row = -1;
+
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                String name = invocation.getMethod().getName();
+                Object[] args = invocation.getArguments();
+                if (name.equals("next")) {
+                    return ++row < rows.length;
+                }
+                if (name.equals("getMetaData")) {
+                    return rsmd;
+                }
+                if (name.startsWith("get") && args.length == 1 && args[0] instanceof Integer) {
+                    int index = (Integer)args[0] - 1;
+                    Object value = index < rows[row].length?rows[row][index]:null;
+                    if (value == null) {
+                        return Mockito.RETURNS_DEFAULTS.answer(invocation);
+                    }
+                    Class<?> type = invocation.getMethod().getReturnType();
+                    if (type == String.class) {
+                        return value.toString();
+                    }
+                    if (type == short.class) {
+                        return ((Number)value).shortValue();
+                    }
+                    if (type == int.class) {
+                        return ((Number)value).intValue();
+                    }
+                    if (type == long.class) {
+                        return ((Number)value).longValue();
+                    }
+                    return value;
+                }
+                return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+        });
+    }
+
 }
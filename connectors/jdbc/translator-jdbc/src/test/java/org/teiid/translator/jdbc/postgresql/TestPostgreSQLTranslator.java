@@ -20,22 +20,32 @@ package org.teiid.translator.jdbc.postgresql;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.util.Arrays;
+import java.util.List;
 import java.util.TimeZone;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.teiid.core.types.BinaryType;
+import org.teiid.core.util.ObjectConverterUtil;
 import org.teiid.core.util.SimpleMock;
 import org.teiid.core.util.TimestampWithTimezone;
 import org.teiid.language.Array;
 import org.teiid.language.Expression;
+import org.teiid.language.ExpressionValueSource;
+import org.teiid.language.Insert;
 import org.teiid.language.Literal;
+import org.teiid.language.Parameter;
 import org.teiid.translator.SourceSystemFunctions;
 import org.teiid.translator.TranslatorException;
 import org.teiid.translator.jdbc.TranslationHelper;
@@ -766,4 +776,41 @@ public class TestPostgreSQLTranslator {
         assertEquals("2001-01-01 05:02:03.123456", PostgreSQLExecutionFactory.convertTimestampTZ("2001-01-01 01:02:03.123456-04").toString());
     }
 
+    public static class FakeCopyManager {
+        String sql;
+        String data;
+
+        public long copyIn(String sql, Reader reader) throws IOException {
+            this.sql = sql;
+            StringWriter writer = new StringWriter();
+            ObjectConverterUtil.write(writer, reader, -1, true);
+            this.data = writer.toString();
+            return 2;
+        }
+    }
+
+    @Test public void testCopyLoader() throws Exception {
+        Insert insert = (Insert)TranslationHelper.helpTranslate("create foreign table t (id integer, name string, data varbinary, ts timestamp)", "insert into t (id, name, data, ts) values (1, 'a', X'00', {ts '2001-01-01 01:02:03.1234567'})");
+        List<Expression> values = ((ExpressionValueSource)insert.getValueSource()).getValues();
+        for (int i = 0; i < 3; i++) {
+            Parameter param = new Parameter();
+            param.setType(values.get(i).getType());
+            param.setValueIndex(i);
+            values.set(i, param);
+        }
+
+        FakeCopyManager copyManager = new FakeCopyManager();
+        PostgreSQLCopyLoader loader = new PostgreSQLCopyLoader(insert, copyManager, TRANSLATOR);
+        assertEquals(2, loader.load(Arrays.asList(Arrays.asList(1, "a\"b", null), Arrays.asList(2, "", new BinaryType(new byte[] {1, 15}))).iterator()));
+
+        assertEquals("COPY t (id, name, data, ts) FROM STDIN WITH CSV", copyManager.sql);
+        assertEquals("\"1\",\"a\"\"b\",,\"2001-01-01 01:02:03.123456\"\n\"2\",\"\",\"\\x010F\",\"2001-01-01 01:02:03.123456\"\n", copyManager.data);
+
+        //without the driver prepared batches are used
+        assertNull(TRANSLATOR.getBulkLoader(insert, null, Mockito.mock(Connection.class)));
+
+        insert = (Insert)TranslationHelper.helpTranslate("create foreign table t (id integer, o object)", "insert into t (id, o) values (1, null)");
+        assertFalse(PostgreSQLCopyLoader.canLoad(insert));
+    }
+
 }
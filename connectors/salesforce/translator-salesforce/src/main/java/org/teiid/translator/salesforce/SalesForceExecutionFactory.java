@@ -23,7 +23,9 @@ import static org.teiid.translator.TypeFacility.RUNTIME_NAMES.STRING;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
+import org.teiid.core.util.ExecutorUtils;
 import org.teiid.language.Argument;
 import org.teiid.language.Call;
 import org.teiid.language.Command;
@@ -59,10 +61,14 @@ public class SalesForceExecutionFactory extends ExecutionFactory<ConnectionFacto
     private static final String SALESFORCE = "salesforce"; //$NON-NLS-1$
     private static final String EXCLUDES = "excludes";//$NON-NLS-1$
     private static final String INCLUDES = "includes";//$NON-NLS-1$
+    //idle threads expire, so the pool is shared by all instances
+    private static final ExecutorService READ_AHEAD_EXECUTOR = ExecutorUtils.newFixedThreadPool(64, "Salesforce Read Ahead"); //$NON-NLS-1$
     private int maxInsertBatchSize = 2048;
     private boolean supportsGroupBy = true;
     private boolean bulk;
     private boolean hardDelete;
+    private boolean readAhead = true;
+    private int bulkResultParallelism = 4;
 
     public SalesForceExecutionFactory() {
         /*there are multiple issues:
@@ -300,6 +306,32 @@ public class SalesForceExecutionFactory extends ExecutionFactory<ConnectionFacto
         this.hardDelete = hardDelete;
     }
 
+    @TranslatorProperty(display="Read Ahead", description="Defaults to true. Set to false to only issue queryMore once the current batch of results has been read.", advanced=true)
+    public boolean isReadAhead() {
+        return readAhead;
+    }
+
+    public void setReadAhead(boolean readAhead) {
+        this.readAhead = readAhead;
+    }
+
+    @TranslatorProperty(display="Bulk Result Parallelism", description="The number of pk chunked bulk results to download concurrently for each query.  Defaults to 4. Set to 1 to read the results one at a time.", advanced=true)
+    public int getBulkResultParallelism() {
+        return bulkResultParallelism;
+    }
+
+    public void setBulkResultParallelism(int bulkResultParallelism) {
+        this.bulkResultParallelism = bulkResultParallelism;
+    }
+
+    /**
+     * @return the executor used for queryMore read ahead and concurrent bulk result downloads.
+     * Tasks only wait on the source, so a thread is never held waiting for the engine to consume results.
+     */
+    public ExecutorService getReadAheadExecutor() {
+        return READ_AHEAD_EXECUTOR;
+    }
+
     @Override
     public boolean supportsOrderByNullOrdering() {
         return true;
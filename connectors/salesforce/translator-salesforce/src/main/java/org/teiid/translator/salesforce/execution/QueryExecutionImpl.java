@@ -20,6 +20,7 @@ package org.teiid.translator.salesforce.execution;
 import java.io.IOException;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -31,6 +32,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -150,6 +156,202 @@ public class QueryExecutionImpl implements ResultSetExecution {
         }
     }
 
+    /**
+     * Downloads pk chunked bulk results concurrently.  The results are requested from the
+     * connection on the processing thread, while the csv streams are read by the read ahead
+     * executor in chunks.  pk chunking is not used with an order by, so the interleaving of
+     * the results does not matter.
+     * <br>
+     * At most parallelism readers are active for the query.  A reader stops once
+     * MAX_BUFFERED records are waiting and is resubmitted as they are consumed, so executor
+     * threads never wait on the processing thread.  The processing thread does not wait either,
+     * it throws a {@link DataNotAvailableException} and the readers notify when a chunk is ready.
+     * <br>
+     * Closing waits for the active readers to stop using their results, so that the connection
+     * is not used after the execution is closed.
+     */
+    private final class ParallelBulkResults {
+        private final ArrayDeque<List<List<String>>> chunks = new ArrayDeque<List<List<String>>>();
+        private final List<BulkResultReader> paused = new ArrayList<BulkResultReader>();
+        private final int parallelism;
+        private List<List<String>> current;
+        private int index;
+        private int activeReaders;
+        private int buffered;
+        private boolean allRequested;
+        private Throwable failure;
+        private volatile boolean closed;
+
+        ParallelBulkResults(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        List<String> nextRecord() throws TranslatorException {
+            while (true) {
+                if (current != null && index < current.size()) {
+                    return current.get(index++);
+                }
+                current = null;
+                requestResults();
+                synchronized (this) {
+                    if (failure != null) {
+                        throw new TranslatorException(failure);
+                    }
+                    current = chunks.poll();
+                    if (current != null) {
+                        index = 0;
+                        buffered -= current.size();
+                        resumeReaders();
+                        continue;
+                    }
+                    if (allRequested && activeReaders == 0) {
+                        return null;
+                    }
+                }
+                throw DataNotAvailableException.NO_POLLING;
+            }
+        }
+
+        private void requestResults() throws TranslatorException {
+            while (!allRequested) {
+                synchronized (this) {
+                    if (activeReaders >= parallelism) {
+                        return;
+                    }
+                }
+                BulkBatchResult result = null;
+                try {
+                    result = connection.getBatchQueryResults(activeJob.getId(), batchInfo);
+                } catch (DataNotAvailableException e) {
+                    synchronized (this) {
+                        if (activeReaders == 0 && chunks.isEmpty()) {
+                            throw e;
+                        }
+                    }
+                    //consume what has already been downloaded
+                    return;
+                }
+                if (result == null) {
+                    allRequested = true;
+                    return;
+                }
+                synchronized (this) {
+                    activeReaders++;
+                }
+                executionFactory.getReadAheadExecutor().execute(new BulkResultReader(result));
+            }
+        }
+
+        private void resumeReaders() {
+            if (buffered >= MAX_BUFFERED) {
+                return;
+            }
+            for (BulkResultReader reader : paused) {
+                executionFactory.getReadAheadExecutor().execute(reader);
+            }
+            paused.clear();
+        }
+
+        synchronized void close() {
+            closed = true;
+            chunks.clear();
+            for (BulkResultReader reader : paused) {
+                reader.result.close();
+            }
+            activeReaders -= paused.size();
+            paused.clear();
+            long end = System.currentTimeMillis() + CLOSE_WAIT_MILLIS;
+            while (activeReaders > 0) {
+                long wait = end - System.currentTimeMillis();
+                if (wait <= 0) {
+                    LogManager.logDetail(LogConstants.CTX_CONNECTOR, "Timed out waiting for the bulk result readers to stop"); //$NON-NLS-1$
+                    return;
+                }
+                try {
+                    this.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private final class BulkResultReader implements Runnable {
+            private final BulkBatchResult result;
+            private boolean header = true;
+
+            BulkResultReader(BulkBatchResult result) {
+                this.result = result;
+            }
+
+            @Override
+            public void run() {
+                boolean done = false;
+                while (!done) {
+                    List<List<String>> chunk = new ArrayList<List<String>>(CHUNK_SIZE);
+                    Throwable error = null;
+                    try {
+                        if (header && !closed) {
+                            header = false;
+                            //throw the header away
+                            if (result.nextRecord() == null) {
+                                throw new AssertionError("Expected header row"); //$NON-NLS-1$
+                            }
+                        }
+                        while (chunk.size() < CHUNK_SIZE && !closed) {
+                            List<String> record = result.nextRecord();
+                            if (record == null) {
+                                done = true;
+                                break;
+                            }
+                            chunk.add(record);
+                        }
+                    } catch (Throwable e) {
+                        error = e;
+                        done = true;
+                    }
+                    boolean pause = false;
+                    synchronized (ParallelBulkResults.this) {
+                        if (closed) {
+                            done = true;
+                        } else {
+                            if (!chunk.isEmpty()) {
+                                chunks.add(chunk);
+                                buffered += chunk.size();
+                            }
+                            if (error != null) {
+                                failure = error;
+                            }
+                        }
+                        if (!done && buffered >= MAX_BUFFERED) {
+                            paused.add(this);
+                            pause = true;
+                        }
+                    }
+                    if (done) {
+                        //close before the reader is no longer counted as active
+                        result.close();
+                        synchronized (ParallelBulkResults.this) {
+                            activeReaders--;
+                            ParallelBulkResults.this.notifyAll();
+                        }
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    context.dataAvailable();
+                    if (pause) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final int CHUNK_SIZE = 256;
+    private static final int MAX_BUFFERED = 4096;
+    private static final long CLOSE_WAIT_MILLIS = 10000;
+
     private static final String TYPE = "type"; //$NON-NLS-1$
 
     private static final String AGGREGATE_RESULT = "AggregateResult"; //$NON-NLS-1$
@@ -193,7 +395,53 @@ public class QueryExecutionImpl implements ResultSetExecution {
     private JobInfo activeJob;
     private BatchResultInfo batchInfo;
     private BulkBatchResult batchResults;
+    private ParallelBulkResults parallelResults;
+
+    private ReadAheadTask nextResults;
 
+    /**
+     * A queryMore issued on the read ahead executor
+     */
+    private final class ReadAheadTask extends FutureTask<QueryResult> {
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        ReadAheadTask(final String queryLocator, final int batchSize) {
+            super(new Callable<QueryResult>() {
+                @Override
+                public QueryResult call() throws Exception {
+                    return connection.queryMore(queryLocator, batchSize);
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        @Override
+        protected void done() {
+            context.dataAvailable();
+        }
+
+        /**
+         * Cancel and wait for an in progress queryMore to stop using the connection
+         */
+        void cancelAndWait() {
+            cancel(true);
+            try {
+                if (!finished.await(CLOSE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    LogManager.logDetail(LogConstants.CTX_CONNECTOR, "Timed out waiting for the read ahead to stop"); //$NON-NLS-1$
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 
     public QueryExecutionImpl(QueryExpression command, SalesforceConnection connection, RuntimeMetadata metadata, ExecutionContext context, SalesForceExecutionFactory salesForceExecutionFactory) {
         this.connection = connection;
@@ -213,6 +461,9 @@ public class QueryExecutionImpl implements ResultSetExecution {
         if (activeJob != null) {
             this.connection.cancelBulkJob(activeJob);
         }
+        if (nextResults != null) {
+            nextResults.cancel(true);
+        }
     }
 
     public void close() {
@@ -228,6 +479,14 @@ public class QueryExecutionImpl implements ResultSetExecution {
             batchResults.close();
             batchResults = null;
         }
+        if (parallelResults != null) {
+            parallelResults.close();
+            parallelResults = null;
+        }
+        if (nextResults != null) {
+            nextResults.cancelAndWait();
+            nextResults = null;
+        }
     }
 
     @Override
@@ -261,6 +520,9 @@ public class QueryExecutionImpl implements ResultSetExecution {
                     LogManager.logDetail(LogConstants.CTX_CONNECTOR,  getLogPreamble(), "Using bulk logic", bulkValidator.usePkChunking()?"with":"without", "pk chunking"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
                     this.activeJob = connection.createBulkJob(visitor.getTableName(), OperationEnum.query, bulkValidator.usePkChunking());
                     batchInfo = connection.addBatch(finalQuery, this.activeJob);
+                    if (bulkValidator.usePkChunking() && executionFactory.getBulkResultParallelism() > 1) {
+                        parallelResults = new ParallelBulkResults(executionFactory.getBulkResultParallelism());
+                    }
                     return;
                 }
                 LogManager.logDetail(LogConstants.CTX_CONNECTOR,  getLogPreamble(), "Ingoring bulk hint as the query is not bulk eligible"); //$NON-NLS-1$
@@ -274,6 +536,12 @@ public class QueryExecutionImpl implements ResultSetExecution {
     public List<?> next() throws TranslatorException, DataNotAvailableException {
         if (activeJob != null) {
             List<String> row = null;
+            if (parallelResults != null) {
+                row = parallelResults.nextRecord();
+                if (row == null) {
+                    return null;
+                }
+            }
             try {
                 while (row == null) {
                     if (batchResults == null) {
@@ -307,33 +575,34 @@ public class QueryExecutionImpl implements ResultSetExecution {
             }
             return result;
         }
-        List<?> result = getRow(results);
+        List<?> result = getRow();
         return result;
     }
 
-    private List<Object> getRow(QueryResult result) throws TranslatorException {
-        List<Object> row;
+    private List<Object> getRow() throws TranslatorException {
         if(null == resultBatch) {
             loadBatch();
         }
-        if(resultBatch.size() == topResultIndex) {
-            row = null;
-        } else {
-            row = resultBatch.get(topResultIndex);
-            topResultIndex++;
-            if(resultBatch.size() == topResultIndex) {
-                if(!result.isDone()) {
-                    loadBatch();
-                }
+        while(resultBatch.size() == topResultIndex) {
+            if(results.isDone()) {
+                return null;
             }
-
+            loadBatch();
         }
-        return row;
+        return resultBatch.get(topResultIndex++);
     }
 
     private void loadBatch() throws TranslatorException {
         if(null != resultBatch) { // if we have an old batch, then we have to get new results
-            results = connection.queryMore(results.getQueryLocator(), context.getBatchSize());
+            if (nextResults != null) {
+                if (!nextResults.isDone()) {
+                    //the read ahead will notify when the results are available
+                    throw DataNotAvailableException.NO_POLLING;
+                }
+                results = getNextResults();
+            } else {
+                results = connection.queryMore(results.getQueryLocator(), context.getBatchSize());
+            }
         }
         resultBatch = new ArrayList<List<Object>>();
         topResultIndex = 0;
@@ -346,6 +615,26 @@ public class QueryExecutionImpl implements ResultSetExecution {
                 resultBatch.add(Arrays.asList(i.next()));
             }
         }
+        if (!results.isDone() && executionFactory.isReadAhead()) {
+            //issue the next queryMore while this batch is processed
+            nextResults = new ReadAheadTask(results.getQueryLocator(), context.getBatchSize());
+            executionFactory.getReadAheadExecutor().execute(nextResults);
+        }
+    }
+
+    private QueryResult getNextResults() throws TranslatorException {
+        try {
+            return nextResults.get();
+        } catch (InterruptedException e) {
+            throw new TranslatorException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TranslatorException) {
+                throw (TranslatorException)e.getCause();
+            }
+            throw new TranslatorException(e.getCause());
+        } finally {
+            nextResults = null;
+        }
     }
 
         private List<Object[]> getObjectData(SObject sObject) throws TranslatorException {
@@ -21,16 +21,24 @@ package org.teiid.translator.salesforce.execution;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -75,13 +83,144 @@ public class TestQueryExecutionImpl {
         finalQr.setDone(true);
         Mockito.stub(sfc.query("SELECT Name FROM Account", 0, false)).toReturn(qr);
         Mockito.stub(sfc.queryMore(null, 0)).toReturn(finalQr);
-        QueryExecutionImpl qei = new QueryExecutionImpl(command, sfc, Mockito.mock(RuntimeMetadata.class), Mockito.mock(ExecutionContext.class), new SalesForceExecutionFactory());
+        SalesForceExecutionFactory factory = new SalesForceExecutionFactory();
+        factory.setReadAhead(false);
+        QueryExecutionImpl qei = new QueryExecutionImpl(command, sfc, Mockito.mock(RuntimeMetadata.class), Mockito.mock(ExecutionContext.class), factory);
         qei.execute();
         assertNotNull(qei.next());
         assertNotNull(qei.next());
         assertNull(qei.next());
     }
 
+    @Test public void testReadAhead() throws Exception {
+        Select command = (Select)translationUtility.parseCommand("select Name from Account"); //$NON-NLS-1$
+        SalesforceConnection sfc = Mockito.mock(SalesforceConnection.class);
+        QueryResult qr = new QueryResult();
+        qr.setRecords(new SObject[] {account("a")});
+        qr.setQueryLocator("1");
+        qr.setDone(false);
+        final QueryResult nextQr = new QueryResult();
+        nextQr.setRecords(new SObject[] {account("b")});
+        nextQr.setQueryLocator("2");
+        nextQr.setDone(false);
+        QueryResult finalQr = new QueryResult();
+        finalQr.setRecords(new SObject[] {account("c")});
+        finalQr.setDone(true);
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito.stub(sfc.query("SELECT Name FROM Account", 0, false)).toReturn(qr);
+        Mockito.when(sfc.queryMore("1", 0)).thenAnswer(new Answer<QueryResult>() {
+            @Override
+            public QueryResult answer(InvocationOnMock invocation) throws Throwable {
+                release.await();
+                return nextQr;
+            }
+        });
+        Mockito.stub(sfc.queryMore("2", 0)).toReturn(finalQr);
+        Semaphore dataAvailable = new Semaphore(0);
+        QueryExecutionImpl qei = new QueryExecutionImpl(command, sfc, Mockito.mock(RuntimeMetadata.class), mockContext(dataAvailable, null), new SalesForceExecutionFactory());
+        qei.execute();
+        assertEquals(Arrays.asList("a"), qei.next());
+        try {
+            //the read ahead is still in progress
+            qei.next();
+            fail();
+        } catch (DataNotAvailableException e) {
+
+        }
+        release.countDown();
+        assertEquals(Arrays.asList("b"), next(qei, dataAvailable));
+        assertEquals(Arrays.asList("c"), next(qei, dataAvailable));
+        assertNull(next(qei, dataAvailable));
+        Mockito.verify(sfc, Mockito.times(1)).queryMore("1", 0);
+        Mockito.verify(sfc, Mockito.times(1)).queryMore("2", 0);
+        qei.close();
+    }
+
+    @Test(timeout=10000) public void testCloseWaitsForReadAhead() throws Exception {
+        Select command = (Select)translationUtility.parseCommand("select Name from Account"); //$NON-NLS-1$
+        SalesforceConnection sfc = Mockito.mock(SalesforceConnection.class);
+        QueryResult qr = new QueryResult();
+        qr.setRecords(new SObject[] {account("a")});
+        qr.setQueryLocator("1");
+        qr.setDone(false);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito.stub(sfc.query("SELECT Name FROM Account", 0, false)).toReturn(qr);
+        Mockito.when(sfc.queryMore("1", 0)).thenAnswer(new Answer<QueryResult>() {
+            @Override
+            public QueryResult answer(InvocationOnMock invocation) throws Throwable {
+                entered.countDown();
+                //a request that does not respond to the interrupt
+                awaitUninterruptibly(release);
+                return new QueryResult();
+            }
+        });
+        final QueryExecutionImpl qei = new QueryExecutionImpl(command, sfc, Mockito.mock(RuntimeMetadata.class), mockContext(new Semaphore(0), null), new SalesForceExecutionFactory());
+        qei.execute();
+        assertEquals(Arrays.asList("a"), qei.next());
+        entered.await();
+        Thread closer = new Thread() {
+            @Override
+            public void run() {
+                qei.close();
+            }
+        };
+        closer.start();
+        //close must not return while the connection is in use
+        closer.join(200);
+        assertTrue(closer.isAlive());
+        release.countDown();
+        closer.join();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SObject account(String name) {
+        SObject so = new SObject();
+        so.setType("Account");
+        so.addField("Name", name);
+        return so;
+    }
+
+    private static ExecutionContext mockContext(final Semaphore dataAvailable, String sourceHint) {
+        ExecutionContext context = Mockito.mock(ExecutionContext.class);
+        Mockito.stub(context.getSourceHint()).toReturn(sourceHint);
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                dataAvailable.release();
+                return null;
+            }
+        }).when(context).dataAvailable();
+        return context;
+    }
+
+    /**
+     * Get the next row, waiting for the execution to signal that data is available
+     */
+    private static List<?> next(QueryExecutionImpl execution, Semaphore dataAvailable) throws Exception {
+        while (true) {
+            try {
+                return execution.next();
+            } catch (DataNotAvailableException e) {
+                assertTrue(dataAvailable.tryAcquire(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
     @Test public void testJoinChildToParent() throws Exception {
         Select command = (Select)translationUtility.parseCommand("select Account.Name, Contact.Id from Account inner join Contact on Account.Id = Contact.AccountId"); //$NON-NLS-1$
         SalesforceConnection sfc = Mockito.mock(SalesforceConnection.class);
@@ -232,8 +371,8 @@ public class TestQueryExecutionImpl {
 
         Mockito.when(connection.addBatch("SELECT Name FROM Account", jobInfo)).thenReturn(info);
 
-        ExecutionContext mock = Mockito.mock(ExecutionContext.class);
-        Mockito.stub(mock.getSourceHint()).toReturn("bulk");
+        Semaphore dataAvailable = new Semaphore(0);
+        ExecutionContext mock = mockContext(dataAvailable, "bulk");
 
         QueryExecutionImpl execution = new QueryExecutionImpl(command, connection, Mockito.mock(RuntimeMetadata.class), mock, new SalesForceExecutionFactory());
 
@@ -245,9 +384,201 @@ public class TestQueryExecutionImpl {
         } catch (DataNotAvailableException e) {
 
         }
-        List<?> row = execution.next();
+        List<?> row = next(execution, dataAvailable);
         assertEquals(Arrays.asList("X"), row);
-        assertNull(execution.next());
+        assertNull(next(execution, dataAvailable));
+    }
+
+    @Test
+    public void testParallelBulkResults() throws Exception {
+        Select command = (Select)translationUtility.parseCommand("select Name from Account"); //$NON-NLS-1$
+
+        SalesforceConnection connection = Mockito.mock(SalesforceConnection.class);
+        JobInfo jobInfo = Mockito.mock(JobInfo.class);
+
+        Mockito.when(connection.createBulkJob(Mockito.anyString(), Mockito.eq(OperationEnum.query), Mockito.eq(true))).thenReturn(jobInfo);
+
+        final BatchResultInfo info = new BatchResultInfo("x");
+
+        Mockito.when(connection.getBatchQueryResults(Mockito.anyString(), Mockito.eq(info))).thenAnswer(new Answer<BulkBatchResult>() {
+            @Override
+            public BulkBatchResult answer(InvocationOnMock invocation)
+                    throws Throwable {
+                int chunk = info.getAndIncrementResultNum();
+                if (chunk < 3) {
+                    final Iterator<List<String>> i = Arrays.asList(Arrays.asList("Name"), Arrays.asList("X" + chunk), Arrays.asList("Y" + chunk)).iterator();
+                    return new BulkBatchResult() {
+
+                        @Override
+                        public List<String> nextRecord() throws IOException {
+                            if (!i.hasNext()) {
+                                return null;
+                            }
+                            return i.next();
+                        }
+
+                        @Override
+                        public void close() {
+
+                        }
+                    };
+                }
+                return null;
+            }
+        });
+
+        Mockito.when(connection.addBatch("SELECT Name FROM Account", jobInfo)).thenReturn(info);
+
+        Semaphore dataAvailable = new Semaphore(0);
+        ExecutionContext mock = mockContext(dataAvailable, "bulk");
+
+        SalesForceExecutionFactory factory = new SalesForceExecutionFactory();
+        factory.setBulkResultParallelism(2);
+        QueryExecutionImpl execution = new QueryExecutionImpl(command, connection, Mockito.mock(RuntimeMetadata.class), mock, factory);
+
+        execution.execute();
+
+        List<String> values = new ArrayList<String>();
+        List<?> row = null;
+        while ((row = next(execution, dataAvailable)) != null) {
+            values.add((String)row.get(0));
+        }
+        Collections.sort(values);
+        assertEquals(Arrays.asList("X0", "X1", "X2", "Y0", "Y1", "Y2"), values);
+        execution.close();
+    }
+
+    @Test(timeout=10000)
+    public void testParallelBulkResultsCloseWaitsForReaders() throws Exception {
+        Select command = (Select)translationUtility.parseCommand("select Name from Account"); //$NON-NLS-1$
+
+        SalesforceConnection connection = Mockito.mock(SalesforceConnection.class);
+        JobInfo jobInfo = Mockito.mock(JobInfo.class);
+
+        Mockito.when(connection.createBulkJob(Mockito.anyString(), Mockito.eq(OperationEnum.query), Mockito.eq(true))).thenReturn(jobInfo);
+
+        final BatchResultInfo info = new BatchResultInfo("x");
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        Mockito.when(connection.getBatchQueryResults(Mockito.anyString(), Mockito.eq(info))).thenAnswer(new Answer<BulkBatchResult>() {
+            @Override
+            public BulkBatchResult answer(InvocationOnMock invocation)
+                    throws Throwable {
+                int chunk = info.getAndIncrementResultNum();
+                if (chunk == 0) {
+                    return new BulkBatchResult() {
+                        int row;
+
+                        @Override
+                        public List<String> nextRecord() throws IOException {
+                            if (row++ == 1) {
+                                entered.countDown();
+                                awaitUninterruptibly(release);
+                            }
+                            return Arrays.asList("X" + row);
+                        }
+
+                        @Override
+                        public void close() {
+                            closed.countDown();
+                        }
+                    };
+                }
+                throw DataNotAvailableException.NO_POLLING;
+            }
+        });
+
+        Mockito.when(connection.addBatch("SELECT Name FROM Account", jobInfo)).thenReturn(info);
+
+        SalesForceExecutionFactory factory = new SalesForceExecutionFactory();
+        factory.setBulkResultParallelism(2);
+        final QueryExecutionImpl execution = new QueryExecutionImpl(command, connection, Mockito.mock(RuntimeMetadata.class), mockContext(new Semaphore(0), "bulk"), factory);
+
+        execution.execute();
+        try {
+            execution.next();
+        } catch (DataNotAvailableException e) {
+            //the reader is running
+        }
+        entered.await();
+        Thread closer = new Thread() {
+            @Override
+            public void run() {
+                execution.close();
+            }
+        };
+        closer.start();
+        //close must wait for the active reader
+        closer.join(200);
+        assertTrue(closer.isAlive());
+        release.countDown();
+        closer.join();
+        //the reader closes its result as soon as it sees the close
+        assertEquals(0, closed.getCount());
+    }
+
+    @Test
+    public void testParallelBulkResultsBuffering() throws Exception {
+        Select command = (Select)translationUtility.parseCommand("select Name from Account"); //$NON-NLS-1$
+
+        SalesforceConnection connection = Mockito.mock(SalesforceConnection.class);
+        JobInfo jobInfo = Mockito.mock(JobInfo.class);
+
+        Mockito.when(connection.createBulkJob(Mockito.anyString(), Mockito.eq(OperationEnum.query), Mockito.eq(true))).thenReturn(jobInfo);
+
+        final BatchResultInfo info = new BatchResultInfo("x");
+
+        Mockito.when(connection.getBatchQueryResults(Mockito.anyString(), Mockito.eq(info))).thenAnswer(new Answer<BulkBatchResult>() {
+            @Override
+            public BulkBatchResult answer(InvocationOnMock invocation)
+                    throws Throwable {
+                final int chunk = info.getAndIncrementResultNum();
+                if (chunk < 3) {
+                    return new BulkBatchResult() {
+                        int row = -1;
+
+                        @Override
+                        public List<String> nextRecord() throws IOException {
+                            if (row == 5000) {
+                                return null;
+                            }
+                            if (row++ == -1) {
+                                return Arrays.asList("Name");
+                            }
+                            return Arrays.asList(chunk + " " + row);
+                        }
+
+                        @Override
+                        public void close() {
+
+                        }
+                    };
+                }
+                return null;
+            }
+        });
+
+        Mockito.when(connection.addBatch("SELECT Name FROM Account", jobInfo)).thenReturn(info);
+
+        Semaphore dataAvailable = new Semaphore(0);
+        ExecutionContext mock = mockContext(dataAvailable, "bulk");
+
+        SalesForceExecutionFactory factory = new SalesForceExecutionFactory();
+        factory.setBulkResultParallelism(2);
+        QueryExecutionImpl execution = new QueryExecutionImpl(command, connection, Mockito.mock(RuntimeMetadata.class), mock, factory);
+
+        execution.execute();
+
+        //more rows than are buffered, so the readers must be resumed
+        Set<Object> values = new HashSet<Object>();
+        List<?> row = null;
+        while ((row = next(execution, dataAvailable)) != null) {
+            values.add(row.get(0));
+        }
+        assertEquals(15000, values.size());
+        execution.close();
     }
 
 }
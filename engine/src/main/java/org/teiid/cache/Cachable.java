@@ -27,4 +27,9 @@ public interface Cachable {
     boolean restore(TupleBufferCache bufferManager);
 
     AccessInfo getAccessInfo();
+
+    /**
+     * @return the estimated size in bytes of the cached value
+     */
+    long getSizeEstimate();
 }
@@ -113,6 +113,12 @@ public interface BufferManager extends StorageManager, TupleBufferCache {
 
     STree createSTree(List<? extends Expression> elements, String groupName, int keyLength);
 
+    /**
+     * Create an {@link STree} that may be searched concurrently with updates
+     * @see ConcurrentSTree
+     */
+    STree createConcurrentSTree(List<? extends Expression> elements, String groupName, int keyLength);
+
     void addTupleBuffer(TupleBuffer tb);
 
     /**
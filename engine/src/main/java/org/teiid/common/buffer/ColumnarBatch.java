@@ -0,0 +1,339 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.common.buffer;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.teiid.core.types.DataTypeManager.DefaultDataClasses;
+
+/**
+ * An immutable batch that holds fixed width values in primitive column arrays
+ * with null bitmaps rather than as boxed values in row lists.
+ * <br>
+ * Other values are held in object column arrays.  Each call to {@link #get(int)}
+ * creates a new row list with boxed values, so this is only appropriate for batches
+ * that are not modified once created and are read much less often than they are held.
+ */
+public final class ColumnarBatch extends AbstractList<List<?>> implements RandomAccess {
+
+    private static final byte OBJECT = 0;
+    private static final byte INTEGER = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte FLOAT = 4;
+    private static final byte SHORT = 5;
+    private static final byte BYTE = 6;
+    private static final byte CHAR = 7;
+    private static final byte BOOLEAN = 8;
+    private static final byte DATE = 9;
+    private static final byte TIME = 10;
+    private static final byte TIMESTAMP = 11;
+
+    private final int rowCount;
+    private final byte[] kinds;
+    private final Object[] columns;
+    /** the null bitmap for each primitive column, or null if there are no nulls */
+    private final long[][] nulls;
+    /** the timestamp nanos for each timestamp column */
+    private final int[][] nanos;
+
+    /**
+     * Create a columnar form of the rows if any of the types have a primitive representation.
+     * @return the columnar batch or the rows if there are no primitive columns
+     */
+    public static List<? extends List<?>> create(Class<?>[] types, List<? extends List<?>> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        for (Class<?> type : types) {
+            if (getKind(type) != OBJECT) {
+                return new ColumnarBatch(types, rows);
+            }
+        }
+        return rows;
+    }
+
+    static byte getKind(Class<?> type) {
+        if (type == DefaultDataClasses.INTEGER) {
+            return INTEGER;
+        }
+        if (type == DefaultDataClasses.LONG) {
+            return LONG;
+        }
+        if (type == DefaultDataClasses.DOUBLE) {
+            return DOUBLE;
+        }
+        if (type == DefaultDataClasses.FLOAT) {
+            return FLOAT;
+        }
+        if (type == DefaultDataClasses.SHORT) {
+            return SHORT;
+        }
+        if (type == DefaultDataClasses.BYTE) {
+            return BYTE;
+        }
+        if (type == DefaultDataClasses.CHAR) {
+            return CHAR;
+        }
+        if (type == DefaultDataClasses.BOOLEAN) {
+            return BOOLEAN;
+        }
+        if (type == DefaultDataClasses.DATE) {
+            return DATE;
+        }
+        if (type == DefaultDataClasses.TIME) {
+            return TIME;
+        }
+        if (type == DefaultDataClasses.TIMESTAMP) {
+            return TIMESTAMP;
+        }
+        return OBJECT;
+    }
+
+    private ColumnarBatch(Class<?>[] types, List<? extends List<?>> rows) {
+        this.rowCount = rows.size();
+        this.kinds = new byte[types.length];
+        this.columns = new Object[types.length];
+        this.nulls = new long[types.length][];
+        this.nanos = new int[types.length][];
+        for (int col = 0; col < types.length; col++) {
+            byte kind = getKind(types[col]);
+            if (kind != OBJECT && !hasExpectedClass(rows, col, types[col])) {
+                kind = OBJECT;
+            }
+            this.kinds[col] = kind;
+            this.columns[col] = createColumn(kind);
+            for (int row = 0; row < rowCount; row++) {
+                Object value = rows.get(row).get(col);
+                if (kind == OBJECT) {
+                    ((Object[])this.columns[col])[row] = value;
+                } else if (value == null) {
+                    if (this.nulls[col] == null) {
+                        this.nulls[col] = new long[(rowCount + 63) >>> 6];
+                    }
+                    this.nulls[col][row >>> 6] |= 1L << row;
+                } else {
+                    setValue(kind, col, row, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Values are expected to be of the exact runtime type, but fall back to an object
+     * column rather than fail if they are not.
+     */
+    private static boolean hasExpectedClass(List<? extends List<?>> rows, int col, Class<?> type) {
+        for (int row = 0; row < rows.size(); row++) {
+            Object value = rows.get(row).get(col);
+            if (value != null && value.getClass() != type) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object createColumn(byte kind) {
+        switch (kind) {
+        case INTEGER:
+            return new int[rowCount];
+        case LONG:
+        case DATE:
+        case TIME:
+        case TIMESTAMP:
+            return new long[rowCount];
+        case DOUBLE:
+            return new double[rowCount];
+        case FLOAT:
+            return new float[rowCount];
+        case SHORT:
+            return new short[rowCount];
+        case BYTE:
+            return new byte[rowCount];
+        case CHAR:
+            return new char[rowCount];
+        case BOOLEAN:
+            return new long[(rowCount + 63) >>> 6];
+        default:
+            return new Object[rowCount];
+        }
+    }
+
+    private void setValue(byte kind, int col, int row, Object value) {
+        Object column = this.columns[col];
+        switch (kind) {
+        case INTEGER:
+            ((int[])column)[row] = (Integer)value;
+            break;
+        case LONG:
+            ((long[])column)[row] = (Long)value;
+            break;
+        case DOUBLE:
+            ((double[])column)[row] = (Double)value;
+            break;
+        case FLOAT:
+            ((float[])column)[row] = (Float)value;
+            break;
+        case SHORT:
+            ((short[])column)[row] = (Short)value;
+            break;
+        case BYTE:
+            ((byte[])column)[row] = (Byte)value;
+            break;
+        case CHAR:
+            ((char[])column)[row] = (Character)value;
+            break;
+        case BOOLEAN:
+            if ((Boolean)value) {
+                ((long[])column)[row >>> 6] |= 1L << row;
+            }
+            break;
+        case DATE:
+        case TIME:
+            ((long[])column)[row] = ((java.util.Date)value).getTime();
+            break;
+        case TIMESTAMP:
+            Timestamp ts = (Timestamp)value;
+            ((long[])column)[row] = ts.getTime();
+            if (this.nanos[col] == null) {
+                this.nanos[col] = new int[rowCount];
+            }
+            this.nanos[col][row] = ts.getNanos();
+            break;
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    /**
+     * Get the value at the given 0-based row and column.
+     */
+    public Object getValue(int row, int col) {
+        byte kind = this.kinds[col];
+        Object column = this.columns[col];
+        if (kind == OBJECT) {
+            return ((Object[])column)[row];
+        }
+        long[] nullBits = this.nulls[col];
+        if (nullBits != null && (nullBits[row >>> 6] & (1L << row)) != 0) {
+            return null;
+        }
+        switch (kind) {
+        case INTEGER:
+            return ((int[])column)[row];
+        case LONG:
+            return ((long[])column)[row];
+        case DOUBLE:
+            return ((double[])column)[row];
+        case FLOAT:
+            return ((float[])column)[row];
+        case SHORT:
+            return ((short[])column)[row];
+        case BYTE:
+            return ((byte[])column)[row];
+        case CHAR:
+            return ((char[])column)[row];
+        case BOOLEAN:
+            return (((long[])column)[row >>> 6] & (1L << row)) != 0;
+        case DATE:
+            return new Date(((long[])column)[row]);
+        case TIME:
+            return new Time(((long[])column)[row]);
+        case TIMESTAMP:
+            Timestamp ts = new Timestamp(((long[])column)[row]);
+            ts.setNanos(this.nanos[col][row]);
+            return ts;
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    /**
+     * @return true if the column is held in a primitive array
+     */
+    public boolean isPrimitive(int col) {
+        return this.kinds[col] != OBJECT;
+    }
+
+    /**
+     * @return the heap bytes used by the primitive column including its null bitmap
+     */
+    public long getPrimitiveColumnSize(int col) {
+        long size = 0;
+        switch (this.kinds[col]) {
+        case INTEGER:
+        case FLOAT:
+            size = 4L * rowCount;
+            break;
+        case LONG:
+        case DOUBLE:
+        case DATE:
+        case TIME:
+            size = 8L * rowCount;
+            break;
+        case TIMESTAMP:
+            size = 12L * rowCount;
+            break;
+        case SHORT:
+        case CHAR:
+            size = 2L * rowCount;
+            break;
+        case BYTE:
+            size = rowCount;
+            break;
+        case BOOLEAN:
+            size = 8L * ((rowCount + 63) >>> 6);
+            break;
+        default:
+            return 0;
+        }
+        if (this.nulls[col] != null) {
+            size += 8L * this.nulls[col].length;
+        }
+        return size + 16;
+    }
+
+    public int getColumnCount() {
+        return this.kinds.length;
+    }
+
+    @Override
+    public List<?> get(int index) {
+        if (index < 0 || index >= rowCount) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        Object[] row = new Object[this.kinds.length];
+        for (int col = 0; col < row.length; col++) {
+            row[col] = getValue(index, col);
+        }
+        return Arrays.asList(row);
+    }
+
+    @Override
+    public int size() {
+        return rowCount;
+    }
+
+}
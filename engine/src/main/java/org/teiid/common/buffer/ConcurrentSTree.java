@@ -0,0 +1,340 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.common.buffer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+import org.teiid.common.buffer.SPage.SearchResult;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.processor.CollectionTupleSource;
+import org.teiid.query.processor.relational.ListNestedSortComparator;
+
+/**
+ * An {@link STree} that allows searches to proceed concurrently with updates.
+ * <br>
+ * All structural changes hold the update lock and a write stamp.  Searches are first performed
+ * optimistically without locking and validated against the stamp - if an update intervened the
+ * search is retried, and after several failed attempts it is performed under the update lock.
+ * The lazy key corrections made while searching are only performed by searches that already hold
+ * the update lock, as an optimistic traversal may have seen a stale view of the parent pages.
+ * <br>
+ * Updates are still serialized as a change to a page may cascade to its siblings and
+ * to every index level.
+ * <br>
+ * Read only browsers copy a page of tuples at a time in a validated read and search again
+ * from the last tuple returned, so scans need not exclude updates to remain consistent.
+ * Statement level isolation, such as for updatable temp tables, must still be provided by the caller.
+ */
+@SuppressWarnings("unchecked")
+public class ConcurrentSTree extends STree {
+
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    private StampedLock versionLock = new StampedLock();
+    private long writeStamp;
+
+    public ConcurrentSTree(BatchManager manager,
+            BatchManager leafManager,
+            final ListNestedSortComparator comparator,
+            int pageSize,
+            int leafSize,
+            int keyLength,
+            LobManager lobManager) {
+        super(manager, leafManager, comparator, pageSize, leafSize, keyLength, lobManager);
+    }
+
+    @Override
+    public ConcurrentSTree clone() {
+        ConcurrentSTree clone = (ConcurrentSTree) super.clone();
+        clone.versionLock = new StampedLock();
+        clone.writeStamp = 0;
+        return clone;
+    }
+
+    @Override
+    void lockUpdate() {
+        super.lockUpdate();
+        if (updateLock.getHoldCount() == 1) {
+            writeStamp = versionLock.writeLock();
+        }
+    }
+
+    @Override
+    void unlockUpdate() {
+        if (updateLock.getHoldCount() == 1) {
+            versionLock.unlockWrite(writeStamp);
+        }
+        super.unlockUpdate();
+    }
+
+    @Override
+    boolean isSearchFixupAllowed() {
+        return updateLock.isHeldByCurrentThread();
+    }
+
+    /**
+     * A read of the tree that may be repeated
+     */
+    interface Read<T> {
+        T read() throws TeiidComponentException, TeiidProcessingException;
+    }
+
+    /**
+     * Perform the read optimistically, retrying if an update intervened.  After several
+     * failed attempts the read is performed under the update lock.
+     */
+    <T> T read(Read<T> read) throws TeiidComponentException, TeiidProcessingException {
+        if (updateLock.isHeldByCurrentThread()) {
+            return read.read();
+        }
+        for (int i = 0; i < OPTIMISTIC_ATTEMPTS; i++) {
+            long stamp = versionLock.tryOptimisticRead();
+            if (stamp == 0) {
+                Thread.yield();
+                continue;
+            }
+            try {
+                T result = read.read();
+                if (versionLock.validate(stamp)) {
+                    return result;
+                }
+            } catch (TeiidComponentException | TeiidProcessingException | RuntimeException e) {
+                //an inconsistent view may fail in any number of ways
+                if (versionLock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        lockUpdate();
+        try {
+            return read.read();
+        } finally {
+            unlockUpdate();
+        }
+    }
+
+    @Override
+    List find(final List n, final List<SearchResult> places) throws TeiidComponentException {
+        try {
+            return read(new Read<List>() {
+                @Override
+                public List read() throws TeiidComponentException {
+                    if (places != null) {
+                        places.clear();
+                    }
+                    return ConcurrentSTree.super.find(n, places);
+                }
+            });
+        } catch (TeiidProcessingException e) {
+            throw new TeiidComponentException(e);
+        }
+    }
+
+    /**
+     * Read only browsers do not hold references to pages between calls, see {@link ConcurrentTupleBrowser}
+     */
+    @Override
+    public TupleBrowser createTupleBrowser(TupleSource valueSet,
+            boolean direction, boolean readOnly) {
+        if (!readOnly) {
+            return super.createTupleBrowser(valueSet, direction, readOnly);
+        }
+        return new ConcurrentTupleBrowser(valueSet, null, null, direction);
+    }
+
+    @Override
+    public TupleBrowser createTupleBrowser(List<Object> lowerBound,
+            List<Object> upperBound, boolean direction, boolean readOnly)
+            throws TeiidComponentException {
+        if (!readOnly) {
+            return super.createTupleBrowser(lowerBound, upperBound, direction, readOnly);
+        }
+        return new ConcurrentTupleBrowser(null, lowerBound, upperBound, direction);
+    }
+
+    @Override
+    public List insert(List tuple, InsertMode mode, int sizeHint)
+            throws TeiidComponentException {
+        lockUpdate();
+        try {
+            return super.insert(tuple, mode, sizeHint);
+        } finally {
+            unlockUpdate();
+        }
+    }
+
+    @Override
+    public List remove(List key) throws TeiidComponentException {
+        lockUpdate();
+        try {
+            return super.remove(key);
+        } finally {
+            unlockUpdate();
+        }
+    }
+
+    @Override
+    public long truncate(boolean force) {
+        lockUpdate();
+        try {
+            return super.truncate(force);
+        } finally {
+            unlockUpdate();
+        }
+    }
+
+    @Override
+    public void compact() {
+        lockUpdate();
+        try {
+            super.compact();
+        } finally {
+            unlockUpdate();
+        }
+    }
+
+    @Override
+    public void setBatchInsert(boolean batchInsert)
+            throws TeiidComponentException {
+        lockUpdate();
+        try {
+            super.setBatchInsert(batchInsert);
+        } finally {
+            unlockUpdate();
+        }
+    }
+
+    /**
+     * A read only browser that copies up to a leaf page of tuples at a time in a validated read.
+     * Each range read searches again from the last tuple returned, so that concurrent updates
+     * cannot invalidate the traversal.  The browser does not provide a snapshot - changes after
+     * the last tuple returned will be seen.
+     */
+    private final class ConcurrentTupleBrowser extends TupleBrowser {
+
+        private TupleSource valueSet;
+        private final List<Object> lowerBound;
+        private final List<Object> upperBound;
+        private final boolean direction;
+
+        private List<List<?>> tuples = Collections.emptyList();
+        private int index;
+        private List<?> last;
+        private boolean done;
+
+        ConcurrentTupleBrowser(TupleSource valueSet, List<Object> lowerBound, List<Object> upperBound, boolean direction) {
+            super(ConcurrentSTree.this, direction);
+            this.valueSet = valueSet;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+            this.direction = direction;
+        }
+
+        @Override
+        public List<?> nextTuple() throws TeiidComponentException,
+                TeiidProcessingException {
+            for (;;) {
+                if (index < tuples.size()) {
+                    last = tuples.get(index++);
+                    return last;
+                }
+                if (done) {
+                    return null;
+                }
+                index = 0;
+                if (valueSet != null) {
+                    final List<?> value = valueSet.nextTuple();
+                    if (value == null) {
+                        done = true;
+                        return null;
+                    }
+                    tuples = read(new Read<List<List<?>>>() {
+                        @Override
+                        public List<List<?>> read() throws TeiidComponentException, TeiidProcessingException {
+                            return readValue(value);
+                        }
+                    });
+                } else {
+                    final int limit = getPageSize(true);
+                    tuples = read(new Read<List<List<?>>>() {
+                        @Override
+                        public List<List<?>> read() throws TeiidComponentException, TeiidProcessingException {
+                            return readRange(limit);
+                        }
+                    });
+                    done = tuples.size() < limit;
+                }
+            }
+        }
+
+        private List<List<?>> readValue(List<?> value)
+                throws TeiidComponentException, TeiidProcessingException {
+            TupleBrowser browser = new TupleBrowser(ConcurrentSTree.this, new CollectionTupleSource(Collections.<List<?>>singletonList(value).iterator()), direction);
+            List<List<?>> result = new ArrayList<List<?>>();
+            for (List<?> tuple = browser.nextTuple(); tuple != null; tuple = browser.nextTuple()) {
+                result.add(tuple);
+            }
+            return result;
+        }
+
+        private List<List<?>> readRange(int limit)
+                throws TeiidComponentException, TeiidProcessingException {
+            List<Object> lower = lowerBound;
+            List<Object> upper = upperBound;
+            if (last != null) {
+                if (direction) {
+                    lower = extractKey(last);
+                } else {
+                    upper = extractKey(last);
+                }
+            }
+            if (lower != null) {
+                //the browser pads the lower bound
+                lower = new ArrayList<Object>(lower);
+            }
+            TupleBrowser browser = new TupleBrowser(ConcurrentSTree.this, lower, upper, direction, true);
+            List<List<?>> result = new ArrayList<List<?>>();
+            while (result.size() < limit) {
+                List<?> tuple = browser.nextTuple();
+                if (tuple == null) {
+                    break;
+                }
+                if (last != null && comparator.compare(tuple, last) == 0) {
+                    continue;
+                }
+                result.add(tuple);
+            }
+            return result;
+        }
+
+        @Override
+        public void reset(TupleSource ts) throws TeiidComponentException {
+            this.valueSet = ts;
+            this.tuples = Collections.emptyList();
+            this.index = 0;
+            this.done = false;
+        }
+
+    }
+
+}
@@ -151,7 +151,7 @@ public abstract class FileStore implements Removable {
         return readWrite(fileOffset, b, offSet, length, false);
     }
 
-    private void checkRemoved() throws IOException {
+    protected void checkRemoved() throws IOException {
         if (removed.get()) {
             throw new IOException("already removed"); //$NON-NLS-1$
         }
@@ -190,6 +190,27 @@ public abstract class FileStore implements Removable {
         } while (n < length);
     }
 
+    /**
+     * Write the remaining bytes of the buffers contiguously starting at the given position.
+     * Implementations may write all of the buffers with a single operation.
+     */
+    public void write(long start, ByteBuffer[] buffers) throws IOException {
+        byte[] bytes = null;
+        for (ByteBuffer bb : buffers) {
+            int length = bb.remaining();
+            if (bb.hasArray()) {
+                write(start, bb.array(), bb.arrayOffset() + bb.position(), length);
+            } else {
+                if (bytes == null || bytes.length < length) {
+                    bytes = new byte[length];
+                }
+                bb.duplicate().get(bytes, 0, length);
+                write(start, bytes, 0, length);
+            }
+            start += length;
+        }
+    }
+
     public void remove() {
         if (removed.compareAndSet(false, true)) {
             this.removeDirect();
@@ -198,6 +219,25 @@ public abstract class FileStore implements Removable {
 
     protected abstract void removeDirect();
 
+    public boolean isRemoved() {
+        return removed.get();
+    }
+
+    /**
+     * Get a read only view of an already written range without copying it
+     * into heap buffers, such as a memory mapping of the underlying file.
+     * @return the view or null if the store or range does not support it
+     * @throws IOException
+     */
+    public ByteBuffer map(long start, int length) throws IOException {
+        checkRemoved();
+        return mapDirect(start, length);
+    }
+
+    protected ByteBuffer mapDirect(long start, int length) throws IOException {
+        return null;
+    }
+
     public ExtensibleBufferedInputStream createInputStream(final long start, final long length) {
         return new ExtensibleBufferedInputStream() {
             private long offset = start;
@@ -21,6 +21,7 @@ package org.teiid.common.buffer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.SQLException;
@@ -28,12 +29,19 @@ import java.sql.SQLXML;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.rowset.serial.SerialBlob;
 
+import org.teiid.common.buffer.AutoCleanupUtil.Removable;
 import org.teiid.core.TeiidComponentException;
+import org.teiid.core.types.BaseLob;
 import org.teiid.core.types.BaseClobType;
 import org.teiid.core.types.BlobImpl;
 import org.teiid.core.types.BlobType;
@@ -48,6 +56,7 @@ import org.teiid.core.types.SQLXMLImpl;
 import org.teiid.core.types.Streamable;
 import org.teiid.core.types.XMLType;
 import org.teiid.core.util.ObjectConverterUtil;
+import org.teiid.core.util.PropertiesUtils;
 import org.teiid.query.QueryPlugin;
 import org.teiid.query.sql.symbol.Expression;
 
@@ -57,6 +66,13 @@ import org.teiid.query.sql.symbol.Expression;
  */
 public class LobManager {
 
+    private static final boolean MAP_LOBS = PropertiesUtils.getHierarchicalProperty("org.teiid.mapLobs", true, Boolean.class); //$NON-NLS-1$
+    /**
+     * Smaller values are read through the normal buffered stream to avoid
+     * the overhead of creating a mapping
+     */
+    static final int MIN_MAPPED_LENGTH = 1 << 16;
+
     public enum ReferenceMode {
         ATTACH,
         CREATE,
@@ -72,16 +88,183 @@ public class LobManager {
         }
     }
 
+    /**
+     * A reference counted lob {@link FileStore}.  Persisted lobs may be shared by
+     * several {@link LobManager}s rather than copied, so the store is only removed
+     * once each of them has released it.
+     */
+    static final class SharedLobStore implements Removable {
+        private final FileStore store;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final AtomicBoolean removed = new AtomicBoolean();
+        private final Set<SharedLobStore> retained = Collections.newSetFromMap(new ConcurrentHashMap<SharedLobStore, Boolean>());
+
+        SharedLobStore(FileStore store) {
+            this.store = store;
+        }
+
+        /**
+         * Add a reference to the other store, which will be released along with this store.
+         * <br>
+         * The references must not form a cycle, or none of the stores would be released,
+         * so the lob should be copied instead if the other store already retains this one.
+         * @return false if the other store has already been removed or retains this store
+         */
+        boolean retain(SharedLobStore other) {
+            if (other == this || retained.contains(other)) {
+                return true;
+            }
+            //serialize adding references so that concurrent retains cannot create a cycle
+            synchronized (SharedLobStore.class) {
+                if (other.retains(this, Collections.newSetFromMap(new IdentityHashMap<SharedLobStore, Boolean>()))) {
+                    return false;
+                }
+                while (true) {
+                    int count = other.references.get();
+                    if (count < 1) {
+                        return false;
+                    }
+                    if (other.references.compareAndSet(count, count + 1)) {
+                        break;
+                    }
+                }
+                if (!retained.add(other)) {
+                    other.release();
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return true if this store directly or transitively retains the target
+         */
+        private boolean retains(SharedLobStore target, Set<SharedLobStore> visited) {
+            if (!visited.add(this)) {
+                return false;
+            }
+            for (SharedLobStore other : retained) {
+                if (other == target || other.retains(target, visited)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Release the owning reference
+         */
+        @Override
+        public void remove() {
+            if (removed.compareAndSet(false, true)) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (references.decrementAndGet() != 0) {
+                return;
+            }
+            store.remove();
+            for (SharedLobStore other : retained) {
+                other.release();
+            }
+            retained.clear();
+        }
+    }
+
+    /**
+     * Reads a persisted lob directly from a mapped view of the store when possible.
+     * <br>
+     * Only the store is referenced, not the {@link LobManager}, so the lob does not prevent
+     * the manager from being collected.
+     */
+    static final class PersistedLobInputStreamFactory extends InputStreamFactory {
+        private final FileStore store;
+        private final SharedLobStore sharedStore;
+        private final long offset;
+        private volatile ByteBuffer mapped;
+        private volatile boolean mappable = MAP_LOBS;
+
+        PersistedLobInputStreamFactory(FileStore store, SharedLobStore sharedStore, long offset, long length) {
+            this.store = store;
+            this.sharedStore = sharedStore;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            if (store.isRemoved()) {
+                //release the mapping and fail as the store would
+                mapped = null;
+                throw new IOException("already removed"); //$NON-NLS-1$
+            }
+            ByteBuffer view = getMappedBuffer();
+            if (view == null) {
+                return store.createInputStream(offset, length);
+            }
+            final ByteBuffer bb = view.duplicate();
+            return new ExtensibleBufferedInputStream() {
+                boolean read;
+
+                @Override
+                protected ByteBuffer nextBuffer() throws IOException {
+                    if (read) {
+                        return null;
+                    }
+                    read = true;
+                    return bb;
+                }
+            };
+        }
+
+        private ByteBuffer getMappedBuffer() throws IOException {
+            if (!mappable) {
+                return null;
+            }
+            ByteBuffer result = mapped;
+            if (result == null) {
+                if (length < MIN_MAPPED_LENGTH || length > Integer.MAX_VALUE) {
+                    mappable = false;
+                    return null;
+                }
+                synchronized (this) {
+                    result = mapped;
+                    if (result == null) {
+                        result = store.map(offset, (int)length);
+                        if (result == null) {
+                            mappable = false;
+                            return null;
+                        }
+                        mapped = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        SharedLobStore getSharedStore() {
+            return sharedStore;
+        }
+
+        @Override
+        public StorageMode getStorageMode() {
+            return StorageMode.PERSISTENT;
+        }
+    }
+
     private Map<String, LobHolder> lobReferences = Collections.synchronizedMap(new HashMap<String, LobHolder>());
     private boolean inlineLobs = true;
     private int maxMemoryBytes = DataTypeManager.MAX_LOB_MEMORY_BYTES;
     private int[] lobIndexes;
-    private FileStore lobStore;
+    private SharedLobStore lobStore;
     private boolean saveTemporary;
 
     public LobManager(int[] lobIndexes, FileStore lobStore) {
         this.lobIndexes = lobIndexes;
-        this.lobStore = lobStore;
+        if (lobStore != null) {
+            this.lobStore = new SharedLobStore(lobStore);
+        }
     }
 
     public LobManager clone() {
@@ -203,22 +386,53 @@ public class LobManager {
         // stream the contents of lob into file store.
         byte[] bytes = new byte[1 << 14];
         AutoCleanupUtil.setCleanupReference(this, lobStore);
+        FileStore store = lobStore != null ? lobStore.store : null;
         for (Map.Entry<String, LobHolder> entry : this.lobReferences.entrySet()) {
-            detachLob(entry.getValue().lob, lobStore, bytes);
+            detachLob(entry.getValue().lob, store, bytes);
         }
     }
 
     public void detachLob(final Streamable<?> lob, final FileStore store, byte[] bytes) throws TeiidComponentException {
         // if this is not attached, just return
         if (InputStreamFactory.getStorageMode(lob) != StorageMode.MEMORY) {
-            persistLob(lob, store, bytes, inlineLobs, maxMemoryBytes);
+            SharedLobStore sharedStore = null;
+            if (lobStore != null && lobStore.store == store) {
+                sharedStore = lobStore;
+                //reference rather than copy lobs already persisted by a lob manager
+                SharedLobStore existing = getSharedStore(lob);
+                if (existing != null && sharedStore.retain(existing)) {
+                    return;
+                }
+            }
+            persistLob(lob, store, sharedStore, bytes, inlineLobs, maxMemoryBytes);
         } else {
             InputStreamFactory.setTemporary(lob, false);
         }
     }
 
+    private static SharedLobStore getSharedStore(Streamable<?> lob) {
+        Object reference = lob.getReference();
+        if (!(reference instanceof BaseLob)) {
+            return null;
+        }
+        try {
+            InputStreamFactory isf = ((BaseLob)reference).getStreamFactory();
+            if (isf instanceof PersistedLobInputStreamFactory) {
+                return ((PersistedLobInputStreamFactory)isf).getSharedStore();
+            }
+        } catch (SQLException e) {
+            //not available
+        }
+        return null;
+    }
+
     public static void persistLob(final Streamable<?> lob,
             final FileStore store, byte[] bytes, boolean inlineLobs, int maxMemoryBytes) throws TeiidComponentException {
+        persistLob(lob, store, null, bytes, inlineLobs, maxMemoryBytes);
+    }
+
+    private static void persistLob(final Streamable<?> lob,
+            final FileStore store, SharedLobStore sharedStore, byte[] bytes, boolean inlineLobs, int maxMemoryBytes) throws TeiidComponentException {
         long byteLength = Integer.MAX_VALUE;
 
         try {
@@ -273,25 +487,7 @@ public class LobManager {
             byteLength = ObjectConverterUtil.write(fsos, is, bytes, -1);
 
             // re-construct the new lobs based on the file store
-            final long lobOffset = offset;
-            final long lobLength = byteLength;
-            /*
-             * Using an inner class here will hold a reference to the LobManager
-             * which prevents the removal of the FileStore until all of the
-             * lobs have been gc'd
-             */
-            InputStreamFactory isf = new InputStreamFactory() {
-                @Override
-                public InputStream getInputStream() throws IOException {
-                    return store.createInputStream(lobOffset, lobLength);
-                }
-
-                @Override
-                public StorageMode getStorageMode() {
-                    return StorageMode.PERSISTENT;
-                }
-            };
-            isf.setLength(byteLength);
+            InputStreamFactory isf = new PersistedLobInputStreamFactory(store, sharedStore, offset, byteLength);
             if (lob instanceof BlobType) {
                 ((BlobType)lob).setReference(new BlobImpl(isf));
             }
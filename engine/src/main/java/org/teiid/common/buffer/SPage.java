@@ -140,8 +140,8 @@ class SPage implements Cloneable {
                     //systemic weakness of the algorithm
                     return new SearchResult(-previousValues.size() - 1, page.prev, previousValues);
                 }
-                if (parent != null && index != 0) {
-                    page.stree.updateLock.lock();
+                if (parent != null && index != 0 && page.stree.isSearchFixupAllowed()) {
+                    page.stree.lockUpdate();
                     try {
                         index = Collections.binarySearch(values, k, page.stree.comparator);
                         if (index != 0) {
@@ -165,7 +165,7 @@ class SPage implements Cloneable {
                             }
                         }
                     } finally {
-                        page.stree.updateLock.unlock();
+                        page.stree.unlockUpdate();
                     }
                 }
             }
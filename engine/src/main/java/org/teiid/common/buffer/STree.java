@@ -140,6 +140,24 @@ public class STree implements Cloneable {
         }
     }
 
+    /**
+     * Acquire the lock guarding structural changes
+     */
+    void lockUpdate() {
+        updateLock.lock();
+    }
+
+    void unlockUpdate() {
+        updateLock.unlock();
+    }
+
+    /**
+     * @return true if a search may correct the parent keys it has traversed
+     */
+    boolean isSearchFixupAllowed() {
+        return true;
+    }
+
     private SPage getPage(SPage page) {
         if (page == null) {
             return page;
@@ -603,6 +621,22 @@ public class STree implements Cloneable {
         return keyManager;
     }
 
+    /**
+     * Create a value based browser
+     * @see TupleBrowser#TupleBrowser(STree, TupleSource, boolean, boolean)
+     */
+    public TupleBrowser createTupleBrowser(TupleSource valueSet, boolean direction, boolean readOnly) {
+        return new TupleBrowser(this, valueSet, direction, readOnly);
+    }
+
+    /**
+     * Create a range based browser
+     * @see TupleBrowser#TupleBrowser(STree, List, List, boolean, boolean)
+     */
+    public TupleBrowser createTupleBrowser(List<Object> lowerBound, List<Object> upperBound, boolean direction, boolean readOnly) throws TeiidComponentException {
+        return new TupleBrowser(this, lowerBound, upperBound, direction, readOnly);
+    }
+
     public TupleSource getTupleSource(final boolean destructive) {
         return new TupleSource() {
             SPage current = header[0];
@@ -83,6 +83,16 @@ public class TupleBrowser implements TupleSource {
         this.readOnly = readOnly;
     }
 
+    /**
+     * For browsers that traverse the tree by other means
+     * @param sTree
+     * @param direction
+     */
+    TupleBrowser(STree sTree, boolean direction) {
+        this.tree = sTree;
+        this.direction = direction;
+    }
+
     /**
      * Construct a range based browser
      * @param sTree
@@ -268,7 +278,13 @@ public class TupleBrowser implements TupleSource {
 
     private void resetState() throws TeiidComponentException {
         if (updated) {
-            page.setValues(values);
+            //publishing the values is a change to the tree
+            tree.lockUpdate();
+            try {
+                page.setValues(values);
+            } finally {
+                tree.unlockUpdate();
+            }
         }
         updated = false;
         setValues(null);
@@ -30,6 +30,7 @@ import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.types.DataTypeManager;
 import org.teiid.core.types.Streamable;
 import org.teiid.core.util.Assertion;
+import org.teiid.core.util.PropertiesUtils;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
 import org.teiid.logging.MessageLevel;
@@ -114,6 +115,9 @@ public class TupleBuffer {
         return types;
     }
 
+    //columnar batches are smaller when held, but each read materializes boxed rows
+    static final boolean COLUMNAR_BATCHES = PropertiesUtils.getHierarchicalProperty("org.teiid.columnarBatches", false, Boolean.class); //$NON-NLS-1$
+
     //construction state
     private BatchManager manager;
     private String tupleSourceID;
@@ -126,9 +130,11 @@ public class TupleBuffer {
     private List<List<?>> batchBuffer;
     private boolean removed;
     private boolean forwardOnly;
+    private boolean columnarBatches = COLUMNAR_BATCHES;
 
     private LobManager lobManager;
     private String uuid;
+    private Class<?>[] columnTypes;
 
     public TupleBuffer(BatchManager manager, String id, List<? extends Expression> schema, LobManager lobManager, int batchSize) {
         this.manager = manager;
@@ -144,6 +150,13 @@ public class TupleBuffer {
         }
     }
 
+    /**
+     * Set whether saved batches are held as columns, which defaults to the org.teiid.columnarBatches property
+     */
+    public void setColumnarBatches(boolean columnarBatches) {
+        this.columnarBatches = columnarBatches;
+    }
+
     public void removeLobTracking() {
         if (this.lobManager != null) {
             this.lobManager.remove();
@@ -243,11 +256,27 @@ public class TupleBuffer {
         if (batchBuffer == null || batchBuffer.isEmpty() || (!force && batchBuffer.size() < Math.max(1, batchSize / 32))) {
             return;
         }
-        Long mbatch = manager.createManagedBatch(batchBuffer, null, false);
+        List<? extends List<?>> toSave = batchBuffer;
+        if (columnarBatches && schema != null) {
+            //saved batches are not modified, so they can be held as columns
+            toSave = ColumnarBatch.create(getColumnTypes(), batchBuffer);
+        }
+        Long mbatch = manager.createManagedBatch(toSave, null, false);
         this.batches.put(rowCount - batchBuffer.size() + 1, mbatch);
         batchBuffer = null;
     }
 
+    private Class<?>[] getColumnTypes() {
+        if (this.columnTypes == null) {
+            Class<?>[] types = new Class<?>[schema.size()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = schema.get(i).getType();
+            }
+            this.columnTypes = types;
+        }
+        return this.columnTypes;
+    }
+
     public void close() throws TeiidComponentException {
         saveBatch(false);
         this.isFinal = true;
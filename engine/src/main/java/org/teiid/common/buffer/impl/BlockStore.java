@@ -20,6 +20,9 @@ package org.teiid.common.buffer.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.teiid.common.buffer.FileStore;
@@ -73,18 +76,29 @@ class BlockStore {
         try {
             FileStore fs = stores[segment];
             long blockOffset = (block%blocksInUse.getBitsPerSegment())*blockSize;
-            //TODO: there is still an extra buffer being created here, we could FileChannels to do better
-            byte[] b = new byte[BufferFrontedFileStoreCache.BLOCK_SIZE];
-            int read = 0;
             long newLength = blockOffset+blockSize;
             if (fs.getLength() < newLength) {
                 //grow by whole blocks
                 //TODO: could pad the growth
                 fs.setLength(newLength);
             }
-            while ((read = is.read(b, 0, b.length)) != -1) {
-                fs.write(blockOffset, b, 0, read);
-                blockOffset+=read;
+            if (is instanceof BlockInputStream) {
+                //write the memory blocks directly and together, rather than through an extra buffer
+                List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+                ByteBuffer bb = null;
+                while ((bb = ((BlockInputStream)is).getBuffer()) != null) {
+                    //the block buffer views are reused, so we must duplicate
+                    buffers.add(bb.duplicate());
+                    bb.position(bb.limit());
+                }
+                fs.write(blockOffset, buffers.toArray(new ByteBuffer[buffers.size()]));
+            } else {
+                byte[] b = new byte[BufferFrontedFileStoreCache.BLOCK_SIZE];
+                int read = 0;
+                while ((read = is.read(b, 0, b.length)) != -1) {
+                    fs.write(blockOffset, b, 0, read);
+                    blockOffset+=read;
+                }
             }
             success = true;
         } finally {
@@ -60,6 +60,7 @@ import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.Cache;
 import org.teiid.common.buffer.CacheEntry;
 import org.teiid.common.buffer.CacheKey;
+import org.teiid.common.buffer.ConcurrentSTree;
 import org.teiid.common.buffer.FileStore;
 import org.teiid.common.buffer.LobManager;
 import org.teiid.common.buffer.LobManager.ReferenceMode;
@@ -506,6 +507,7 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
     private int maxActivePlans = DQPConfiguration.DEFAULT_MAX_ACTIVE_PLANS; //used as a hint to set the reserveBatchKB
     private boolean useWeakReferences = true;
     private boolean inlineLobs = true;
+    private Boolean columnarBatches;
     private int targetBytesPerRow = TARGET_BYTES_PER_ROW;
     private int maxSoftReferences;
     private int nominalProcessingMemoryMax = maxProcessingBytes;
@@ -655,10 +657,22 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
             LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, "Creating TupleBuffer:", newID, elements, Arrays.toString(types), "batch size", tupleBuffer.getBatchSize(), "of type", tupleSourceType); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
         }
         tupleBuffer.setInlineLobs(inlineLobs);
+        if (columnarBatches != null) {
+            tupleBuffer.setColumnarBatches(columnarBatches);
+        }
         return tupleBuffer;
     }
 
     public STree createSTree(final List<? extends Expression> elements, String groupName, int keyLength) {
+        return createSTree(elements, groupName, keyLength, false);
+    }
+
+    @Override
+    public STree createConcurrentSTree(final List<? extends Expression> elements, String groupName, int keyLength) {
+        return createSTree(elements, groupName, keyLength, true);
+    }
+
+    private STree createSTree(final List<? extends Expression> elements, String groupName, int keyLength, boolean concurrent) {
         Long newID = this.tsId.getAndIncrement();
         int[] lobIndexes = LobManager.getLobIndexes(elements);
         Class<?>[] types = getTypeClasses(elements);
@@ -676,7 +690,11 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
         if (LogManager.isMessageToBeRecorded(LogConstants.CTX_BUFFER_MGR, MessageLevel.DETAIL)) {
             LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, "Creating STree:", newID, keyLength, elements); //$NON-NLS-1$
         }
-        return new STree(keyManager, bm, new ListNestedSortComparator(compareIndexes).defaultNullOrder(getOptions().getDefaultNullOrder()), getProcessorBatchSize(elements.subList(0, keyLength)), getProcessorBatchSize(elements), keyLength, lobManager);
+        ListNestedSortComparator comparator = new ListNestedSortComparator(compareIndexes).defaultNullOrder(getOptions().getDefaultNullOrder());
+        if (concurrent) {
+            return new ConcurrentSTree(keyManager, bm, comparator, getProcessorBatchSize(elements.subList(0, keyLength)), getProcessorBatchSize(elements), keyLength, lobManager);
+        }
+        return new STree(keyManager, bm, comparator, getProcessorBatchSize(elements.subList(0, keyLength)), getProcessorBatchSize(elements), keyLength, lobManager);
     }
 
     private static Class<?>[] getTypeClasses(final List<? extends Expression> elements) {
@@ -1442,6 +1460,13 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
         this.inlineLobs = inlineLobs;
     }
 
+    /**
+     * Override the org.teiid.columnarBatches property for the tuple buffers created by this manager
+     */
+    public void setColumnarBatches(boolean columnarBatches) {
+        this.columnarBatches = columnarBatches;
+    }
+
     public int getMaxReserveKB() {
         return (int)(maxReserveBytes>>10);
     }
@@ -20,6 +20,7 @@ package org.teiid.common.buffer.impl;
 
 import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 
 import org.teiid.adminapi.impl.SessionMetadata;
 import org.teiid.common.buffer.FileStore;
@@ -76,6 +77,11 @@ class ConstrainedFileStore extends FileStore {
         return delegate.read(fileOffset, b, offSet, length);
     }
 
+    @Override
+    public ByteBuffer map(long start, int length) throws IOException {
+        return delegate.map(start, length);
+    }
+
     @Override
     public void readFully(long fileOffset, byte[] b, int offSet,
             int length) throws IOException {
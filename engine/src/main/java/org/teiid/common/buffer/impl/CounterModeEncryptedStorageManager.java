@@ -0,0 +1,291 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.common.buffer.impl;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+import org.teiid.common.buffer.FileStore;
+import org.teiid.common.buffer.StorageManager;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidRuntimeException;
+import org.teiid.core.crypto.CryptoException;
+import org.teiid.core.crypto.SymmetricCryptor;
+
+/**
+ * Implements AES counter mode encryption over a regular filestore.
+ * <br>
+ * Each byte is xored with the key stream for its position, so no padding is needed.
+ * Ciphers are held per thread and there is no store wide lock.  Reads and writes lock only
+ * the segments they access with a striped lock, so that a write may read and re-encrypt
+ * its segment while operations on other segments proceed concurrently.
+ * <br>
+ * The file is divided into segments the size of a cache block.  Every write takes a new
+ * generation from the store and re-encrypts the segment with it, so rewriting an offset
+ * never reuses the key stream.  The counter block is a per store nonce followed by the
+ * generation and the block offset within the segment.  A write that covers only part of a
+ * previously written segment must read and re-encrypt the rest of the segment.
+ * <br>
+ * The generations are held in memory, which is 8 bytes per segment of the file.
+ */
+public class CounterModeEncryptedStorageManager implements StorageManager {
+
+    private static final String ALGORITHM = "AES/ECB/NoPadding"; //$NON-NLS-1$
+    private static final int BLOCK_SIZE = 16;
+    private static final int SEGMENT_SHIFT = 13;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    /**
+     * The number of bits for the block offset within a segment
+     */
+    private static final int BLOCKS_SHIFT = SEGMENT_SHIFT - 4;
+    private static final int LOCK_STRIPES = 32;
+
+    private static class CipherState {
+        Cipher cipher;
+        byte[] keyStream = new byte[SEGMENT_SIZE];
+        byte[] buffer = new byte[SEGMENT_SIZE];
+    }
+
+    final class CounterModeFileStore extends FileStore {
+        private final FileStore file;
+        private final long nonce;
+        private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[LOCK_STRIPES];
+        //guards only the growth and access of the generations array
+        private final Object generationsLock = new Object();
+        private long[] generations = new long[0];
+        private final AtomicLong generation = new AtomicLong();
+
+        private CounterModeFileStore(FileStore file, long nonce) {
+            this.file = file;
+            this.nonce = nonce;
+            for (int i = 0; i < locks.length; i++) {
+                locks[i] = new ReentrantReadWriteLock();
+            }
+        }
+
+        private ReentrantReadWriteLock getLock(long segment) {
+            return locks[(int)(segment & (LOCK_STRIPES - 1))];
+        }
+
+        @Override
+        public void setLength(long length) throws IOException {
+            //truncation may affect any segment
+            for (ReentrantReadWriteLock lock : locks) {
+                lock.writeLock().lock();
+            }
+            try {
+                file.setLength(length);
+            } finally {
+                for (ReentrantReadWriteLock lock : locks) {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+
+        @Override
+        protected void removeDirect() {
+            file.remove();
+        }
+
+        @Override
+        protected int readWrite(long fileOffset, byte[] b, int offSet, int length,
+                boolean write) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            CipherState state = cipherState.get();
+            long segment = fileOffset >> SEGMENT_SHIFT;
+            long segmentStart = segment << SEGMENT_SHIFT;
+            int start = (int)(fileOffset - segmentStart);
+            //each call is limited to a single segment, the caller will request the rest
+            length = Math.min(length, SEGMENT_SIZE - start);
+            ReentrantReadWriteLock lock = getLock(segment);
+            if (!write) {
+                lock.readLock().lock();
+                try {
+                    int read = file.read(fileOffset, b, offSet, length);
+                    if (read > 0) {
+                        xorKeyStream(state, getGeneration(segment), start, b, offSet, read);
+                    }
+                    return read;
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+            int end = start + length;
+            byte[] buffer = state.buffer;
+            lock.writeLock().lock();
+            try {
+                int from = start;
+                int to = end;
+                long old = getGeneration(segment);
+                if (old != 0 && (start > 0 || end < SEGMENT_SIZE)) {
+                    //re-encrypt the rest of the segment with the new generation
+                    int existing = readSegment(segmentStart, buffer);
+                    if (existing > 0) {
+                        xorKeyStream(state, old, 0, buffer, 0, existing);
+                        if (existing < start) {
+                            Arrays.fill(buffer, existing, start, (byte)0);
+                        }
+                        from = 0;
+                        to = Math.max(end, existing);
+                    }
+                }
+                //encrypt a copy, the caller's bytes must not be modified
+                System.arraycopy(b, offSet, buffer, start, length);
+                long current = generation.incrementAndGet();
+                setGeneration(segment, current);
+                xorKeyStream(state, current, from, buffer, from, to - from);
+                file.write(segmentStart + from, buffer, from, to - from);
+                return length;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Read the stored bytes of the segment.  A concurrent write to a later segment may
+         * extend the length before its bytes are stored, so the read may be short.
+         * @return the number of bytes read
+         */
+        private int readSegment(long segmentStart, byte[] buffer) throws IOException {
+            int existing = (int)Math.min(SEGMENT_SIZE, Math.max(0, file.getLength() - segmentStart));
+            int read = 0;
+            while (read < existing) {
+                int count = file.read(segmentStart + read, buffer, read, existing - read);
+                if (count <= 0) {
+                    break;
+                }
+                read += count;
+            }
+            return read;
+        }
+
+        /**
+         * Xor the key stream for a range within a single segment
+         */
+        private void xorKeyStream(CipherState state, long segmentGeneration, int start, byte[] b, int offSet, int length) throws IOException {
+            int block = start / BLOCK_SIZE;
+            int skip = start % BLOCK_SIZE;
+            int blocks = (skip + length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            byte[] keyStream = state.keyStream;
+            for (int i = 0; i < blocks; i++) {
+                int counterOffset = i * BLOCK_SIZE;
+                putLong(keyStream, counterOffset, nonce);
+                putLong(keyStream, counterOffset + 8, (segmentGeneration << BLOCKS_SHIFT) | (block + i));
+            }
+            try {
+                state.cipher.doFinal(keyStream, 0, blocks * BLOCK_SIZE, keyStream, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IOException(e);
+            }
+            for (int i = 0; i < length; i++) {
+                b[offSet + i] ^= keyStream[skip + i];
+            }
+        }
+
+        private long getGeneration(long segment) {
+            synchronized (generationsLock) {
+                if (segment >= generations.length) {
+                    return 0;
+                }
+                return generations[(int)segment];
+            }
+        }
+
+        private void setGeneration(long segment, long value) throws IOException {
+            synchronized (generationsLock) {
+                if (segment >= generations.length) {
+                    if (segment >= Integer.MAX_VALUE) {
+                        throw new IOException("Invalid file position " + (segment << SEGMENT_SHIFT)); //$NON-NLS-1$
+                    }
+                    generations = Arrays.copyOf(generations, (int)Math.min(Integer.MAX_VALUE, Math.max(segment + 1, generations.length * 2L)));
+                }
+                generations[(int)segment] = value;
+            }
+        }
+
+        @Override
+        public long getLength() {
+            return file.getLength();
+        }
+
+        FileStore getFile() {
+            return file;
+        }
+    }
+
+    private static void putLong(byte[] b, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            b[offset + i] = (byte)value;
+            value >>>= 8;
+        }
+    }
+
+    private StorageManager manager;
+    private SecretKey key;
+    private AtomicLong nonces;
+    private ThreadLocal<CipherState> cipherState = new ThreadLocal<CipherState>() {
+        @Override
+        protected CipherState initialValue() {
+            CipherState state = new CipherState();
+            try {
+                state.cipher = Cipher.getInstance(ALGORITHM);
+                state.cipher.init(Cipher.ENCRYPT_MODE, key);
+            } catch (GeneralSecurityException e) {
+                throw new TeiidRuntimeException(e);
+            }
+            return state;
+        }
+    };
+
+    public CounterModeEncryptedStorageManager(StorageManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public void initialize() throws TeiidComponentException {
+        manager.initialize();
+        try {
+            key = SymmetricCryptor.generateKey();
+        } catch (CryptoException e) {
+            throw new TeiidComponentException(e);
+        }
+        //unique per store for the life of the key
+        nonces = new AtomicLong(new SecureRandom().nextLong());
+    }
+
+    @Override
+    public CounterModeFileStore createFileStore(String name) {
+        return new CounterModeFileStore(manager.createFileStore(name), nonces.getAndIncrement());
+    }
+
+    @Override
+    public long getMaxStorageSpace() {
+        return manager.getMaxStorageSpace();
+    }
+
+}
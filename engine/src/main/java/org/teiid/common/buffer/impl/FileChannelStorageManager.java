@@ -0,0 +1,449 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.common.buffer.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.teiid.common.buffer.FileStore;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.util.NamedThreadFactory;
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+
+/**
+ * A {@link FileStorageManager} that uses positional {@link FileChannel} reads and writes.
+ * There is no store wide lock or shared seek state, so concurrent readers of a store do not serialize.
+ * <br>
+ * The number of open channels is still limited by the max open files.  Channels are closed in
+ * second chance order and a store whose channel was closed will transparently reopen it.
+ * <br>
+ * With write behind enabled, writes are copied and performed by a dedicated thread.  Reads, truncation,
+ * and mapping of a store wait for its pending writes.  The heap held by the copies is bounded by the
+ * max pending bytes; a write larger than that bound is performed directly.
+ */
+public class FileChannelStorageManager extends FileStorageManager {
+
+    public static final int DEFAULT_MAX_PENDING_BYTES = 1 << 24;
+
+    public class ChannelStore extends FileStore {
+        private final String name;
+        private File file;
+        private volatile FileChannel channel;
+        private volatile long length;
+        private volatile boolean referenced;
+        private volatile Future<?> lastWrite;
+        private volatile IOException writeFailure;
+
+        public ChannelStore(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public long getLength() {
+            return length;
+        }
+
+        private FileChannel getChannel() throws IOException {
+            referenced = true;
+            FileChannel fc = channel;
+            if (fc != null && fc.isOpen()) {
+                return fc;
+            }
+            synchronized (this) {
+                checkRemoved();
+                fc = channel;
+                if (fc != null && fc.isOpen()) {
+                    return fc;
+                }
+                if (file == null) {
+                    file = createFile(name);
+                }
+                fc = new RandomAccessFile(file, "rw").getChannel(); //$NON-NLS-1$
+                channel = fc;
+            }
+            opened(this);
+            return fc;
+        }
+
+        void closeChannel() {
+            FileChannel fc = channel;
+            if (fc != null) {
+                try {
+                    fc.close();
+                } catch (IOException e) {
+                }
+            }
+        }
+
+        /**
+         * Perform a single positional read or write, reopening the channel if it has been closed.
+         * Interrupts are deferred, since they would close the channel.
+         */
+        private int positional(ByteBuffer bb, long position, boolean write) throws IOException {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    FileChannel fc = getChannel();
+                    try {
+                        if (write) {
+                            return fc.write(bb, position);
+                        }
+                        return fc.read(bb, position);
+                    } catch (ClosedByInterruptException e) {
+                        interrupted |= Thread.interrupted();
+                    } catch (ClosedChannelException e) {
+                        //closed to limit the open files, retry
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void writeFully(ByteBuffer bb, long position) throws IOException {
+            while (bb.hasRemaining()) {
+                position += positional(bb, position, true);
+            }
+        }
+
+        @Override
+        protected int readWrite(long fileOffset, byte[] b, int offSet,
+                int len, boolean write) throws IOException {
+            if (write) {
+                writeBuffers(fileOffset, new ByteBuffer[] {ByteBuffer.wrap(b, offSet, len)});
+                return len;
+            }
+            awaitWrites();
+            if (fileOffset >= this.length) {
+                return -1;
+            }
+            return positional(ByteBuffer.wrap(b, offSet, len), fileOffset, false);
+        }
+
+        @Override
+        public void write(long start, ByteBuffer[] buffers) throws IOException {
+            checkRemoved();
+            writeBuffers(start, buffers);
+        }
+
+        private void writeBuffers(long start, ByteBuffer[] buffers) throws IOException {
+            long total = 0;
+            for (ByteBuffer bb : buffers) {
+                total += bb.remaining();
+            }
+            ensureLength(start + total);
+            checkWriteFailure();
+            ExecutorService executor = writeExecutor;
+            if (executor != null && total <= maxPendingBytes && writeBehind(start, buffers, (int)total, executor)) {
+                return;
+            }
+            //a direct write must not be overwritten by an earlier queued write
+            awaitWrites();
+            if (buffers.length == 1) {
+                writeFully(buffers[0].duplicate(), start);
+                return;
+            }
+            gatheringWrite(start, buffers);
+        }
+
+        /**
+         * Write the buffers with as few calls as possible.  There is no positional gathering
+         * write, so the channel position is used while holding the store lock.
+         */
+        private synchronized void gatheringWrite(long position, ByteBuffer[] buffers) throws IOException {
+            ByteBuffer[] toWrite = new ByteBuffer[buffers.length];
+            for (int i = 0; i < buffers.length; i++) {
+                toWrite[i] = buffers[i].duplicate();
+            }
+            int index = 0;
+            boolean interrupted = false;
+            try {
+                while (index < toWrite.length) {
+                    if (!toWrite[index].hasRemaining()) {
+                        index++;
+                        continue;
+                    }
+                    FileChannel fc = getChannel();
+                    try {
+                        fc.position(position);
+                        position += fc.write(toWrite, index, toWrite.length - index);
+                    } catch (ClosedByInterruptException e) {
+                        interrupted |= Thread.interrupted();
+                    } catch (ClosedChannelException e) {
+                        //closed to limit the open files, retry
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /**
+         * @return false if the executor has been shutdown and the write should be performed directly
+         */
+        private boolean writeBehind(final long position, ByteBuffer[] buffers, final int total, ExecutorService executor) {
+            //reserve before copying so that the copies held by the queue stay under the bound
+            pendingBytes.acquireUninterruptibly(total);
+            boolean submitted = false;
+            try {
+                //the caller may reuse the buffers after we return
+                final ByteBuffer bb = ByteBuffer.allocate(total);
+                for (ByteBuffer buffer : buffers) {
+                    bb.put(buffer.duplicate());
+                }
+                bb.flip();
+                //assign under the lock so that lastWrite is the latest submitted
+                synchronized (this) {
+                    lastWrite = executor.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                writeFully(bb, position);
+                            } catch (IOException e) {
+                                writeFailure = e;
+                            } finally {
+                                pendingBytes.release(total);
+                            }
+                        }
+                    });
+                    submitted = true;
+                }
+            } catch (RejectedExecutionException e) {
+                return false;
+            } finally {
+                if (!submitted) {
+                    pendingBytes.release(total);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Wait for the pending writes, which are performed in order by the
+         * single write behind thread.
+         */
+        private void awaitWrites() throws IOException {
+            Future<?> write = lastWrite;
+            if (write != null && !write.isDone()) {
+                boolean interrupted = false;
+                try {
+                    while (true) {
+                        try {
+                            write.get();
+                            break;
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        } catch (ExecutionException e) {
+                            throw new IOException(e.getCause());
+                        }
+                    }
+                } finally {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            checkWriteFailure();
+        }
+
+        private void checkWriteFailure() throws IOException {
+            IOException e = writeFailure;
+            if (e != null) {
+                throw new IOException(e);
+            }
+        }
+
+        /**
+         * The file is extended by the write itself, here we only account for the space.
+         */
+        private void ensureLength(long newLength) throws IOException {
+            if (newLength <= length) {
+                return;
+            }
+            synchronized (this) {
+                long bytesUsed = newLength - length;
+                if (bytesUsed <= 0) {
+                    return;
+                }
+                checkBufferSpace(bytesUsed);
+                updateBufferSpace(bytesUsed);
+                length = newLength;
+            }
+        }
+
+        @Override
+        public synchronized void setLength(long newLength) throws IOException {
+            checkRemoved();
+            long bytesUsed = newLength - length;
+            if (bytesUsed == 0) {
+                return;
+            }
+            if (bytesUsed > 0) {
+                checkBufferSpace(bytesUsed);
+                //extend the file so that reads of unwritten space see zeros rather than the end of file
+                writeFully(ByteBuffer.allocate(1), newLength - 1);
+                try {
+                    updateBufferSpace(bytesUsed);
+                } catch (OutOfDiskException e) {
+                    getChannel().truncate(length);
+                    throw e;
+                }
+            } else {
+                awaitWrites();
+                getChannel().truncate(newLength);
+                releaseBufferSpace(-bytesUsed);
+            }
+            length = newLength;
+        }
+
+        @Override
+        protected ByteBuffer mapDirect(long start, int len) throws IOException {
+            awaitWrites();
+            if (start + len > this.length) {
+                return null;
+            }
+            while (true) {
+                FileChannel fc = getChannel();
+                try {
+                    return fc.map(MapMode.READ_ONLY, start, len);
+                } catch (ClosedChannelException e) {
+                    //closed to limit the open files, retry
+                }
+            }
+        }
+
+        @Override
+        protected synchronized void removeDirect() {
+            releaseBufferSpace(length);
+            length = 0;
+            closeChannel();
+            synchronized (openStores) {
+                openStores.remove(this);
+            }
+            if (file != null) {
+                file.delete();
+            }
+        }
+
+    }
+
+    private ArrayDeque<ChannelStore> openStores = new ArrayDeque<ChannelStore>();
+    private boolean writeBehind;
+    private int maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+    private volatile ExecutorService writeExecutor;
+    private Semaphore pendingBytes;
+
+    @Override
+    public void initialize() throws TeiidComponentException {
+        super.initialize();
+        if (writeBehind && writeExecutor == null) {
+            pendingBytes = new Semaphore(maxPendingBytes);
+            writeExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("BufferWriteBehind")); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Stop the write behind thread after the pending writes have completed.
+     * Subsequent writes are performed directly.
+     */
+    public void shutdown() {
+        ExecutorService executor = writeExecutor;
+        if (executor == null) {
+            return;
+        }
+        writeExecutor = null;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, "Timed out waiting for the pending buffer writes to complete"); //$NON-NLS-1$
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Track the newly opened store and close the channels of stores over the limit
+     * that have not been used since they were last considered.
+     */
+    void opened(ChannelStore store) {
+        synchronized (openStores) {
+            if (!openStores.contains(store)) {
+                openStores.add(store);
+            }
+            while (openStores.size() > Math.max(1, getMaxOpenFiles())) {
+                ChannelStore eldest = openStores.poll();
+                if (eldest == store || eldest.referenced) {
+                    eldest.referenced = false;
+                    openStores.add(eldest);
+                    continue;
+                }
+                eldest.closeChannel();
+            }
+        }
+    }
+
+    @Override
+    public FileStore createFileStore(String name) {
+        return new ChannelStore(name);
+    }
+
+    @Override
+    public int getOpenFiles() {
+        synchronized (openStores) {
+            return openStores.size();
+        }
+    }
+
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Set the bound on the bytes copied for writes that have not yet completed.
+     * Must be set prior to initialization.
+     */
+    public void setMaxPendingBytes(int maxPendingBytes) {
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+}
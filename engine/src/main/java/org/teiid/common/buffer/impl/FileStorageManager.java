@@ -22,6 +22,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -143,45 +145,33 @@ public class FileStorageManager implements StorageManager {
             return length;
         }
 
+        @Override
+        protected synchronized ByteBuffer mapDirect(long start, int length) throws IOException {
+            if (fileInfo == null || start + length > getLength()) {
+                return null;
+            }
+            try {
+                //the mapping remains valid after the file is returned to the cache and closed
+                return fileInfo.open().getChannel().map(MapMode.READ_ONLY, start, length);
+            } finally {
+                fileInfo.close();
+            }
+        }
+
         private void setLength(RandomAccessFile fileAccess, long newLength, boolean truncate)
                 throws IOException {
             long currentLength = fileAccess.length();
             long bytesUsed = newLength - currentLength;
-            if (bytesUsed == 0) {
+            if (bytesUsed == 0 || (bytesUsed < 0 && !truncate)) {
                 return;
             }
-            if (bytesUsed < 0) {
-                if (!truncate) {
-                    return;
-                }
-            } else if (bytesUsed > MB) {
-                //this is a weak check, concurrent access may push us over the max.  we are just trying to prevent large overage allocations
-                long used = usedBufferSpace.get() + bytesUsed;
-                if (used > maxBufferSpace) {
-                    System.gc(); //attempt a last ditch effort to cleanup
-                    AutoCleanupUtil.doCleanup(false);
-                    used = usedBufferSpace.get() + bytesUsed;
-                    if (used > maxBufferSpace) {
-                        outOfDiskCount.getAndIncrement();
-                        throw new OutOfDiskException(QueryPlugin.Util.getString("FileStoreageManager.space_exhausted", bytesUsed, used, maxBufferSpace)); //$NON-NLS-1$
-                    }
-                }
-            }
+            checkBufferSpace(bytesUsed);
             fileAccess.setLength(newLength);
-            long used = usedBufferSpace.addAndGet(bytesUsed);
-            if (LogManager.isMessageToBeRecorded(org.teiid.logging.LogConstants.CTX_BUFFER_MGR, MessageLevel.DETAIL) && (sample.getAndIncrement() % 100) == 0) {
-                LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, "sampling bytes used:", used); //$NON-NLS-1$
-            }
-            if (bytesUsed > 0 && used > maxBufferSpace) {
-                System.gc(); //attempt a last ditch effort to cleanup
-                AutoCleanupUtil.doCleanup(false);
-                used = usedBufferSpace.get();
-                if (used > maxBufferSpace) {
-                    fileAccess.setLength(currentLength);
-                    usedBufferSpace.addAndGet(-bytesUsed);
-                    outOfDiskCount.getAndIncrement();
-                    throw new OutOfDiskException(QueryPlugin.Util.getString("FileStoreageManager.space_exhausted", bytesUsed, used, maxBufferSpace)); //$NON-NLS-1$
-                }
+            try {
+                updateBufferSpace(bytesUsed);
+            } catch (OutOfDiskException e) {
+                fileAccess.setLength(currentLength);
+                throw e;
             }
         }
 
@@ -199,7 +189,7 @@ public class FileStorageManager implements StorageManager {
 
         @Override
         public synchronized void removeDirect() {
-            usedBufferSpace.addAndGet(-getLength());
+            releaseBufferSpace(getLength());
             if (fileInfo != null){
                 fileInfo.delete();
             }
@@ -207,6 +197,52 @@ public class FileStorageManager implements StorageManager {
 
     }
 
+    /**
+     * Check that growing a file by the given amount is not expected to exceed the max buffer space.
+     * This is a weak check, concurrent access may push us over the max.  we are just trying to prevent large overage allocations
+     */
+    void checkBufferSpace(long bytesUsed) throws OutOfDiskException {
+        if (bytesUsed <= MB) {
+            return;
+        }
+        long used = usedBufferSpace.get() + bytesUsed;
+        if (used > maxBufferSpace) {
+            System.gc(); //attempt a last ditch effort to cleanup
+            AutoCleanupUtil.doCleanup(false);
+            used = usedBufferSpace.get() + bytesUsed;
+            if (used > maxBufferSpace) {
+                outOfDiskCount.getAndIncrement();
+                throw new OutOfDiskException(QueryPlugin.Util.getString("FileStoreageManager.space_exhausted", bytesUsed, used, maxBufferSpace)); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * Record a change in the length of a file that has already been made.  If the growth
+     * exceeds the max buffer space, the change is not recorded and the caller is expected
+     * to restore the previous length.
+     */
+    void updateBufferSpace(long bytesUsed) throws OutOfDiskException {
+        long used = usedBufferSpace.addAndGet(bytesUsed);
+        if (LogManager.isMessageToBeRecorded(org.teiid.logging.LogConstants.CTX_BUFFER_MGR, MessageLevel.DETAIL) && (sample.getAndIncrement() % 100) == 0) {
+            LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, "sampling bytes used:", used); //$NON-NLS-1$
+        }
+        if (bytesUsed > 0 && used > maxBufferSpace) {
+            System.gc(); //attempt a last ditch effort to cleanup
+            AutoCleanupUtil.doCleanup(false);
+            used = usedBufferSpace.get();
+            if (used > maxBufferSpace) {
+                usedBufferSpace.addAndGet(-bytesUsed);
+                outOfDiskCount.getAndIncrement();
+                throw new OutOfDiskException(QueryPlugin.Util.getString("FileStoreageManager.space_exhausted", bytesUsed, used, maxBufferSpace)); //$NON-NLS-1$
+            }
+        }
+    }
+
+    void releaseBufferSpace(long bytes) {
+        usedBufferSpace.addAndGet(-bytes);
+    }
+
     // Initialization
     private int maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
     private String directory;
@@ -261,6 +297,10 @@ public class FileStorageManager implements StorageManager {
         this.maxOpenFiles = maxOpenFiles;
     }
 
+    public int getMaxOpenFiles() {
+        return maxOpenFiles;
+    }
+
     public void setStorageDirectory(String directory) {
         this.directory = directory;
     }
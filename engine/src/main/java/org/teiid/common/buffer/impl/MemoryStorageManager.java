@@ -74,6 +74,17 @@ public class MemoryStorageManager implements Cache<Long> {
             return length;
         }
 
+        @Override
+        protected synchronized ByteBuffer mapDirect(long start, int length) {
+            if (start + length > getLength()) {
+                return null;
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.limit((int)start + length);
+            view.position((int)start);
+            return view.slice().asReadOnlyBuffer();
+        }
+
         @Override
         public synchronized void setLength(long length) {
             buffer.limit((int)length);
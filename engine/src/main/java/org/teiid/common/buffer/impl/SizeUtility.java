@@ -34,6 +34,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.teiid.common.buffer.ColumnarBatch;
 import org.teiid.core.types.ArrayImpl;
 import org.teiid.core.types.BaseLob;
 import org.teiid.core.types.BinaryType;
@@ -118,6 +119,9 @@ public final class SizeUtility {
     }
 
     public long getBatchSize(boolean accountForValueCache, List<? extends List<?>> data) {
+        if (data instanceof ColumnarBatch) {
+            return getColumnarBatchSize(accountForValueCache, (ColumnarBatch)data);
+        }
         int colLength = types.length;
         int rowLength = data.size();
 
@@ -142,6 +146,36 @@ public final class SizeUtility {
         return size;
     }
 
+    /**
+     * Primitive columns are counted directly, other columns have an array of references
+     * and are estimated as in a row based batch.  There is no per row overhead.
+     */
+    private long getColumnarBatchSize(boolean accountForValueCache, ColumnarBatch data) {
+        int colLength = types.length;
+        int rowLength = data.size();
+        long size = 32 + alignMemory(colLength * REFERENCE_SIZE * 3);
+        for (int col = 0; col < colLength; col++) {
+            if (data.isPrimitive(col)) {
+                size += alignMemory(data.getPrimitiveColumnSize(col));
+                continue;
+            }
+            size += 16 + alignMemory(rowLength * REFERENCE_SIZE);
+            Class<?> type = types[col];
+            if (isVariableSize(type)) {
+                int rowsSampled = 0;
+                int estimatedSize = 0;
+                for (int row = 0; row < rowLength; row=(row*2)+1) {
+                    rowsSampled++;
+                    estimatedSize += getSize(data.getValue(row, col), accountForValueCache);
+                }
+                size += estimatedSize/(float)rowsSampled * rowLength;
+            } else {
+                size += getSize(accountForValueCache, type) * rowLength;
+            }
+        }
+        return size;
+    }
+
     public static boolean isVariableSize(Class<?> type) {
         return VARIABLE_SIZE_TYPES.contains(type) || type.isArray();
     }
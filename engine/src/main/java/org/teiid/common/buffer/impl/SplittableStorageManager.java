@@ -19,6 +19,7 @@
 package org.teiid.common.buffer.impl;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -91,6 +92,40 @@ public class SplittableStorageManager implements StorageManager {
             return length;
         }
 
+        @Override
+        public void write(long start, ByteBuffer[] buffers) throws IOException {
+            long length = 0;
+            for (ByteBuffer bb : buffers) {
+                length += bb.remaining();
+            }
+            FileStore store = null;
+            synchronized (this) {
+                checkRemoved();
+                if (length > 0 && start/maxFileSize == (start + length - 1)/maxFileSize) {
+                    ensureLength(start + length);
+                    store = storageFiles.get((int)(start/maxFileSize));
+                }
+            }
+            if (store == null) {
+                super.write(start, buffers);
+                return;
+            }
+            store.write(start%maxFileSize, buffers);
+        }
+
+        @Override
+        protected ByteBuffer mapDirect(long start, int length) throws IOException {
+            FileStore store = null;
+            synchronized (this) {
+                //a view cannot span files
+                if (length <= 0 || start + length > len || start/maxFileSize != (start + length - 1)/maxFileSize) {
+                    return null;
+                }
+                store = storageFiles.get((int)(start/maxFileSize));
+            }
+            return store.map(start%maxFileSize, length);
+        }
+
         private void ensureLength(long length) throws IOException {
             if (length <= len) {
                 return;
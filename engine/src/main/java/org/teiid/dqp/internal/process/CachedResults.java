@@ -23,6 +23,7 @@ import java.io.Serializable;
 import org.teiid.api.exception.query.QueryParserException;
 import org.teiid.api.exception.query.QueryResolverException;
 import org.teiid.cache.Cachable;
+import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.TupleBuffer;
 import org.teiid.common.buffer.TupleBufferCache;
 import org.teiid.core.TeiidComponentException;
@@ -41,6 +42,7 @@ import org.teiid.query.sql.lang.Command;
 
 public class CachedResults implements Serializable, Cachable {
     private static final long serialVersionUID = -5603182134635082207L;
+    private static final int DEFAULT_ROW_SIZE = 256;
 
     private transient Command command;
     private transient TupleBuffer results;
@@ -48,6 +50,7 @@ public class CachedResults implements Serializable, Cachable {
     private String uuid;
     private boolean hasLobs;
     private int rowLimit;
+    private long sizeEstimate;
 
     private AccessInfo accessInfo = new AccessInfo();
 
@@ -60,12 +63,29 @@ public class CachedResults implements Serializable, Cachable {
     }
 
     public void setResults(TupleBuffer results, ProcessorPlan plan) {
+        setResults(results, plan, null);
+    }
+
+    /**
+     * Set the results and estimate their size using the buffer manager schema size
+     * if a sampled row size is not available.
+     */
+    public void setResults(TupleBuffer results, ProcessorPlan plan, BufferManager bufferManager) {
         this.results = results;
         this.uuid = results.getId();
         this.hasLobs = results.isLobs();
         if (plan != null) {
             this.accessInfo.populate(plan.getContext(), true);
         }
+        long rowSize = results.getRowSizeEstimate();
+        if (rowSize <= 0) {
+            if (bufferManager != null) {
+                rowSize = Math.max(1, bufferManager.getSchemaSize(results.getSchema()) / bufferManager.getProcessorBatchSize(results.getSchema()));
+            } else {
+                rowSize = DEFAULT_ROW_SIZE;
+            }
+        }
+        this.sizeEstimate = results.getRowCount() * rowSize;
     }
 
     public void setCommand(Command command) {
@@ -113,6 +133,11 @@ public class CachedResults implements Serializable, Cachable {
         return accessInfo;
     }
 
+    @Override
+    public long getSizeEstimate() {
+        return sizeEstimate;
+    }
+
     public int getRowLimit() {
         return rowLimit;
     }
@@ -78,7 +78,7 @@ final class CachingTupleSource extends
                     return tuple;
                 }
                 CachedResults cr = new CachedResults();
-                cr.setResults(tb, null);
+                cr.setResults(tb, null, dataTierManagerImpl.getBufferManager());
                 if (!Boolean.FALSE.equals(cd.getUpdatable())) {
                     if (accessedGroups != null) {
                         for (GroupSymbol gs : accessedGroups) {
@@ -25,6 +25,7 @@ import org.teiid.common.buffer.TupleBufferCache;
 import org.teiid.query.analysis.AnalysisRecord;
 import org.teiid.query.processor.ProcessorPlan;
 import org.teiid.query.processor.relational.AccessNode;
+import org.teiid.query.processor.relational.RelationalNode;
 import org.teiid.query.processor.relational.RelationalPlan;
 import org.teiid.query.sql.lang.Command;
 import org.teiid.query.sql.symbol.Reference;
@@ -32,6 +33,10 @@ import org.teiid.query.util.CommandContext;
 
 
 public class PreparedPlan implements Cachable {
+    //nominal sizes, the plan structures are not measured directly
+    private static final int PLAN_SIZE = 4096;
+    private static final int NODE_SIZE = 2048;
+
     private ProcessorPlan plan;
     private Command command;
     private List<Reference> refs;
@@ -119,6 +124,29 @@ public class PreparedPlan implements Cachable {
         return true; //no remotable actions
     }
 
+    /**
+     * Estimate the plan size based upon the number of relational nodes
+     */
+    @Override
+    public long getSizeEstimate() {
+        long size = PLAN_SIZE;
+        if (plan instanceof RelationalPlan) {
+            size += NODE_SIZE * countNodes(((RelationalPlan)plan).getRootNode());
+        }
+        return size;
+    }
+
+    private static int countNodes(RelationalNode node) {
+        if (node == null) {
+            return 0;
+        }
+        int count = 1;
+        for (RelationalNode child : node.getChildren()) {
+            count += countNodes(child);
+        }
+        return count;
+    }
+
     public boolean validate() {
         return this.accessInfo.validate(false, 0);
     }
@@ -824,7 +824,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
         Determinism determinismLevel = processor.getContext().getDeterminismLevel();
         CachedResults cr = new CachedResults();
         cr.setCommand(originalCommand);
-        cr.setResults(resultsBuffer, processor.getProcessorPlan());
+        cr.setResults(resultsBuffer, processor.getProcessorPlan(), processor.getBufferManager());
         if (requestMsg.getRowLimit() > 0 && resultsBuffer.getRowCount() == requestMsg.getRowLimit() + (collector.isSaveLastRow()?1:0)) {
             cr.setRowLimit(requestMsg.getRowLimit());
         }
@@ -30,6 +30,7 @@ import org.teiid.adminapi.impl.CacheStatisticsMetadata;
 import org.teiid.cache.Cachable;
 import org.teiid.cache.Cache;
 import org.teiid.cache.CacheFactory;
+import org.teiid.cache.EvictingCache;
 import org.teiid.common.buffer.TupleBufferCache;
 import org.teiid.core.util.Assertion;
 import org.teiid.core.util.EquivalenceUtil;
@@ -140,6 +141,28 @@ public class SessionAwareCache<T> {
         return cacheHit.get();
     }
 
+    public int getCacheMissCount() {
+        return Math.max(0, totalRequests.get() - cacheHit.get());
+    }
+
+    /**
+     * @return the number of entries evicted by the underlying caches
+     */
+    public long getEvictionCount() {
+        long count = getEvictionCount(this.localCache);
+        if (this.distributedCache != this.localCache) {
+            count += getEvictionCount(this.distributedCache);
+        }
+        return count;
+    }
+
+    private static long getEvictionCount(Cache<?, ?> cache) {
+        if (cache instanceof EvictingCache) {
+            return ((EvictingCache<?, ?>)cache).getEvictionCount();
+        }
+        return 0;
+    }
+
     public int getRequestCount() {
         return this.totalRequests.get();
     }
@@ -421,6 +444,9 @@ public class SessionAwareCache<T> {
         stats.setHitRatio(getCacheHitRatio());
         stats.setTotalEntries(this.getTotalCacheEntries());
         stats.setRequestCount(this.getRequestCount());
+        stats.setHitCount(this.getCacheHitCount());
+        stats.setMissCount(this.getCacheMissCount());
+        stats.setEvictionCount(this.getEvictionCount());
         return stats;
     }
 }
@@ -125,18 +125,20 @@ public class TupleSourceCache {
 
         @Override
         public void closeSource() {
-            if (!closed && state.expectedReaders != -1 && --state.expectedReaders == 0 && sharedStates != null && sharedStates.containsKey(state.id)) {
-                state.remove();
-                sharedStates.remove(state.id);
+            synchronized (TupleSourceCache.this) {
+                if (!closed && state.expectedReaders != -1 && --state.expectedReaders == 0 && sharedStates != null && sharedStates.containsKey(state.id)) {
+                    state.remove();
+                    sharedStates.remove(state.id);
+                }
+                closed = true;
             }
-            closed = true;
         }
 
     }
 
     private Map<Integer, SharedState> sharedStates;
 
-    public void close() {
+    public synchronized void close() {
         if (sharedStates != null) {
             for (SharedState ss : sharedStates.values()) {
                 ss.remove();
@@ -145,7 +147,7 @@ public class TupleSourceCache {
         }
     }
 
-    public TupleSource getSharedTupleSource(CommandContext context, Command command, String modelName, RegisterRequestParameter parameterObject, BufferManager bufferMgr, ProcessorDataManager pdm) throws TeiidComponentException, TeiidProcessingException {
+    public synchronized TupleSource getSharedTupleSource(CommandContext context, Command command, String modelName, RegisterRequestParameter parameterObject, BufferManager bufferMgr, ProcessorDataManager pdm) throws TeiidComponentException, TeiidProcessingException {
         if (sharedStates == null) {
             sharedStates = new HashMap<Integer, SharedState>();
         }
@@ -0,0 +1,379 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.eval;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.common.buffer.BlockedException;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.metadata.FunctionMethod.PushDown;
+import org.teiid.query.QueryPlugin;
+import org.teiid.query.function.FunctionDescriptor;
+import org.teiid.query.function.FunctionLibrary;
+import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.lang.NotCriteria;
+import org.teiid.query.sql.lang.SetCriteria;
+import org.teiid.query.sql.symbol.Constant;
+import org.teiid.query.sql.symbol.DerivedExpression;
+import org.teiid.query.sql.symbol.Expression;
+import org.teiid.query.sql.symbol.ExpressionSymbol;
+import org.teiid.query.sql.symbol.Function;
+
+/**
+ * Compiles resolved criteria and expressions into trees of pre-bound evaluators.
+ * <br>
+ * The {@link Evaluator} re-dispatches on the language object type and looks up
+ * every element in the element map for each tuple.  A compiled tree resolves the
+ * element references to tuple indexes, the comparison and function choices, and
+ * constant values once, so that per tuple evaluation is just the direct calls.
+ * <br>
+ * Constructs that are not handled here, such as subqueries, case expressions, xml/json
+ * functions, references, and pushdown or procedure functions, are delegated back to the
+ * {@link Evaluator}, so the compiled result is always semantically the same as interpreting.
+ * <br>
+ * The compiled tree is bound to the evaluator instance and reads its current context
+ * when evaluated, so it remains valid across evaluator re-initialization.
+ */
+public class ExpressionCompiler {
+
+    public interface CompiledExpression {
+        Object evaluate(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException;
+    }
+
+    public interface CompiledCriteria {
+        Boolean evaluateTVL(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException;
+    }
+
+    private final Evaluator evaluator;
+    private final Map<?, ?> elements;
+
+    public ExpressionCompiler(Evaluator evaluator) {
+        this.evaluator = evaluator;
+        this.elements = evaluator.elements;
+    }
+
+    /**
+     * @return a {@link CompiledCriteria} that just delegates to the {@link Evaluator}
+     */
+    public static CompiledCriteria interpret(final Criteria criteria, final Evaluator evaluator) {
+        return new CompiledCriteria() {
+            @Override
+            public Boolean evaluateTVL(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                return evaluator.evaluateTVL(criteria, tuple);
+            }
+        };
+    }
+
+    /**
+     * @return a {@link CompiledExpression} that just delegates to the {@link Evaluator}
+     */
+    public static CompiledExpression interpret(final Expression expression, final Evaluator evaluator) {
+        return new CompiledExpression() {
+            @Override
+            public Object evaluate(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                return evaluator.evaluate(expression, tuple);
+            }
+        };
+    }
+
+    public CompiledCriteria compile(final Criteria criteria) {
+        if (criteria instanceof CompoundCriteria) {
+            CompoundCriteria cc = (CompoundCriteria)criteria;
+            List<Criteria> crits = cc.getCriteria();
+            CompiledCriteria[] compiled = new CompiledCriteria[crits.size()];
+            for (int i = 0; i < compiled.length; i++) {
+                compiled[i] = compile(crits.get(i));
+            }
+            return new CompiledCompoundCriteria(cc.getOperator() == CompoundCriteria.AND, compiled);
+        }
+        if (criteria instanceof NotCriteria) {
+            final CompiledCriteria crit = compile(((NotCriteria)criteria).getCriteria());
+            return new CompiledCriteria() {
+                @Override
+                public Boolean evaluateTVL(List<?> tuple)
+                        throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                    Boolean result = crit.evaluateTVL(tuple);
+                    if (result == null) {
+                        return null;
+                    }
+                    return !result;
+                }
+            };
+        }
+        if (criteria instanceof CompareCriteria) {
+            return compile((CompareCriteria)criteria);
+        }
+        if (criteria instanceof IsNullCriteria) {
+            final IsNullCriteria inc = (IsNullCriteria)criteria;
+            final CompiledExpression expr = compile(inc.getExpression());
+            final boolean negated = inc.isNegated();
+            return new CompiledCriteria() {
+                @Override
+                public Boolean evaluateTVL(List<?> tuple)
+                        throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                    Object value = null;
+                    try {
+                        value = expr.evaluate(tuple);
+                    } catch(ExpressionEvaluationException e) {
+                        throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30323, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30323, criteria));
+                    }
+                    return value == null ^ negated;
+                }
+            };
+        }
+        if (criteria instanceof SetCriteria && ((SetCriteria)criteria).isAllConstants()) {
+            return compile((SetCriteria)criteria);
+        }
+        return interpret(criteria, evaluator);
+    }
+
+    private CompiledCriteria compile(final CompareCriteria criteria) {
+        final CompiledExpression left = compile(criteria.getLeftExpression());
+        final CompiledExpression right = compile(criteria.getRightExpression());
+        final int operator = criteria.getOperator();
+        Class<?> type = criteria.getLeftExpression().getType();
+        //strings and clobs are subject to the collation and padding, arrays to the element
+        //comparison, and object may be any of those - otherwise use the natural ordering
+        final boolean natural = type != null && type == criteria.getRightExpression().getType()
+                && Comparable.class.isAssignableFrom(type)
+                && type != DataTypeManager.DefaultDataClasses.STRING
+                && type != DataTypeManager.DefaultDataClasses.CLOB
+                && type != DataTypeManager.DefaultDataClasses.OBJECT
+                && !type.isArray();
+        return new CompiledCriteria() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public Boolean evaluateTVL(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                Object leftValue = null;
+                try {
+                    leftValue = left.evaluate(tuple);
+                } catch(ExpressionEvaluationException e) {
+                    throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30312, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30312, "left", criteria)); //$NON-NLS-1$
+                }
+                if (leftValue == null) {
+                    return null;
+                }
+                Object rightValue = null;
+                try {
+                    rightValue = right.evaluate(tuple);
+                } catch(ExpressionEvaluationException e) {
+                    throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30312, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30312, "right", criteria)); //$NON-NLS-1$
+                }
+                if (rightValue == null) {
+                    return null;
+                }
+                if (!natural) {
+                    return Evaluator.compare(operator, leftValue, rightValue);
+                }
+                int compare = ((Comparable<Object>)leftValue).compareTo(rightValue);
+                switch (operator) {
+                case CompareCriteria.EQ:
+                    return compare == 0;
+                case CompareCriteria.NE:
+                    return compare != 0;
+                case CompareCriteria.LT:
+                    return compare < 0;
+                case CompareCriteria.LE:
+                    return compare <= 0;
+                case CompareCriteria.GT:
+                    return compare > 0;
+                case CompareCriteria.GE:
+                    return compare >= 0;
+                default:
+                    throw new AssertionError();
+                }
+            }
+        };
+    }
+
+    private CompiledCriteria compile(final SetCriteria criteria) {
+        final CompiledExpression expr = compile(criteria.getExpression());
+        final Collection<?> values = criteria.getValues();
+        final boolean empty = values.isEmpty();
+        final boolean containsNull = values.contains(Constant.NULL_CONSTANT);
+        final boolean negated = criteria.isNegated();
+        final Class<?> type = criteria.getExpression().getType();
+        return new CompiledCriteria() {
+            @Override
+            public Boolean evaluateTVL(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                Object leftValue = null;
+                try {
+                    leftValue = expr.evaluate(tuple);
+                } catch(ExpressionEvaluationException e) {
+                    throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30323, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30323, criteria));
+                }
+                if (leftValue == null) {
+                    if (!empty) {
+                        return null;
+                    }
+                    return negated;
+                }
+                if (!values.contains(new Constant(leftValue, type))) {
+                    if (containsNull) {
+                        return null;
+                    }
+                    return negated;
+                }
+                return !negated;
+            }
+        };
+    }
+
+    /**
+     * Compile an expression with the same error handling as {@link Evaluator#evaluate(Expression, List)}
+     */
+    public CompiledExpression compile(final Expression expression) {
+        final CompiledExpression expr = compileInternal(expression);
+        return new CompiledExpression() {
+            @Override
+            public Object evaluate(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                try {
+                    return expr.evaluate(tuple);
+                } catch (ExpressionEvaluationException e) {
+                    throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30328, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30328, new Object[] {expression, e.getMessage()}));
+                }
+            }
+        };
+    }
+
+    private CompiledExpression compileInternal(final Expression expression) {
+        if (expression instanceof DerivedExpression) {
+            Object index = null;
+            if (elements != null) {
+                index = elements.get(expression);
+            }
+            if (index != null) {
+                final int i = (Integer)index;
+                return new CompiledExpression() {
+                    @Override
+                    public Object evaluate(List<?> tuple) {
+                        return tuple.get(i);
+                    }
+                };
+            }
+            if (expression instanceof ExpressionSymbol) {
+                return compileInternal(((ExpressionSymbol)expression).getExpression());
+            }
+        } else if (expression instanceof Constant) {
+            Constant c = (Constant)expression;
+            if (!c.isMultiValued()) {
+                final Object value = c.getValue();
+                return new CompiledExpression() {
+                    @Override
+                    public Object evaluate(List<?> tuple) {
+                        return value;
+                    }
+                };
+            }
+        } else if (expression instanceof Function) {
+            Function function = (Function)expression;
+            FunctionDescriptor fd = function.getFunctionDescriptor();
+            if (fd != null && fd.getPushdown() != PushDown.MUST_PUSHDOWN && fd.getProcedure() == null
+                    && !function.getName().equalsIgnoreCase(FunctionLibrary.LOOKUP)) {
+                Expression[] args = function.getArgs();
+                CompiledExpression[] compiled = new CompiledExpression[args.length];
+                for (int i = 0; i < args.length; i++) {
+                    compiled[i] = compileInternal(args[i]);
+                }
+                return new CompiledFunction(fd, compiled, function.isCalledWithVarArgArrayParam());
+            }
+        }
+        return new CompiledExpression() {
+            @Override
+            public Object evaluate(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                return evaluator.internalEvaluate(expression, tuple);
+            }
+        };
+    }
+
+    private static final class CompiledCompoundCriteria implements CompiledCriteria {
+        private final boolean and;
+        private final CompiledCriteria[] crits;
+
+        CompiledCompoundCriteria(boolean and, CompiledCriteria[] crits) {
+            this.and = and;
+            this.crits = crits;
+        }
+
+        @Override
+        public Boolean evaluateTVL(List<?> tuple)
+                throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+            Boolean result = and?Boolean.TRUE:Boolean.FALSE;
+            for (int i = 0; i < crits.length; i++) {
+                Boolean value = crits[i].evaluateTVL(tuple);
+                if (value == null) {
+                    result = null;
+                } else if (!value.booleanValue()) {
+                    if (and) {
+                        return Boolean.FALSE;
+                    }
+                } else if (!and) {
+                    return Boolean.TRUE;
+                }
+            }
+            return result;
+        }
+    }
+
+    private final class CompiledFunction implements CompiledExpression {
+        private final FunctionDescriptor fd;
+        private final CompiledExpression[] args;
+        private final boolean varArgArray;
+        private final int start;
+
+        CompiledFunction(FunctionDescriptor fd, CompiledExpression[] args, boolean varArgArray) {
+            this.fd = fd;
+            this.args = args;
+            this.varArgArray = varArgArray;
+            this.start = fd.requiresContext()?1:0;
+        }
+
+        @Override
+        public Object evaluate(List<?> tuple)
+                throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+            Object[] values = new Object[args.length + start];
+            if (start == 1) {
+                values[0] = evaluator.context;
+            }
+            for (int i = 0; i < args.length; i++) {
+                Object value = args[i].evaluate(tuple);
+                if (value instanceof Constant) {
+                    //leaked a multivalued constant
+                    throw new AssertionError("Multi-valued constant not allowed to be directly evaluated"); //$NON-NLS-1$
+                }
+                values[i + start] = value;
+            }
+            return fd.invokeFunction(values, evaluator.context, null, varArgArray);
+        }
+    }
+
+}
@@ -0,0 +1,815 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.metadata;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.teiid.metadata.AbstractMetadataRecord;
+import org.teiid.metadata.BaseColumn;
+import org.teiid.metadata.BaseColumn.NullType;
+import org.teiid.metadata.Column;
+import org.teiid.metadata.Column.SearchType;
+import org.teiid.metadata.ColumnSet;
+import org.teiid.metadata.Datatype;
+import org.teiid.metadata.ForeignKey;
+import org.teiid.metadata.KeyRecord;
+import org.teiid.metadata.MetadataFactory;
+import org.teiid.metadata.Procedure;
+import org.teiid.metadata.ProcedureParameter;
+import org.teiid.metadata.Schema;
+import org.teiid.metadata.Table;
+
+/**
+ * A compact binary snapshot of the {@link Schema} held by a {@link MetadataFactory}.
+ * <br>
+ * The layout is a header, the factory and schema entries, one record per table or procedure
+ * in resolving order, then the datatype table, the record index, the string table and a
+ * fixed size trailer holding the section offsets.  All strings are stored once in the
+ * string table and referenced by index.
+ * <br>
+ * The file is memory mapped when opened.  Individual tables and procedures may be materialized
+ * on first access with {@link #getTable(String)} and {@link #getProcedure(String)}, or the whole
+ * factory may be rebuilt with {@link #getMetadataFactory()}.  Datatypes are restored as name
+ * only placeholders and are expected to be replaced with {@link MetadataFactory#correctDatatypes(Map)}
+ * <br>
+ * Only the metadata typically produced by a source import is supported - see {@link #isSupported(MetadataFactory)}
+ */
+public class MetadataSnapshot {
+
+    private static final int MAGIC = 0x54534D53;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 6;
+    private static final int TRAILER_SIZE = 16;
+
+    private static final byte TABLE = 0;
+    private static final byte PROCEDURE = 1;
+
+    private static final byte NO_REFERENCE = 0;
+    private static final byte PRIMARY_KEY_REFERENCE = 1;
+    private static final byte UNIQUE_KEY_REFERENCE = 2;
+
+    private static class Reference {
+        ForeignKey foreignKey;
+        String tableName;
+        int uniqueKeyIndex;
+    }
+
+    private ByteBuffer buffer;
+    private int[] stringOffsets;
+    private String[] strings;
+    private Datatype[] types;
+    private int[] recordOffsets;
+    private TreeMap<String, Integer> tableOffsets = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+    private TreeMap<String, Integer> procedureOffsets = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+    private TreeMap<String, Table> tables = new TreeMap<String, Table>(String.CASE_INSENSITIVE_ORDER);
+    private TreeMap<String, Procedure> procedures = new TreeMap<String, Procedure>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Quick check for metadata the snapshot cannot represent.  The remaining
+     * restrictions, such as keys referencing another schema, are detected by {@link #write(MetadataFactory, File)}
+     */
+    public static boolean isSupported(MetadataFactory factory) {
+        Schema schema = factory.getSchema();
+        if (!factory.getRoles().isEmpty() || !schema.getFunctions().isEmpty() || !schema.getServers().isEmpty()
+                || schema.getResolvingOrder().size() != schema.getTables().size() + schema.getProcedures().size()) {
+            return false;
+        }
+        for (Table table : schema.getTables().values()) {
+            if (!table.getTriggers().isEmpty() || !table.getFunctionBasedIndexes().isEmpty()
+                    || table.getMaterializedTable() != null || table.getMaterializedStageTable() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the snapshot.  On failure the partially written file is removed.
+     * @throws IOException if the file cannot be written or if the metadata is not representable
+     */
+    public static void write(MetadataFactory factory, File file) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        boolean success = false;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            new Writer(factory, out).write();
+            success = true;
+        } finally {
+            if (!success) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Memory map the given snapshot file.  Only the header, index and string offsets are read.
+     */
+    public static MetadataSnapshot open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE || size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException("Invalid metadata snapshot size " + size); //$NON-NLS-1$
+            }
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+            return new MetadataSnapshot(buffer);
+        }
+    }
+
+    MetadataSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        int limit = buffer.limit();
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(limit - 4) != MAGIC) {
+            throw new IOException("Not a metadata snapshot"); //$NON-NLS-1$
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported metadata snapshot version " + buffer.getShort(4)); //$NON-NLS-1$
+        }
+        int typesOffset = buffer.getInt(limit - TRAILER_SIZE);
+        int indexOffset = buffer.getInt(limit - TRAILER_SIZE + 4);
+        int stringOffset = buffer.getInt(limit - TRAILER_SIZE + 8);
+
+        ByteBuffer b = at(stringOffset);
+        int count = b.getInt();
+        this.stringOffsets = new int[count];
+        this.strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            stringOffsets[i] = b.position();
+            b.position(b.position() + 4 + b.getInt());
+        }
+
+        b = at(typesOffset);
+        this.types = new Datatype[b.getInt()];
+        for (int i = 0; i < types.length; i++) {
+            Datatype type = new Datatype();
+            type.setName(readString(b));
+            type.setUUID(readString(b));
+            type.setRuntimeTypeName(readString(b));
+            types[i] = type;
+        }
+
+        b = at(indexOffset);
+        this.recordOffsets = new int[b.getInt()];
+        for (int i = 0; i < recordOffsets.length; i++) {
+            byte kind = b.get();
+            String name = readString(b);
+            int offset = b.getInt();
+            recordOffsets[i] = offset;
+            if (kind == TABLE) {
+                tableOffsets.put(name, offset);
+            } else {
+                procedureOffsets.put(name, offset);
+            }
+        }
+    }
+
+    public Set<String> getTableNames() {
+        return Collections.unmodifiableSet(tableOffsets.keySet());
+    }
+
+    public Set<String> getProcedureNames() {
+        return Collections.unmodifiableSet(procedureOffsets.keySet());
+    }
+
+    /**
+     * Get the table, materializing it on first access.  The table is not added to a {@link Schema}
+     * and foreign keys only hold the referenced table and column names.
+     * @return the table or null if it does not exist
+     */
+    public synchronized Table getTable(String name) {
+        Table table = tables.get(name);
+        if (table == null) {
+            Integer offset = tableOffsets.get(name);
+            if (offset == null) {
+                return null;
+            }
+            ByteBuffer b = at(offset);
+            b.get();
+            table = readTable(b, null);
+            tables.put(name, table);
+        }
+        return table;
+    }
+
+    /**
+     * Get the procedure, materializing it on first access.  The procedure is not added to a {@link Schema}
+     * @return the procedure or null if it does not exist
+     */
+    public synchronized Procedure getProcedure(String name) {
+        Procedure procedure = procedures.get(name);
+        if (procedure == null) {
+            Integer offset = procedureOffsets.get(name);
+            if (offset == null) {
+                return null;
+            }
+            ByteBuffer b = at(offset);
+            b.get();
+            procedure = readProcedure(b);
+            procedures.put(name, procedure);
+        }
+        return procedure;
+    }
+
+    /**
+     * Materialize a new {@link MetadataFactory} with the full {@link Schema}.
+     * The caller should then use {@link MetadataFactory#correctDatatypes(Map)}
+     */
+    public MetadataFactory getMetadataFactory() {
+        ByteBuffer b = at(HEADER_SIZE);
+        String vdbName = readString(b);
+        String vdbVersion = readString(b);
+        String rawMetadata = readString(b);
+        Properties modelProperties = null;
+        int count = b.getInt();
+        if (count >= 0) {
+            modelProperties = new Properties();
+            for (int i = 0; i < count; i++) {
+                modelProperties.setProperty(readString(b), readString(b));
+            }
+        }
+        Schema schema = new Schema();
+        readRecord(b, schema);
+        schema.setPhysical(b.get() != 0);
+        schema.setPrimaryMetamodelUri(readString(b));
+
+        Map<String, Datatype> datatypes = new HashMap<String, Datatype>();
+        for (Datatype type : types) {
+            datatypes.put(type.getName(), type);
+        }
+        MetadataFactory factory = new MetadataFactory(vdbName, vdbVersion, schema.getName(), datatypes, modelProperties, rawMetadata);
+        factory.setSchema(schema);
+
+        List<Reference> references = new ArrayList<Reference>();
+        for (int offset : recordOffsets) {
+            b = at(offset);
+            if (b.get() == TABLE) {
+                schema.addTable(readTable(b, references));
+            } else {
+                schema.addProcedure(readProcedure(b));
+            }
+        }
+        for (Reference reference : references) {
+            Table table = schema.getTable(reference.tableName);
+            KeyRecord key = null;
+            if (table != null) {
+                key = reference.uniqueKeyIndex < 0 ? table.getPrimaryKey() : table.getUniqueKeys().get(reference.uniqueKeyIndex);
+            }
+            if (key == null) {
+                continue;
+            }
+            ForeignKey fk = reference.foreignKey;
+            //retain the stored values, which may be qualified
+            String uniqueKeyId = fk.getUniqueKeyID();
+            String referenceTableName = fk.getReferenceTableName();
+            List<String> referenceColumns = fk.getReferenceColumns();
+            fk.setReferenceKey(key);
+            fk.setUniqueKeyID(uniqueKeyId);
+            fk.setReferenceTableName(referenceTableName);
+            fk.setReferenceColumns(referenceColumns);
+        }
+        return factory;
+    }
+
+    private ByteBuffer at(int offset) {
+        ByteBuffer b = buffer.duplicate();
+        b.position(offset);
+        return b;
+    }
+
+    private String readString(ByteBuffer b) {
+        int index = b.getInt();
+        if (index < 0) {
+            return null;
+        }
+        String result = strings[index];
+        if (result == null) {
+            ByteBuffer sb = at(stringOffsets[index]);
+            byte[] bytes = new byte[sb.getInt()];
+            sb.get(bytes);
+            result = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = result;
+        }
+        return result;
+    }
+
+    private List<String> readStrings(ByteBuffer b) {
+        int count = b.getInt();
+        if (count < 0) {
+            return null;
+        }
+        List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(readString(b));
+        }
+        return result;
+    }
+
+    private void readRecord(ByteBuffer b, AbstractMetadataRecord record) {
+        record.setUUID(readString(b));
+        record.setName(readString(b));
+        record.setNameInSource(readString(b));
+        record.setAnnotation(readString(b));
+        int count = b.getInt();
+        for (int i = 0; i < count; i++) {
+            record.setProperty(readString(b), readString(b));
+        }
+    }
+
+    private void readBaseColumn(ByteBuffer b, BaseColumn column) {
+        readRecord(b, column);
+        int type = b.getInt();
+        int arrayDimensions = b.getInt();
+        if (type >= 0) {
+            column.setDatatype(types[type], false, arrayDimensions);
+        } else {
+            column.setDatatype(null, false, arrayDimensions);
+            column.setRuntimeType(readString(b));
+            column.setDatatypeUUID(readString(b));
+        }
+        column.setDefaultValue(readString(b));
+        column.setLength(b.getInt());
+        column.setPrecision(b.getInt());
+        column.setScale(b.getInt());
+        column.setRadix(b.getInt());
+        byte nullType = b.get();
+        if (nullType >= 0) {
+            column.setNullType(NullType.values()[nullType]);
+        }
+        column.setPosition(b.getInt());
+        column.setNativeType(readString(b));
+    }
+
+    private List<Column> readColumns(ByteBuffer b, ColumnSet<?> parent) {
+        int count = b.getInt();
+        List<Column> columns = new ArrayList<Column>(count);
+        for (int i = 0; i < count; i++) {
+            Column column = new Column();
+            readBaseColumn(b, column);
+            int flags = b.get();
+            column.setSelectable((flags & 1) != 0);
+            column.setUpdatable((flags & 2) != 0);
+            column.setAutoIncremented((flags & 4) != 0);
+            column.setCaseSensitive((flags & 8) != 0);
+            column.setSigned((flags & 16) != 0);
+            column.setCurrency((flags & 32) != 0);
+            column.setFixedLength((flags & 64) != 0);
+            byte searchType = b.get();
+            if (searchType >= 0) {
+                column.setSearchType(SearchType.values()[searchType]);
+            }
+            column.setMinimumValue(readString(b));
+            column.setMaximumValue(readString(b));
+            column.setFormat(readString(b));
+            column.setCharOctetLength(b.getInt());
+            column.setDistinctValues((long)b.getFloat());
+            column.setNullValues((long)b.getFloat());
+            column.setParent(parent);
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    private <T extends KeyRecord> T readKey(ByteBuffer b, T key, Table table) {
+        readRecord(b, key);
+        int count = b.getInt();
+        List<Column> columns = new ArrayList<Column>(count);
+        for (int i = 0; i < count; i++) {
+            columns.add(table.getColumns().get(b.getInt()));
+        }
+        key.setParent(table);
+        key.setColumns(columns);
+        return key;
+    }
+
+    private Table readTable(ByteBuffer b, List<Reference> references) {
+        Table table = new Table();
+        readRecord(b, table);
+        table.setCardinality((long)b.getFloat());
+        byte tableType = b.get();
+        if (tableType >= 0) {
+            table.setTableType(Table.Type.values()[tableType]);
+        }
+        int flags = b.get();
+        table.setVirtual((flags & 1) != 0);
+        table.setSystem((flags & 2) != 0);
+        table.setMaterialized((flags & 4) != 0);
+        table.setSupportsUpdate((flags & 8) != 0);
+        table.setInsertPlanEnabled((flags & 16) != 0);
+        table.setUpdatePlanEnabled((flags & 32) != 0);
+        table.setDeletePlanEnabled((flags & 64) != 0);
+        table.setSelectTransformation(readString(b));
+        table.setInsertPlan(readString(b));
+        table.setUpdatePlan(readString(b));
+        table.setDeletePlan(readString(b));
+        table.setResourcePath(readString(b));
+        table.setBindings(readStrings(b));
+        table.setSchemaPaths(readStrings(b));
+        table.setColumns(readColumns(b, table));
+        if (b.get() != 0) {
+            table.setPrimaryKey(readKey(b, new KeyRecord(KeyRecord.Type.Primary), table));
+        }
+        for (int i = b.getInt(); i > 0; i--) {
+            table.getUniqueKeys().add(readKey(b, new KeyRecord(KeyRecord.Type.Unique), table));
+        }
+        for (int i = b.getInt(); i > 0; i--) {
+            table.getIndexes().add(readKey(b, new KeyRecord(KeyRecord.Type.Index), table));
+        }
+        for (int i = b.getInt(); i > 0; i--) {
+            table.getAccessPatterns().add(readKey(b, new KeyRecord(KeyRecord.Type.AccessPattern), table));
+        }
+        for (int i = b.getInt(); i > 0; i--) {
+            ForeignKey fk = readKey(b, new ForeignKey(), table);
+            fk.setUniqueKeyID(readString(b));
+            fk.setReferenceTableName(readString(b));
+            fk.setReferenceColumns(readStrings(b));
+            byte referenceType = b.get();
+            if (referenceType != NO_REFERENCE) {
+                String tableName = readString(b);
+                int index = referenceType == UNIQUE_KEY_REFERENCE ? b.getInt() : -1;
+                if (references != null) {
+                    Reference reference = new Reference();
+                    reference.foreignKey = fk;
+                    reference.tableName = tableName;
+                    reference.uniqueKeyIndex = index;
+                    references.add(reference);
+                }
+            }
+            table.getForeignKeys().add(fk);
+        }
+        return table;
+    }
+
+    private Procedure readProcedure(ByteBuffer b) {
+        Procedure procedure = new Procedure();
+        readRecord(b, procedure);
+        int flags = b.get();
+        procedure.setFunction((flags & 1) != 0);
+        procedure.setVirtual((flags & 2) != 0);
+        procedure.setUpdateCount(b.getInt());
+        procedure.setQueryPlan(readString(b));
+        int count = b.getInt();
+        List<ProcedureParameter> params = new ArrayList<ProcedureParameter>(count);
+        for (int i = 0; i < count; i++) {
+            ProcedureParameter param = new ProcedureParameter();
+            readBaseColumn(b, param);
+            byte type = b.get();
+            if (type >= 0) {
+                param.setType(ProcedureParameter.Type.values()[type]);
+            }
+            int paramFlags = b.get();
+            param.setOptional((paramFlags & 1) != 0);
+            param.setVarArg((paramFlags & 2) != 0);
+            param.setProcedure(procedure);
+            params.add(param);
+        }
+        procedure.setParameters(params);
+        if (b.get() != 0) {
+            ColumnSet<Procedure> resultSet = new ColumnSet<Procedure>();
+            readRecord(b, resultSet);
+            resultSet.setColumns(readColumns(b, resultSet));
+            procedure.setResultSet(resultSet);
+        }
+        return procedure;
+    }
+
+    private static class Writer {
+
+        private MetadataFactory factory;
+        private DataOutputStream out;
+        private Map<String, Integer> stringIndexes = new HashMap<String, Integer>();
+        private List<String> strings = new ArrayList<String>();
+        private Map<Datatype, Integer> typeIndexes = new IdentityHashMap<Datatype, Integer>();
+        private List<Datatype> types = new ArrayList<Datatype>();
+
+        Writer(MetadataFactory factory, DataOutputStream out) {
+            this.factory = factory;
+            this.out = out;
+        }
+
+        void write() throws IOException {
+            Schema schema = factory.getSchema();
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            writeString(factory.getVdbName());
+            writeString(factory.getVdbVersion());
+            writeString(factory.getRawMetadata());
+            Properties modelProperties = factory.getModelProperties();
+            if (modelProperties == null) {
+                out.writeInt(-1);
+            } else {
+                Map<String, String> props = new LinkedHashMap<String, String>();
+                for (String key : modelProperties.stringPropertyNames()) {
+                    props.put(key, modelProperties.getProperty(key));
+                }
+                writeProperties(props);
+            }
+            writeRecord(schema);
+            out.writeBoolean(schema.isPhysical());
+            writeString(schema.getPrimaryMetamodelUri());
+
+            List<AbstractMetadataRecord> records = schema.getResolvingOrder();
+            List<Integer> offsets = new ArrayList<Integer>(records.size());
+            for (AbstractMetadataRecord record : records) {
+                offsets.add(position());
+                if (record instanceof Table) {
+                    out.writeByte(TABLE);
+                    writeTable((Table)record);
+                } else if (record instanceof Procedure) {
+                    out.writeByte(PROCEDURE);
+                    writeProcedure((Procedure)record);
+                } else {
+                    throw new IOException("Unsupported record " + record); //$NON-NLS-1$
+                }
+            }
+
+            int typesOffset = position();
+            out.writeInt(types.size());
+            for (Datatype type : types) {
+                writeString(type.getName());
+                writeString(type.getUUID());
+                writeString(type.getRuntimeTypeName());
+            }
+
+            int indexOffset = position();
+            out.writeInt(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                AbstractMetadataRecord record = records.get(i);
+                out.writeByte(record instanceof Table ? TABLE : PROCEDURE);
+                writeString(record.getName());
+                out.writeInt(offsets.get(i));
+            }
+
+            int stringOffset = position();
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            position();
+
+            out.writeInt(typesOffset);
+            out.writeInt(indexOffset);
+            out.writeInt(stringOffset);
+            out.writeInt(MAGIC);
+        }
+
+        private int position() throws IOException {
+            int size = out.size();
+            if (size == Integer.MAX_VALUE) {
+                throw new IOException("Metadata snapshot exceeds the maximum size"); //$NON-NLS-1$
+            }
+            return size;
+        }
+
+        private void writeString(String string) throws IOException {
+            if (string == null) {
+                out.writeInt(-1);
+                return;
+            }
+            Integer index = stringIndexes.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.add(string);
+                stringIndexes.put(string, index);
+            }
+            out.writeInt(index);
+        }
+
+        private void writeStrings(List<String> values) throws IOException {
+            if (values == null) {
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        private void writeProperties(Map<String, String> props) throws IOException {
+            out.writeInt(props.size());
+            for (Map.Entry<String, String> entry : props.entrySet()) {
+                writeString(entry.getKey());
+                writeString(entry.getValue());
+            }
+        }
+
+        private void writeRecord(AbstractMetadataRecord record) throws IOException {
+            writeString(record.getUUID());
+            writeString(record.getName());
+            writeString(record.getNameInSource());
+            writeString(record.getAnnotation());
+            writeProperties(record.getProperties());
+        }
+
+        private void writeBaseColumn(BaseColumn column) throws IOException {
+            writeRecord(column);
+            Datatype type = column.getDatatype();
+            if (type != null) {
+                if (factory.getDataTypes().get(type.getName()) != type) {
+                    throw new IOException("Non-runtime type " + type.getName() + " used by " + column.getFullName()); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                Integer index = typeIndexes.get(type);
+                if (index == null) {
+                    index = types.size();
+                    types.add(type);
+                    typeIndexes.put(type, index);
+                }
+                out.writeInt(index);
+                out.writeInt(column.getArrayDimensions());
+            } else {
+                out.writeInt(-1);
+                out.writeInt(column.getArrayDimensions());
+                writeString(column.getRuntimeType());
+                writeString(column.getDatatypeUUID());
+            }
+            writeString(column.getDefaultValue());
+            out.writeInt(column.getLength());
+            if (column.isDefaultPrecisionScale()) {
+                out.writeInt(0);
+                out.writeInt(0);
+            } else {
+                out.writeInt(column.getPrecision());
+                out.writeInt(column.getScale());
+            }
+            out.writeInt(column.getRadix());
+            NullType nullType = column.getNullType();
+            out.writeByte(nullType == null ? -1 : nullType.ordinal());
+            out.writeInt(column.getPosition());
+            writeString(column.getNativeType());
+        }
+
+        private void writeColumns(List<Column> columns) throws IOException {
+            if (columns == null) {
+                out.writeInt(0);
+                return;
+            }
+            out.writeInt(columns.size());
+            for (Column column : columns) {
+                writeBaseColumn(column);
+                int flags = (column.isSelectable() ? 1 : 0)
+                        | (column.isUpdatable() ? 2 : 0)
+                        | (column.isAutoIncremented() ? 4 : 0)
+                        | (column.isCaseSensitive() ? 8 : 0)
+                        | (column.isSigned() ? 16 : 0)
+                        | (column.isCurrency() ? 32 : 0)
+                        | (column.isFixedLength() ? 64 : 0);
+                out.writeByte(flags);
+                out.writeByte(column.isSearchTypeSet() ? column.getSearchType().ordinal() : -1);
+                writeString(column.getMinimumValue());
+                writeString(column.getMaximumValue());
+                writeString(column.getFormat());
+                out.writeInt(column.getCharOctetLength());
+                out.writeFloat(column.getDistinctValuesAsFloat());
+                out.writeFloat(column.getNullValuesAsFloat());
+            }
+        }
+
+        private void writeKey(KeyRecord key, Map<Column, Integer> positions) throws IOException {
+            writeRecord(key);
+            List<Column> columns = key.getColumns();
+            if (columns == null) {
+                out.writeInt(0);
+                return;
+            }
+            out.writeInt(columns.size());
+            for (Column column : columns) {
+                Integer index = positions.get(column);
+                if (index == null) {
+                    throw new IOException("Key " + key.getFullName() + " does not reference a table column"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                out.writeInt(index);
+            }
+        }
+
+        private void writeKeys(List<KeyRecord> keys, Map<Column, Integer> positions) throws IOException {
+            out.writeInt(keys.size());
+            for (KeyRecord key : keys) {
+                writeKey(key, positions);
+            }
+        }
+
+        private void writeTable(Table table) throws IOException {
+            writeRecord(table);
+            out.writeFloat(table.getCardinalityAsFloat());
+            Table.Type tableType = table.getTableType();
+            out.writeByte(tableType == null ? -1 : tableType.ordinal());
+            int flags = (table.isVirtual() ? 1 : 0)
+                    | (table.isSystem() ? 2 : 0)
+                    | (table.isMaterialized() ? 4 : 0)
+                    | (table.supportsUpdate() ? 8 : 0)
+                    | (table.isInsertPlanEnabled() ? 16 : 0)
+                    | (table.isUpdatePlanEnabled() ? 32 : 0)
+                    | (table.isDeletePlanEnabled() ? 64 : 0);
+            out.writeByte(flags);
+            writeString(table.getSelectTransformation());
+            writeString(table.getInsertPlan());
+            writeString(table.getUpdatePlan());
+            writeString(table.getDeletePlan());
+            writeString(table.getResourcePath());
+            writeStrings(table.getBindings());
+            writeStrings(table.getSchemaPaths());
+            List<Column> columns = table.getColumns();
+            writeColumns(columns);
+            Map<Column, Integer> positions = new IdentityHashMap<Column, Integer>();
+            if (columns != null) {
+                for (int i = 0; i < columns.size(); i++) {
+                    positions.put(columns.get(i), i);
+                }
+            }
+            KeyRecord pk = table.getPrimaryKey();
+            out.writeBoolean(pk != null);
+            if (pk != null) {
+                writeKey(pk, positions);
+            }
+            writeKeys(table.getUniqueKeys(), positions);
+            writeKeys(table.getIndexes(), positions);
+            writeKeys(table.getAccessPatterns(), positions);
+            out.writeInt(table.getForeignKeys().size());
+            for (ForeignKey fk : table.getForeignKeys()) {
+                writeKey(fk, positions);
+                writeString(fk.getUniqueKeyID());
+                writeString(fk.getReferenceTableName());
+                writeStrings(fk.getReferenceColumns());
+                KeyRecord referenceKey = fk.getReferenceKey();
+                if (referenceKey == null) {
+                    out.writeByte(NO_REFERENCE);
+                    continue;
+                }
+                Table referenceTable = referenceKey.getParent();
+                if (referenceTable == null || referenceTable.getParent() != factory.getSchema()) {
+                    throw new IOException("Foreign key " + fk.getFullName() + " references another schema"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                if (referenceKey == referenceTable.getPrimaryKey()) {
+                    out.writeByte(PRIMARY_KEY_REFERENCE);
+                    writeString(referenceTable.getName());
+                } else {
+                    int index = referenceTable.getUniqueKeys().indexOf(referenceKey);
+                    if (index < 0) {
+                        throw new IOException("Foreign key " + fk.getFullName() + " does not reference a primary or unique key"); //$NON-NLS-1$ //$NON-NLS-2$
+                    }
+                    out.writeByte(UNIQUE_KEY_REFERENCE);
+                    writeString(referenceTable.getName());
+                    out.writeInt(index);
+                }
+            }
+        }
+
+        private void writeProcedure(Procedure procedure) throws IOException {
+            writeRecord(procedure);
+            out.writeByte((procedure.isFunction() ? 1 : 0) | (procedure.isVirtual() ? 2 : 0));
+            out.writeInt(procedure.getUpdateCount());
+            writeString(procedure.getQueryPlan());
+            out.writeInt(procedure.getParameters().size());
+            for (ProcedureParameter param : procedure.getParameters()) {
+                writeBaseColumn(param);
+                out.writeByte(param.getType() == null ? -1 : param.getType().ordinal());
+                out.writeByte((param.isOptional() ? 1 : 0) | (param.isVarArg() ? 2 : 0));
+            }
+            ColumnSet<Procedure> resultSet = procedure.getResultSet();
+            out.writeBoolean(resultSet != null);
+            if (resultSet != null) {
+                writeRecord(resultSet);
+                writeColumns(resultSet.getColumns());
+            }
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -40,6 +41,7 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
 import javax.script.ScriptEngineManager;
 
+import org.teiid.adminapi.impl.CacheStatisticsMetadata;
 import org.teiid.adminapi.impl.DataPolicyMetadata;
 import org.teiid.adminapi.impl.ModelMetaData;
 import org.teiid.adminapi.impl.VDBMetaData;
@@ -53,10 +55,13 @@ import org.teiid.core.types.DataTypeManager.DefaultDataClasses;
 import org.teiid.core.types.InputStreamFactory;
 import org.teiid.core.types.SQLXMLImpl;
 import org.teiid.core.util.ArgCheck;
-import org.teiid.core.util.LRUCache;
 import org.teiid.core.util.ObjectConverterUtil;
+import org.teiid.core.util.PropertiesUtils;
 import org.teiid.core.util.StringUtil;
+import org.teiid.core.util.StripedLRUCache;
 import org.teiid.dqp.internal.process.DQPWorkContext;
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
 import org.teiid.metadata.AbstractMetadataRecord;
 import org.teiid.metadata.BaseColumn.NullType;
 import org.teiid.metadata.Column;
@@ -87,6 +92,12 @@ import org.teiid.query.sql.lang.SPParameter;
 public class TransformationMetadata extends BasicQueryMetadata implements Serializable {
 
     public static final String ALLOWED_LANGUAGES = "allowed-languages"; //$NON-NLS-1$
+    /**
+     * VDB property for the number of entries in the metadata and group info caches.
+     * The partial name cache is sized at 4 times and the procedure cache at 4/5 of the value.
+     */
+    public static final String METADATA_CACHE_SIZE = "metadata-cache-size"; //$NON-NLS-1$
+    public static final int DEFAULT_METADATA_CACHE_SIZE = PropertiesUtils.getHierarchicalProperty("org.teiid.metadataCacheSize", 250, Integer.class); //$NON-NLS-1$
 
     private static final class LiveQueryNode extends QueryNode {
         Procedure p;
@@ -162,13 +173,10 @@ public class TransformationMetadata extends BasicQueryMetadata implements Serial
     private boolean designTime = false;
     private boolean hiddenQualified = true;
 
-    /*
-     * TODO: move caching to jboss cache structure
-     */
-    private Map<String, Object> metadataCache = Collections.synchronizedMap(new LRUCache<String, Object>(250));
-    private Map<String, Object> groupInfoCache = Collections.synchronizedMap(new LRUCache<String, Object>(250));
-    private Map<String, Collection<Table>> partialNameToFullNameCache = Collections.synchronizedMap(new LRUCache<String, Collection<Table>>(1000));
-    private Map<String, Collection<StoredProcedureInfo>> procedureCache = Collections.synchronizedMap(new LRUCache<String, Collection<StoredProcedureInfo>>(200));
+    private StripedLRUCache<String, Object> metadataCache;
+    private StripedLRUCache<String, Object> groupInfoCache;
+    private StripedLRUCache<String, Collection<Table>> partialNameToFullNameCache;
+    private StripedLRUCache<String, Collection<StoredProcedureInfo>> procedureCache;
 
     private boolean widenComparisonToString = true;
     private boolean allowEnv = true;
@@ -179,7 +187,12 @@ public class TransformationMetadata extends BasicQueryMetadata implements Serial
     public TransformationMetadata(VDBMetaData vdbMetadata, final CompositeMetadataStore store, Map<String, VDBResources.Resource> vdbEntries, FunctionTree systemFunctions, Collection<FunctionTree> functionTrees) {
         ArgCheck.isNotNull(store);
         this.vdbMetaData = vdbMetadata;
+        int cacheSize = DEFAULT_METADATA_CACHE_SIZE;
         if (this.vdbMetaData !=null) {
+            String size = vdbMetadata.getPropertyValue(METADATA_CACHE_SIZE);
+            if (size != null) {
+                cacheSize = getCacheSize(vdbMetadata, size);
+            }
             this.scriptEngineManager = vdbMetadata.getAttachment(ScriptEngineManager.class);
             this.importedModels = this.vdbMetaData.getImportedModels();
             this.allowedLanguages = StringUtil.valueOf(vdbMetadata.getPropertyValue(ALLOWED_LANGUAGES), Set.class);
@@ -189,6 +202,10 @@ public class TransformationMetadata extends BasicQueryMetadata implements Serial
         } else {
             this.importedModels = Collections.emptySet();
         }
+        this.metadataCache = new StripedLRUCache<String, Object>(cacheSize);
+        this.groupInfoCache = new StripedLRUCache<String, Object>(cacheSize);
+        this.partialNameToFullNameCache = new StripedLRUCache<String, Collection<Table>>(cacheSize * 4);
+        this.procedureCache = new StripedLRUCache<String, Collection<StoredProcedureInfo>>(Math.max(1, cacheSize * 4 / 5));
         if (store.getDatatypes().isEmpty()) {
             store.addDataTypes(SystemMetadata.getInstance().getRuntimeTypeMap());
         }
@@ -961,6 +978,55 @@ public class TransformationMetadata extends BasicQueryMetadata implements Serial
         return record.getUUID() + "/" + key; //$NON-NLS-1$
     }
 
+    private static int getCacheSize(VDBMetaData vdb, String size) {
+        try {
+            int result = Integer.parseInt(size.trim());
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            //fall through
+        }
+        LogManager.logWarning(LogConstants.CTX_DQP, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31306, size, METADATA_CACHE_SIZE, vdb.getName(), vdb.getVersion(), DEFAULT_METADATA_CACHE_SIZE));
+        return DEFAULT_METADATA_CACHE_SIZE;
+    }
+
+    /**
+     * Clear the metadata, group info, partial name and procedure caches.
+     */
+    public void clearCaches() {
+        this.metadataCache.clear();
+        this.groupInfoCache.clear();
+        this.partialNameToFullNameCache.clear();
+        this.procedureCache.clear();
+    }
+
+    /**
+     * Build the combined statistics for the metadata, group info, partial name and procedure caches.
+     */
+    public CacheStatisticsMetadata buildCacheStats(String name) {
+        CacheStatisticsMetadata stats = new CacheStatisticsMetadata();
+        stats.setName(name);
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        int entries = 0;
+        for (StripedLRUCache<String, ?> cache : Arrays.asList(metadataCache, groupInfoCache, partialNameToFullNameCache, procedureCache)) {
+            hits += cache.getHitCount();
+            misses += cache.getMissCount();
+            evictions += cache.getEvictionCount();
+            entries += cache.size();
+        }
+        long requests = hits + misses;
+        stats.setTotalEntries(entries);
+        stats.setRequestCount((int)Math.min(Integer.MAX_VALUE, requests));
+        stats.setHitCount((int)Math.min(Integer.MAX_VALUE, hits));
+        stats.setMissCount((int)Math.min(Integer.MAX_VALUE, misses));
+        stats.setEvictionCount(evictions);
+        stats.setHitRatio(requests == 0?0:((double)hits/requests)*100);
+        return stats;
+    }
+
     @Override
     public FunctionLibrary getFunctionLibrary() {
         if (!isHiddenResolvableInternal()) {
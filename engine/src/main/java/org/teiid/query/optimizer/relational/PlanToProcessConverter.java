@@ -70,6 +70,7 @@ import org.teiid.query.processor.relational.DependentProcedureExecutionNode;
 import org.teiid.query.processor.relational.DupRemoveNode;
 import org.teiid.query.processor.relational.EnhancedSortMergeJoinStrategy;
 import org.teiid.query.processor.relational.GroupingNode;
+import org.teiid.query.processor.relational.HashJoinStrategy;
 import org.teiid.query.processor.relational.InsertPlanExecutionNode;
 import org.teiid.query.processor.relational.JoinNode;
 import org.teiid.query.processor.relational.JoinNode.JoinStrategyType;
@@ -351,6 +352,17 @@ public class PlanToProcessConverter {
                     List rightExpressions = (List) node.getProperty(NodeConstants.Info.RIGHT_EXPRESSIONS);
                     jnode.setJoinExpressions(leftExpressions, rightExpressions);
                     joinCrits = (List) node.getProperty(NodeConstants.Info.NON_EQUI_JOIN_CRITERIA);
+                } else if (stype == JoinStrategyType.HASH) {
+                    HashJoinStrategy hjStrategy = new HashJoinStrategy();
+                    if (node.hasBooleanProperty(Info.SINGLE_MATCH)) {
+                        Assertion.assertTrue(jtype == JoinType.JOIN_LEFT_OUTER);
+                        hjStrategy.singleMatch(true);
+                    }
+                    jnode.setJoinStrategy(hjStrategy);
+                    List leftExpressions = (List) node.getProperty(NodeConstants.Info.LEFT_EXPRESSIONS);
+                    List rightExpressions = (List) node.getProperty(NodeConstants.Info.RIGHT_EXPRESSIONS);
+                    jnode.setJoinExpressions(leftExpressions, rightExpressions);
+                    joinCrits = (List) node.getProperty(NodeConstants.Info.NON_EQUI_JOIN_CRITERIA);
                 } else if (stype == JoinStrategyType.NESTED_TABLE) {
                     NestedTableJoinStrategy ntjStrategy = new NestedTableJoinStrategy();
                     jnode.setJoinStrategy(ntjStrategy);
@@ -637,6 +649,7 @@ public class PlanToProcessConverter {
                 }
                 if (orderBy != null) {
                     gnode.setOrderBy(orderBy.getOrderByItems());
+                    gnode.setHashGrouping(useHashGrouping(node));
                 }
                 for (Expression ex : groupingMap!=null?groupingMap.getValues():(List<Expression>)node.getFirstChild().getProperty(NodeConstants.Info.PROJECT_COLS)) {
                     if (ex instanceof AggregateSymbol) {
@@ -792,6 +805,21 @@ public class PlanToProcessConverter {
         }
     }
 
+    /**
+     * Hash grouping is used when the output order is not needed and the
+     * estimated number of groups is small enough to be held in memory.
+     */
+    private boolean useHashGrouping(PlanNode node) {
+        if (node.hasBooleanProperty(Info.ROLLUP)
+                || node.hasBooleanProperty(NodeConstants.Info.IS_DUP_REMOVAL)
+                || node.getProperty(Info.SORT_ORDER) != null
+                || context == null) {
+            return false;
+        }
+        float groups = node.getCardinality();
+        return groups != NewCalculateCostUtil.UNKNOWN_VALUE && groups <= context.getOptions().getHashGroupingMaxGroups();
+    }
+
     private void validateAggregateFunctionEvaluation(AggregateSymbol as) throws QueryPlannerException {
         if (as.getFunctionDescriptor() != null && as.getFunctionDescriptor().getPushdown() == PushDown.MUST_PUSHDOWN) {
             throw new QueryPlannerException(QueryPlugin.Event.TEIID31211, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31211, as.getFunctionDescriptor().getFullName()));
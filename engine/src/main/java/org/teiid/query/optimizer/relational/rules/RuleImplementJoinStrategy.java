@@ -30,6 +30,7 @@ import java.util.Set;
 import org.teiid.api.exception.query.QueryMetadataException;
 import org.teiid.api.exception.query.QueryPlannerException;
 import org.teiid.core.TeiidComponentException;
+import org.teiid.core.types.DataTypeManager;
 import org.teiid.query.analysis.AnalysisRecord;
 import org.teiid.query.metadata.QueryMetadataInterface;
 import org.teiid.query.metadata.TempMetadataAdapter;
@@ -141,6 +142,11 @@ public class RuleImplementJoinStrategy implements OptimizerRule {
                 }
             }
 
+            if (key == null && useHashJoin(joinNode, joinType, leftExpressions, rightExpressions, metadata, capabilitiesFinder, pushLeft, pushRight, context)) {
+                joinNode.setProperty(NodeConstants.Info.JOIN_STRATEGY, JoinStrategyType.HASH);
+                continue;
+            }
+
             if (key != null && joinNode.getProperty(NodeConstants.Info.DEPENDENT_VALUE_SOURCE) == null) {
                 //redo the join predicates based upon the key alone
                 List<Object> keyCols = metadata.getElementIDsInKey(key);
@@ -218,6 +224,60 @@ public class RuleImplementJoinStrategy implements OptimizerRule {
         return plan;
     }
 
+    /**
+     * Determine if a hash join over the right side should be used rather than sorting.
+     * Requires known cost estimates, hashable expression types, and that neither side
+     * can be sorted cheaply.
+     */
+    static boolean useHashJoin(PlanNode joinNode, JoinType joinType, List<Expression> leftExpressions, List<Expression> rightExpressions,
+            QueryMetadataInterface metadata, CapabilitiesFinder capFinder, boolean pushLeft, boolean pushRight, CommandContext context) throws QueryMetadataException, TeiidComponentException {
+        if (context == null || !context.getOptions().isHashJoin()
+                || joinNode.getProperty(NodeConstants.Info.DEPENDENT_VALUE_SOURCE) != null
+                || (joinType != JoinType.JOIN_INNER && joinType != JoinType.JOIN_LEFT_OUTER
+                        && joinType != JoinType.JOIN_SEMI && joinType != JoinType.JOIN_ANTI_SEMI)) {
+            return false;
+        }
+        for (int i = 0; i < leftExpressions.size(); i++) {
+            Class<?> type = leftExpressions.get(i).getType();
+            if (type != rightExpressions.get(i).getType() || !DataTypeManager.isHashable(type)) {
+                return false;
+            }
+        }
+        //the hash join does not project the join expressions
+        if (!((List<Expression>)joinNode.getFirstChild().getProperty(NodeConstants.Info.OUTPUT_COLS)).containsAll(leftExpressions)
+                || !((List<Expression>)joinNode.getLastChild().getProperty(NodeConstants.Info.OUTPUT_COLS)).containsAll(rightExpressions)) {
+            return false;
+        }
+        float leftCost = NewCalculateCostUtil.computeCostForTree(joinNode.getFirstChild(), metadata);
+        float rightCost = NewCalculateCostUtil.computeCostForTree(joinNode.getLastChild(), metadata);
+        if (leftCost == NewCalculateCostUtil.UNKNOWN_VALUE || rightCost == NewCalculateCostUtil.UNKNOWN_VALUE
+                || Math.max(leftCost, rightCost) <= context.getProcessorBatchSize()) {
+            return false;
+        }
+        if (joinType == JoinType.JOIN_INNER && rightCost > leftCost) {
+            return false; //build over the smaller side
+        }
+        return !isSortCheap(joinNode.getFirstChild(), leftExpressions, metadata, capFinder, pushLeft, context)
+                && !isSortCheap(joinNode.getLastChild(), rightExpressions, metadata, capFinder, pushRight, context);
+    }
+
+    /**
+     * @return true if the sort would be pushed to the source or absorbed by a grouping
+     */
+    private static boolean isSortCheap(PlanNode childNode, List<Expression> expressions, QueryMetadataInterface metadata, CapabilitiesFinder capFinder,
+            boolean attemptPush, CommandContext context) throws QueryMetadataException, TeiidComponentException {
+        PlanNode sourceNode = FrameUtil.findJoinSourceNode(childNode);
+        if (sourceNode.getType() == NodeConstants.Types.GROUP) {
+            return !sourceNode.hasBooleanProperty(Info.ROLLUP);
+        }
+        if (sourceNode.getType() != NodeConstants.Types.ACCESS || !attemptPush
+                || RuleRaiseAccess.getModelIDFromAccess(sourceNode, metadata) == TempMetadataAdapter.TEMP_MODEL) {
+            return false;
+        }
+        PlanNode sortNode = createSortNode(new ArrayList<Expression>(new LinkedHashSet<Expression>(expressions)), (List<Expression>)sourceNode.getProperty(NodeConstants.Info.OUTPUT_COLS));
+        return RuleRaiseAccess.canRaiseOverSort(sourceNode, metadata, capFinder, sortNode, null, false, context, true);
+    }
+
     /**
      * Insert a sort node under the merge join node.  If necessary, also insert a project
      * node to handle function evaluation.
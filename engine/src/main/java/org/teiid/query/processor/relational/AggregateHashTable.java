@@ -0,0 +1,163 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.processor.relational;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An open addressing (linear probing) table of group rows used by hash grouping.
+ * <br>
+ * Each group row is a fixed width list holding the group key values followed by the
+ * accumulator state values.  The rows are updated in place, so that aggregating a
+ * tuple into an existing group does not allocate.
+ * <br>
+ * The key values must be hashable - see {@link org.teiid.core.types.DataTypeManager#isHashable(Class)}
+ */
+final class AggregateHashTable {
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final int keyLength;
+    private final int width;
+    private List<Object>[] rows;
+    private int[] hashes;
+    private int size;
+    private int threshold;
+
+    AggregateHashTable(int keyLength, int width, int expectedSize) {
+        this.keyLength = keyLength;
+        this.width = width;
+        int capacity = 16;
+        while (capacity < MAXIMUM_CAPACITY && capacity * 3 < expectedSize * 4) {
+            capacity <<= 1;
+        }
+        init(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void init(int capacity) {
+        this.rows = new List[capacity];
+        this.hashes = new int[capacity];
+        this.threshold = capacity - (capacity >> 2);
+    }
+
+    /**
+     * Compute the hash of the leading key values of the tuple.
+     */
+    static int hash(List<?> tuple, int keyLength) {
+        int h = 1;
+        for (int i = 0; i < keyLength; i++) {
+            Object o = tuple.get(i);
+            h = 31 * h + (o == null ? 0 : o.hashCode());
+        }
+        //spread the higher bits as both the slot and partition use the hash
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the group row with the same key as the tuple or null if there is none
+     */
+    List<Object> get(List<?> tuple, int hash) {
+        int mask = rows.length - 1;
+        for (int i = hash & mask;; i = (i + 1) & mask) {
+            List<Object> row = rows[i];
+            if (row == null) {
+                return null;
+            }
+            if (hashes[i] == hash && keyEquals(row, tuple)) {
+                return row;
+            }
+        }
+    }
+
+    /**
+     * Add a new group row for the key of the tuple.  The caller is expected
+     * to have already checked that the key is not present.
+     * @return the new group row with the key values set
+     */
+    List<Object> add(List<?> tuple, int hash) {
+        if (size >= threshold && rows.length < MAXIMUM_CAPACITY) {
+            resize();
+        }
+        Object[] vals = new Object[width];
+        for (int i = 0; i < keyLength; i++) {
+            vals[i] = tuple.get(i);
+        }
+        List<Object> row = Arrays.asList(vals);
+        insert(row, hash, rows, hashes);
+        size++;
+        return row;
+    }
+
+    private static void insert(List<Object> row, int hash, List<Object>[] rows, int[] hashes) {
+        int mask = rows.length - 1;
+        int i = hash & mask;
+        while (rows[i] != null) {
+            i = (i + 1) & mask;
+        }
+        rows[i] = row;
+        hashes[i] = hash;
+    }
+
+    private void resize() {
+        List<Object>[] oldRows = rows;
+        int[] oldHashes = hashes;
+        init(oldRows.length << 1);
+        for (int i = 0; i < oldRows.length; i++) {
+            if (oldRows[i] != null) {
+                insert(oldRows[i], oldHashes[i], rows, hashes);
+            }
+        }
+    }
+
+    private boolean keyEquals(List<?> row, List<?> tuple) {
+        for (int i = 0; i < keyLength; i++) {
+            Object o1 = row.get(i);
+            Object o2 = tuple.get(i);
+            if (o1 == null) {
+                if (o2 != null) {
+                    return false;
+                }
+            } else if (!o1.equals(o2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the group rows in slot order
+     */
+    List<List<Object>> getRows() {
+        List<List<Object>> result = new ArrayList<List<Object>>(size);
+        for (List<Object> row : rows) {
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.processor.relational;
+
+/**
+ * A bit array bloom filter over value hash codes.
+ * <br>
+ * Sized at roughly 10 bits per expected value with 7 probes, which gives about a 1%
+ * false positive rate.  The values must be hashable - see {@link org.teiid.core.types.DataTypeManager#isHashable(Class)}
+ */
+final class BloomFilter {
+
+    private static final int BITS_PER_VALUE = 10;
+    private static final int PROBES = 7;
+    //the probe index is a positive int
+    private static final long MAX_BITS = 1L << 31;
+
+    private final long[] bits;
+    private final long bitCount;
+
+    BloomFilter(long expectedValues) {
+        long size = Math.max(64, Math.min(MAX_BITS, Math.max(1, expectedValues) * BITS_PER_VALUE));
+        this.bits = new long[(int)((size + 63) >>> 6)];
+        this.bitCount = (long)bits.length << 6;
+    }
+
+    void add(Object value) {
+        long h = mix(value.hashCode());
+        int h1 = (int)h;
+        int h2 = (int)(h >>> 32);
+        for (int i = 0; i < PROBES; i++) {
+            long index = ((h1 + i * h2) & 0x7fffffffL) % bitCount;
+            bits[(int)(index >>> 6)] |= 1L << index;
+        }
+    }
+
+    /**
+     * @return false if the value was definitely not added
+     */
+    boolean mightContain(Object value) {
+        if (value == null) {
+            return false;
+        }
+        long h = mix(value.hashCode());
+        int h1 = (int)h;
+        int h2 = (int)(h >>> 32);
+        for (int i = 0; i < PROBES; i++) {
+            long index = ((h1 + i * h2) & 0x7fffffffL) % bitCount;
+            if ((bits[(int)(index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The murmur3 finalizer, used to derive two independent 32 bit hashes
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
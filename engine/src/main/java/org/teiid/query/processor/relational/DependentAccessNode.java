@@ -19,6 +19,7 @@
 package org.teiid.query.processor.relational;
 
 import java.util.Collections;
+import java.util.List;
 
 import org.teiid.common.buffer.BlockedException;
 import org.teiid.core.TeiidComponentException;
@@ -149,6 +150,7 @@ public class DependentAccessNode extends AccessNode {
                 this.criteriaProcessor.setPushdown(pushdown);
                 this.criteriaProcessor.setUseBindings(useBindings);
                 this.criteriaProcessor.setComplexQuery(complexQuery);
+                this.criteriaProcessor.setBloomFilter(getContext().getOptions().isDependentJoinBloomFilter());
             }
 
             if (this.dependentCrit == null) {
@@ -178,6 +180,14 @@ public class DependentAccessNode extends AccessNode {
         return result;
     }
 
+    @Override
+    protected void addBatchRow(List<?> row) {
+        if (criteriaProcessor != null && !criteriaProcessor.matchesRowFilters(row)) {
+            return;
+        }
+        super.addBatchRow(row);
+    }
+
     private void declineSort() {
         RelationalNode parent = this.getParent();
         RelationalNode child = this;
@@ -155,6 +155,14 @@ public class DependentCriteriaProcessor {
 
     }
 
+    /**
+     * A runtime filter for the rows of the dependent node
+     */
+    private static class RowFilter {
+        int index;
+        BloomFilter filter;
+    }
+
     private static final int SORT = 2;
     private static final int SET_PROCESSING = 3;
 
@@ -165,6 +173,7 @@ public class DependentCriteriaProcessor {
     private boolean pushdown;
     private boolean useBindings;
     private boolean complexQuery;
+    private boolean bloomFilter;
 
     //initialization state
     private List<Criteria> queryCriteria;
@@ -181,6 +190,7 @@ public class DependentCriteriaProcessor {
 
     private int totalPredicates;
     private long maxSize;
+    private List<RowFilter> rowFilters;
 
     public DependentCriteriaProcessor(int maxSetSize, int maxPredicates, RelationalNode dependentNode, Criteria dependentCriteria) throws ExpressionEvaluationException, TeiidComponentException {
         this.maxSetSize = maxSetSize;
@@ -334,6 +344,14 @@ public class DependentCriteriaProcessor {
                 }
             }
 
+            if (bloomFilter) {
+                List<Criteria> newCriteria = createRowFilters();
+                if (newCriteria != null) {
+                    LogManager.logDetail(LogConstants.CTX_DQP, "Using runtime bloom filters rather than dependent sets for", dependentState.keySet()); //$NON-NLS-1$
+                    return Criteria.combineCriteria(newCriteria);
+                }
+            }
+
             //proceed with set based processing
             phase = SET_PROCESSING;
         }
@@ -366,6 +384,91 @@ public class DependentCriteriaProcessor {
         return new CompoundCriteria(CompoundCriteria.AND, crits);
     }
 
+    /**
+     * Replace the dependent sets with runtime bloom filters if set processing would
+     * require more than a single source query and all of the sets can be filtered.
+     * @return the remaining criteria or null if set processing should be used
+     */
+    private List<Criteria> createRowFilters() throws TeiidComponentException {
+        if (this.maxSetSize <= 0 || sources.size() != dependentState.size()) {
+            return null;
+        }
+        long params = 0;
+        for (TupleState ts : dependentState.values()) {
+            for (SetState state : ts.dependentSetStates) {
+                params += state.valueCount * ts.dvs.getTupleBuffer().getRowCount();
+            }
+        }
+        if (params <= maxSize * totalPredicates) {
+            return null;
+        }
+        List<RowFilter> filters = new ArrayList<RowFilter>(setStates.size());
+        List<Criteria> newCriteria = new ArrayList<Criteria>();
+        for (int i = 0; i < queryCriteria.size(); i++) {
+            Criteria criteria = queryCriteria.get(i);
+            SetState state = this.setStates.get(i);
+            if (state == null) {
+                if (criteria != QueryRewriter.TRUE_CRITERIA) {
+                    newCriteria.add((Criteria)criteria.clone());
+                }
+                continue;
+            }
+            DependentSetCriteria dsc = (DependentSetCriteria)criteria;
+            RowFilter filter = createRowFilter(dsc, state, dependentState.get(dsc.getContextSymbol()).dvs);
+            if (filter == null) {
+                return null;
+            }
+            filters.add(filter);
+        }
+        this.rowFilters = filters;
+        return newCriteria;
+    }
+
+    /**
+     * Create a bloom filter over the independent values if the dependent expression
+     * is a hashable value projected by the dependent node.
+     */
+    private RowFilter createRowFilter(DependentSetCriteria dsc, SetState state, DependentValueSource dvs) throws TeiidComponentException {
+        if (dsc.hasMultipleAttributes() || state.existingSet != null) {
+            return null;
+        }
+        Expression ex = dsc.getExpression();
+        int index = dependentNode.getElements().indexOf(ex);
+        if (index == -1 || ex.getType() != state.valueExpression.getType() || !DataTypeManager.isHashable(ex.getType())) {
+            return null;
+        }
+        RowFilter result = new RowFilter();
+        result.index = index;
+        result.filter = new BloomFilter(dvs.getTupleBuffer().getRowCount());
+        TupleSourceValueIterator iter = dvs.getValueIterator(state.valueExpression);
+        try {
+            while (iter.hasNext()) {
+                Object value = iter.next();
+                if (value != null) {
+                    result.filter.add(value);
+                }
+            }
+        } finally {
+            iter.close();
+        }
+        return result;
+    }
+
+    /**
+     * @return false if the row cannot satisfy the dependent sets replaced by runtime filters
+     */
+    public boolean matchesRowFilters(List<?> row) {
+        if (rowFilters == null) {
+            return true;
+        }
+        for (RowFilter rowFilter : rowFilters) {
+            if (!rowFilter.filter.mightContain(row.get(rowFilter.index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void consumedCriteria() {
         // flush only the value iterators starting at the restart index
         // it is only safe to do this after the super call to prepare command
@@ -563,4 +666,8 @@ public class DependentCriteriaProcessor {
         this.complexQuery = complexQuery;
     }
 
+    public void setBloomFilter(boolean bloomFilter) {
+        this.bloomFilter = bloomFilter;
+    }
+
 }
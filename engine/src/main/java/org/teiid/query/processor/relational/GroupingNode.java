@@ -20,9 +20,11 @@ package org.teiid.query.processor.relational;
 
 import static org.teiid.query.analysis.AnalysisRecord.*;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -34,6 +36,8 @@ import org.teiid.api.exception.query.FunctionExecutionException;
 import org.teiid.client.plan.PlanNode;
 import org.teiid.common.buffer.BlockedException;
 import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.BufferManager.BufferReserveMode;
+import org.teiid.common.buffer.BufferManager.TupleSourceType;
 import org.teiid.common.buffer.STree;
 import org.teiid.common.buffer.STree.InsertMode;
 import org.teiid.common.buffer.TupleBatch;
@@ -105,10 +109,21 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
         }
     }
 
+    static class HashPartition {
+        TupleBuffer buffer;
+        int depth;
+
+        HashPartition(TupleBuffer buffer, int depth) {
+            this.buffer = buffer;
+            this.depth = depth;
+        }
+    }
+
     // Grouping columns set by the planner
     private List<OrderByItem> orderBy;
     private boolean removeDuplicates;
     private SymbolMap outputMapping;
+    private boolean hashGrouping;
 
     // Collection phase
     private int phase = COLLECTION;
@@ -134,11 +149,33 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
     private TupleSource groupSortTupleSource;
     private int[] projection;
 
+    // Hash grouping
+    private AggregateHashTable hashTable;
+    private ListNestedSortComparator hashComparator;
+    private List<List<Object>> hashOutput;
+    private List<Object> hashState = new ArrayList<Object>();
+    private int hashBatchBytes;
+    private int hashBatchRows;
+    private int hashWidth;
+    private int hashReserved;
+    private int hashOutputIndex;
+    private int hashDepth;
+    private TupleBuffer[] hashPartitions;
+    private ArrayDeque<HashPartition> pendingPartitions = new ArrayDeque<HashPartition>();
+
     private static final int COLLECTION = 1;
     private static final int SORT = 2;
     private static final int GROUP = 3;
     private static final int GROUP_SORT = 4;
     private static final int GROUP_SORT_OUTPUT = 5;
+    private static final int HASH_GROUP = 6;
+    private static final int HASH_GROUP_OUTPUT = 7;
+
+    private static final int HASH_PARTITION_BITS = 3;
+    private static final int HASH_PARTITIONS = 1 << HASH_PARTITION_BITS;
+    //after this many levels of repartitioning the table is allowed to exceed the reservation
+    private static final int MAX_HASH_DEPTH = 4;
+
     private int[] indexes;
     private boolean rollup;
     private HashMap<Integer, Integer> indexMap;
@@ -159,6 +196,9 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
         currentGroupTuple = null;
         doneReading = false;
 
+        hashOutputIndex = 0;
+        hashDepth = 0;
+
         if (this.functions != null) {
             for (AggregateFunction[] functions : this.functions) {
                 for (AggregateFunction function : functions) {
@@ -180,6 +220,21 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
         this.outputMapping = outputMapping;
     }
 
+    /**
+     * Set to true to aggregate using a hash table rather than a sort/tree.
+     * The output will not be ordered by the grouping columns.
+     * <br>
+     * Only applies to non-rollup, non-distinct grouping where all of the
+     * accumulators expose their state and the grouping columns are hashable.
+     */
+    public void setHashGrouping(boolean hashGrouping) {
+        this.hashGrouping = hashGrouping;
+    }
+
+    public boolean isHashGrouping() {
+        return hashGrouping;
+    }
+
     @Override
     public void initialize(CommandContext context, BufferManager bufferManager,
             ProcessorDataManager dataMgr) {
@@ -408,6 +463,14 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
             return groupSortOutputPhase();
         }
 
+        if (this.phase == HASH_GROUP) {
+            hashGroupPhase();
+        }
+
+        if (this.phase == HASH_GROUP_OUTPUT) {
+            return hashGroupOutputPhase();
+        }
+
         this.terminateBatches();
         return pullBatch();
     }
@@ -501,12 +564,29 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
                         schema.add(es);
                     }
 
+                    this.groupSortTupleSource = this.getGroupSortTupleSource();
+
+                    if (hashGrouping && isHashable()) {
+                        this.hashBatchRows = getBufferManager().getProcessorBatchSize(schema);
+                        //account for the table slot overhead
+                        this.hashBatchBytes = getBufferManager().getSchemaSize(schema) + 12 * this.hashBatchRows;
+                        int[] keyIndexes = new int[orderBy.size()];
+                        for (int i = 0; i < keyIndexes.length; i++) {
+                            keyIndexes[i] = i;
+                        }
+                        this.hashComparator = new ListNestedSortComparator(keyIndexes, sortTypes).defaultNullOrder(getBufferManager().getOptions().getDefaultNullOrder());
+                        this.hashComparator.setNullOrdering(nullOrdering);
+                        this.hashWidth = schema.size();
+                        this.hashTable = new AggregateHashTable(orderBy.size(), hashWidth, this.hashBatchRows);
+                        this.phase = HASH_GROUP;
+                        return;
+                    }
+
                     tree = this.getBufferManager().createSTree(schema, this.getConnectionID(), orderBy.size());
                     //non-default order needs to update the comparator
                     tree.getComparator().setNullOrdering(nullOrdering);
                     tree.getComparator().setOrderTypes(sortTypes);
 
-                    this.groupSortTupleSource = this.getGroupSortTupleSource();
                     this.phase = GROUP_SORT;
                     return;
                 }
@@ -589,6 +669,153 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
         return pullBatch();
     }
 
+    private boolean isHashable() {
+        for (OrderByItem item : this.orderBy) {
+            if (!DataTypeManager.isHashable(item.getSymbol().getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Process the input into the hash table, accumulating the state in place.
+     * Rows for new groups that exceed the memory reservation are spilled to partitions
+     * to be processed after the in memory groups are output.
+     * @throws TeiidComponentException
+     * @throws TeiidProcessingException
+     */
+    private void hashGroupPhase() throws TeiidComponentException, TeiidProcessingException {
+        List<?> tuple = null;
+        int size = orderBy.size();
+        while ((tuple = groupSortTupleSource.nextTuple()) != null) {
+            int hash = AggregateHashTable.hash(tuple, size);
+            List<Object> row = hashTable.get(tuple, hash);
+            boolean update = row != null;
+            if (!update) {
+                //once a group has been spilled in this pass, all new groups must be spilled
+                //otherwise a later row for a spilled group could be added to the table
+                if (this.hashPartitions != null || !reserveHashGroup()) {
+                    spillTuple(tuple, hash);
+                    continue;
+                }
+                row = hashTable.add(tuple, hash);
+            }
+            int index = size;
+            for (int i = 0; i < this.groupSortfunctions.length; i++) {
+                AggregateFunction aggregateFunction = this.groupSortfunctions[i];
+                if (update) {
+                    aggregateFunction.setState(row, index);
+                } else {
+                    aggregateFunction.reset();
+                }
+                aggregateFunction.addInput(tuple, getContext());
+                hashState.clear();
+                aggregateFunction.getState(hashState);
+                for (int j = 0; j < hashState.size(); j++) {
+                    row.set(index + j, hashState.get(j));
+                }
+                index+=this.accumulatorStateCount[i];
+            }
+        }
+        this.groupSortTupleSource.closeSource();
+        if (this.hashPartitions != null) {
+            for (TupleBuffer partition : this.hashPartitions) {
+                if (partition != null) {
+                    partition.close();
+                    this.pendingPartitions.push(new HashPartition(partition, hashDepth + 1));
+                }
+            }
+            this.hashPartitions = null;
+        }
+        //order the groups so that unspilled results match the tree based grouping
+        this.hashOutput = this.hashTable.getRows();
+        this.hashTable = null;
+        Collections.sort(this.hashOutput, this.hashComparator);
+        this.hashOutputIndex = 0;
+        this.phase = HASH_GROUP_OUTPUT;
+    }
+
+    /**
+     * Ensure that there is enough memory reserved to add another group.
+     * @return false if the group should be spilled instead
+     */
+    private boolean reserveHashGroup() {
+        if (hashTable.size() < (long)(hashReserved / hashBatchBytes) * hashBatchRows) {
+            return true;
+        }
+        if (hashReserved == 0 || hashDepth >= MAX_HASH_DEPTH) {
+            hashReserved += getBufferManager().reserveBuffers(hashBatchBytes, BufferReserveMode.FORCE);
+            return true;
+        }
+        int reserved = getBufferManager().reserveBuffers(hashBatchBytes, BufferReserveMode.NO_WAIT);
+        if (reserved < hashBatchBytes) {
+            getBufferManager().releaseBuffers(reserved);
+            return false;
+        }
+        hashReserved += reserved;
+        return true;
+    }
+
+    private void spillTuple(List<?> tuple, int hash) throws TeiidComponentException {
+        if (this.hashPartitions == null) {
+            this.hashPartitions = new TupleBuffer[HASH_PARTITIONS];
+        }
+        //use the high order bits of a fibonacci hash so that the partitions are independent of the table slots
+        int partition = ((hash * 0x9E3779B9) >>> (32 - HASH_PARTITION_BITS * (hashDepth + 1))) & (HASH_PARTITIONS - 1);
+        TupleBuffer buffer = this.hashPartitions[partition];
+        if (buffer == null) {
+            buffer = getBufferManager().createTupleBuffer(new ArrayList<Expression>(collectedExpressions.keySet()), getConnectionID(), TupleSourceType.PROCESSOR);
+            buffer.setForwardOnly(true);
+            this.hashPartitions[partition] = buffer;
+        }
+        buffer.addTuple(tuple);
+    }
+
+    /**
+     * Walk the hash table to produce the results, then process any spilled partitions
+     * @return
+     * @throws TeiidComponentException
+     * @throws TeiidProcessingException
+     */
+    private TupleBatch hashGroupOutputPhase() throws TeiidComponentException, TeiidProcessingException {
+        int size = orderBy.size();
+        List<Object> vals = Arrays.asList(new Object[size + groupSortfunctions.length]);
+        while (true) {
+            while (hashOutputIndex < hashOutput.size()) {
+                List<?> tuple = hashOutput.get(hashOutputIndex++);
+                for (int i = 0; i < size; i++) {
+                    vals.set(i, tuple.get(i));
+                }
+                int index = size;
+                for (int i = 0; i < this.groupSortfunctions.length; i++) {
+                    AggregateFunction aggregateFunction = this.groupSortfunctions[i];
+                    aggregateFunction.setState(tuple, index);
+                    index+=this.accumulatorStateCount[i];
+                    vals.set(size + i, aggregateFunction.getResult(getContext()));
+                }
+                List<?> result = RelationalNode.projectTuple(projection, vals);
+                addBatchRow(result);
+                if (isBatchFull()) {
+                    return pullBatch();
+                }
+            }
+            this.hashOutput = null;
+            HashPartition partition = this.pendingPartitions.poll();
+            if (partition == null) {
+                break;
+            }
+            //the spilled partitions are complete, so processing them will not block
+            this.hashTable = new AggregateHashTable(orderBy.size(), hashWidth, hashBatchRows);
+            this.hashDepth = partition.depth;
+            this.groupSortTupleSource = partition.buffer.createIndexedTupleSource(true);
+            hashGroupPhase();
+        }
+        releaseHashReservation();
+        terminateBatches();
+        return pullBatch();
+    }
+
     private void sortPhase() throws BlockedException, TeiidComponentException, TeiidProcessingException {
         this.sortBuffer = this.sortUtility.sort();
         this.sortBuffer.setForwardOnly(true);
@@ -713,6 +940,28 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
             this.tree.remove();
             this.tree = null;
         }
+        this.hashTable = null;
+        this.hashOutput = null;
+        if (this.hashPartitions != null) {
+            for (TupleBuffer partition : this.hashPartitions) {
+                if (partition != null) {
+                    partition.remove();
+                }
+            }
+            this.hashPartitions = null;
+        }
+        for (HashPartition partition : this.pendingPartitions) {
+            partition.buffer.remove();
+        }
+        this.pendingPartitions.clear();
+        releaseHashReservation();
+    }
+
+    private void releaseHashReservation() {
+        if (this.hashReserved > 0) {
+            getBufferManager().releaseBuffers(this.hashReserved);
+            this.hashReserved = 0;
+        }
     }
 
     protected void getNodeString(StringBuffer str) {
@@ -730,6 +979,7 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
         clonedNode.outputMapping = outputMapping;
         clonedNode.orderBy = orderBy;
         clonedNode.rollup = rollup;
+        clonedNode.hashGrouping = hashGrouping;
         return clonedNode;
     }
 
@@ -756,6 +1006,9 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
         if (rollup) {
             props.addProperty(PROP_ROLLUP, Boolean.TRUE.toString());
         }
+        if (hashGrouping) {
+            props.addProperty(PROP_HASH_GROUPING, Boolean.TRUE.toString());
+        }
         return props;
     }
 
@@ -0,0 +1,372 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.processor.relational;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.BufferManager.BufferReserveMode;
+import org.teiid.common.buffer.TupleBuffer;
+import org.teiid.common.buffer.TupleSource;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+import org.teiid.logging.MessageLevel;
+import org.teiid.query.QueryPlugin;
+import org.teiid.query.sql.lang.JoinType;
+
+/**
+ * A hash join that builds over the right side and probes with the left.
+ * <br>
+ * Supports inner, left outer, semi and anti-semi joins with equi-join expressions
+ * that are hashable - see {@link org.teiid.core.types.DataTypeManager#isHashable(Class)}.
+ * Additional non-equi criteria is evaluated against each candidate match.
+ * <br>
+ * If the build side cannot be reserved in memory, both sides are partitioned by the hash
+ * of the join expressions into {@link TupleBuffer}s and each partition is joined in turn.
+ */
+public class HashJoinStrategy extends JoinStrategy {
+
+    //roughly the HashMap entry, key list, and match list overhead for each build row
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int MAX_PARTITIONS = 64;
+
+    private boolean singleMatch;
+
+    private Map<List<Object>, List<List<?>>> table;
+    private int tableReserved;
+    private List<Object> probeKey;
+
+    private TupleBuffer[] leftPartitions;
+    private TupleBuffer[] rightPartitions;
+    private int partitionBits;
+    private int partitionIndex = -1;
+
+    private boolean probeReady;
+    private TupleSource probeSource;
+    private List<?> probeTuple;
+    private List<List<?>> matches;
+    private int matchIndex;
+    private boolean matched;
+
+    @Override
+    public HashJoinStrategy clone() {
+        HashJoinStrategy clone = new HashJoinStrategy();
+        clone.singleMatch = this.singleMatch;
+        return clone;
+    }
+
+    @Override
+    public void close() {
+        this.table = null;
+        this.probeSource = null;
+        this.probeTuple = null;
+        this.matches = null;
+        removePartitions(leftPartitions);
+        removePartitions(rightPartitions);
+        this.leftPartitions = null;
+        this.rightPartitions = null;
+        if (this.joinNode != null) {
+            this.joinNode.getBufferManager().releaseBuffers(tableReserved);
+        }
+        tableReserved = 0;
+        super.close();
+    }
+
+    private static void removePartitions(TupleBuffer[] partitions) {
+        if (partitions == null) {
+            return;
+        }
+        for (TupleBuffer partition : partitions) {
+            if (partition != null) {
+                partition.remove();
+            }
+        }
+    }
+
+    @Override
+    protected void loadRight() throws TeiidComponentException,
+            TeiidProcessingException {
+        if (this.table != null || this.rightPartitions != null) {
+            return;
+        }
+        TupleBuffer buffer = this.rightSource.getTupleBuffer();
+        BufferManager bm = this.joinNode.getBufferManager();
+        long estimate = buffer.getRowCount() * getRowSize();
+        this.probeKey = Arrays.asList(new Object[this.leftSource.getExpressionIndexes().length]);
+        if (estimate <= bm.getMaxProcessingSize()) {
+            int toReserve = (int)estimate;
+            int granted = bm.reserveBuffers(toReserve, BufferReserveMode.NO_WAIT);
+            if (granted >= toReserve) {
+                this.tableReserved = granted;
+                this.table = buildTable(buffer);
+                return;
+            }
+            bm.releaseBuffers(granted);
+        }
+        //partition so that each build partition is expected to fit within a processing reservation
+        int partitions = 2;
+        this.partitionBits = 1;
+        while (partitions < MAX_PARTITIONS && estimate / partitions > bm.getMaxProcessingSize()) {
+            partitions <<= 1;
+            this.partitionBits++;
+        }
+        if (LogManager.isMessageToBeRecorded(LogConstants.CTX_DQP, MessageLevel.DETAIL)) {
+            LogManager.logDetail(LogConstants.CTX_DQP, "performing grace hash join with", partitions, "partitions", this.joinNode.nodeToString()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        this.rightPartitions = new TupleBuffer[partitions];
+        this.leftPartitions = new TupleBuffer[partitions];
+        int[] indexes = this.rightSource.getExpressionIndexes();
+        TupleSource ts = buffer.createIndexedTupleSource();
+        try {
+            List<?> tuple = null;
+            while ((tuple = ts.nextTuple()) != null) {
+                int partition = partition(tuple, indexes);
+                if (partition < 0) {
+                    continue; //a null key cannot match
+                }
+                TupleBuffer tb = this.rightPartitions[partition];
+                if (tb == null) {
+                    tb = this.rightSource.createSourceTupleBuffer();
+                    tb.setForwardOnly(true);
+                    this.rightPartitions[partition] = tb;
+                }
+                tb.addTuple(tuple);
+            }
+        } finally {
+            ts.closeSource();
+        }
+        for (TupleBuffer tb : this.rightPartitions) {
+            if (tb != null) {
+                tb.close();
+            }
+        }
+    }
+
+    /**
+     * @return the estimated in memory size of a build row
+     */
+    private long getRowSize() {
+        BufferManager bm = this.joinNode.getBufferManager();
+        List elements = this.rightSource.getSource().getOutputElements();
+        return bm.getSchemaSize(elements) / Math.max(1, bm.getProcessorBatchSize(elements)) + ENTRY_OVERHEAD;
+    }
+
+    private Map<List<Object>, List<List<?>>> buildTable(TupleBuffer buffer) throws TeiidComponentException, TeiidProcessingException {
+        int[] indexes = this.rightSource.getExpressionIndexes();
+        Map<List<Object>, List<List<?>>> result = new HashMap<List<Object>, List<List<?>>>((int)Math.min(Integer.MAX_VALUE/2, buffer.getRowCount()*4/3 + 1));
+        TupleSource ts = buffer.createIndexedTupleSource();
+        try {
+            List<?> tuple = null;
+            outer: while ((tuple = ts.nextTuple()) != null) {
+                Object[] key = new Object[indexes.length];
+                for (int i = 0; i < indexes.length; i++) {
+                    key[i] = tuple.get(indexes[i]);
+                    if (key[i] == null) {
+                        continue outer; //a null key cannot match
+                    }
+                }
+                List<Object> keyList = Arrays.asList(key);
+                List<List<?>> rows = result.get(keyList);
+                if (rows == null) {
+                    rows = new ArrayList<List<?>>(2);
+                    result.put(keyList, rows);
+                }
+                rows.add(tuple);
+            }
+        } finally {
+            ts.closeSource();
+        }
+        return result;
+    }
+
+    /**
+     * @return the partition of the tuple or -1 if the join expressions contain a null
+     */
+    private int partition(List<?> tuple, int[] indexes) {
+        int h = 1;
+        for (int i = 0; i < indexes.length; i++) {
+            Object o = tuple.get(indexes[i]);
+            if (o == null) {
+                return -1;
+            }
+            h = 31 * h + o.hashCode();
+        }
+        //use the high bits of a multiplicative hash as the table uses the low bits
+        return (h * 0x9E3779B9) >>> (32 - partitionBits);
+    }
+
+    /**
+     * Read the left side into partitions matching the right.
+     */
+    private void partitionLeft() throws TeiidComponentException, TeiidProcessingException {
+        JoinType joinType = this.joinNode.getJoinType();
+        int[] indexes = this.leftSource.getExpressionIndexes();
+        TupleSource ts = this.leftSource.getIterator();
+        List<?> tuple = null;
+        while ((tuple = ts.nextTuple()) != null) {
+            int partition = partition(tuple, indexes);
+            if (partition < 0 || this.rightPartitions[partition] == null) {
+                //no match is possible
+                if (joinType.isOuter()) {
+                    this.joinNode.addBatchRow(outputTuple(tuple, this.rightSource.getOuterVals()));
+                }
+                continue;
+            }
+            TupleBuffer tb = this.leftPartitions[partition];
+            if (tb == null) {
+                tb = this.leftSource.createSourceTupleBuffer();
+                tb.setForwardOnly(true);
+                this.leftPartitions[partition] = tb;
+            }
+            tb.addTuple(tuple);
+        }
+        for (TupleBuffer tb : this.leftPartitions) {
+            if (tb != null) {
+                tb.close();
+            }
+        }
+    }
+
+    /**
+     * Build the table for the next partition that has probe rows.
+     * @return false if there are no more partitions
+     */
+    private boolean nextPartition() throws TeiidComponentException, TeiidProcessingException {
+        BufferManager bm = this.joinNode.getBufferManager();
+        if (this.partitionIndex >= 0) {
+            removePartitions(new TupleBuffer[] {this.leftPartitions[partitionIndex], this.rightPartitions[partitionIndex]});
+            this.leftPartitions[partitionIndex] = null;
+            this.rightPartitions[partitionIndex] = null;
+            this.table = null;
+            bm.releaseBuffers(tableReserved);
+            tableReserved = 0;
+        }
+        while (++this.partitionIndex < this.leftPartitions.length) {
+            TupleBuffer left = this.leftPartitions[partitionIndex];
+            if (left == null) {
+                continue;
+            }
+            TupleBuffer right = this.rightPartitions[partitionIndex];
+            //the partition is forced into memory - a skewed key distribution will not be repartitioned
+            this.tableReserved = bm.reserveBuffers((int)Math.min(Integer.MAX_VALUE, right.getRowCount() * getRowSize()), BufferReserveMode.FORCE);
+            this.table = buildTable(right);
+            this.probeSource = left.createIndexedTupleSource();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void process() throws TeiidComponentException,
+            TeiidProcessingException {
+        if (!this.probeReady) {
+            if (this.rightPartitions != null) {
+                partitionLeft();
+            } else {
+                //the left iterator is not created until now as the join node may still check the left row count
+                this.probeSource = this.leftSource.getIterator();
+            }
+            this.probeReady = true;
+        }
+        JoinType joinType = this.joinNode.getJoinType();
+        int[] indexes = this.leftSource.getExpressionIndexes();
+        while (true) {
+            if (this.probeTuple == null) {
+                if (this.probeSource == null && (this.rightPartitions == null || !nextPartition())) {
+                    return;
+                }
+                this.probeTuple = this.probeSource.nextTuple();
+                if (this.probeTuple == null) {
+                    this.probeSource = null;
+                    continue;
+                }
+                this.matched = false;
+                this.matchIndex = 0;
+                this.matches = null;
+                boolean nullKey = false;
+                for (int i = 0; i < indexes.length; i++) {
+                    Object o = this.probeTuple.get(indexes[i]);
+                    if (o == null) {
+                        nullKey = true;
+                        break;
+                    }
+                    this.probeKey.set(i, o);
+                }
+                if (!nullKey) {
+                    this.matches = this.table.get(this.probeKey);
+                }
+            }
+            if (this.matches != null && this.matchIndex < this.matches.size()) {
+                List outputTuple = outputTuple(this.probeTuple, this.matches.get(this.matchIndex));
+                boolean match = this.joinNode.matchesCriteria(outputTuple);
+                this.matchIndex++;
+                if (!match) {
+                    continue;
+                }
+                if (joinType == JoinType.JOIN_ANTI_SEMI) {
+                    this.probeTuple = null;
+                    continue;
+                }
+                if (singleMatch && matched) {
+                    throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID31293, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31293));
+                }
+                this.matched = true;
+                if (joinType == JoinType.JOIN_SEMI) {
+                    this.probeTuple = null; //only one match is needed for semi join
+                }
+                this.joinNode.addBatchRow(outputTuple);
+                continue;
+            }
+            List<?> tuple = this.probeTuple;
+            this.probeTuple = null;
+            if (!this.matched && joinType.isOuter()) {
+                this.joinNode.addBatchRow(outputTuple(tuple, this.rightSource.getOuterVals()));
+            }
+        }
+    }
+
+    /**
+     * Optional flag for a left outer join to enforce the single
+     * row restriction of a scalar subquery
+     */
+    public HashJoinStrategy singleMatch(boolean b) {
+        this.singleMatch = b;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("HASH JOIN"); //$NON-NLS-1$
+        if (this.rightPartitions != null) {
+            sb.append(" RAN AS GRACE HASH JOIN"); //$NON-NLS-1$
+        }
+        if (singleMatch) {
+            sb.append(" subquery"); //$NON-NLS-1$
+        }
+        return sb.toString();
+    }
+
+}
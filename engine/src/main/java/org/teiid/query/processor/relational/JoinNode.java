@@ -33,6 +33,7 @@ import org.teiid.common.buffer.TupleBatch;
 import org.teiid.common.buffer.TupleBuffer;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.eval.ExpressionCompiler.CompiledCriteria;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.processor.relational.SourceState.ImplicitBuffer;
 import org.teiid.query.sql.LanguageObject;
@@ -54,7 +55,8 @@ public class JoinNode extends SubqueryAwareRelationalNode {
         MERGE,
         ENHANCED_SORT,
         NESTED_LOOP,
-        NESTED_TABLE
+        NESTED_TABLE,
+        HASH
     }
 
     private enum State { LOAD_LEFT, LOAD_RIGHT, EXECUTE }
@@ -69,6 +71,7 @@ public class JoinNode extends SubqueryAwareRelationalNode {
     private boolean leftDistinct;
     private boolean rightDistinct;
     private Criteria joinCriteria;
+    private CompiledCriteria compiledJoinCriteria;
 
     private Map combinedElementMap;
     private int[] projectionIndexes;
@@ -114,6 +117,7 @@ public class JoinNode extends SubqueryAwareRelationalNode {
 
     public void setJoinCriteria(Criteria joinCriteria) {
         this.joinCriteria = joinCriteria;
+        this.compiledJoinCriteria = null;
     }
 
     @Override
@@ -365,6 +369,7 @@ public class JoinNode extends SubqueryAwareRelationalNode {
         super.reset();
         this.joinStrategy = this.joinStrategy.clone();
         this.dvs = null;
+        this.compiledJoinCriteria = null;
     }
 
     public JoinType getJoinType() {
@@ -380,7 +385,13 @@ public class JoinNode extends SubqueryAwareRelationalNode {
     }
 
     boolean matchesCriteria(List outputTuple) throws BlockedException, TeiidComponentException, ExpressionEvaluationException {
-        return (this.joinCriteria == null || getEvaluator(this.combinedElementMap).evaluate(this.joinCriteria, outputTuple));
+        if (this.joinCriteria == null) {
+            return true;
+        }
+        if (this.compiledJoinCriteria == null) {
+            this.compiledJoinCriteria = compile(this.joinCriteria, this.combinedElementMap);
+        }
+        return Boolean.TRUE.equals(this.compiledJoinCriteria.evaluateTVL(outputTuple));
     }
 
     public List getLeftExpressions() {
@@ -0,0 +1,819 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.processor.relational;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.teiid.core.types.ClobImpl;
+import org.teiid.core.types.ClobType;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.types.InputStreamFactory;
+import org.teiid.core.types.InputStreamFactory.FileInputStreamFactory;
+import org.teiid.core.types.Streamable;
+import org.teiid.core.types.TransformationException;
+import org.teiid.query.sql.lang.TextTable;
+import org.teiid.query.sql.lang.TextTable.TextColumn;
+
+/**
+ * Reads a file backed TEXTTABLE source by parsing chunks of a memory mapped file in parallel.
+ * <br>
+ * Each chunk ends with a line terminator and is parsed a line at a time, so a quoted or escaped
+ * value that spans lines cannot be handled.  A chunk that encounters such a line, or any other line
+ * that cannot be handled directly - such as a parsing, conversion, or decoding error - stops and is marked
+ * for sequential processing.  Chunks are consumed in order and a chunk is only used if all of the
+ * previous chunks were, so its start is known to be a record boundary and the {@link TextTableNode}
+ * can resume sequential processing from there with the same results and errors.
+ * <br>
+ * Only ascii compatible charsets are supported so that line terminators, delimiters, and quotes
+ * can be matched directly against the bytes.
+ */
+class ParallelTextReader {
+
+    private static final int SCAN_SIZE = 1 << 13;
+
+    /**
+     * A range of the file that is parsed on the executor
+     */
+    final class Chunk implements Runnable {
+        private final long start;
+        private final long end;
+        private final List<List<Object>> rows = new ArrayList<List<Object>>();
+        private int lines;
+        private int index;
+        private boolean sequential;
+        private Throwable exception;
+        private volatile boolean done;
+
+        private Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            try {
+                parse();
+            } catch (Throwable e) {
+                exception = e;
+            } finally {
+                done = true;
+                onChunkDone.run();
+            }
+        }
+
+        private void parse() throws IOException {
+            if (end - start > Integer.MAX_VALUE) {
+                sequential = true;
+                return;
+            }
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            LineParser parser = new LineParser();
+            int limit = buf.limit();
+            int pos = 0;
+            while (pos < limit) {
+                if (closed) {
+                    return;
+                }
+                int lineStart = pos;
+                int lineEnd = limit;
+                while (pos < limit) {
+                    byte b = buf.get(pos++);
+                    if (b == newLine) {
+                        lineEnd = pos - 1;
+                        lines++;
+                        break;
+                    }
+                    if (b == '\r' && crNewLine) {
+                        lineEnd = pos - 1;
+                        if (pos < limit && buf.get(pos) == '\n') {
+                            pos++;
+                        }
+                        lines++;
+                        break;
+                    }
+                }
+                if (lineEnd == lineStart) {
+                    continue; //skip empty lines
+                }
+                List<Object> row = parser.parseRow(buf, lineStart, lineEnd);
+                if (row == null) {
+                    sequential = true;
+                    return;
+                }
+                rows.add(row);
+            }
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        /**
+         * @return true if the chunk must be processed sequentially from its start
+         */
+        boolean isSequential() {
+            return sequential;
+        }
+
+        Throwable getException() {
+            return exception;
+        }
+
+        /**
+         * @return the next parsed row or null if the chunk has been consumed
+         */
+        List<Object> nextRow() {
+            if (index >= rows.size()) {
+                return null;
+            }
+            List<Object> result = rows.get(index);
+            rows.set(index++, null);
+            return result;
+        }
+    }
+
+    /**
+     * Parses a single line into fields held as ranges of a byte buffer.  Values
+     * are only converted to strings as needed.
+     */
+    private final class LineParser {
+        private byte[] bytes = new byte[256];
+        private int length;
+        private int[] offsets = new int[16];
+        private int[] lengths = new int[16];
+        private boolean[] qualified = new boolean[16];
+        private int fieldCount;
+        private boolean asciiLine;
+        private CharsetDecoder decoder = charset.newDecoder();
+
+        /**
+         * @return the projected row or null if the line cannot be handled
+         */
+        List<Object> parseRow(ByteBuffer buf, int start, int end) {
+            if (!parseLine(buf, start, end, lineWidth, table.isFixedWidth())) {
+                return null;
+            }
+            List<Object> tuple = new ArrayList<Object>(projectionIndexes.length);
+            for (int output : projectionIndexes) {
+                TextColumn col = table.getColumns().get(output);
+                if (col.isOrdinal()) {
+                    //set when consumed
+                    tuple.add(null);
+                    continue;
+                }
+                int index = output;
+                if (nameIndexes != null) {
+                    Integer headerIndex = nameIndexes.get(col.getName());
+                    if (headerIndex == null) {
+                        tuple.add(null);
+                        continue;
+                    }
+                    index = headerIndex;
+                }
+                if (index >= fieldCount) {
+                    tuple.add(null);
+                    continue;
+                }
+                try {
+                    tuple.add(getValue(index, col.getSymbol().getType()));
+                } catch (TransformationException e) {
+                    return null;
+                } catch (CharacterCodingException e) {
+                    return null;
+                }
+            }
+            return tuple;
+        }
+
+        /**
+         * @return the string values or null if the line cannot be handled
+         */
+        List<String> parseStrings(ByteBuffer buf, int start, int end, int maxLength) {
+            if (!parseLine(buf, start, end, maxLength, false)) {
+                return null;
+            }
+            List<String> result = new ArrayList<String>(fieldCount);
+            try {
+                for (int i = 0; i < fieldCount; i++) {
+                    result.add((String)getValue(i, DataTypeManager.DefaultDataClasses.STRING));
+                }
+            } catch (TransformationException e) {
+                return null;
+            } catch (CharacterCodingException e) {
+                return null;
+            }
+            return result;
+        }
+
+        /**
+         * @param exact true if the line should be truncated to the max length, rather than
+         * being an error
+         */
+        private boolean parseLine(ByteBuffer buf, int start, int end, int maxLength, boolean exact) {
+            length = 0;
+            fieldCount = 0;
+            asciiLine = true;
+            for (int i = start; i < end; i++) {
+                if (buf.get(i) < 0) {
+                    asciiLine = false;
+                    break;
+                }
+            }
+            if (!asciiLine && !isValid(buf, start, end)) {
+                return false;
+            }
+            int chars = end - start;
+            if (!asciiLine && (chars > maxLength || table.isFixedWidth())) {
+                chars = charLength(buf, start, end);
+            }
+            if (chars > maxLength) {
+                if (!exact) {
+                    //sequential processing will raise the error
+                    return false;
+                }
+                //consistent with the sequential read, drop the rest of the line
+                end = charPosition(buf, start, end, maxLength);
+                if (end < 0) {
+                    return false;
+                }
+                chars = maxLength;
+            }
+            if (table.isFixedWidth()) {
+                return parseFixedWidth(buf, start, end, chars);
+            }
+            return parseDelimited(buf, start, end);
+        }
+
+        /**
+         * Mirrors the single line logic of TextTableNode.parseDelimitedLine
+         */
+        private boolean parseDelimited(ByteBuffer buf, int start, int end) {
+            boolean escaped = false;
+            boolean wasQualified = false;
+            boolean inQuotes = false;
+            int fieldStart = 0;
+            for (int i = start; i < end; i++) {
+                byte b = buf.get(i);
+                if (b == delimiter) {
+                    if (escaped || inQuotes) {
+                        append(b);
+                        escaped = false;
+                    } else {
+                        addField(fieldStart, wasQualified || noTrim);
+                        wasQualified = false;
+                        fieldStart = length;
+                    }
+                } else if (b == quote) {
+                    if (noQuote) {
+                        if (escaped) {
+                            append(b);
+                        }
+                        escaped = !escaped;
+                    } else if (inQuotes) {
+                        inQuotes = false;
+                    } else if (wasQualified) {
+                        inQuotes = true;
+                        append(b);
+                    } else {
+                        for (int j = fieldStart; j < length; j++) {
+                            if ((bytes[j] & 0xff) > ' ') {
+                                return false;
+                            }
+                        }
+                        inQuotes = true;
+                        length = fieldStart;
+                        wasQualified = true;
+                    }
+                } else if (escaped) {
+                    return false;
+                } else if (wasQualified && !inQuotes) {
+                    if (!isWhitespace(b)) {
+                        return false;
+                    }
+                } else {
+                    append(b);
+                }
+            }
+            if (escaped || inQuotes) {
+                //multi-line value
+                return false;
+            }
+            addField(fieldStart, wasQualified || noTrim);
+            return true;
+        }
+
+        /**
+         * Mirrors TextTableNode.parseFixedWidth
+         */
+        private boolean parseFixedWidth(ByteBuffer buf, int start, int end, int chars) {
+            int beginIndex = 0;
+            int pos = start;
+            for (TextColumn col : table.getColumns()) {
+                if (beginIndex >= chars) {
+                    addNullField();
+                    continue;
+                }
+                int width = Math.min(col.getWidth(), chars - beginIndex);
+                int next = pos + width;
+                if (!asciiLine) {
+                    next = charPosition(buf, pos, end, width);
+                    if (next < 0) {
+                        return false;
+                    }
+                }
+                int fieldStart = length;
+                for (int i = pos; i < next; i++) {
+                    append(buf.get(i));
+                }
+                addField(fieldStart, col.isNoTrim());
+                beginIndex += col.getWidth();
+                pos = next;
+            }
+            return true;
+        }
+
+        private Object getValue(int index, Class<?> type) throws TransformationException, CharacterCodingException {
+            int len = lengths[index];
+            if (len < 0) {
+                return null;
+            }
+            int off = offsets[index];
+            if (!qualified[index]) {
+                while (len > 0 && isTrimmed(bytes[off])) {
+                    off++;
+                    len--;
+                }
+                while (len > 0 && isTrimmed(bytes[off + len - 1])) {
+                    len--;
+                }
+                if (len == 0) {
+                    return null;
+                }
+            }
+            if (type == DataTypeManager.DefaultDataClasses.INTEGER
+                    || type == DataTypeManager.DefaultDataClasses.LONG
+                    || type == DataTypeManager.DefaultDataClasses.SHORT
+                    || type == DataTypeManager.DefaultDataClasses.BYTE) {
+                Object result = parseIntegral(off, len, type);
+                if (result != null) {
+                    return result;
+                }
+            }
+            String val = null;
+            if (asciiLine || charset == StandardCharsets.ISO_8859_1) {
+                val = new String(bytes, off, len, StandardCharsets.ISO_8859_1);
+            } else {
+                decoder.reset();
+                val = decoder.decode(ByteBuffer.wrap(bytes, off, len)).toString();
+            }
+            return DataTypeManager.transformValue(val, type);
+        }
+
+        /**
+         * Parse an integral value without creating a string.
+         * @return the value or null if the string conversion should be used instead
+         */
+        private Object parseIntegral(int off, int len, Class<?> type) {
+            int i = off;
+            int end = off + len;
+            //consistent with the string conversion, which trims
+            while (i < end && isTrimmed(bytes[i])) {
+                i++;
+            }
+            while (end > i && isTrimmed(bytes[end - 1])) {
+                end--;
+            }
+            boolean negative = false;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negative = bytes[i] == '-';
+                i++;
+            }
+            if (i == end || end - i > 18) {
+                return null;
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return null;
+                }
+                value = value * 10 + digit;
+            }
+            if (negative) {
+                value = -value;
+            }
+            if (type == DataTypeManager.DefaultDataClasses.LONG) {
+                return value;
+            }
+            if (type == DataTypeManager.DefaultDataClasses.INTEGER) {
+                if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                    return null;
+                }
+                return (int)value;
+            }
+            if (type == DataTypeManager.DefaultDataClasses.SHORT) {
+                if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                    return null;
+                }
+                return (short)value;
+            }
+            if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                return null;
+            }
+            return (byte)value;
+        }
+
+        /**
+         * @return true if the line can be decoded, which the sequential read enforces for the whole line
+         */
+        private boolean isValid(ByteBuffer buf, int start, int end) {
+            if (charset == StandardCharsets.ISO_8859_1) {
+                return true;
+            }
+            if (charset == StandardCharsets.US_ASCII) {
+                return false;
+            }
+            ByteBuffer line = buf.duplicate();
+            line.limit(end);
+            line.position(start);
+            decoder.reset();
+            try {
+                decoder.decode(line);
+            } catch (CharacterCodingException e) {
+                return false;
+            }
+            return true;
+        }
+
+        private void append(byte b) {
+            if (length == bytes.length) {
+                byte[] newBytes = new byte[bytes.length << 1];
+                System.arraycopy(bytes, 0, newBytes, 0, length);
+                bytes = newBytes;
+            }
+            bytes[length++] = b;
+        }
+
+        private void addField(int fieldStart, boolean isQualified) {
+            ensureFieldCapacity();
+            offsets[fieldCount] = fieldStart;
+            lengths[fieldCount] = length - fieldStart;
+            qualified[fieldCount++] = isQualified;
+        }
+
+        private void addNullField() {
+            ensureFieldCapacity();
+            lengths[fieldCount++] = -1;
+        }
+
+        private void ensureFieldCapacity() {
+            if (fieldCount == offsets.length) {
+                int newLength = offsets.length << 1;
+                int[] newOffsets = new int[newLength];
+                System.arraycopy(offsets, 0, newOffsets, 0, fieldCount);
+                offsets = newOffsets;
+                int[] newLengths = new int[newLength];
+                System.arraycopy(lengths, 0, newLengths, 0, fieldCount);
+                lengths = newLengths;
+                boolean[] newQualified = new boolean[newLength];
+                System.arraycopy(qualified, 0, newQualified, 0, fieldCount);
+                qualified = newQualified;
+            }
+        }
+    }
+
+    private final File file;
+    private final Charset charset;
+    private final TextTable table;
+    private final byte delimiter;
+    private final byte quote;
+    private final boolean noQuote;
+    private final boolean noTrim;
+    private final byte newLine;
+    private final boolean crNewLine;
+    private final int[] projectionIndexes;
+
+    private Map<String, Integer> nameIndexes;
+    private int lineWidth;
+    private List<String> header;
+
+    private Executor executor;
+    private Runnable onChunkDone;
+    private int chunkSize;
+    private int maxChunks;
+
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private long size;
+    private long position;
+    private long textLine;
+    private ArrayDeque<Chunk> chunks = new ArrayDeque<Chunk>();
+    private volatile boolean closed;
+
+    private ParallelTextReader(File file, Charset charset, TextTable table, char delimiter, char quote, boolean noQuote,
+            boolean noTrim, char newLine, boolean crNewLine, int[] projectionIndexes) {
+        this.file = file;
+        this.charset = charset;
+        this.table = table;
+        this.delimiter = (byte)delimiter;
+        this.quote = (byte)quote;
+        this.noQuote = noQuote;
+        this.noTrim = noTrim;
+        this.newLine = (byte)newLine;
+        this.crNewLine = crNewLine;
+        this.projectionIndexes = projectionIndexes;
+    }
+
+    /**
+     * @return the reader or null if the source is not a local file in a supported charset
+     */
+    static ParallelTextReader create(ClobType clob, TextTable table, char delimiter, char quote, boolean noQuote,
+            boolean noTrim, char newLine, boolean crNewLine, int[] projectionIndexes) throws SQLException {
+        if (!(clob.getReference() instanceof ClobImpl)) {
+            return null;
+        }
+        ClobImpl clobImpl = (ClobImpl)clob.getReference();
+        InputStreamFactory isf = clobImpl.getStreamFactory();
+        if (!(isf instanceof FileInputStreamFactory)) {
+            return null;
+        }
+        Charset charset = clobImpl.getCharset();
+        if (charset == null) {
+            charset = Streamable.CHARSET;
+        }
+        if (!charset.equals(StandardCharsets.UTF_8) && !charset.equals(StandardCharsets.US_ASCII) && !charset.equals(StandardCharsets.ISO_8859_1)) {
+            return null;
+        }
+        if (!table.isFixedWidth() && (delimiter > 127 || quote > 127)) {
+            return null;
+        }
+        if (newLine > 127) {
+            return null;
+        }
+        //use the canonical instances so that identity checks may be used
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            charset = StandardCharsets.UTF_8;
+        } else if (charset.equals(StandardCharsets.US_ASCII)) {
+            charset = StandardCharsets.US_ASCII;
+        } else {
+            charset = StandardCharsets.ISO_8859_1;
+        }
+        return new ParallelTextReader(((FileInputStreamFactory)isf).getFile(), charset, table, delimiter, quote, noQuote, noTrim, newLine, crNewLine, projectionIndexes);
+    }
+
+    /**
+     * Open the file and process the skip lines, which includes the header.
+     * @return false if the skip lines cannot be handled, in which case the reader is closed
+     */
+    boolean open(int skip, int headerLine) throws IOException {
+        raf = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+        channel = raf.getChannel();
+        size = channel.size();
+        LineParser parser = null;
+        while (textLine < skip) {
+            if (position >= size) {
+                return true;
+            }
+            long end = findLineEnd(position);
+            boolean isHeader = textLine == headerLine;
+            textLine++;
+            if (isHeader) {
+                long lineEnd = end;
+                while (lineEnd > position && isTerminator(readByte(lineEnd - 1))) {
+                    lineEnd--;
+                }
+                if (lineEnd == position || lineEnd - position > Integer.MAX_VALUE) {
+                    //empty headers lines are skipped by the sequential read
+                    close();
+                    return false;
+                }
+                if (parser == null) {
+                    parser = new LineParser();
+                }
+                ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, lineEnd - position);
+                header = parser.parseStrings(buf, 0, buf.limit(), DataTypeManager.MAX_STRING_LENGTH * 16);
+                if (header == null) {
+                    close();
+                    return false;
+                }
+            }
+            position = end;
+        }
+        return true;
+    }
+
+    /**
+     * @return the parsed header values or null if there is no header
+     */
+    List<String> getHeader() {
+        return header;
+    }
+
+    /**
+     * Start parsing the chunks after the skip lines
+     * @param onChunkDone called from the executor thread as each chunk completes
+     * @param maxChunks the maximum number of chunks to have in progress or pending consumption
+     */
+    void start(Map<String, Integer> nameIndexes, int lineWidth, Executor executor,
+            Runnable onChunkDone, int chunkSize, int maxChunks) {
+        this.nameIndexes = nameIndexes;
+        this.lineWidth = lineWidth;
+        this.executor = executor;
+        this.onChunkDone = onChunkDone;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxChunks = Math.max(1, maxChunks);
+    }
+
+    /**
+     * Get the next chunk to consume and schedule additional chunks
+     * @return the chunk or null if the file has been consumed
+     */
+    Chunk getChunk() throws IOException {
+        while (chunks.size() < maxChunks && position < size) {
+            long end = findLineEnd(Math.min(size, position + chunkSize));
+            Chunk chunk = new Chunk(position, end);
+            position = end;
+            chunks.add(chunk);
+            executor.execute(chunk);
+        }
+        return chunks.peek();
+    }
+
+    /**
+     * Remove the consumed head chunk
+     */
+    void removeChunk() {
+        Chunk chunk = chunks.remove();
+        textLine += chunk.lines;
+    }
+
+    /**
+     * @return the number of lines before the head chunk
+     */
+    long getTextLine() {
+        return textLine;
+    }
+
+    /**
+     * Create a sequential reader from the start of the chunk
+     */
+    BufferedReader createReader(Chunk chunk) throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            fis.getChannel().position(chunk.start);
+        } catch (IOException e) {
+            fis.close();
+            throw e;
+        }
+        return new BufferedReader(new InputStreamReader(new BufferedInputStream(fis), charset.newDecoder()));
+    }
+
+    void close() {
+        closed = true;
+        chunks.clear();
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * @return the position after the line terminator found at or after the given position
+     */
+    private long findLineEnd(long pos) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+        while (pos < size) {
+            scan.clear();
+            int read = channel.read(scan, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = scan.get(i);
+                if (b == newLine) {
+                    return pos + i + 1;
+                }
+                if (b == '\r' && crNewLine) {
+                    long next = pos + i + 1;
+                    if (next < size && readByte(next) == '\n') {
+                        next++;
+                    }
+                    return next;
+                }
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    private byte readByte(long pos) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(1);
+        if (channel.read(b, pos) != 1) {
+            return -1;
+        }
+        return b.get(0);
+    }
+
+    private boolean isTerminator(byte b) {
+        return b == newLine || (crNewLine && b == '\r');
+    }
+
+    /**
+     * @return the number of chars represented by the bytes
+     */
+    private int charLength(ByteBuffer buf, int start, int end) {
+        if (charset != StandardCharsets.UTF_8) {
+            return end - start;
+        }
+        int chars = 0;
+        for (int i = start; i < end; i++) {
+            int b = buf.get(i) & 0xff;
+            if (b < 0x80 || b >= 0xc0) {
+                //not a continuation byte
+                chars++;
+                if (b >= 0xf0) {
+                    //surrogate pair
+                    chars++;
+                }
+            }
+        }
+        return chars;
+    }
+
+    /**
+     * @return the position after the given number of chars or -1 if that
+     * would be in the middle of a surrogate pair
+     */
+    private int charPosition(ByteBuffer buf, int start, int end, int chars) {
+        if (charset != StandardCharsets.UTF_8) {
+            return Math.min(end, start + chars);
+        }
+        int i = start;
+        while (i < end && chars > 0) {
+            int b = buf.get(i) & 0xff;
+            if (b < 0x80) {
+                i++;
+            } else if (b < 0xe0) {
+                i += 2;
+            } else if (b < 0xf0) {
+                i += 3;
+            } else {
+                if (chars == 1) {
+                    return -1;
+                }
+                i += 4;
+                chars--;
+            }
+            chars--;
+        }
+        return Math.min(i, end);
+    }
+
+    private static boolean isTrimmed(byte b) {
+        //consistent with String.trim
+        return b >= 0 && b <= ' ';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        //the ascii values of Character.isWhitespace, non-ascii values are handled sequentially
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1c && b <= 0x1f);
+    }
+
+}
@@ -35,6 +35,7 @@ import org.teiid.common.buffer.TupleBuffer;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.query.analysis.AnalysisRecord;
+import org.teiid.query.eval.ExpressionCompiler.CompiledExpression;
 import org.teiid.query.sql.LanguageObject;
 import org.teiid.query.sql.symbol.AliasSymbol;
 import org.teiid.query.sql.symbol.Expression;
@@ -52,6 +53,7 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
     private boolean needsProject = true;
     private List<Expression> expressions;
     private int[] projectionIndexes;
+    private CompiledExpression[] compiledExpressions;
 
     // Saved state when blocked on evaluating a row - must be reset
     private TupleBatch currentBatch;
@@ -102,6 +104,7 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
         List<? extends Expression> childElements = getChildren()[0].getElements();
         // Create element lookup map for evaluating project expressions
         this.elementMap = createLookupMap(childElements);
+        this.compiledExpressions = null;
 
         // Check whether project needed at all - this occurs if:
         // 1. outputMap == null (see previous block)
@@ -154,6 +157,15 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
             }
         }
 
+        if (compiledExpressions == null) {
+            compiledExpressions = new CompiledExpression[expressions.size()];
+            for (int i = 0; i < compiledExpressions.length; i++) {
+                if (projectionIndexes[i] == -1) {
+                    compiledExpressions[i] = compile(expressions.get(i), this.elementMap);
+                }
+            }
+        }
+
         while (currentRow <= currentBatch.getEndRow() && !isBatchFull()) {
             List<?> tuple = currentBatch.getTuple(currentRow);
 
@@ -161,8 +173,7 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
 
             // Walk through symbols
             for(int i=0; i<expressions.size(); i++) {
-                Expression symbol = expressions.get(i);
-                updateTuple(symbol, i, tuple, projectedTuple);
+                updateTuple(i, tuple, projectedTuple);
             }
 
             // Add to batch
@@ -180,14 +191,14 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
         return pullBatch();
     }
 
-    private void updateTuple(Expression symbol, int projectionIndex, List<?> values, List<Object> tuple)
+    private void updateTuple(int projectionIndex, List<?> values, List<Object> tuple)
         throws BlockedException, TeiidComponentException, ExpressionEvaluationException {
 
         int index = this.projectionIndexes[projectionIndex];
         if(index != -1) {
             tuple.add(values.get(index));
         } else {
-            tuple.add(getEvaluator(this.elementMap).evaluate(symbol, values));
+            tuple.add(compiledExpressions[projectionIndex].evaluate(values));
         }
     }
 
@@ -32,6 +32,7 @@ import org.teiid.common.buffer.TupleBatch;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.query.analysis.AnalysisRecord;
+import org.teiid.query.eval.ExpressionCompiler.CompiledCriteria;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.rewriter.QueryRewriter;
 import org.teiid.query.sql.LanguageObject;
@@ -44,6 +45,7 @@ public class SelectNode extends SubqueryAwareRelationalNode {
 
     private Criteria criteria;
     private Criteria preEvalCriteria;
+    private CompiledCriteria compiledCriteria;
     private List<Expression> projectedExpressions;
     private boolean shouldEvaluate = false;
 
@@ -72,6 +74,7 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         currentRow = 1;
         noRows = false;
         preEvalCriteria = null;
+        compiledCriteria = null;
     }
 
     public void setCriteria(Criteria criteria) {
@@ -112,10 +115,14 @@ public class SelectNode extends SubqueryAwareRelationalNode {
             currentBatch = this.getChildren()[0].nextBatch();
         }
 
+        if (compiledCriteria == null) {
+            compiledCriteria = compile(this.preEvalCriteria!=null?preEvalCriteria:criteria, this.elementMap);
+        }
+
         while (currentRow <= currentBatch.getEndRow() && !isBatchFull()) {
             List<?> tuple = currentBatch.getTuple(currentRow);
 
-            if(getEvaluator(this.elementMap).evaluate(this.preEvalCriteria!=null?preEvalCriteria:criteria, tuple)) {
+            if(Boolean.TRUE.equals(compiledCriteria.evaluateTVL(tuple))) {
                 addBatchRow(projectTuple(this.projectionIndexes, tuple));
             }
             currentRow++;
@@ -27,8 +27,12 @@ import org.teiid.api.exception.query.ExpressionEvaluationException;
 import org.teiid.common.buffer.BlockedException;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.query.eval.Evaluator;
+import org.teiid.query.eval.ExpressionCompiler;
+import org.teiid.query.eval.ExpressionCompiler.CompiledCriteria;
+import org.teiid.query.eval.ExpressionCompiler.CompiledExpression;
 import org.teiid.query.processor.ProcessorPlan;
 import org.teiid.query.sql.LanguageObject;
+import org.teiid.query.sql.lang.Criteria;
 import org.teiid.query.sql.lang.SubqueryContainer;
 import org.teiid.query.sql.lang.TableFunctionReference;
 import org.teiid.query.sql.symbol.ElementSymbol;
@@ -56,6 +60,26 @@ public abstract class SubqueryAwareRelationalNode extends RelationalNode {
         return this.evaluator;
     }
 
+    /**
+     * Compile the criteria against the evaluator for the element map, or just
+     * interpret it if compiled expressions are not enabled.
+     */
+    protected CompiledCriteria compile(Criteria criteria, Map elementMap) {
+        Evaluator eval = getEvaluator(elementMap);
+        if (getContext().getOptions().isCompiledExpressions()) {
+            return new ExpressionCompiler(eval).compile(criteria);
+        }
+        return ExpressionCompiler.interpret(criteria, eval);
+    }
+
+    protected CompiledExpression compile(Expression expression, Map elementMap) {
+        Evaluator eval = getEvaluator(elementMap);
+        if (getContext().getOptions().isCompiledExpressions()) {
+            return new ExpressionCompiler(eval).compile(expression);
+        }
+        return ExpressionCompiler.interpret(expression, eval);
+    }
+
     @Override
     public void reset() {
         super.reset();
@@ -88,6 +88,8 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 
     private boolean noTrim;
 
+    private ParallelTextReader parallelReader;
+
     private char newLine = '\n';
     private boolean crNewLine = true;
 
@@ -162,6 +164,10 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
             }
             this.reader = null;
         }
+        if (this.parallelReader != null) {
+            this.parallelReader.close();
+            this.parallelReader = null;
+        }
         this.nameIndexes = null;
         this.textLine = 0;
         this.rowNumber = 0;
@@ -205,11 +211,11 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
     protected synchronized TupleBatch nextBatchDirect() throws BlockedException,
             TeiidComponentException, TeiidProcessingException {
 
-        if (reader == null) {
+        if (reader == null && parallelReader == null) {
             initReader();
         }
 
-        if (reader == null) {
+        if (reader == null && parallelReader == null) {
             terminateBatches();
             return pullBatch();
         }
@@ -218,6 +224,14 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
             return pullBatch();
         }
 
+        if (parallelReader != null) {
+            TupleBatch result = nextParallelBatch();
+            if (result != null) {
+                return result;
+            }
+            //continue sequentially
+        }
+
         if (isBatchFull()) {
             TupleBatch result = pullBatch();
             processAsynch(); // read ahead
@@ -259,20 +273,102 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
                         asynchException = new TeiidRuntimeException(e);
                     } finally {
                         running = false;
-                        RequestWorkItem workItem = TextTableNode.this.getContext().getWorkItem();
-                        if (workItem != null) {
-                            workItem.moreWork();
-                        } else {
-                            synchronized (TextTableNode.this) {
-                                TextTableNode.this.notifyAll();
-                            }
-                        }
+                        moreWork();
                     }
                 }
             });
         }
     }
 
+    private void moreWork() {
+        RequestWorkItem workItem = getContext().getWorkItem();
+        if (workItem != null) {
+            workItem.moreWork();
+        } else {
+            synchronized (this) {
+                this.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Consume the rows from the parallel reader chunks in order
+     * @return the next batch or null if processing should continue sequentially
+     */
+    private TupleBatch nextParallelBatch() throws TeiidComponentException, TeiidProcessingException {
+        while (!isBatchFull()) {
+            ParallelTextReader.Chunk chunk = null;
+            try {
+                chunk = parallelReader.getChunk();
+            } catch (IOException e) {
+                throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
+            }
+            if (chunk == null) {
+                terminateBatches();
+                break;
+            }
+            if (!chunk.isDone()) {
+                if (this.getContext().getWorkItem() == null) {
+                    //this is for compatibility with engine tests that are below the level of using the work item
+                    while (!chunk.isDone()) {
+                        try {
+                            this.wait();
+                        } catch (InterruptedException e) {
+                            throw new TeiidRuntimeException(e);
+                        }
+                    }
+                } else {
+                    if (hasPendingRows()) {
+                        break;
+                    }
+                    throw BlockedException.block("Blocking on results from file processing."); //$NON-NLS-1$
+                }
+            }
+            if (chunk.getException() != null) {
+                Throwable e = chunk.getException();
+                if (e instanceof IOException) {
+                    throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
+                }
+                if (e instanceof TeiidRuntimeException) {
+                    throw (TeiidRuntimeException)e;
+                }
+                throw new TeiidRuntimeException(e);
+            }
+            if (chunk.isSequential()) {
+                //resume from the start of the chunk with the reader
+                try {
+                    this.reader = parallelReader.createReader(chunk);
+                } catch (IOException e) {
+                    throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
+                }
+                this.textLine = (int)parallelReader.getTextLine();
+                this.parallelReader.close();
+                this.parallelReader = null;
+                if (hasPendingRows()) {
+                    return pullBatch();
+                }
+                return null;
+            }
+            List<Object> tuple = null;
+            while (!isBatchFull() && (tuple = chunk.nextRow()) != null) {
+                rowNumber++;
+                for (int i = 0; i < projectionIndexes.length; i++) {
+                    if (table.getColumns().get(projectionIndexes[i]).isOrdinal()) {
+                        if (rowNumber > Integer.MAX_VALUE) {
+                            throw new TeiidRuntimeException(new TeiidProcessingException(QueryPlugin.Event.TEIID31174, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31174)));
+                        }
+                        tuple.set(i, (int)rowNumber);
+                    }
+                }
+                addBatchRow(tuple);
+            }
+            if (tuple == null) {
+                parallelReader.removeChunk();
+            }
+        }
+        return pullBatch();
+    }
+
     private void process(Reader r) throws TeiidProcessingException {
         while (true) {
             synchronized (this) {
@@ -457,6 +553,9 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
                     this.systemId = "Unknown"; //$NON-NLS-1$
                 }
             }
+            if (initParallelReader(file)) {
+                return;
+            }
             Reader r = file.getCharacterStream();
             if (!(r instanceof BufferedReader)) {
                 reader = new BufferedReader(r);
@@ -488,6 +587,40 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
         }
     }
 
+    /**
+     * Use a {@link ParallelTextReader} if enabled and the source is a local file
+     * @return true if the parallel reader will be used
+     */
+    private boolean initParallelReader(ClobType file) throws SQLException, TeiidProcessingException {
+        if (!getContext().getOptions().isParallelTextTable() || table.getSelector() != null
+                || parentLines != null || limit != -1 || !table.isUsingRowDelimiter()) {
+            return false;
+        }
+        ParallelTextReader parallel = ParallelTextReader.create(file, table, delimiter, quote, noQuote, noTrim, newLine, crNewLine, projectionIndexes);
+        if (parallel == null) {
+            return false;
+        }
+        try {
+            if (!parallel.open(skip, header)) {
+                return false;
+            }
+        } catch (IOException e) {
+            parallel.close();
+            throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
+        }
+        if (parallel.getHeader() != null) {
+            processHeader(parallel.getHeader());
+        }
+        parallel.start(nameIndexes, lineWidth, getContext().getExecutor(), new Runnable() {
+            @Override
+            public void run() {
+                moreWork();
+            }
+        }, getContext().getOptions().getParallelTextTableChunkSize(), Math.max(2, getContext().getUserRequestSourceConcurrency()));
+        this.parallelReader = parallel;
+        return true;
+    }
+
     private void processHeader(List<String> line) {
         nameIndexes = new HashMap<String, Integer>();
         this.lineWidth = DataTypeManager.MAX_STRING_LENGTH * line.size();
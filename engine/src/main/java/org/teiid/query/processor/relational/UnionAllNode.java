@@ -18,6 +18,8 @@
 
 package org.teiid.query.processor.relational;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Collections;
 
 import org.teiid.common.buffer.BlockedException;
@@ -27,29 +29,184 @@ import org.teiid.common.buffer.TupleBatch;
 import org.teiid.common.buffer.impl.BufferManagerImpl;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
+import org.teiid.core.TeiidRuntimeException;
+import org.teiid.dqp.internal.process.RequestWorkItem;
+import org.teiid.dqp.service.TransactionContext;
+import org.teiid.dqp.service.TransactionContext.Scope;
+import org.teiid.query.metadata.TempMetadataAdapter;
 import org.teiid.query.processor.ProcessorDataManager;
+import org.teiid.query.processor.QueryProcessor.ExpiredTimeSliceException;
+import org.teiid.query.sql.LanguageObject;
+import org.teiid.query.sql.visitor.ValueIteratorProviderCollectorVisitor;
 import org.teiid.query.util.CommandContext;
 
 
 public class UnionAllNode extends RelationalNode {
 
+    /**
+     * Pulls batches from a child on the engine executor into a bounded queue.
+     * The child is only accessed by the branch while it is running.  Closing the
+     * branch waits for it to stop, so that the child is not used after the union is closed.
+     */
+    private final class Branch implements Runnable {
+        private final RelationalNode child;
+        private final ArrayDeque<TupleBatch> batches = new ArrayDeque<TupleBatch>(QUEUED_BATCHES);
+        private boolean running;
+        private boolean started;
+        private boolean done;
+        private boolean closed;
+        private boolean memoryBlocked;
+        private Throwable exception;
+
+        private Branch(RelationalNode child) {
+            this.child = child;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (closed) {
+                    //closed before the task started
+                    return;
+                }
+                started = true;
+            }
+            boolean progress = false;
+            CommandContext.pushThreadLocalContext(getContext());
+            boolean oldParallel = getContext().setParallel(true);
+            try {
+                while (true) {
+                    synchronized (this) {
+                        if (closed || batches.size() >= QUEUED_BATCHES) {
+                            break;
+                        }
+                    }
+                    TupleBatch batch = child.nextBatch();
+                    progress = true;
+                    synchronized (this) {
+                        batches.add(batch);
+                        if (batch.getTerminationFlag()) {
+                            done = true;
+                            break;
+                        }
+                    }
+                }
+            } catch (BlockedException e) {
+                if (e == BlockedException.BLOCKED_ON_MEMORY_EXCEPTION) {
+                    synchronized (this) {
+                        memoryBlocked = true;
+                    }
+                    progress = true;
+                } else if (e instanceof ExpiredTimeSliceException) {
+                    progress = true;
+                }
+                //otherwise the source will notify the work item when it has results
+            } catch (Throwable e) {
+                synchronized (this) {
+                    exception = e;
+                }
+                progress = true;
+            } finally {
+                getContext().setParallel(oldParallel);
+                CommandContext.popThreadLocalContext();
+                boolean notify = false;
+                synchronized (this) {
+                    running = false;
+                    started = false;
+                    notify = progress && !closed;
+                    this.notifyAll();
+                }
+                if (notify) {
+                    RequestWorkItem workItem = getContext().getWorkItem();
+                    if (workItem != null) {
+                        workItem.moreWork();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Start the branch if it is idle and can make progress
+         * @return true if the branch is running
+         */
+        synchronized boolean start() {
+            if (!running && !done && !closed && exception == null && batches.size() < QUEUED_BATCHES) {
+                running = true;
+                getContext().getExecutor().execute(this);
+            }
+            return running;
+        }
+
+        /**
+         * @return the next queued batch or null if there is none yet
+         */
+        synchronized TupleBatch poll() throws TeiidComponentException, TeiidProcessingException {
+            if (exception != null) {
+                if (exception instanceof TeiidComponentException) {
+                    throw (TeiidComponentException)exception;
+                }
+                if (exception instanceof TeiidProcessingException) {
+                    throw (TeiidProcessingException)exception;
+                }
+                if (exception instanceof RuntimeException) {
+                    throw (RuntimeException)exception;
+                }
+                throw new TeiidRuntimeException(exception);
+            }
+            return batches.poll();
+        }
+
+        synchronized boolean isMemoryBlocked() {
+            boolean result = memoryBlocked;
+            memoryBlocked = false;
+            return result;
+        }
+
+        /**
+         * Stop the branch and wait for a running branch to return from the child.
+         * A branch that has been submitted, but not started, will not use the child.
+         */
+        synchronized void close() {
+            closed = true;
+            batches.clear();
+            if (!started) {
+                running = false;
+            }
+            boolean interrupted = false;
+            while (running) {
+                try {
+                    this.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private static final int SMALL_LIMIT = 10;
+    private static final int QUEUED_BATCHES = 2;
     private boolean[] sourceDone;
     private boolean[] sourceOpen;
 
     private int outputRow = 1;
     private int reserved;
     private int schemaSize;
+    private Branch[] branches;
 
     public UnionAllNode(int nodeID) {
         super(nodeID);
     }
 
     public void reset() {
+        closeBranches();
         super.reset();
 
         sourceDone = null;
         sourceOpen = null;
+        branches = null;
         outputRow = 1;
     }
 
@@ -128,6 +285,109 @@ public class UnionAllNode extends RelationalNode {
 
         // Open the children
         super.open();
+
+        if (getContext().getOptions().isParallelUnion()) {
+            createBranches();
+        }
+    }
+
+    /**
+     * Run the children that are not access nodes as independent branches.  Access nodes
+     * already execute asynchronously.  Each branch needs a reservation for its queued batches
+     * and the branches are not used if the reservation is not granted.
+     * <br>
+     * The branches share the {@link CommandContext} with the processor thread, so children
+     * that modify the variable context or use the temp table store are not run as branches,
+     * see {@link #isBranchable(RelationalNode)}.
+     */
+    private void createBranches() {
+        CommandContext context = getContext();
+        if (context.getWorkItem() == null) {
+            return;
+        }
+        TransactionContext tc = context.getTransactionContext();
+        if (tc != null && tc.getTransactionType() != Scope.NONE) {
+            //the branches would not run in the transaction
+            return;
+        }
+        RelationalNode[] children = getChildren();
+        int childCount = getChildCount();
+        int parallel = 0;
+        boolean[] branchable = new boolean[childCount];
+        for (int i = 0; i < childCount; i++) {
+            if (!(children[i] instanceof AccessNode) && isBranchable(children[i])) {
+                branchable[i] = true;
+                parallel++;
+            }
+        }
+        if (parallel < 2) {
+            return;
+        }
+        int toReserve = parallel * QUEUED_BATCHES * schemaSize;
+        int granted = getBufferManager().reserveBuffers(toReserve, BufferReserveMode.NO_WAIT);
+        reserved += granted;
+        if (granted < toReserve) {
+            return;
+        }
+        branches = new Branch[childCount];
+        for (int i = 0; i < childCount; i++) {
+            if (branchable[i]) {
+                branches[i] = new Branch(children[i]);
+            }
+        }
+        startBranches();
+    }
+
+    /**
+     * A child may run concurrently with the processor thread if nothing in its
+     * plan sets variables, runs nested plans or subqueries, or accesses temp tables.
+     */
+    static boolean isBranchable(RelationalNode node) {
+        if (node instanceof PlanExecutionNode
+                || node instanceof DependentAccessNode
+                || node instanceof DependentProcedureAccessNode
+                || node instanceof TextTableNode
+                || node instanceof ObjectTableNode) {
+            return false;
+        }
+        if (node instanceof AccessNode && TempMetadataAdapter.TEMP_MODEL.getID().equals(((AccessNode)node).getModelName())) {
+            return false;
+        }
+        if (node instanceof JoinNode) {
+            JoinNode joinNode = (JoinNode)node;
+            if (joinNode.getDependentValueSourceName() != null || joinNode.getJoinStrategy() instanceof NestedTableJoinStrategy) {
+                return false;
+            }
+        }
+        if (node instanceof SubqueryAwareRelationalNode) {
+            Collection<? extends LanguageObject> objects = ((SubqueryAwareRelationalNode)node).getObjects();
+            if (objects != null && !ValueIteratorProviderCollectorVisitor.getValueIteratorProviders(objects).isEmpty()) {
+                return false;
+            }
+        }
+        for (RelationalNode child : node.getChildren()) {
+            if (child == null) {
+                break;
+            }
+            if (!isBranchable(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Start idle branches up to the user request source concurrency, which is
+     * derived from the max active plans
+     */
+    private void startBranches() {
+        int running = 0;
+        int max = Math.max(1, getContext().getUserRequestSourceConcurrency());
+        for (int i = 0; i < branches.length && running < max; i++) {
+            if (branches[i] != null && !sourceDone[i] && branches[i].start()) {
+                running++;
+            }
+        }
     }
 
     public TupleBatch nextBatchDirect()
@@ -152,6 +412,10 @@ public class UnionAllNode extends RelationalNode {
         int activeSources = 0;
         TupleBatch batch = null;
         boolean additionalSources = false;
+        boolean memoryBlocked = false;
+        if (branches != null) {
+            startBranches();
+        }
         for(int i=0; i<childCount; i++) {
             if(children[i] != null && ! sourceDone[i]) {
                 if (sourceOpen != null && !sourceOpen[i]) {
@@ -162,7 +426,15 @@ public class UnionAllNode extends RelationalNode {
 
                 if(batch == null) {
                     try {
-                        batch = children[i].nextBatch();
+                        if (branches != null && branches[i] != null) {
+                            batch = branches[i].poll();
+                            if (batch == null) {
+                                memoryBlocked |= branches[i].isMemoryBlocked();
+                                continue;
+                            }
+                        } else {
+                            batch = children[i].nextBatch();
+                        }
 
                         // Got a batch
                         if(batch.getTerminationFlag() == true) {
@@ -203,6 +475,9 @@ public class UnionAllNode extends RelationalNode {
             outputRow += outputBatch.getRowCount();
 
         } else if(activeSources > 0) {
+            if (memoryBlocked) {
+                throw BlockedException.BLOCKED_ON_MEMORY_EXCEPTION;
+            }
             // Didn't get a batch but there are active sources so we are blocked
             throw BlockedException.block(getContext().getRequestId(), "Blocking on union source.", getID()); //$NON-NLS-1$
         } else {
@@ -238,12 +513,24 @@ public class UnionAllNode extends RelationalNode {
 
     @Override
     public void closeDirect() {
+        //the branches must be stopped before the reservation is released and the children are closed
+        closeBranches();
         if (reserved > 0) {
             getBufferManager().releaseBuffers(reserved);
             reserved = 0;
         }
     }
 
+    private void closeBranches() {
+        if (branches != null) {
+            for (Branch branch : branches) {
+                if (branch != null) {
+                    branch.close();
+                }
+            }
+        }
+    }
+
     public Object clone(){
         UnionAllNode clonedNode = new UnionAllNode(super.getID());
         super.copyTo(clonedNode);
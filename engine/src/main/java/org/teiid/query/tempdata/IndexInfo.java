@@ -50,18 +50,18 @@ class IndexInfo extends BaseIndexInfo<TempTable> {
         }
         if (valueTs != null) {
             LogManager.logDetail(LogConstants.CTX_DQP, "Using index value set"); //$NON-NLS-1$
-            return new TupleBrowser(this.table.getTree(), valueTs, direction, readOnly);
+            return this.table.getTree().createTupleBrowser(valueTs, direction, readOnly);
         }
         if (!valueSet.isEmpty()) {
             LogManager.logDetail(LogConstants.CTX_DQP, "Using index value set"); //$NON-NLS-1$
             sortValueSet(direction, nullOrder);
             CollectionTupleSource cts = new CollectionTupleSource(valueSet.iterator());
-            return new TupleBrowser(this.table.getTree(), cts, direction, readOnly);
+            return this.table.getTree().createTupleBrowser(cts, direction, readOnly);
         }
         if (lower != null || upper != null) {
             LogManager.logDetail(LogConstants.CTX_DQP, "Using index for range query", lower, upper); //$NON-NLS-1$
         }
-        return new TupleBrowser(this.table.getTree(), lower, upper, direction, readOnly);
+        return this.table.getTree().createTupleBrowser(lower, upper, direction, readOnly);
     }
 
 }
\ No newline at end of file
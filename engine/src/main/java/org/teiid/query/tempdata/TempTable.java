@@ -32,6 +32,7 @@ import org.teiid.common.buffer.BlockedException;
 import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.BufferManager.BufferReserveMode;
 import org.teiid.common.buffer.BufferManager.TupleSourceType;
+import org.teiid.common.buffer.ConcurrentSTree;
 import org.teiid.common.buffer.STree;
 import org.teiid.common.buffer.STree.InsertMode;
 import org.teiid.common.buffer.TupleBrowser;
@@ -212,6 +213,7 @@ public class TempTable implements Cloneable, SearchableTable {
         private final int[] indexes;
         private int reserved;
         private TupleBrowser browser;
+        private boolean locked;
 
         private QueryTupleSource(TupleBrowser browser, Map map,
                 List<? extends Expression> projectedCols, Criteria condition) {
@@ -221,8 +223,11 @@ public class TempTable implements Cloneable, SearchableTable {
             this.condition = condition;
             this.project = shouldProject();
             this.reserved = reserveBuffers();
+            //the tree validates only each page read, the table lock is still needed
+            //so that scans do not see partially applied or rolled back updates
             if (updatable) {
                 lock.readLock().lock();
+                locked = true;
             }
         }
 
@@ -248,8 +253,9 @@ public class TempTable implements Cloneable, SearchableTable {
 
         @Override
         public void closeSource() {
-            if (updatable) {
+            if (locked) {
                 lock.readLock().unlock();
+                locked = false;
             }
             bm.releaseBuffers(reserved);
             reserved = 0;
@@ -384,19 +390,32 @@ public class TempTable implements Cloneable, SearchableTable {
     private boolean allowImplicitIndexing;
 
     TempTable(TempMetadataID tid, BufferManager bm, List<ElementSymbol> columns, int primaryKeyLength, String sessionID) {
+        this(tid, bm, columns, primaryKeyLength, sessionID, false);
+    }
+
+    /**
+     * @param concurrent true if the table is shared across sessions, such that searches
+     * should not be blocked by updates
+     */
+    TempTable(TempMetadataID tid, BufferManager bm, List<ElementSymbol> columns, int primaryKeyLength, String sessionID, boolean concurrent) {
         this.tid = tid;
         this.bm = bm;
         int startIndex = 0;
+        int keyLength = primaryKeyLength;
         if (primaryKeyLength == 0) {
             startIndex = 1;
             ElementSymbol rid = new ElementSymbol("rowId"); //$NON-NLS-1$
             rid.setType(DataTypeManager.DefaultDataClasses.LONG);
             columns.add(0, rid);
             rowId = new AtomicLong();
-            tree = bm.createSTree(columns, sessionID, 1);
+            keyLength = 1;
         } else {
             this.uniqueColIndex = primaryKeyLength;
-            tree = bm.createSTree(columns, sessionID, primaryKeyLength);
+        }
+        if (concurrent) {
+            tree = bm.createConcurrentSTree(columns, sessionID, keyLength);
+        } else {
+            tree = bm.createSTree(columns, sessionID, keyLength);
         }
         this.tree.setMinStorageSize(0);
         this.columnMap = RelationalNode.createLookupMap(columns);
@@ -486,7 +505,7 @@ public class TempTable implements Cloneable, SearchableTable {
                 allColumns.add(elementSymbol);
             }
         }
-        TempTable indexTable = new TempTable(new TempMetadataID("idx", Collections.EMPTY_LIST), this.bm, allColumns, allColumns.size(), this.sessionID); //$NON-NLS-1$
+        TempTable indexTable = new TempTable(new TempMetadataID("idx", Collections.EMPTY_LIST), this.bm, allColumns, allColumns.size(), this.sessionID, this.tree instanceof ConcurrentSTree); //$NON-NLS-1$
         indexTable.setPreferMemory(this.tree.isPreferMemory());
         indexTable.lock = this.lock;
         if (unique) {
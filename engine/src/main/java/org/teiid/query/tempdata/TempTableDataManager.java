@@ -310,7 +310,7 @@ public class TempTableDataManager implements ProcessorDataManager {
                     TeiidProcessingException {
                 TupleBuffer tb = bc.collectTuples();
                 CachedResults cr = new CachedResults();
-                cr.setResults(tb, qp.getProcessorPlan());
+                cr.setResults(tb, qp.getProcessorPlan(), bufferManager);
                 Determinism determinismLevel = qp.getContext().getDeterminismLevel();
                 if (hint != null && hint.getDeterminism() != null) {
                     LogManager.logTrace(LogConstants.CTX_DQP, new Object[] { "Cache hint modified the query determinism from ",determinismLevel, " to ", hint.getDeterminism() }); //$NON-NLS-1$ //$NON-NLS-2$
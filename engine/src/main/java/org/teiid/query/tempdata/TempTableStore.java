@@ -433,7 +433,8 @@ public class TempTableStore {
                 columns.add(i, es);
             }
         }
-        final TempTable tempTable = new TempTable(id, buffer, columns, create.getPrimaryKey().size(), sessionID);
+        //shared tables are searched concurrently with their updates
+        final TempTable tempTable = new TempTable(id, buffer, columns, create.getPrimaryKey().size(), sessionID, transactionMode == TransactionMode.ISOLATE_READS);
         tempTable.getTree().setSaveTemporaryLobs(!localScoped);
         if (add) {
             tempTables.put(tempTableName, tempTable);
@@ -181,8 +181,9 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
         private Executor executor = ExecutorUtils.getDirectExecutor();
         Map<Object, List<ReusableExecution<?>>> reusableExecutions;
         Set<CommandListener> commandListeners = null;
-        private LRUCache<String, DecimalFormat> decimalFormatCache;
-        private LRUCache<String, SimpleDateFormat> dateFormatCache;
+        //per thread, as the formats are not thread safe
+        private ThreadLocal<LRUCache<String, DecimalFormat>> decimalFormatCache = new ThreadLocal<LRUCache<String, DecimalFormat>>();
+        private ThreadLocal<LRUCache<String, SimpleDateFormat>> dateFormatCache = new ThreadLocal<LRUCache<String, SimpleDateFormat>>();
         private LRUCache<Entry<String,Integer>, Pattern> patternCache;
         private AtomicLong reuseCount = null;
 
@@ -204,7 +205,8 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 
         private Throwable batchUpdateException;
 
-        public boolean parallel;
+        //per thread, as union branches may process children concurrently with the processor thread
+        private ThreadLocal<Boolean> parallel = new ThreadLocal<Boolean>();
 
         private long timestamp = System.currentTimeMillis();
 
@@ -428,18 +430,22 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
     }
 
     public double getNextRand() {
-        if (globalState.random == null) {
-            globalState.random = new Random();
+        synchronized (this.globalState) {
+            if (globalState.random == null) {
+                globalState.random = new Random();
+            }
+            return globalState.random.nextDouble();
         }
-        return globalState.random.nextDouble();
     }
 
     public double getNextRand(long seed) {
-        if (globalState.random == null) {
-            globalState.random = new Random();
+        synchronized (this.globalState) {
+            if (globalState.random == null) {
+                globalState.random = new Random();
+            }
+            globalState.random.setSeed(seed);
+            return globalState.random.nextDouble();
         }
-        globalState.random.setSeed(seed);
-        return globalState.random.nextDouble();
     }
 
     void setRandom(Random random) {
@@ -659,8 +665,11 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
     }
 
     public void accessedDataObject(Object id) {
-        if (this.dataObjects != null) {
-            this.dataObjects.add(id);
+        HashSet<Object> objects = this.dataObjects;
+        if (objects != null) {
+            synchronized (objects) {
+                objects.add(id);
+            }
         }
     }
 
@@ -849,18 +858,21 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 
     public static DecimalFormat getDecimalFormat(CommandContext context, String format) {
         DecimalFormat result = null;
+        LRUCache<String, DecimalFormat> cache = null;
         if (context != null) {
-            if (context.globalState.decimalFormatCache == null) {
-                context.globalState.decimalFormatCache = new LRUCache<String, DecimalFormat>(32);
+            cache = context.globalState.decimalFormatCache.get();
+            if (cache == null) {
+                cache = new LRUCache<String, DecimalFormat>(32);
+                context.globalState.decimalFormatCache.set(cache);
             } else {
-                result = context.globalState.decimalFormatCache.get(format);
+                result = cache.get(format);
             }
         }
         if (result == null) {
             result = new DecimalFormat(format); //TODO: could be locale sensitive
             result.setParseBigDecimal(true);
-            if (context != null) {
-                context.globalState.decimalFormatCache.put(format, result);
+            if (cache != null) {
+                cache.put(format, result);
             }
         }
         return result;
@@ -868,17 +880,20 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 
     public static SimpleDateFormat getDateFormat(CommandContext context, String format) {
         SimpleDateFormat result = null;
+        LRUCache<String, SimpleDateFormat> cache = null;
         if (context != null) {
-            if (context.globalState.dateFormatCache == null) {
-                context.globalState.dateFormatCache = new LRUCache<String, SimpleDateFormat>(32);
+            cache = context.globalState.dateFormatCache.get();
+            if (cache == null) {
+                cache = new LRUCache<String, SimpleDateFormat>(32);
+                context.globalState.dateFormatCache.set(cache);
             } else {
-                result = context.globalState.dateFormatCache.get(format);
+                result = cache.get(format);
             }
         }
         if (result == null) {
             result = new SimpleDateFormat(format); //TODO: could be locale sensitive
-            if (context != null) {
-                context.globalState.dateFormatCache.put(format, result);
+            if (cache != null) {
+                cache.put(format, result);
             }
         }
         return result;
@@ -896,16 +911,20 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
     public static Pattern getPattern(CommandContext context, String regex, int flags) {
         Pattern result = null;
         if (context != null) {
-            if (context.globalState.patternCache == null) {
-                context.globalState.patternCache = new LRUCache<Entry<String,Integer>,Pattern>(32);
-            } else {
-                result = context.globalState.patternCache.get(new SimpleEntry(result, flags));
+            synchronized (context.globalState) {
+                if (context.globalState.patternCache == null) {
+                    context.globalState.patternCache = new LRUCache<Entry<String,Integer>,Pattern>(32);
+                } else {
+                    result = context.globalState.patternCache.get(new SimpleEntry(result, flags));
+                }
             }
         }
         if (result == null) {
             result = Pattern.compile(regex, flags);
             if (context != null) {
-                context.globalState.patternCache.put(new SimpleEntry(result, flags), result);
+                synchronized (context.globalState) {
+                    context.globalState.patternCache.put(new SimpleEntry(result, flags), result);
+                }
             }
         }
         return result;
@@ -1059,17 +1078,21 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
     }
 
     public TupleSource getCodeLookup(String matTableName, Object keyValue) {
-        if (this.globalState.lookups != null) {
-            return this.globalState.lookups.remove(new LookupKey(matTableName, keyValue));
+        synchronized (this.globalState) {
+            if (this.globalState.lookups != null) {
+                return this.globalState.lookups.remove(new LookupKey(matTableName, keyValue));
+            }
         }
         return null;
     }
 
     public void putCodeLookup(String matTableName, Object keyValue, TupleSource ts) {
-        if (this.globalState.lookups == null) {
-            this.globalState.lookups = new TreeMap<LookupKey, TupleSource>();
+        synchronized (this.globalState) {
+            if (this.globalState.lookups == null) {
+                this.globalState.lookups = new TreeMap<LookupKey, TupleSource>();
+            }
+            this.globalState.lookups.put(new LookupKey(matTableName, keyValue), ts);
         }
-        this.globalState.lookups.put(new LookupKey(matTableName, keyValue), ts);
     }
 
 
@@ -1137,14 +1160,18 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
     }
 
     public void addCreatedLob(FileStoreInputStreamFactory isf) {
-        if (this.globalState.created != null) {
-            isf.setTemporary(true);
-            this.globalState.created.add(isf);
+        synchronized (this.globalState) {
+            if (this.globalState.created != null) {
+                isf.setTemporary(true);
+                this.globalState.created.add(isf);
+            }
         }
     }
 
     public void disableAutoCleanLobs() {
-        this.globalState.created = null;
+        synchronized (this.globalState) {
+            this.globalState.created = null;
+        }
     }
 
     public void requestCancelled() {
@@ -1173,17 +1200,21 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
     }
 
     public Boolean isAccessible(AbstractMetadataRecord record) {
-        if (this.globalState.accessible == null) {
-            return null;
+        synchronized (this.globalState) {
+            if (this.globalState.accessible == null) {
+                return null;
+            }
+            return this.globalState.accessible.get(record);
         }
-        return this.globalState.accessible.get(record);
     }
 
     public void setAccessible(AbstractMetadataRecord record, Boolean result) {
-        if (this.globalState.accessible == null) {
-            this.globalState.accessible = new LRUCache<>(1000);
+        synchronized (this.globalState) {
+            if (this.globalState.accessible == null) {
+                this.globalState.accessible = new LRUCache<>(1000);
+            }
+            this.globalState.accessible.put(record, result);
         }
-        this.globalState.accessible.put(record, result);
     }
 
     public Throwable getBatchUpdateException() {
@@ -1195,12 +1226,20 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
     }
 
     public boolean isParallel() {
-        return this.globalState.parallel;
+        return Boolean.TRUE.equals(this.globalState.parallel.get());
     }
 
+    /**
+     * Set the parallel flag for the current thread
+     * @return the previous value
+     */
     public boolean setParallel(boolean value) {
-        boolean result = this.globalState.parallel;
-        this.globalState.parallel = value;
+        boolean result = isParallel();
+        if (value) {
+            this.globalState.parallel.set(Boolean.TRUE);
+        } else {
+            this.globalState.parallel.remove();
+        }
         return result;
     }
 
@@ -39,6 +39,13 @@ public class Options {
     public static final String MAX_SESSION_BUFFER_SIZE_ESTIMATE = "org.teiid.maxSessionBufferSizeEstimate"; //$NON-NLS-1$
     public static final String TRACING_WITH_ACTIVE_SPAN_ONLY = "org.teiid.tracingWithActiveSpanOnly"; //$NON-NLS-1$
     public static final String ENFORCE_SINGLE_MAX_BUFFER_SIZE_ESTIMATE = "org.teiid.enforceSingleMaxBufferSizeEstimate"; //$NON-NLS-1$
+    public static final String HASH_GROUPING_MAX_GROUPS = "org.teiid.hashGroupingMaxGroups"; //$NON-NLS-1$
+    public static final String HASH_JOIN = "org.teiid.hashJoin"; //$NON-NLS-1$
+    public static final String DEPENDENT_JOIN_BLOOM_FILTER = "org.teiid.dependentJoinBloomFilter"; //$NON-NLS-1$
+    public static final String PARALLEL_UNION = "org.teiid.parallelUnion"; //$NON-NLS-1$
+    public static final String COMPILED_EXPRESSIONS = "org.teiid.compiledExpressions"; //$NON-NLS-1$
+    public static final String PARALLEL_TEXT_TABLE = "org.teiid.parallelTextTable"; //$NON-NLS-1$
+    public static final String PARALLEL_TEXT_TABLE_CHUNK_SIZE = "org.teiid.parallelTextTableChunkSize"; //$NON-NLS-1$
 
     private Properties properties;
     private boolean subqueryUnnestDefault = false;
@@ -54,6 +61,13 @@ public class Options {
     private boolean tracingWithActiveSpanOnly = true;
     private boolean enforceSingleMaxBufferSizeEstimate = false;
     private boolean relativeXPath = true;
+    private int hashGroupingMaxGroups = 50000;
+    private boolean hashJoin;
+    private boolean dependentJoinBloomFilter;
+    private boolean parallelUnion;
+    private boolean compiledExpressions = true;
+    private boolean parallelTextTable;
+    private int parallelTextTableChunkSize = 1 << 22;
 
     public Properties getProperties() {
         return properties;
@@ -238,4 +252,95 @@ public class Options {
         return this;
     }
 
+    public int getHashGroupingMaxGroups() {
+        return hashGroupingMaxGroups;
+    }
+
+    public void setHashGroupingMaxGroups(int hashGroupingMaxGroups) {
+        this.hashGroupingMaxGroups = hashGroupingMaxGroups;
+    }
+
+    public Options hashGroupingMaxGroups(int i) {
+        this.hashGroupingMaxGroups = i;
+        return this;
+    }
+
+    public boolean isHashJoin() {
+        return hashJoin;
+    }
+
+    public void setHashJoin(boolean hashJoin) {
+        this.hashJoin = hashJoin;
+    }
+
+    public Options hashJoin(boolean b) {
+        this.hashJoin = b;
+        return this;
+    }
+
+    public boolean isDependentJoinBloomFilter() {
+        return dependentJoinBloomFilter;
+    }
+
+    public void setDependentJoinBloomFilter(boolean dependentJoinBloomFilter) {
+        this.dependentJoinBloomFilter = dependentJoinBloomFilter;
+    }
+
+    public Options dependentJoinBloomFilter(boolean b) {
+        this.dependentJoinBloomFilter = b;
+        return this;
+    }
+
+    public boolean isParallelUnion() {
+        return parallelUnion;
+    }
+
+    public void setParallelUnion(boolean parallelUnion) {
+        this.parallelUnion = parallelUnion;
+    }
+
+    public Options parallelUnion(boolean b) {
+        this.parallelUnion = b;
+        return this;
+    }
+
+    public boolean isCompiledExpressions() {
+        return compiledExpressions;
+    }
+
+    public void setCompiledExpressions(boolean compiledExpressions) {
+        this.compiledExpressions = compiledExpressions;
+    }
+
+    public Options compiledExpressions(boolean b) {
+        this.compiledExpressions = b;
+        return this;
+    }
+
+    public boolean isParallelTextTable() {
+        return parallelTextTable;
+    }
+
+    public void setParallelTextTable(boolean parallelTextTable) {
+        this.parallelTextTable = parallelTextTable;
+    }
+
+    public Options parallelTextTable(boolean b) {
+        this.parallelTextTable = b;
+        return this;
+    }
+
+    public int getParallelTextTableChunkSize() {
+        return parallelTextTableChunkSize;
+    }
+
+    public void setParallelTextTableChunkSize(int parallelTextTableChunkSize) {
+        this.parallelTextTableChunkSize = parallelTextTableChunkSize;
+    }
+
+    public Options parallelTextTableChunkSize(int i) {
+        this.parallelTextTableChunkSize = i;
+        return this;
+    }
+
 }
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -110,6 +111,99 @@ public class TestLobManager {
 
     }
 
+    @Test public void testSharedPersistence() throws Exception{
+        BufferManager buffMgr = BufferManagerFactory.getStandaloneBufferManager();
+
+        FileStore fs = buffMgr.createFileStore("blob");
+        FileStoreInputStreamFactory fsisf = new FileStoreInputStreamFactory(fs, Streamable.ENCODING);
+        FileStoreOutputStream fsos = fsisf.getOuputStream();
+        byte[] b = new byte[LobManager.MIN_MAPPED_LENGTH];
+        b[b.length - 1] = 1;
+        fsos.write(b);
+        fsos.close();
+        BlobType blob = new BlobType(new BlobImpl(fsisf));
+        List<?> tuple = Arrays.asList(blob);
+
+        FileStore fs1 = buffMgr.createFileStore("lobs1");
+        LobManager lobManager1 = new LobManager(new int[] {0}, fs1);
+        lobManager1.updateReferences(tuple, ReferenceMode.CREATE);
+        lobManager1.persist();
+        long length = fs1.getLength();
+        assertEquals(b.length, length);
+
+        //should be served from a view of the store
+        InputStream is = blob.getBinaryStream();
+        assertTrue(is instanceof ExtensibleBufferedInputStream);
+        assertEquals(b.length, ((ExtensibleBufferedInputStream)is).getBuffer().remaining());
+
+        //should reference rather than copy
+        FileStore fs2 = buffMgr.createFileStore("lobs2");
+        LobManager lobManager2 = new LobManager(new int[] {0}, fs2);
+        lobManager2.updateReferences(tuple, ReferenceMode.CREATE);
+        lobManager2.persist();
+        lobManager1.persist();
+        assertEquals(0, fs2.getLength());
+        assertEquals(length, fs1.getLength());
+
+        lobManager1.remove();
+        assertFalse(fs1.isRemoved());
+        assertTrue(Arrays.equals(b, ObjectConverterUtil.convertToByteArray(blob.getBinaryStream())));
+
+        lobManager2.remove();
+        assertTrue(fs1.isRemoved());
+        assertTrue(fs2.isRemoved());
+        try {
+            blob.getBinaryStream();
+            fail();
+        } catch (SQLException e) {
+            //expected
+        }
+    }
+
+    @Test public void testSharedPersistenceCycle() throws Exception{
+        BufferManager buffMgr = BufferManagerFactory.getStandaloneBufferManager();
+        byte[] b = new byte[LobManager.MIN_MAPPED_LENGTH];
+        BlobType blobA = createBlob(buffMgr, b);
+        BlobType blobB = createBlob(buffMgr, b);
+
+        FileStore fsA = buffMgr.createFileStore("lobsA");
+        LobManager lobManagerA = new LobManager(new int[] {0}, fsA);
+        lobManagerA.updateReferences(Arrays.asList(blobA), ReferenceMode.CREATE);
+        lobManagerA.persist();
+
+        FileStore fsB = buffMgr.createFileStore("lobsB");
+        LobManager lobManagerB = new LobManager(new int[] {0}, fsB);
+        lobManagerB.updateReferences(Arrays.asList(blobB), ReferenceMode.CREATE);
+        lobManagerB.persist();
+        assertEquals(b.length, fsA.getLength());
+        assertEquals(b.length, fsB.getLength());
+
+        //b references the lob persisted by a
+        lobManagerB.updateReferences(Arrays.asList(blobA), ReferenceMode.CREATE);
+        lobManagerB.persist();
+        assertEquals(b.length, fsB.getLength());
+
+        //a must copy the lob persisted by b rather than reference it
+        lobManagerA.updateReferences(Arrays.asList(blobB), ReferenceMode.CREATE);
+        lobManagerA.persist();
+        assertEquals(2 * b.length, fsA.getLength());
+
+        lobManagerA.remove();
+        assertFalse(fsA.isRemoved());
+        lobManagerB.remove();
+        assertTrue(fsA.isRemoved());
+        assertTrue(fsB.isRemoved());
+    }
+
+    private BlobType createBlob(BufferManager buffMgr, byte[] b) throws IOException {
+        FileStore fs = buffMgr.createFileStore("blob");
+        FileStoreInputStreamFactory fsisf = new FileStoreInputStreamFactory(fs, Streamable.ENCODING);
+        FileStoreOutputStream fsos = fsisf.getOuputStream();
+        fsos.write(b);
+        fsos.close();
+        return new BlobType(new BlobImpl(fsisf));
+    }
+
     @Test public void testInlining() throws Exception{
 
         BufferManager buffMgr = BufferManagerFactory.getStandaloneBufferManager();
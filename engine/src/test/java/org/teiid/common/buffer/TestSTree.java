@@ -20,9 +20,15 @@ package org.teiid.common.buffer;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.teiid.common.buffer.STree.InsertMode;
@@ -31,6 +37,7 @@ import org.teiid.common.buffer.impl.BufferManagerImpl;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.query.processor.CollectionTupleSource;
+import org.teiid.query.sql.lang.OrderBy;
 import org.teiid.query.sql.symbol.ElementSymbol;
 
 @SuppressWarnings({"nls", "unchecked"})
@@ -202,4 +209,125 @@ public class TestSTree {
         assertEquals(Integer.valueOf(0), tb.getValueCount());
     }
 
+    @Test public void testConcurrentFind() throws Exception {
+        BufferManagerImpl bm = BufferManagerFactory.createBufferManager();
+        bm.setProcessorBatchSize(16);
+
+        ElementSymbol e1 = new ElementSymbol("x");
+        e1.setType(Integer.class);
+        ElementSymbol e2 = new ElementSymbol("y");
+        e2.setType(Integer.class);
+        List<ElementSymbol> elements = Arrays.asList(e1, e2);
+        final STree map = bm.createConcurrentSTree(elements, "1", 1);
+        assertTrue(map instanceof ConcurrentSTree);
+
+        final int size = 1<<14;
+        //even keys are always present, odd keys are added and removed
+        for (int i = 0; i < size; i+=2) {
+            assertNull(map.insert(Arrays.asList(i, i), InsertMode.NEW, -1));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 3; t++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 0; i < size; i+=2) {
+                            assertEquals(Arrays.asList(i, i), map.find(Arrays.asList(i)));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (int i = 1; i < size; i+=2) {
+                        assertNull(map.insert(Arrays.asList(i, i), InsertMode.NEW, -1));
+                    }
+                    for (int i = 1; i < size; i+=2) {
+                        assertNotNull(map.remove(Arrays.asList(i)));
+                    }
+                    return null;
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(size/2, map.getRowCount());
+    }
+
+    @Test(timeout=60000) public void testConcurrentScanDuringUpdates() throws Exception {
+        BufferManagerImpl bm = BufferManagerFactory.createBufferManager();
+        bm.setProcessorBatchSize(16);
+
+        ElementSymbol e1 = new ElementSymbol("x");
+        e1.setType(Integer.class);
+        ElementSymbol e2 = new ElementSymbol("y");
+        e2.setType(Integer.class);
+        List<ElementSymbol> elements = Arrays.asList(e1, e2);
+        final STree map = bm.createConcurrentSTree(elements, "1", 1);
+
+        final int size = 1<<12;
+        //even keys are always present, odd keys are added and removed during the scan
+        for (int i = 0; i < size; i+=2) {
+            assertNull(map.insert(Arrays.asList(i, i), InsertMode.NEW, -1));
+        }
+
+        for (boolean direction : new boolean[] {OrderBy.ASC, OrderBy.DESC}) {
+            TupleBrowser browser = map.createTupleBrowser(null, null, direction, true);
+            List<?> first = browser.nextTuple();
+            assertEquals(direction?0:size-2, first.get(0));
+
+            //the update completes while the scan is open
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 1; i < size; i+=2) {
+                            assertNull(map.insert(Arrays.asList(i, i), InsertMode.NEW, -1));
+                        }
+                        for (int i = 0; i < size; i+=2) {
+                            assertNotNull(map.insert(Arrays.asList(i, -i), InsertMode.UPDATE, -1));
+                        }
+                        for (int i = 1; i < size; i+=4) {
+                            assertNotNull(map.remove(Arrays.asList(i)));
+                        }
+                        return null;
+                    }
+                }).get(10, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            //the browser may return tuples read before the update, but must
+            //return every retained key once and in order
+            List<Integer> evens = new ArrayList<Integer>();
+            Integer previous = (Integer)first.get(0);
+            for (List<?> tuple = browser.nextTuple(); tuple != null; tuple = browser.nextTuple()) {
+                Integer key = (Integer)tuple.get(0);
+                assertTrue(direction ? key > previous : key < previous);
+                previous = key;
+                if (key % 2 == 0) {
+                    evens.add(key);
+                    assertEquals(Math.abs(key), Math.abs((Integer)tuple.get(1)));
+                } else {
+                    assertEquals(3, key % 4);
+                }
+            }
+            assertEquals(size/2 - 1, evens.size());
+
+            //restore for the next pass
+            for (int i = 1; i < size; i+=2) {
+                map.remove(Arrays.asList(i));
+            }
+        }
+    }
+
 }
@@ -20,6 +20,7 @@ package org.teiid.common.buffer;
 
 import static org.junit.Assert.*;
 
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
 
@@ -156,4 +157,45 @@ public class TestTupleBuffer {
         assertNotNull(tb.getLobReference(c.getReferenceStreamId()));
     }
 
+    @Test public void testColumnarBatch() throws Exception {
+        ElementSymbol x = new ElementSymbol("x"); //$NON-NLS-1$
+        x.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+        ElementSymbol y = new ElementSymbol("y"); //$NON-NLS-1$
+        y.setType(DataTypeManager.DefaultDataClasses.TIMESTAMP);
+        ElementSymbol z = new ElementSymbol("z"); //$NON-NLS-1$
+        z.setType(DataTypeManager.DefaultDataClasses.BOOLEAN);
+        ElementSymbol s = new ElementSymbol("s"); //$NON-NLS-1$
+        s.setType(DataTypeManager.DefaultDataClasses.STRING);
+        List<ElementSymbol> schema = Arrays.asList(x, y, z, s);
+        TupleBuffer tb = BufferManagerFactory.getStandaloneBufferManager().createTupleBuffer(schema, "x", TupleSourceType.PROCESSOR); //$NON-NLS-1$
+        Timestamp ts = new Timestamp(1000);
+        ts.setNanos(123456789);
+        List<?>[] rows = new List<?>[] {
+                Arrays.asList(1, ts, true, "a"), //$NON-NLS-1$
+                Arrays.asList(null, null, null, null),
+                Arrays.asList(-1, new Timestamp(0), false, "b"), //$NON-NLS-1$
+        };
+        tb.setColumnarBatches(true);
+        for (List<?> row : rows) {
+            tb.addTuple(row);
+        }
+        tb.saveBatch();
+        tb.close();
+        TupleBatch batch = tb.getBatch(1);
+        assertEquals(Arrays.asList(rows), batch.getTuples());
+        assertEquals(123456789, ((Timestamp)batch.getTuples().get(0).get(1)).getNanos());
+    }
+
+    @Test public void testColumnarBatchMixedClasses() {
+        List<?>[] rows = new List<?>[] {
+                Arrays.asList(1, 2l),
+                Arrays.asList(3, 4),
+        };
+        List<? extends List<?>> batch = ColumnarBatch.create(new Class<?>[] {DataTypeManager.DefaultDataClasses.INTEGER, DataTypeManager.DefaultDataClasses.LONG}, Arrays.asList(rows));
+        assertTrue(((ColumnarBatch)batch).isPrimitive(0));
+        //falls back to the values as is
+        assertFalse(((ColumnarBatch)batch).isPrimitive(1));
+        assertEquals(Arrays.asList(rows), batch);
+    }
+
 }
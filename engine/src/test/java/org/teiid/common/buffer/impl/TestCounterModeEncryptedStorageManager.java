@@ -0,0 +1,178 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.common.buffer.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.teiid.common.buffer.impl.CounterModeEncryptedStorageManager.CounterModeFileStore;
+
+public class TestCounterModeEncryptedStorageManager {
+
+    @Test public void testSetLength() throws Exception {
+        MemoryStorageManager msm = new MemoryStorageManager();
+        CounterModeEncryptedStorageManager ssm = new CounterModeEncryptedStorageManager(msm);
+        ssm.initialize();
+        CounterModeFileStore store = ssm.createFileStore("0"); //$NON-NLS-1$
+        TestFileStorageManager.writeBytes(store);
+        TestFileStorageManager.writeBytes(store);
+        assertEquals(4096, store.getLength());
+        assertEquals(4096, store.getFile().getLength());
+
+        //no padding is needed
+        store.setLength(100);
+        assertEquals(100, store.getLength());
+        assertEquals(100, store.getFile().getLength());
+        store.readFully(0, new byte[100], 0, 100);
+    }
+
+    @Test public void testReadWrite() throws Exception {
+        MemoryStorageManager msm = new MemoryStorageManager();
+        CounterModeEncryptedStorageManager ssm = new CounterModeEncryptedStorageManager(msm);
+        ssm.initialize();
+        CounterModeFileStore store = ssm.createFileStore("0"); //$NON-NLS-1$
+        for (int i = 0; i < 500; i++) {
+            byte[] b = new byte[i];
+            Arrays.fill(b, (byte)i);
+            store.write(b, 0, i);
+            store.readFully(store.getLength()-b.length, b, 0, b.length);
+            for (int j = 0; j < b.length; j++) {
+                assertEquals((byte)i, b[j]);
+            }
+        }
+        int start = 0;
+        for (int i = 0; i < 500; i++) {
+            byte[] b = new byte[i];
+            store.readFully(start, b, 0, b.length);
+            for (int j = 0; j < b.length; j++) {
+                assertEquals((byte)i, b[j]);
+            }
+            start += i;
+        }
+        //overwrite an unaligned range
+        store.write(17, new byte[100], 0, 100);
+        byte[] b = new byte[102];
+        store.readFully(16, b, 0, b.length);
+        assertEquals(6, b[0]);
+        assertEquals(0, b[1]);
+        assertEquals(0, b[100]);
+        assertEquals(15, b[101]);
+    }
+
+    @Test public void testStoredBytes() throws Exception {
+        MemoryStorageManager msm = new MemoryStorageManager();
+        CounterModeEncryptedStorageManager ssm = new CounterModeEncryptedStorageManager(msm);
+        ssm.initialize();
+        CounterModeFileStore store = ssm.createFileStore("0"); //$NON-NLS-1$
+        CounterModeFileStore store1 = ssm.createFileStore("1"); //$NON-NLS-1$
+        byte[] b = new byte[64];
+        store.write(b, 0, b.length);
+        store1.write(b, 0, b.length);
+        byte[] stored = new byte[64];
+        store.getFile().readFully(0, stored, 0, stored.length);
+        byte[] stored1 = new byte[64];
+        store1.getFile().readFully(0, stored1, 0, stored1.length);
+        assertFalse(Arrays.equals(b, stored));
+        //identical blocks should not have the same storage bytes
+        assertFalse(Arrays.equals(Arrays.copyOf(stored, 16), Arrays.copyOfRange(stored, 16, 32)));
+        assertFalse(Arrays.equals(stored, stored1));
+    }
+
+    @Test public void testRewrite() throws Exception {
+        MemoryStorageManager msm = new MemoryStorageManager();
+        CounterModeEncryptedStorageManager ssm = new CounterModeEncryptedStorageManager(msm);
+        ssm.initialize();
+        CounterModeFileStore store = ssm.createFileStore("0"); //$NON-NLS-1$
+        byte[] b = new byte[100];
+        Arrays.fill(b, (byte)1);
+        store.write(0, b, 0, b.length);
+        byte[] stored = new byte[100];
+        store.getFile().readFully(0, stored, 0, stored.length);
+        store.write(0, b, 0, b.length);
+        byte[] stored1 = new byte[100];
+        store.getFile().readFully(0, stored1, 0, stored1.length);
+        //the same bytes at the same offset should not use the same key stream
+        assertFalse(Arrays.equals(stored, stored1));
+
+        //a partial rewrite re-encrypts the rest of the segment
+        store.write(20, new byte[10], 0, 10);
+        byte[] stored2 = new byte[100];
+        store.getFile().readFully(0, stored2, 0, stored2.length);
+        assertFalse(Arrays.equals(Arrays.copyOf(stored1, 20), Arrays.copyOf(stored2, 20)));
+        byte[] result = new byte[100];
+        store.readFully(0, result, 0, result.length);
+        for (int i = 0; i < result.length; i++) {
+            assertEquals(i >= 20 && i < 30 ? 0 : 1, result[i]);
+        }
+
+        //spanning a segment boundary
+        b = new byte[10000];
+        Arrays.fill(b, (byte)2);
+        store.write(50, b, 0, b.length);
+        store.write(8190, new byte[4], 0, 4);
+        result = new byte[10050];
+        store.readFully(0, result, 0, result.length);
+        for (int i = 0; i < result.length; i++) {
+            int expected = 2;
+            if (i < 50) {
+                expected = i >= 20 && i < 30 ? 0 : 1;
+            } else if (i >= 8190 && i < 8194) {
+                expected = 0;
+            }
+            assertEquals(expected, result[i]);
+        }
+    }
+
+    @Test public void testConcurrentAccess() throws Exception {
+        FileChannelStorageManager fsm = TestFileChannelStorageManager.getStorageManager(null, false);
+        CounterModeEncryptedStorageManager ssm = new CounterModeEncryptedStorageManager(fsm);
+        ssm.initialize();
+        final CounterModeFileStore store = ssm.createFileStore("0"); //$NON-NLS-1$
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 8; i++) {
+                final int index = i;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < 20; j++) {
+                            TestFileStorageManager.writeBytes(store, (index * 20 + j) * 2048 + index);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.common.buffer.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.teiid.common.buffer.FileStore;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.util.UnitTestUtil;
+
+@SuppressWarnings("nls")
+public class TestFileChannelStorageManager {
+
+    public static FileChannelStorageManager getStorageManager(Integer openFiles, boolean writeBehind) throws TeiidComponentException {
+        FileChannelStorageManager sm = new FileChannelStorageManager();
+        sm.setStorageDirectory(UnitTestUtil.getTestScratchPath() + File.separator + "channel");
+        if (openFiles != null) {
+            sm.setMaxOpenFiles(openFiles);
+        }
+        sm.setWriteBehind(writeBehind);
+        sm.initialize();
+        return sm;
+    }
+
+    @Test public void testInitialRead() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(null, false);
+        FileStore store = sm.createFileStore("0");
+        assertEquals(-1, store.read(0, new byte[1], 0, 1));
+    }
+
+    @Test public void testPositionalWrite() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(null, false);
+        FileStore store = sm.createFileStore("0");
+        byte[] expectedBytes = TestFileStorageManager.writeBytes(store, 2048);
+        assertEquals(4096, sm.getUsedBufferSpace());
+
+        TestFileStorageManager.writeBytes(store, 4096);
+        assertEquals(6144, sm.getUsedBufferSpace());
+
+        byte[] bytesRead = new byte[2048];
+        store.readFully(2048, bytesRead, 0, bytesRead.length);
+        assertArrayEquals(expectedBytes, bytesRead);
+
+        //unwritten space reads as zeros
+        store.readFully(0, bytesRead, 0, bytesRead.length);
+        assertArrayEquals(new byte[2048], bytesRead);
+
+        store.remove();
+        assertEquals(0, sm.getUsedBufferSpace());
+    }
+
+    @Test(expected=IOException.class) public void testMaxSpace() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(null, false);
+        sm.setMaxBufferSpace(1);
+        FileStore store = sm.createFileStore("0");
+        try {
+            TestFileStorageManager.writeBytes(store);
+        } finally {
+            assertEquals(1, sm.getOutOfDiskErrorCount());
+            assertEquals(0, sm.getUsedBufferSpace());
+        }
+    }
+
+    @Test public void testSetLength() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(null, false);
+        FileStore store = sm.createFileStore("0");
+        store.setLength(1000);
+        assertEquals(1000, sm.getUsedBufferSpace());
+        assertEquals(1000, store.read(0, new byte[1000], 0, 1000));
+
+        store.setLength(200);
+        assertEquals(200, sm.getUsedBufferSpace());
+        assertEquals(200, store.getLength());
+    }
+
+    @Test public void testGatheringWrite() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(null, false);
+        FileStore store = sm.createFileStore("0");
+        ByteBuffer direct = ByteBuffer.allocateDirect(3);
+        direct.put(new byte[] {3, 4, 5});
+        direct.flip();
+        store.write(1, new ByteBuffer[] {ByteBuffer.wrap(new byte[] {1, 2}), direct});
+        assertEquals(6, store.getLength());
+        assertEquals(0, direct.position());
+        byte[] bytesRead = new byte[6];
+        store.readFully(0, bytesRead, 0, bytesRead.length);
+        assertArrayEquals(new byte[] {0, 1, 2, 3, 4, 5}, bytesRead);
+    }
+
+    @Test public void testMaxOpenFiles() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(1, false);
+        FileStore store = sm.createFileStore("0");
+        FileStore store1 = sm.createFileStore("1");
+        byte[] bytes = TestFileStorageManager.writeBytes(store, 0);
+        TestFileStorageManager.writeBytes(store1, 0);
+        assertEquals(1, sm.getOpenFiles());
+        //should reopen
+        byte[] bytesRead = new byte[2048];
+        store.readFully(0, bytesRead, 0, bytesRead.length);
+        assertArrayEquals(bytes, bytesRead);
+        assertEquals(1, sm.getOpenFiles());
+    }
+
+    @Test public void testWriteBehind() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(null, true);
+        FileStore store = sm.createFileStore("0");
+        byte[] bytes = new byte[] {1, 2, 3};
+        store.write(0, bytes, 0, bytes.length);
+        //the caller may reuse the bytes
+        bytes[0] = 0;
+        TestFileStorageManager.writeBytes(store);
+        byte[] bytesRead = new byte[3];
+        store.readFully(0, bytesRead, 0, bytesRead.length);
+        assertArrayEquals(new byte[] {1, 2, 3}, bytesRead);
+        assertEquals(2051, sm.getUsedBufferSpace());
+        store.setLength(1);
+        assertEquals(1, store.read(0, bytesRead, 0, bytesRead.length));
+        store.remove();
+        assertEquals(0, sm.getUsedBufferSpace());
+    }
+
+    @Test public void testShutdownWriteBehind() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(null, true);
+        FileStore store = sm.createFileStore("0");
+        for (int i = 0; i < 100; i++) {
+            store.write(i, new byte[] {(byte)i}, 0, 1);
+        }
+        sm.shutdown();
+        //pending writes are complete and later writes are direct
+        store.write(100, new byte[] {1, 2, 3}, 0, 3);
+        byte[] bytesRead = new byte[103];
+        store.readFully(0, bytesRead, 0, bytesRead.length);
+        assertEquals(99, bytesRead[99]);
+        assertEquals(3, bytesRead[102]);
+        assertEquals(103, sm.getUsedBufferSpace());
+        sm.shutdown();
+        store.remove();
+    }
+
+    @Test public void testMaxPendingBytes() throws Exception {
+        FileChannelStorageManager sm = new FileChannelStorageManager();
+        sm.setStorageDirectory(UnitTestUtil.getTestScratchPath() + File.separator + "channel");
+        sm.setWriteBehind(true);
+        sm.setMaxPendingBytes(4);
+        sm.initialize();
+        FileStore store = sm.createFileStore("0");
+        for (int i = 0; i < 100; i++) {
+            store.write(0, new byte[] {(byte)i, (byte)i}, 0, 2);
+        }
+        //over the bound, so written directly after the queued writes
+        store.write(0, new byte[] {1, 2, 3, 4, 5}, 0, 5);
+        byte[] bytesRead = new byte[5];
+        store.readFully(0, bytesRead, 0, bytesRead.length);
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, bytesRead);
+        sm.shutdown();
+        store.remove();
+    }
+
+    @Test public void testMap() throws Exception {
+        FileChannelStorageManager sm = getStorageManager(null, true);
+        FileStore store = sm.createFileStore("0");
+        store.write(0, new byte[] {1, 2, 3}, 0, 3);
+        ByteBuffer bb = store.map(1, 2);
+        assertEquals(2, bb.get());
+        assertNull(store.map(1, 3));
+    }
+
+}
@@ -24,6 +24,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Random;
 
@@ -156,6 +157,24 @@ public class TestFileStorageManager {
         fsos.close();
     }
 
+    @Test public void testMap() throws Exception {
+        FileStorageManager sm = getStorageManager(null, null);
+        FileStore store = sm.createFileStore("0");
+        assertNull(store.map(0, 1));
+        store.write(new byte[] {1, 2, 3}, 0, 3);
+        ByteBuffer bb = store.map(1, 2);
+        assertEquals(2, bb.remaining());
+        assertEquals(2, bb.get());
+        assertNull(store.map(1, 3));
+        store.remove();
+        try {
+            store.map(1, 2);
+            fail();
+        } catch (IOException e) {
+            //expected
+        }
+    }
+
     static Random r = new Random();
 
     static void writeBytes(FileStore store) throws IOException {
@@ -0,0 +1,101 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.metadata;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.teiid.core.util.UnitTestUtil;
+import org.teiid.metadata.ForeignKey;
+import org.teiid.metadata.MetadataFactory;
+import org.teiid.metadata.Table;
+import org.teiid.query.parser.TestDDLParser;
+
+@SuppressWarnings("nls")
+public class TestMetadataSnapshot {
+
+    private static final String DDL = "CREATE FOREIGN TABLE G1 (g1e1 integer, g1e2 varchar(10) NOT NULL, g1e3 decimal(10,2), g1e4 string[], "
+            + "PRIMARY KEY (g1e1), UNIQUE (g1e2), INDEX (g1e2, g1e3), ACCESSPATTERN (g1e1)) OPTIONS (CARDINALITY 12, UPDATABLE true, ANNOTATION 'g1', \"custom\" 'value');\n"
+            + "CREATE FOREIGN TABLE G2 (g2e1 integer OPTIONS (NAMEINSOURCE 'e_1', SEARCHABLE 'UNSEARCHABLE'), g2e2 varchar, "
+            + "FOREIGN KEY (g2e1) REFERENCES G1 (g1e1)) OPTIONS (NAMEINSOURCE 'g_2');\n"
+            + "CREATE VIEW V1 (e1 integer) AS SELECT g1e1 FROM G1;\n"
+            + "CREATE FOREIGN PROCEDURE P1 (OUT p1 boolean, p2 varchar, INOUT p3 decimal) RETURNS (r1 string, r2 integer);";
+
+    private File write(MetadataFactory mf) throws Exception {
+        File f = new File(UnitTestUtil.getTestScratchPath(), "snapshot.bin");
+        f.delete();
+        MetadataSnapshot.write(mf, f);
+        return f;
+    }
+
+    @Test public void testRoundTrip() throws Exception {
+        MetadataFactory mf = TestDDLParser.helpParse(DDL, "model");
+        Table g2 = mf.getSchema().getTable("G2");
+        g2.getForeignKeys().get(0).setReferenceKey(mf.getSchema().getTable("G1").getPrimaryKey());
+        assertTrue(MetadataSnapshot.isSupported(mf));
+
+        MetadataSnapshot snapshot = MetadataSnapshot.open(write(mf));
+        MetadataFactory result = snapshot.getMetadataFactory();
+        result.correctDatatypes(TestDDLParser.getDataTypes());
+
+        assertEquals(DDLStringVisitor.getDDLString(mf.getSchema(), null, null), DDLStringVisitor.getDDLString(result.getSchema(), null, null));
+        assertEquals(mf.getSchema().getUUID(), result.getSchema().getUUID());
+        assertEquals(mf.getSchema().getResolvingOrder().toString(), result.getSchema().getResolvingOrder().toString());
+
+        Table g1 = result.getSchema().getTable("g1");
+        assertSame(TestDDLParser.getDataTypes().get("integer"), g1.getColumns().get(0).getDatatype());
+        assertEquals(1, g1.getColumns().get(3).getArrayDimensions());
+        assertEquals(12, g1.getCardinality());
+        ForeignKey fk = result.getSchema().getTable("g2").getForeignKeys().get(0);
+        assertSame(g1.getPrimaryKey(), fk.getReferenceKey());
+        assertSame(g1, fk.getReferenceKey().getParent());
+    }
+
+    @Test public void testLazyRecords() throws Exception {
+        MetadataFactory mf = TestDDLParser.helpParse(DDL, "model");
+        MetadataSnapshot snapshot = MetadataSnapshot.open(write(mf));
+
+        assertEquals(3, snapshot.getTableNames().size());
+        assertNull(snapshot.getTable("G3"));
+        Table g2 = snapshot.getTable("g2");
+        assertSame(g2, snapshot.getTable("G2"));
+        assertEquals("g_2", g2.getNameInSource());
+        assertEquals("e_1", g2.getColumns().get(0).getNameInSource());
+        assertEquals("G1", g2.getForeignKeys().get(0).getReferenceTableName());
+        assertEquals(2, snapshot.getProcedure("p1").getResultSet().getColumns().size());
+    }
+
+    @Test public void testNotSupported() throws Exception {
+        MetadataFactory mf = TestDDLParser.helpParse(DDL + "CREATE FOREIGN FUNCTION SourceFunc(flag boolean) RETURNS varchar;", "model");
+        assertFalse(MetadataSnapshot.isSupported(mf));
+    }
+
+    @Test(expected=IOException.class) public void testInvalidFile() throws Exception {
+        File f = new File(UnitTestUtil.getTestScratchPath(), "snapshot.bin");
+        f.delete();
+        f.getParentFile().mkdirs();
+        Files.write(f.toPath(), new byte[100]);
+        MetadataSnapshot.open(f);
+    }
+
+}
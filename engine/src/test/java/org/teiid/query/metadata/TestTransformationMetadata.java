@@ -205,4 +205,23 @@ public class TestTransformationMetadata {
         }
     }
 
+    @Test public void testInvalidCacheSize() throws Exception {
+        TransformationMetadata tm = exampleTransformationMetadata();
+        VDBMetaData vdb = tm.getVdbMetaData();
+        for (String size : new String[] {"x", "0", "-1"}) {
+            vdb.addProperty(TransformationMetadata.METADATA_CACHE_SIZE, size);
+            //falls back to the default size
+            tm = new TransformationMetadata(vdb, tm.getMetadataStore(), null, RealMetadataFactory.SFM.getSystemFunctions(), null);
+            tm.getElementID("x.FoO.coL");
+        }
+    }
+
+    @Test public void testClearCaches() throws Exception {
+        TransformationMetadata tm = exampleTransformationMetadata();
+        tm.getStoredProcedureInfoForProcedure("x.y"); //$NON-NLS-1$
+        assertTrue(tm.buildCacheStats("vdb").getTotalEntries() > 0);
+        tm.clearCaches();
+        assertEquals(0, tm.buildCacheStats("vdb").getTotalEntries());
+    }
+
 }
@@ -54,6 +54,7 @@ import org.teiid.query.sql.lang.Query;
 import org.teiid.query.sql.lang.SetCriteria;
 import org.teiid.query.unittest.RealMetadataFactory;
 import org.teiid.query.util.CommandContext;
+import org.teiid.query.util.Options;
 import org.teiid.translator.ExecutionFactory.NullOrder;
 
 @SuppressWarnings({"rawtypes", "unchecked", "nls"})
@@ -1577,6 +1578,33 @@ public class TestDependentJoins {
         TestProcessor.helpProcess(plan, dataManager, expected);
     }
 
+    @Test public void testDependentJoinBloomFilter() {
+        String sql = "SELECT pm1.g1.e1 FROM pm1.g1, pm2.g1 WHERE pm1.g1.e1=pm2.g1.e1 option makedep pm1.g1"; //$NON-NLS-1$
+
+        List[] expected = new List[] {
+            Arrays.asList("a"), //$NON-NLS-1$
+            Arrays.asList("b"), //$NON-NLS-1$
+            Arrays.asList("c"), //$NON-NLS-1$
+        };
+
+        HardcodedDataManager dataManager = new HardcodedDataManager();
+        dataManager.addData("SELECT g_0.e1 AS c_0 FROM pm2.g1 AS g_0 ORDER BY c_0", Arrays.asList("a"), Arrays.asList("b"), Arrays.asList("c"));
+        //a single unrestricted dependent query rather than one per value
+        List<?>[] dependentRows = new List<?>[] {Arrays.asList("a"), Arrays.asList("b"), Arrays.asList("c"), Arrays.asList("d"), Arrays.asList("e")};
+        dataManager.addData("SELECT g_0.e1 AS c_0 FROM pm1.g1 AS g_0 ORDER BY c_0", dependentRows);
+        dataManager.addData("SELECT g_0.e1 AS c_0 FROM pm1.g1 AS g_0", dependentRows);
+
+        BasicSourceCapabilities bsc = TestOptimizer.getTypicalCapabilities();
+        bsc.setSourceProperty(Capability.MAX_IN_CRITERIA_SIZE, 1);
+        bsc.setSourceProperty(Capability.MAX_DEPENDENT_PREDICATES, 1);
+
+        ProcessorPlan plan = TestProcessor.helpGetPlan(sql, RealMetadataFactory.example1Cached(), new DefaultCapabilitiesFinder(bsc));
+
+        CommandContext cc = TestProcessor.createCommandContext();
+        cc.setOptions(new Options().dependentJoinBloomFilter(true));
+        TestProcessor.helpProcess(plan, cc, dataManager, expected);
+    }
+
     @Test public void testMultiCritDepJoin1WithLargeIn() {
         // Create query
         String sql = "SELECT pm1.g1.e1 FROM pm1.g1, pm2.g1 WHERE pm1.g1.e1=pm2.g1.e1 and pm1.g1.e2 IN (1,2,3) option makedep pm1.g1"; //$NON-NLS-1$
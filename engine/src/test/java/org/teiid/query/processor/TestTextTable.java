@@ -22,9 +22,14 @@ import static org.junit.Assert.*;
 import static org.teiid.query.optimizer.TestOptimizer.*;
 import static org.teiid.query.processor.TestProcessor.*;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.sql.rowset.serial.SerialClob;
 
@@ -48,6 +53,7 @@ import org.teiid.query.processor.relational.RelationalPlan;
 import org.teiid.query.sql.lang.Command;
 import org.teiid.query.unittest.RealMetadataFactory;
 import org.teiid.query.util.CommandContext;
+import org.teiid.query.util.Options;
 import org.teiid.query.validator.TestValidator;
 
 @SuppressWarnings({"unchecked", "nls"})
@@ -688,4 +694,73 @@ public class TestTextTable {
         process(sql, expected);
     }
 
+    private void helpProcessParallel(String sql, List<?>[] expected, ClobType file) throws Exception {
+        Command command = helpParse(sql);
+        CommandContext context = createCommandContext();
+        context.setOptions(new Options().parallelTextTable(true).parallelTextTableChunkSize(32));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        context.setExecutor(executor);
+        context.setMetadata(RealMetadataFactory.example1Cached());
+        setParameterValues(Arrays.asList(file), command, context);
+        try {
+            ProcessorPlan plan = helpGetPlan(command, RealMetadataFactory.example1Cached(), new DefaultCapabilitiesFinder(), context);
+            helpProcess(plan, context, new FakeDataManager(), expected);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ClobType clobFromString(String name, String value) throws Exception {
+        File f = UnitTestUtil.getTestScratchFile(name);
+        f.deleteOnExit();
+        FileOutputStream fos = new FileOutputStream(f);
+        try {
+            fos.write(value.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            fos.close();
+        }
+        return new ClobType(new ClobImpl(new InputStreamFactory.FileInputStreamFactory(f), -1));
+    }
+
+    @Test public void testParallel() throws Exception {
+        String sql = "SELECT * from texttable(? COLUMNS y integer, x string, z long, w for ordinality HEADER) x"; //$NON-NLS-1$
+
+        StringBuilder sb = new StringBuilder("x,y,z\r\n"); //$NON-NLS-1$
+        List<?>[] expected = new List<?>[100];
+        for (int i = 0; i < expected.length; i++) {
+            sb.append("\"a,\"\"").append(i).append("\" , ").append(i).append(" ,").append(-i * 10000000000L).append(i % 2 == 0 ? "\n" : "\r\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+            expected[i] = Arrays.asList(i, "a,\"" + i, -i * 10000000000L, i + 1); //$NON-NLS-1$
+        }
+
+        helpProcessParallel(sql, expected, clobFromString("parallel.csv", sb.toString())); //$NON-NLS-1$
+    }
+
+    @Test public void testParallelMultilineValue() throws Exception {
+        String sql = "SELECT * from texttable(? COLUMNS x string, y integer, w for ordinality) x"; //$NON-NLS-1$
+
+        StringBuilder sb = new StringBuilder();
+        List<?>[] expected = new List<?>[50];
+        for (int i = 0; i < expected.length; i++) {
+            if (i == 30) {
+                sb.append("\"a\nb\",").append(i).append("\n"); //$NON-NLS-1$ //$NON-NLS-2$
+                expected[i] = Arrays.asList("a\nb", i, i + 1); //$NON-NLS-1$
+            } else {
+                sb.append("ab,").append(i).append("\n"); //$NON-NLS-1$ //$NON-NLS-2$
+                expected[i] = Arrays.asList("ab", i, i + 1); //$NON-NLS-1$
+            }
+        }
+
+        helpProcessParallel(sql, expected, clobFromString("parallel-multiline.csv", sb.toString())); //$NON-NLS-1$
+    }
+
+    @Test public void testParallelFixed() throws Exception {
+        String sql = "select max(compkey), max(cdm_id), max(currency), max(\"start\"), max(maturity), max(amount), count(*) from texttable(? COLUMNS compkey string width 76, CDM_ID string width 14, CURRENCY string width 9, \"START\" string width 31, MATURITY string width 31, AMOUNT double width 21, RECORDSOURCE string width 13, SUMMIT_ID string width 15, RATE double width 20, SPREAD double width 20, DESK string width 14) x"; //$NON-NLS-1$
+
+        List<?>[] expected = new List<?>[] {
+                Arrays.asList("000369USD05/20/200405/20/2007", "000369", "USD", "12/18/2000", "12/19/2005", 6.7209685146E8, 52),
+        };
+
+        helpProcessParallel(sql, expected, clobFromFile("text/cdm_dos_win.txt")); //$NON-NLS-1$
+    }
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.processor.eval;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.query.eval.Evaluator;
+import org.teiid.query.eval.ExpressionCompiler;
+import org.teiid.query.eval.ExpressionCompiler.CompiledCriteria;
+import org.teiid.query.eval.ExpressionCompiler.CompiledExpression;
+import org.teiid.query.parser.QueryParser;
+import org.teiid.query.resolver.util.ResolverVisitor;
+import org.teiid.query.sql.LanguageObject;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.sql.symbol.Expression;
+import org.teiid.query.sql.visitor.ElementCollectorVisitor;
+import org.teiid.query.unittest.RealMetadataFactory;
+import org.teiid.query.util.CommandContext;
+
+@SuppressWarnings("nls")
+public class TestExpressionCompiler {
+
+    private static final List<?>[] TUPLES = new List<?>[] {
+        Arrays.asList("a", 1, true, 1.5),
+        Arrays.asList("b ", 2, false, 2.0),
+        Arrays.asList(null, 3, null, -1.0),
+        Arrays.asList("c", null, true, null),
+    };
+
+    private Evaluator getEvaluator(LanguageObject obj) {
+        Map<ElementSymbol, Integer> elements = new HashMap<ElementSymbol, Integer>();
+        for (ElementSymbol es : ElementCollectorVisitor.getElements(obj, false)) {
+            elements.put(es, Integer.valueOf(es.getShortName().substring(1)) - 1);
+        }
+        return new Evaluator(elements, null, new CommandContext());
+    }
+
+    private void helpTestCriteria(String sql) throws Exception {
+        Criteria crit = QueryParser.getQueryParser().parseCriteria(sql);
+        ResolverVisitor.resolveLanguageObject(crit, RealMetadataFactory.example1Cached());
+        Evaluator evaluator = getEvaluator(crit);
+        CompiledCriteria compiled = new ExpressionCompiler(evaluator).compile(crit);
+        for (List<?> tuple : TUPLES) {
+            assertEquals(sql + " " + tuple, evaluator.evaluateTVL(crit, tuple), compiled.evaluateTVL(tuple));
+        }
+    }
+
+    private void helpTestExpression(String sql) throws Exception {
+        Expression expr = QueryParser.getQueryParser().parseExpression(sql);
+        ResolverVisitor.resolveLanguageObject(expr, RealMetadataFactory.example1Cached());
+        Evaluator evaluator = getEvaluator(expr);
+        CompiledExpression compiled = new ExpressionCompiler(evaluator).compile(expr);
+        for (List<?> tuple : TUPLES) {
+            assertEquals(sql + " " + tuple, evaluator.evaluate(expr, tuple), compiled.evaluate(tuple));
+        }
+    }
+
+    @Test public void testCompare() throws Exception {
+        helpTestCriteria("pm1.g1.e2 > 1");
+        helpTestCriteria("pm1.g1.e4 <= 1.5");
+        helpTestCriteria("pm1.g1.e1 = 'b'");
+        helpTestCriteria("pm1.g1.e3 <> true");
+        helpTestCriteria("pm1.g1.e2 + 1 >= pm1.g1.e4");
+    }
+
+    @Test public void testCompoundAndNot() throws Exception {
+        helpTestCriteria("pm1.g1.e2 > 1 and pm1.g1.e3 = false");
+        helpTestCriteria("pm1.g1.e2 > 1 or pm1.g1.e1 is null");
+        helpTestCriteria("not (pm1.g1.e2 < 3 or pm1.g1.e4 is not null)");
+    }
+
+    @Test public void testSet() throws Exception {
+        helpTestCriteria("pm1.g1.e2 in (1, 3)");
+        helpTestCriteria("pm1.g1.e2 not in (1, 3)");
+        helpTestCriteria("pm1.g1.e2 in (1, null)");
+        helpTestCriteria("pm1.g1.e1 in ('b', pm1.g1.e1)");
+    }
+
+    @Test public void testInterpretedFallback() throws Exception {
+        helpTestCriteria("pm1.g1.e1 like 'a%'");
+        helpTestCriteria("case when pm1.g1.e3 then pm1.g1.e2 end = 1");
+    }
+
+    @Test public void testFunctions() throws Exception {
+        helpTestExpression("concat(pm1.g1.e1, 'x')");
+        helpTestExpression("ifnull(pm1.g1.e2, 0) * 2");
+        helpTestExpression("convert(pm1.g1.e4, string)");
+        helpTestExpression("coalesce(pm1.g1.e1, pm1.g1.e2, 'y')");
+    }
+
+    @Test public void testExceptionWrapping() throws Exception {
+        Criteria crit = QueryParser.getQueryParser().parseCriteria("pm1.g1.e2 / 0 = 1");
+        ResolverVisitor.resolveLanguageObject(crit, RealMetadataFactory.example1Cached());
+        Evaluator evaluator = getEvaluator(crit);
+        String expected = null;
+        try {
+            evaluator.evaluateTVL(crit, TUPLES[0]);
+            fail();
+        } catch (ExpressionEvaluationException e) {
+            expected = e.getMessage();
+        }
+        try {
+            new ExpressionCompiler(evaluator).compile(crit).evaluateTVL(TUPLES[0]);
+            fail();
+        } catch (ExpressionEvaluationException e) {
+            assertEquals(expected, e.getMessage());
+        }
+    }
+
+}
@@ -33,6 +33,7 @@ import org.teiid.api.exception.query.FunctionExecutionException;
 import org.teiid.client.plan.PlanNode;
 import org.teiid.common.buffer.BlockedException;
 import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.BufferManager.BufferReserveMode;
 import org.teiid.common.buffer.BufferManagerFactory;
 import org.teiid.common.buffer.TupleBatch;
 import org.teiid.common.buffer.impl.BufferManagerImpl;
@@ -478,6 +479,133 @@ public class TestGroupingNode {
         helpProcess(mgr, node, context, expected, null);
     }
 
+    @Test public void testHashGrouping() throws Exception {
+        BufferManager mgr = BufferManagerFactory.getStandaloneBufferManager();
+
+        GroupingNode node = getHashGroupingNode();
+        CommandContext context = new CommandContext("pid", "test", null, null,  1);               //$NON-NLS-1$ //$NON-NLS-2$
+
+        List[] expected = new List[] {
+            Arrays.asList(new Object[] { null, 1, 3l }),
+            Arrays.asList(new Object[] { 0, 1, 4l }),
+            Arrays.asList(new Object[] { 1, 1, 2l }),
+            Arrays.asList(new Object[] { 2, 4, 5l }),
+            Arrays.asList(new Object[] { 3, 1, 0l }),
+            Arrays.asList(new Object[] { 4, 2, 5l }),
+            Arrays.asList(new Object[] { 5, 1, 3l }),
+            Arrays.asList(new Object[] { 6, 2, 7l })
+        };
+
+        helpProcess(mgr, node, context, expected, null);
+        assertTrue(node.getDescriptionProperties().toString().contains("Hash Grouping"));
+    }
+
+    @Test public void testHashGroupingSpill() throws Exception {
+        BufferManagerImpl mgr = BufferManagerFactory.createBufferManager();
+        mgr.setProcessorBatchSize(2);
+        //nothing can be reserved without forcing, so the groups beyond the first batch will spill
+        mgr.setMaxReserveKB(0);
+
+        GroupingNode node = getHashGroupingNode();
+        CommandContext context = new CommandContext("pid", "test", null, null,  1);               //$NON-NLS-1$ //$NON-NLS-2$
+
+        int groups = 100;
+        List[] data = new List[groups * 2];
+        for (int i = 0; i < groups; i++) {
+            data[2*i] = Arrays.asList(i, 1);
+            data[2*i + 1] = Arrays.asList(groups - i - 1, 2);
+        }
+        FakeTupleSource dataSource = new FakeTupleSource(createTupleSource1().getSchema(), data);
+        RelationalNode dataNode = new FakeRelationalNode(0, dataSource, mgr.getProcessorBatchSize());
+        dataNode.setElements(dataSource.getSchema());
+        node.addChild(dataNode);
+        node.initialize(context, mgr, null);
+        node.open();
+
+        Map<Integer, List<?>> results = new HashMap<Integer, List<?>>();
+        while(true) {
+            TupleBatch batch = node.nextBatch();
+            for (List<?> tuple : batch.getTuples()) {
+                assertNull(results.put((Integer)tuple.get(0), tuple));
+            }
+            if(batch.getTerminationFlag()) {
+                break;
+            }
+        }
+        assertEquals(groups, results.size());
+        for (int i = 0; i < groups; i++) {
+            assertEquals(Arrays.asList(i, 2, 3l), results.get(i));
+        }
+        node.closeDirect();
+    }
+
+    @Test public void testHashGroupingSpillAfterReservationFails() throws Exception {
+        final int[] noWait = new int[1];
+        BufferManagerImpl mgr = BufferManagerFactory.initBufferManager(new BufferManagerImpl() {
+            @Override
+            public int reserveBuffers(int count, BufferReserveMode mode) {
+                //only the first reservation without forcing fails
+                if (mode == BufferReserveMode.NO_WAIT && noWait[0]++ == 0) {
+                    return 0;
+                }
+                return super.reserveBuffers(count, mode);
+            }
+        });
+        mgr.setProcessorBatchSize(2);
+
+        GroupingNode node = getHashGroupingNode();
+        CommandContext context = new CommandContext("pid", "test", null, null,  1);               //$NON-NLS-1$ //$NON-NLS-2$
+
+        int groups = 100;
+        List[] data = new List[groups * 2];
+        for (int i = 0; i < groups; i++) {
+            data[2*i] = Arrays.asList(i, 1);
+            data[2*i + 1] = Arrays.asList(groups - i - 1, 2);
+        }
+        FakeTupleSource dataSource = new FakeTupleSource(createTupleSource1().getSchema(), data);
+        RelationalNode dataNode = new FakeRelationalNode(0, dataSource, mgr.getProcessorBatchSize());
+        dataNode.setElements(dataSource.getSchema());
+        node.addChild(dataNode);
+        node.initialize(context, mgr, null);
+        node.open();
+
+        Map<Integer, List<?>> results = new HashMap<Integer, List<?>>();
+        while(true) {
+            TupleBatch batch = node.nextBatch();
+            for (List<?> tuple : batch.getTuples()) {
+                assertNull(results.put((Integer)tuple.get(0), tuple));
+            }
+            if(batch.getTerminationFlag()) {
+                break;
+            }
+        }
+        assertTrue(noWait[0] > 0);
+        assertEquals(groups, results.size());
+        for (int i = 0; i < groups; i++) {
+            assertEquals(Arrays.asList(i, 2, 3l), results.get(i));
+        }
+        node.closeDirect();
+    }
+
+    private GroupingNode getHashGroupingNode() {
+        GroupingNode node = new GroupingNode(1);
+        List outputElements = new ArrayList();
+        ElementSymbol col1 = new ElementSymbol("col1"); //$NON-NLS-1$
+        col1.setType(Integer.class);
+        ElementSymbol col2 = new ElementSymbol("col2"); //$NON-NLS-1$
+        col2.setType(Integer.class);
+        outputElements.add(col1);
+        outputElements.add(new AggregateSymbol("COUNT", false, null)); //$NON-NLS-1$
+        outputElements.add(new AggregateSymbol("SUM", false, col2)); //$NON-NLS-1$
+        node.setElements(outputElements);
+
+        List groupingElements = new ArrayList();
+        groupingElements.add(col1);
+        node.setOrderBy(new OrderBy(groupingElements).getOrderByItems());
+        node.setHashGrouping(true);
+        return node;
+    }
+
     private GroupingNode getExampleGroupingNode() {
         GroupingNode node = new GroupingNode(1);
         List outputElements = new ArrayList();
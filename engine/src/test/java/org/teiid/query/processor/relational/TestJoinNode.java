@@ -706,6 +706,75 @@ public class TestJoinNode {
         return data;
     }
 
+    @Test public void testHashJoin() throws Exception {
+        this.joinType = JoinType.JOIN_LEFT_OUTER;
+        expected = new List[] {
+            Arrays.asList(5, null),
+            Arrays.asList(3, null),
+            Arrays.asList(2, 2),
+            Arrays.asList(2, 2),
+            Arrays.asList(4, 4),
+            Arrays.asList(4, 4),
+            Arrays.asList(1, 1),
+            Arrays.asList(4, 4),
+            Arrays.asList(4, 4),
+            Arrays.asList(10, null),
+            Arrays.asList(11, null),
+            Arrays.asList(11, null),
+        };
+        helpCreateJoin();
+        this.joinStrategy = new HashJoinStrategy();
+        this.join.setJoinStrategy(joinStrategy);
+        helpTestJoinDirect(expected, 4, 100000);
+        assertEquals("HASH JOIN", this.joinStrategy.toString());
+    }
+
+    @Test public void testHashJoinPartitioned() throws Exception {
+        this.joinType = JoinType.JOIN_INNER;
+        this.leftTuples = createTuples(0, 200);
+        List[] data = new List[300];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = Arrays.asList(i % 150);
+        }
+        this.rightTuples = data;
+        helpCreateJoin();
+        this.joinStrategy = new HashJoinStrategy();
+        this.join.setJoinStrategy(joinStrategy);
+        BufferManagerImpl mgr = BufferManagerFactory.getTestBufferManager(1, 10);
+        CommandContext context = new CommandContext("pid", "test", null, null, 1);               //$NON-NLS-1$ //$NON-NLS-2$
+        join.addChild(leftNode);
+        join.addChild(rightNode);
+        leftNode.initialize(context, mgr, dataMgr);
+        rightNode.initialize(context, mgr, dataMgr);
+        join.initialize(context, mgr, dataMgr);
+        join.open();
+        Map<List<?>, Integer> counts = new HashMap<List<?>, Integer>();
+        int rows = 0;
+        while (true) {
+            try {
+                TupleBatch batch = join.nextBatch();
+                for (List<?> tuple : batch.getTuples()) {
+                    assertEquals(tuple.get(0), tuple.get(1));
+                    Integer count = counts.get(tuple);
+                    counts.put(tuple, count == null ? 1 : count + 1);
+                    rows++;
+                }
+                if (batch.getTerminationFlag()) {
+                    break;
+                }
+            } catch (BlockedException e) {
+                // ignore and retry
+            }
+        }
+        assertEquals("HASH JOIN RAN AS GRACE HASH JOIN", this.joinStrategy.toString());
+        join.close();
+        assertEquals(300, rows);
+        assertEquals(150, counts.size());
+        for (Integer count : counts.values()) {
+            assertEquals(Integer.valueOf(2), count);
+        }
+    }
+
     @Test public void testMergeJoinOptimization() throws Exception {
         helpTestEnhancedSortMergeJoin(99);
     }
@@ -22,9 +22,18 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.teiid.common.buffer.BlockedException;
 import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.BufferManagerFactory;
@@ -32,9 +41,11 @@ import org.teiid.common.buffer.TupleBatch;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.dqp.internal.process.RequestWorkItem;
 import org.teiid.query.processor.FakeDataManager;
 import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.util.CommandContext;
+import org.teiid.query.util.Options;
 
 
 /**
@@ -221,4 +232,172 @@ public class TestUnionAllNode {
         helpTestUnionConfigs(3, 1, 6, 1, expected);
     }
 
+    @Test public void testParallelBranches() throws Exception {
+        ElementSymbol es1 = new ElementSymbol("e1"); //$NON-NLS-1$
+        es1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+        List<ElementSymbol> elements = Arrays.asList(es1);
+
+        UnionAllNode union = new UnionAllNode(10);
+        union.setElements(elements);
+        BufferManager mgr = BufferManagerFactory.getStandaloneBufferManager();
+        CommandContext context = new CommandContext("pid", "test", null, null, 1);               //$NON-NLS-1$ //$NON-NLS-2$
+        context.setOptions(new Options().parallelUnion(true));
+        final Semaphore moreWork = new Semaphore(0);
+        context.setWorkItem(mockWorkItem(moreWork));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        context.setExecutor(executor);
+        FakeDataManager fdm = new FakeDataManager();
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 5; i++) {
+            List[] tuples = new List[3];
+            for (int r = 0; r < tuples.length; r++) {
+                tuples[r] = Arrays.asList(i);
+                expected.add(i);
+            }
+            RelationalNode child = null;
+            if (i % 2 == 0) {
+                child = new BlockingFakeRelationalNode(i, tuples, 1) {
+                    @Override
+                    public TupleBatch nextBatchDirect() throws BlockedException,
+                            TeiidComponentException, TeiidProcessingException {
+                        try {
+                            return super.nextBatchDirect();
+                        } catch (BlockedException e) {
+                            //notify as a source would once results are available
+                            getContext().getWorkItem().moreWork();
+                            throw e;
+                        }
+                    }
+                };
+            } else {
+                child = new FakeRelationalNode(i, tuples, 1);
+            }
+            child.setElements(elements);
+            union.addChild(child);
+            child.initialize(context, mgr, fdm);
+        }
+        union.initialize(context, mgr, fdm);
+        try {
+            union.open();
+            List<Integer> actual = new ArrayList<Integer>();
+            while (true) {
+                try {
+                    TupleBatch batch = union.nextBatch();
+                    for (List<?> tuple : batch.getTuples()) {
+                        actual.add((Integer)tuple.get(0));
+                    }
+                    if (batch.getTerminationFlag()) {
+                        break;
+                    }
+                } catch (BlockedException e) {
+                    assertTrue(moreWork.tryAcquire(10, TimeUnit.SECONDS));
+                }
+            }
+            union.close();
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RequestWorkItem mockWorkItem(final Semaphore moreWork) {
+        RequestWorkItem workItem = Mockito.mock(RequestWorkItem.class);
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                moreWork.release();
+                return null;
+            }
+        }).when(workItem).moreWork();
+        return workItem;
+    }
+
+    @Test(timeout=10000) public void testCloseWhileBranchRunning() throws Exception {
+        ElementSymbol es1 = new ElementSymbol("e1"); //$NON-NLS-1$
+        es1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+        List<ElementSymbol> elements = Arrays.asList(es1);
+
+        UnionAllNode union = new UnionAllNode(10);
+        union.setElements(elements);
+        BufferManager mgr = BufferManagerFactory.getStandaloneBufferManager();
+        CommandContext context = new CommandContext("pid", "test", null, null, 1);               //$NON-NLS-1$ //$NON-NLS-2$
+        context.setOptions(new Options().parallelUnion(true));
+        context.setWorkItem(mockWorkItem(new Semaphore(0)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        context.setExecutor(executor);
+        FakeDataManager fdm = new FakeDataManager();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        List[] tuples = new List[] {Arrays.asList(1)};
+        FakeRelationalNode slow = new FakeRelationalNode(1, tuples, 1) {
+            @Override
+            public TupleBatch nextBatchDirect() throws BlockedException,
+                    TeiidComponentException, TeiidProcessingException {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new TeiidComponentException(e);
+                }
+                return super.nextBatchDirect();
+            }
+
+            @Override
+            public void closeDirect() {
+                super.closeDirect();
+                closed.countDown();
+            }
+        };
+        FakeRelationalNode other = new FakeRelationalNode(2, tuples, 1);
+        for (RelationalNode child : new RelationalNode[] {slow, other}) {
+            child.setElements(elements);
+            union.addChild(child);
+            child.initialize(context, mgr, fdm);
+        }
+        union.initialize(context, mgr, fdm);
+        final UnionAllNode toClose = union;
+        Thread closer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    toClose.close();
+                } catch (TeiidComponentException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        try {
+            union.open();
+            entered.await();
+            closer.start();
+            //close must wait for the running branch
+            closer.join(200);
+            assertTrue(closer.isAlive());
+            assertEquals(1, closed.getCount());
+            release.countDown();
+            closer.join();
+            assertTrue(slow.isClosed());
+            assertEquals(0, closed.getCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test public void testIsBranchable() {
+        assertTrue(UnionAllNode.isBranchable(new FakeRelationalNode(1, new List[0])));
+        JoinNode join = new JoinNode(2);
+        join.addChild(new FakeRelationalNode(3, new List[0]));
+        join.addChild(new FakeRelationalNode(4, new List[0]));
+        assertTrue(UnionAllNode.isBranchable(join));
+        //sets the dependent values in the shared variable context
+        join.setDependentValueSource("x");
+        assertFalse(UnionAllNode.isBranchable(join));
+        ProjectNode project = new ProjectNode(5);
+        project.addChild(new DependentAccessNode(6));
+        assertFalse(UnionAllNode.isBranchable(project));
+    }
+
 }
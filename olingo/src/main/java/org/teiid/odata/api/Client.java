@@ -26,12 +26,14 @@ import org.teiid.core.TeiidProcessingException;
 import org.teiid.metadata.MetadataStore;
 import org.teiid.query.sql.lang.Command;
 import org.teiid.query.sql.lang.Query;
+import org.teiid.query.sql.symbol.ElementSymbol;
 
 public interface Client {
     public static final String INVALID_CHARACTER_REPLACEMENT = "invalid-xml10-character-replacement"; //$NON-NLS-1$
     public static final String BATCH_SIZE = "batch-size"; //$NON-NLS-1$
     public static final String SKIPTOKEN_TIME = "skiptoken-cache-time"; //$NON-NLS-1$
     public static final String CHARSET = "charset"; //$NON-NLS-1$
+    public static final String KEYSET_PAGING = "keyset-paging"; //$NON-NLS-1$
 
     VDBMetaData getVDB();
 
@@ -44,6 +46,14 @@ public interface Client {
             boolean calculateTotalSize, Integer skip, Integer top, String nextOption, int pageSize,
             QueryResponse response) throws SQLException;
 
+    /**
+     * Execute a query in the order of the given key columns.  Rather than positioning
+     * a cached result, each page is restricted to the keys following the last key of the
+     * previous page, which is encoded in the next token.
+     */
+    void executeKeysetSQL(Query query, List<SQLParameter> parameters, List<ElementSymbol> keyColumns,
+            String nextOption, int pageSize, QueryResponse response) throws SQLException;
+
     CountResponse executeCount(Query query, List<SQLParameter> parameters) throws SQLException;
 
     UpdateResponse executeUpdate(Command command, List<SQLParameter> parameters) throws SQLException;
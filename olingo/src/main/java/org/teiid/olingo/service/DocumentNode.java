@@ -40,7 +40,9 @@ import org.apache.olingo.server.api.uri.UriInfo;
 import org.apache.olingo.server.api.uri.UriParameter;
 import org.apache.olingo.server.core.uri.queryoption.expression.LiteralImpl;
 import org.teiid.core.TeiidException;
+import org.teiid.core.types.DataTypeManager;
 import org.teiid.metadata.Column;
+import org.teiid.metadata.Column.NullType;
 import org.teiid.metadata.ForeignKey;
 import org.teiid.metadata.KeyRecord;
 import org.teiid.metadata.MetadataStore;
@@ -353,6 +355,33 @@ public class DocumentNode {
         return orderBy;
     }
 
+    /**
+     * @return the typed identifier columns for keyset paging or null if the
+     * identifier values may be null or cannot be represented as strings
+     */
+    List<ElementSymbol> getKeysetColumns() {
+        if (this.table == null) {
+            return null;
+        }
+        KeyRecord record = ODataSchemaBuilder.getIdentifier(this.table);
+        List<ElementSymbol> result = new ArrayList<ElementSymbol>(record.getColumns().size());
+        for (Column column:record.getColumns()) {
+            //a null key cannot be positioned after with a comparison
+            if (column.getNullType() != NullType.No_Nulls) {
+                return null;
+            }
+            Class<?> type = column.getJavaType();
+            if (type == null || !DataTypeManager.isTransformable(type, DataTypeManager.DefaultDataClasses.STRING)
+                    || !DataTypeManager.isTransformable(DataTypeManager.DefaultDataClasses.STRING, type)) {
+                return null;
+            }
+            ElementSymbol expr = new ElementSymbol(column.getName(), this.groupSymbol);
+            expr.setType(type);
+            result.add(expr);
+        }
+        return result;
+    }
+
     public LinkedHashMap<Expression, ProjectedColumn> getProjectedColumns() {
         return projectedColumns;
     }
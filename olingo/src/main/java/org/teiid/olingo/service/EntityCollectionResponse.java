@@ -34,9 +34,12 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
 
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
@@ -81,11 +84,20 @@ public class EntityCollectionResponse extends EntityCollection implements QueryR
         Object[] getArray(int columnIndex) throws SQLException;
     }
 
+    interface NextToken {
+        String build(ResultSet rs) throws SQLException;
+    }
+
     private String nextToken;
     private DocumentNode documentNode;
     private String baseURL;
     private Map<String, Object> streams;
 
+    private ResultSet results;
+    private int pageSize;
+    private NextToken nextTokenBuilder;
+    private Function<String, URI> nextLinkBuilder;
+
     private EntityCollectionResponse() {
     }
 
@@ -102,6 +114,103 @@ public class EntityCollectionResponse extends EntityCollection implements QueryR
         getEntities().add(entity);
     }
 
+    /**
+     * Read at most pageSize rows from the open results as the entities are iterated, rather than
+     * holding the whole page.  The next token is built from the last entity row if more rows remain.
+     */
+    void setStreamingResults(ResultSet rs, int pageSize, NextToken nextToken) {
+        this.results = rs;
+        this.pageSize = pageSize;
+        this.nextTokenBuilder = nextToken;
+    }
+
+    /**
+     * Set the function used to build the next link once the next token is known
+     */
+    void setNextLinkBuilder(Function<String, URI> nextLinkBuilder) {
+        this.nextLinkBuilder = nextLinkBuilder;
+    }
+
+    @Override
+    public Iterator<Entity> iterator() {
+        if (this.results == null) {
+            return super.iterator();
+        }
+        final ResultSet rs = this.results;
+        this.results = null;
+        return new Iterator<Entity>() {
+            private Entity next;
+            private boolean hasNext;
+            private boolean done;
+            private int read;
+            private String token;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext) {
+                    return true;
+                }
+                if (done) {
+                    return false;
+                }
+                try {
+                    if (!rs.next()) {
+                        done = true;
+                        return false;
+                    }
+                    if (read == pageSize) {
+                        setNextToken(token);
+                        done = true;
+                        return false;
+                    }
+                    read++;
+                    next = createEntity(rs, documentNode, baseURL, EntityCollectionResponse.this);
+                    processExpands(asRow(rs), next, documentNode);
+                    if (read == pageSize) {
+                        token = nextTokenBuilder.build(rs);
+                    }
+                } catch (SQLException e) {
+                    throw new TeiidRuntimeException(e);
+                }
+                hasNext = true;
+                return true;
+            }
+
+            @Override
+            public Entity next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = false;
+                Entity result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
+    @Override
+    public List<Entity> getEntities() {
+        List<Entity> entities = super.getEntities();
+        if (this.results != null) {
+            //materialize the remaining rows
+            for (Iterator<Entity> iter = iterator(); iter.hasNext();) {
+                entities.add(iter.next());
+            }
+        }
+        return entities;
+    }
+
+    @Override
+    public URI getNext() {
+        URI next = super.getNext();
+        if (next == null && this.nextToken != null && this.nextLinkBuilder != null) {
+            next = this.nextLinkBuilder.apply(this.nextToken);
+            setNext(next);
+        }
+        return next;
+    }
+
     private void processExpands(Row vals, Entity entity, DocumentNode node)
             throws SQLException {
         if (node.getExpands() == null || node.getExpands().isEmpty()) {
@@ -17,6 +17,7 @@
  */
 package org.teiid.olingo.service;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -42,6 +43,10 @@ import org.teiid.adminapi.VDB.Status;
 import org.teiid.adminapi.impl.VDBMetaData;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.TeiidRuntimeException;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.types.JDBCSQLTypeInfo;
+import org.teiid.core.types.TransformationException;
+import org.teiid.core.util.Base64;
 import org.teiid.core.util.PropertiesUtils;
 import org.teiid.jdbc.ConnectionImpl;
 import org.teiid.jdbc.ExecutionProperties;
@@ -65,9 +70,14 @@ import org.teiid.query.QueryPlugin;
 import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.sql.lang.CacheHint;
 import org.teiid.query.sql.lang.Command;
+import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
 import org.teiid.query.sql.lang.Limit;
 import org.teiid.query.sql.lang.Query;
 import org.teiid.query.sql.symbol.Constant;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.sql.symbol.Reference;
 import org.teiid.query.sql.visitor.ReferenceCollectorVisitor;
 import org.teiid.translator.CacheDirective;
@@ -75,6 +85,7 @@ import org.teiid.transport.LocalServerConnection;
 
 public class LocalClient implements Client {
     static final String DELIMITER = "," ; //$NON-NLS-1$
+    static final String KEYSET_PREFIX = "k" ; //$NON-NLS-1$
 
     private volatile VDBMetaData vdb;
     private final String vdbName;
@@ -333,13 +344,7 @@ public class LocalClient implements Client {
         final PreparedStatement stmt = conn.prepareStatement(sql,
                 cache?ResultSet.TYPE_SCROLL_INSENSITIVE:ResultSet.TYPE_FORWARD_ONLY,
                 ResultSet.CONCUR_READ_ONLY);
-        if (parameters!= null && !parameters.isEmpty()) {
-            List<Reference> references = ReferenceCollectorVisitor.getReferences(query);
-            for (int i = 0; i < references.size(); i++) {
-                int index = references.get(i).getIndex();
-                stmt.setObject(i+1, parameters.get(index).getValue(), parameters.get(index).getSqlType());
-            }
-        }
+        setParameters(stmt, query, parameters);
 
         final ResultSet rs = stmt.executeQuery();
 
@@ -419,6 +424,138 @@ public class LocalClient implements Client {
         }
     }
 
+    private void setParameters(final PreparedStatement stmt, Query query,
+            List<SQLParameter> parameters) throws SQLException {
+        if (parameters!= null && !parameters.isEmpty()) {
+            List<Reference> references = ReferenceCollectorVisitor.getReferences(query);
+            for (int i = 0; i < references.size(); i++) {
+                int index = references.get(i).getIndex();
+                stmt.setObject(i+1, parameters.get(index).getValue(), parameters.get(index).getSqlType());
+            }
+        }
+    }
+
+    @Override
+    public void executeKeysetSQL(Query query, List<SQLParameter> parameters,
+            List<ElementSymbol> keyColumns, String nextOption, int pageSize,
+            QueryResponse response) throws SQLException {
+        if (parameters == null) {
+            parameters = new ArrayList<>();
+        } else {
+            parameters = new ArrayList<>(parameters);
+        }
+
+        if (nextOption != null) {
+            //seek past the last key of the previous page
+            //(k1 > ?) or (k1 = ? and k2 > ?) ...
+            List<String> values = parseKeysetToken(nextOption, keyColumns.size());
+            List<Criteria> disjuncts = new ArrayList<Criteria>(keyColumns.size());
+            for (int i = 0; i < keyColumns.size(); i++) {
+                List<Criteria> conjuncts = new ArrayList<Criteria>(i + 1);
+                for (int j = 0; j <= i; j++) {
+                    ElementSymbol key = keyColumns.get(j);
+                    Object value = null;
+                    try {
+                        value = DataTypeManager.transformValue(values.get(j), key.getType());
+                    } catch (TransformationException e) {
+                        throw new TeiidRuntimeException(ODataPlugin.Util.gs(
+                                ODataPlugin.Event.TEIID16062));
+                    }
+                    conjuncts.add(new CompareCriteria(key.clone(), j < i?CompareCriteria.EQ:CompareCriteria.GT, new Reference(parameters.size())));
+                    parameters.add(new SQLParameter(value, JDBCSQLTypeInfo.getSQLTypeFromClass(key.getType().getName())));
+                }
+                disjuncts.add(Criteria.combineCriteria(conjuncts));
+            }
+            Criteria keyCriteria = disjuncts.size() == 1?disjuncts.get(0):new CompoundCriteria(CompoundCriteria.OR, disjuncts);
+            query.setCriteria(Criteria.combineCriteria(query.getCriteria(), keyCriteria));
+        }
+
+        //read one more row than needed to determine if there is a next page
+        query.setLimit(new Limit(null, new Reference(parameters.size())));
+        parameters.add(new SQLParameter(pageSize + 1, Types.INTEGER));
+
+        final int[] keyIndexes = new int[keyColumns.size()];
+        List<Expression> projected = query.getSelect().getSymbols();
+        for (int i = 0; i < keyIndexes.length; i++) {
+            keyIndexes[i] = projected.indexOf(keyColumns.get(i)) + 1;
+            if (keyIndexes[i] == 0) {
+                throw new TeiidRuntimeException("Key column " + keyColumns.get(i) + " is not projected"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+
+        String sql = query.toString();
+        LogManager.logDetail(LogConstants.CTX_ODATA, "Teiid-Query:",sql); //$NON-NLS-1$
+
+        final PreparedStatement stmt = getConnection().prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        setParameters(stmt, query, parameters);
+
+        final ResultSet rs = stmt.executeQuery();
+
+        EntityCollectionResponse.NextToken nextToken = new EntityCollectionResponse.NextToken() {
+            @Override
+            public String build(ResultSet row) throws SQLException {
+                return buildKeysetToken(row, keyIndexes);
+            }
+        };
+
+        if (response instanceof EntityCollectionResponse) {
+            //rows are read as the response is serialized
+            ((EntityCollectionResponse)response).setStreamingResults(rs, pageSize, nextToken);
+            return;
+        }
+
+        int count = 0;
+        String token = null;
+        while (rs.next()) {
+            if (count == pageSize) {
+                response.setNextToken(token);
+                break;
+            }
+            response.addRow(rs);
+            if (++count == pageSize) {
+                token = nextToken.build(rs);
+            }
+        }
+    }
+
+    static String buildKeysetToken(ResultSet rs, int[] keyIndexes) throws SQLException {
+        StringBuilder token = new StringBuilder(KEYSET_PREFIX);
+        for (int index : keyIndexes) {
+            Object value = rs.getObject(index);
+            if (value == null) {
+                //keyset paging is only used with non-nullable keys
+                throw new SQLException("Null key value in column " + index + " cannot be used for keyset paging"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            try {
+                value = DataTypeManager.transformValue(value, DataTypeManager.DefaultDataClasses.STRING);
+            } catch (TransformationException e) {
+                throw new SQLException(e);
+            }
+            token.append(DELIMITER);
+            token.append(Base64.encodeUrlSafe(((String)value).getBytes(StandardCharsets.UTF_8)));
+        }
+        return token.toString();
+    }
+
+    static List<String> parseKeysetToken(String token, int keyCount) {
+        String[] parts = token.split(DELIMITER, -1);
+        if (parts.length != keyCount + 1 || !KEYSET_PREFIX.equals(parts[0])) {
+            throw new TeiidRuntimeException(ODataPlugin.Util.gs(
+                    ODataPlugin.Event.TEIID16062));
+        }
+        List<String> values = new ArrayList<String>(keyCount);
+        try {
+            for (int i = 1; i < parts.length; i++) {
+                values.add(new String(Base64.decodeUrlSafe(parts[i]), StandardCharsets.UTF_8));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new TeiidRuntimeException(ODataPlugin.Util.gs(
+                    ODataPlugin.Event.TEIID16062));
+        }
+        return values;
+    }
+
     private String nextToken(boolean cache, String sessionid, long skip, Integer entityCount) {
         if (cache) {
             String token = sessionid+DELIMITER+String.valueOf(skip);
@@ -159,6 +159,7 @@ public class ODataSQLBuilder extends RequestURLHierarchyVisitor {
     private TopOption topOption;
     private boolean countOption;
     private OrderBy orderBy;
+    private boolean implicitOrder;
     private boolean selectionComplete;
     private String nextToken;
     private boolean aliasedGroups;
@@ -228,6 +229,23 @@ public class ODataSQLBuilder extends RequestURLHierarchyVisitor {
         return topOption.getValue();
     }
 
+    /**
+     * @return the key columns if the results use only the implicit key ordering and
+     * may be paged by key value, otherwise null
+     */
+    public List<ElementSymbol> getKeysetColumns() {
+        if (!this.implicitOrder || this.orderBy == null || this.countOption || this.countQuery
+                || this.skipOption != null || this.topOption != null
+                || this.context.getIterator() != null || !this.context.getSiblings().isEmpty()) {
+            return null;
+        }
+        List<ElementSymbol> keys = this.context.getKeysetColumns();
+        if (keys == null || !this.orderBy.getSortKeys().equals(keys)) {
+            return null;
+        }
+        return keys;
+    }
+
     public boolean hasNavigation() {
         return this.navigation;
     }
@@ -519,6 +537,7 @@ public class ODataSQLBuilder extends RequestURLHierarchyVisitor {
     public void visit(OrderByOption option) {
         if (option == null || option.getOrders().isEmpty()) {
             this.orderBy = this.context.addDefaultOrderBy();
+            this.implicitOrder = true;
         }
         else {
             List<OrderByItem> orderBys = option.getOrders();
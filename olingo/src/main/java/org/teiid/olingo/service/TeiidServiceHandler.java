@@ -93,6 +93,7 @@ import org.teiid.query.sql.lang.Delete;
 import org.teiid.query.sql.lang.Insert;
 import org.teiid.query.sql.lang.Query;
 import org.teiid.query.sql.lang.Update;
+import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.XMLSerialize;
 
 public class TeiidServiceHandler implements ServiceHandler {
@@ -269,18 +270,31 @@ public class TeiidServiceHandler implements ServiceHandler {
         EntityCollectionResponse result = (EntityCollectionResponse)queryResponse;
         if (result.getNextToken() != null) {
             try {
-                String nextUri = request.getODataRequest().getRawBaseUri()
-                        +request.getODataRequest().getRawODataPath()
-                        + "?"
-                        +buildNextToken(request.getODataRequest().getRawQueryPath(), result.getNextToken());
-                result.setNext(new URI(nextUri));
+                result.setNext(buildNextLink(request, result.getNextToken()));
             } catch (URISyntaxException e) {
                 throw new ODataApplicationException(e.getMessage(), 500, Locale.getDefault(), e);
             }
+        } else {
+            //streamed results determine the token while writing
+            result.setNextLinkBuilder((token) -> {
+                try {
+                    return buildNextLink(request, token);
+                } catch (URISyntaxException e) {
+                    throw new TeiidRuntimeException(e);
+                }
+            });
         }
         response.writeReadEntitySet((EdmEntityType)visitor.getContext().getEdmStructuredType(), result);
     }
 
+    private URI buildNextLink(final ServiceRequest request, String nextToken) throws URISyntaxException {
+        String nextUri = request.getODataRequest().getRawBaseUri()
+                +request.getODataRequest().getRawODataPath()
+                + "?"
+                +buildNextToken(request.getODataRequest().getRawQueryPath(), nextToken);
+        return new URI(nextUri);
+    }
+
     String buildNextToken(final String queryPath, String nextToken) {
         StringBuilder sb = new StringBuilder();
         if (queryPath != null) {
@@ -351,9 +365,20 @@ public class TeiidServiceHandler implements ServiceHandler {
                 visitor.getContext());
         }
 
-        getClient().executeSQL(query, visitor.getParameters(),
-                visitor.includeTotalSize(), visitor.getSkip(),
-                visitor.getTop(), visitor.getNextToken(), pageSize, result);
+        List<ElementSymbol> keyColumns = null;
+        if (result instanceof EntityCollectionResponse && pageSize > 0
+                && Boolean.valueOf(getClient().getProperty(Client.KEYSET_PAGING))) {
+            keyColumns = visitor.getKeysetColumns();
+        }
+
+        if (keyColumns != null) {
+            getClient().executeKeysetSQL(query, visitor.getParameters(), keyColumns,
+                    visitor.getNextToken(), pageSize, result);
+        } else {
+            getClient().executeSQL(query, visitor.getParameters(),
+                    visitor.includeTotalSize(), visitor.getSkip(),
+                    visitor.getTop(), visitor.getNextToken(), pageSize, result);
+        }
 
         return result;
     }
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -67,6 +68,7 @@ import org.teiid.adminapi.Model;
 import org.teiid.adminapi.Model.Type;
 import org.teiid.adminapi.impl.ModelMetaData;
 import org.teiid.core.types.BinaryType;
+import org.teiid.core.util.Base64;
 import org.teiid.core.util.ObjectConverterUtil;
 import org.teiid.core.util.TimestampWithTimezone;
 import org.teiid.core.util.UnitTestUtil;
@@ -1158,6 +1160,113 @@ public class TestODataIntegration {
         assertEquals(200, response.getStatus());
     }
 
+    @Test
+    public void testKeysetPaging() throws Exception {
+        ModelMetaData mmd = new ModelMetaData();
+        mmd.setName("vw");
+        mmd.addSourceMetadata("ddl", "create view x (a string not null primary key, b integer) "
+                + "as select 'xyz', 123 union all select 'abc', 456 union all select 'def', 789;");
+        mmd.setModelType(Model.Type.VIRTUAL);
+        teiid.deployVDB("northwind", mmd);
+
+        Map<String, String> props = new HashMap<String, String>();
+        props.put("batch-size", "1");
+        props.put("keyset-paging", "true");
+        createContext("/odata4", props);
+
+        List<String> keys = new ArrayList<String>();
+        String nextLink = baseURL + "/northwind/vw/x?$format=json";
+        while (nextLink != null) {
+            ContentResponse response = http.GET(nextLink);
+            assertEquals(200, response.getStatus());
+            JsonNode node = getJSONNode(response);
+            assertEquals(1, node.get("value").size());
+            keys.add(node.get("value").get(0).get("a").asText());
+            nextLink = null;
+            if (node.has("@odata.nextLink")) {
+                nextLink = node.get("@odata.nextLink").asText();
+                assertTrue(nextLink, nextLink.contains("$skiptoken=k,"));
+            }
+        }
+        assertEquals(Arrays.asList("abc", "def", "xyz"), keys);
+
+        //tampered tokens
+        ContentResponse response = http.GET(baseURL + "/northwind/vw/x?$skiptoken=a");
+        assertEquals(500, response.getStatus());
+        assertTrue(response.getContentAsString(), response.getContentAsString().contains("TEIID16062"));
+
+        response = http.GET(baseURL + "/northwind/vw/x?$skiptoken=k,YQ,YQ");
+        assertEquals(500, response.getStatus());
+        assertTrue(response.getContentAsString(), response.getContentAsString().contains("TEIID16062"));
+    }
+
+    @Test
+    public void testKeysetPagingCompositeKey() throws Exception {
+        ModelMetaData mmd = new ModelMetaData();
+        mmd.setName("vw");
+        mmd.addSourceMetadata("ddl", "create view x (a string not null, c integer not null, b integer, primary key (a, c)) "
+                + "as select 'x', 2, 1 union all select 'x', 10, 2 union all select 'a', 3, 3 union all select 'x', 1, 4;");
+        mmd.setModelType(Model.Type.VIRTUAL);
+        teiid.deployVDB("northwind", mmd);
+
+        Map<String, String> props = new HashMap<String, String>();
+        props.put("batch-size", "1");
+        props.put("keyset-paging", "true");
+        createContext("/odata4", props);
+
+        List<Integer> values = new ArrayList<Integer>();
+        String nextLink = baseURL + "/northwind/vw/x?$format=json";
+        while (nextLink != null) {
+            ContentResponse response = http.GET(nextLink);
+            assertEquals(200, response.getStatus());
+            JsonNode node = getJSONNode(response);
+            assertEquals(1, node.get("value").size());
+            values.add(node.get("value").get(0).get("b").asInt());
+            nextLink = node.has("@odata.nextLink")?node.get("@odata.nextLink").asText():null;
+        }
+        //ordered by a, then numerically by c
+        assertEquals(Arrays.asList(3, 4, 1, 2), values);
+
+        //the second key value is not an integer
+        String token = "k," + Base64.encodeUrlSafe("x".getBytes(StandardCharsets.UTF_8))
+                + "," + Base64.encodeUrlSafe("y".getBytes(StandardCharsets.UTF_8));
+        ContentResponse response = http.GET(baseURL + "/northwind/vw/x?$skiptoken=" + token);
+        assertEquals(500, response.getStatus());
+        assertTrue(response.getContentAsString(), response.getContentAsString().contains("TEIID16062"));
+
+        //a token with too few key values
+        response = http.GET(baseURL + "/northwind/vw/x?$skiptoken=k," + Base64.encodeUrlSafe("x".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(500, response.getStatus());
+        assertTrue(response.getContentAsString(), response.getContentAsString().contains("TEIID16062"));
+    }
+
+    @Test
+    public void testKeysetPagingNullableKey() throws Exception {
+        ModelMetaData mmd = new ModelMetaData();
+        mmd.setName("vw");
+        mmd.addSourceMetadata("ddl", "create view x (a string primary key, b integer) "
+                + "as select 'xyz', 123 union all select 'abc', 456;");
+        mmd.setModelType(Model.Type.VIRTUAL);
+        teiid.deployVDB("northwind", mmd);
+
+        Map<String, String> props = new HashMap<String, String>();
+        props.put("batch-size", "1");
+        props.put("keyset-paging", "true");
+        createContext("/odata4", props);
+
+        //falls back to cached paging
+        ContentResponse response = http.GET(baseURL + "/northwind/vw/x?$format=json");
+        assertEquals(200, response.getStatus());
+        String nextLink = getJSONNode(response).get("@odata.nextLink").asText();
+        assertFalse(nextLink, nextLink.contains("$skiptoken=k,"));
+        assertTrue(nextLink, nextLink.endsWith(",1"));
+
+        response = http.GET(nextLink);
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"@odata.context\":\""+baseURL+"/northwind/vw/$metadata#x\",\"value\":[{\"a\":\"xyz\",\"b\":123}]}",
+                response.getContentAsString());
+    }
+
     @Test
     public void test$SkipWithNegitive() throws Exception {
         ModelMetaData mmd = new ModelMetaData();
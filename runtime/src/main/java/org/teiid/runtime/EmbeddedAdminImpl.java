@@ -314,6 +314,7 @@ public class EmbeddedAdminImpl implements Admin {
     public Collection<String> getCacheTypes() throws AdminException {
         Set<String> cacheTypes = new HashSet<String>();
         cacheTypes.addAll(SessionAwareCache.getCacheTypes());
+        cacheTypes.add(Admin.Cache.METADATA_CACHE.name());
         return cacheTypes;
     }
 
@@ -406,22 +407,35 @@ public class EmbeddedAdminImpl implements Admin {
             this.embeddedServer.getRsCache().clearAll();
         } else if(cacheType.equals(Admin.Cache.PREPARED_PLAN_CACHE.name())) {
             this.embeddedServer.getPpcCache().clearAll();
+        } else if(cacheType.equals(Admin.Cache.METADATA_CACHE.name())) {
+            for (VDBMetaData vdb : this.embeddedServer.repo.getVDBs()) {
+                clearMetadataCache(vdb);
+            }
         } else {
-            throw new AdminProcessingException(RuntimePlugin.Util.gs(RuntimePlugin.Event.TEIID40139, cacheType, Admin.Cache.QUERY_SERVICE_RESULT_SET_CACHE, Admin.Cache.PREPARED_PLAN_CACHE));
+            throw new AdminProcessingException(RuntimePlugin.Util.gs(RuntimePlugin.Event.TEIID40139, cacheType, Admin.Cache.QUERY_SERVICE_RESULT_SET_CACHE, Admin.Cache.PREPARED_PLAN_CACHE, Admin.Cache.METADATA_CACHE));
         }
     }
 
     @Override
     public void clearCache(String cacheType, String vdbName, String vdbVersion) throws AdminException {
 
-        checkVDB(vdbName, vdbVersion);
+        VDBMetaData vdb = checkVDB(vdbName, vdbVersion);
 
         if(cacheType.equals(Admin.Cache.QUERY_SERVICE_RESULT_SET_CACHE.name())){
             this.embeddedServer.getRsCache().clearForVDB(new VDBKey(vdbName, vdbVersion));
         } else if(cacheType.equals(Admin.Cache.PREPARED_PLAN_CACHE.name())) {
             this.embeddedServer.getPpcCache().clearForVDB(new VDBKey(vdbName, vdbVersion));
+        } else if(cacheType.equals(Admin.Cache.METADATA_CACHE.name())) {
+            clearMetadataCache(vdb);
         } else {
-            throw new AdminProcessingException(RuntimePlugin.Util.gs(RuntimePlugin.Event.TEIID40139, cacheType, Admin.Cache.QUERY_SERVICE_RESULT_SET_CACHE, Admin.Cache.PREPARED_PLAN_CACHE));
+            throw new AdminProcessingException(RuntimePlugin.Util.gs(RuntimePlugin.Event.TEIID40139, cacheType, Admin.Cache.QUERY_SERVICE_RESULT_SET_CACHE, Admin.Cache.PREPARED_PLAN_CACHE, Admin.Cache.METADATA_CACHE));
+        }
+    }
+
+    private void clearMetadataCache(VDBMetaData vdb) {
+        TransformationMetadata metadata = vdb.getAttachment(TransformationMetadata.class);
+        if (metadata != null) {
+            metadata.clearCaches();
         }
     }
 
@@ -432,8 +446,17 @@ public class EmbeddedAdminImpl implements Admin {
             return Arrays.asList(this.embeddedServer.getRsCache().buildCacheStats(cacheType));
         } else if(cacheType.equals(Admin.Cache.PREPARED_PLAN_CACHE.name())) {
             return Arrays.asList(this.embeddedServer.getPpcCache().buildCacheStats(cacheType));
+        } else if(cacheType.equals(Admin.Cache.METADATA_CACHE.name())) {
+            List<CacheStatistics> stats = new ArrayList<CacheStatistics>();
+            for (VDBMetaData vdb : this.embeddedServer.repo.getVDBs()) {
+                TransformationMetadata metadata = vdb.getAttachment(TransformationMetadata.class);
+                if (metadata != null) {
+                    stats.add(metadata.buildCacheStats(vdb.getName() + "." + vdb.getVersion())); //$NON-NLS-1$
+                }
+            }
+            return stats;
         } else {
-            throw new AdminProcessingException(RuntimePlugin.Util.gs(RuntimePlugin.Event.TEIID40139, cacheType, Admin.Cache.QUERY_SERVICE_RESULT_SET_CACHE, Admin.Cache.PREPARED_PLAN_CACHE));
+            throw new AdminProcessingException(RuntimePlugin.Util.gs(RuntimePlugin.Event.TEIID40139, cacheType, Admin.Cache.QUERY_SERVICE_RESULT_SET_CACHE, Admin.Cache.PREPARED_PLAN_CACHE, Admin.Cache.METADATA_CACHE));
         }
     }
 
@@ -27,7 +27,9 @@ import org.teiid.common.buffer.StorageManager;
 import org.teiid.common.buffer.TupleBufferCache;
 import org.teiid.common.buffer.impl.BufferFrontedFileStoreCache;
 import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.common.buffer.impl.CounterModeEncryptedStorageManager;
 import org.teiid.common.buffer.impl.EncryptedStorageManager;
+import org.teiid.common.buffer.impl.FileChannelStorageManager;
 import org.teiid.common.buffer.impl.FileStorageManager;
 import org.teiid.common.buffer.impl.MemoryStorageManager;
 import org.teiid.common.buffer.impl.SplittableStorageManager;
@@ -74,6 +76,9 @@ public class BufferServiceImpl implements BufferService, Serializable {
     //disk properties
     private File bufferDir;
     private boolean encryptFiles = false;
+    private boolean counterModeEncryption = false;
+    private boolean useFileChannels = false;
+    private boolean writeBehind = false;
     private int maxOpenFiles = FileStorageManager.DEFAULT_MAX_OPEN_FILES;
     private long maxFileSize = SplittableStorageManager.DEFAULT_MAX_FILESIZE; // 2GB
     private long maxDiskBufferSpace = FileStorageManager.DEFAULT_MAX_BUFFERSPACE>>20;
@@ -110,7 +115,13 @@ public class BufferServiceImpl implements BufferService, Serializable {
                 // wise FileStorageManager is smart enough to clean up after itself
                 cleanDirectory(bufferDir);
                 // Get the properties for FileStorageManager and create.
-                fsm = new FileStorageManager();
+                if (useFileChannels) {
+                    FileChannelStorageManager fcsm = new FileChannelStorageManager();
+                    fcsm.setWriteBehind(writeBehind);
+                    fsm = fcsm;
+                } else {
+                    fsm = new FileStorageManager();
+                }
                 fsm.setStorageDirectory(bufferDir.getCanonicalPath());
                 fsm.setMaxOpenFiles(maxOpenFiles);
                 fsm.setMaxBufferSpace(maxDiskBufferSpace*MB);
@@ -118,7 +129,11 @@ public class BufferServiceImpl implements BufferService, Serializable {
                 ssm.setMaxFileSize(maxFileSize);
                 StorageManager sm = ssm;
                 if (encryptFiles) {
-                    sm = new EncryptedStorageManager(ssm);
+                    if (counterModeEncryption) {
+                        sm = new CounterModeEncryptedStorageManager(ssm);
+                    } else {
+                        sm = new EncryptedStorageManager(ssm);
+                    }
                 }
                 fsc = new BufferFrontedFileStoreCache();
                 fsc.setBufferManager(this.bufferMgr);
@@ -173,6 +188,9 @@ public class BufferServiceImpl implements BufferService, Serializable {
             bufferMgr.shutdown();
             bufferMgr = null;
         }
+        if (fsm instanceof FileChannelStorageManager) {
+            ((FileChannelStorageManager)fsm).shutdown();
+        }
 
         // Delete the buffer directory
         if (bufferDir != null) {
@@ -355,6 +373,42 @@ public class BufferServiceImpl implements BufferService, Serializable {
         this.encryptFiles = encryptFiles;
     }
 
+    public boolean isCounterModeEncryption() {
+        return counterModeEncryption;
+    }
+
+    /**
+     * Use AES counter mode rather than block encryption for the buffer files.  Only applicable when encrypting files.
+     * @param counterModeEncryption
+     */
+    public void setCounterModeEncryption(boolean counterModeEncryption) {
+        this.counterModeEncryption = counterModeEncryption;
+    }
+
+    public boolean isUseFileChannels() {
+        return useFileChannels;
+    }
+
+    /**
+     * Use positional file channel io for the buffer files, which allows for concurrent access to a file
+     * @param useFileChannels
+     */
+    public void setUseFileChannels(boolean useFileChannels) {
+        this.useFileChannels = useFileChannels;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Perform buffer file writes on a dedicated thread.  Only applicable when using file channels.
+     * @param writeBehind
+     */
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
     public void setBufferManager(BufferManagerImpl bufferManager) {
         this.bufferMgr = bufferManager;
     }
@@ -71,6 +71,8 @@ public class ObjectEncoder extends ChannelOutboundHandlerAdapter {
 
     private final int estimatedLength;
     private final boolean preferDirect;
+    private final WireCompression compression;
+    private volatile boolean compressionEnabled;
 
     /**
      * Creates a new encoder with the estimated length of 512 bytes.
@@ -91,12 +93,27 @@ public class ObjectEncoder extends ChannelOutboundHandlerAdapter {
      *        cost, please specify the properly estimated value.
      */
     public ObjectEncoder(int estimatedLength, boolean preferDirect) {
+        this(estimatedLength, preferDirect, null);
+    }
+
+    /**
+     * Creates a new encoder that will compress large messages once {@link #enableCompression()} is called.
+     */
+    public ObjectEncoder(int estimatedLength, boolean preferDirect, WireCompression compression) {
         if (estimatedLength < 0) {
             throw new IllegalArgumentException(
                     "estimatedLength: " + estimatedLength);
         }
         this.estimatedLength = estimatedLength;
         this.preferDirect = preferDirect;
+        this.compression = compression;
+    }
+
+    /**
+     * Called once the client has requested compression
+     */
+    public void enableCompression() {
+        this.compressionEnabled = this.compression != null;
     }
 
     @Override
@@ -113,7 +130,17 @@ public class ObjectEncoder extends ChannelOutboundHandlerAdapter {
             oout.close();
 
             int endIdx = out.writerIndex();
-            out.setInt(startIdx, endIdx - startIdx - 4);
+            int length = endIdx - startIdx - 4;
+            ByteBuf compressed = null;
+            if (compressionEnabled && compression.shouldCompress(msg, length)) {
+                compressed = compression.compress(ctx.alloc(), out, startIdx + 4, length);
+            }
+            if (compressed != null) {
+                out.release();
+                out = compressed;
+            } else {
+                out.setInt(startIdx, length);
+            }
 
             if (out.isReadable()) {
                 ctx.write(out, promise);
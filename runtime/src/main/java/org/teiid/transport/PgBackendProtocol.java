@@ -27,6 +27,8 @@ import java.io.StreamCorruptedException;
 import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.security.GeneralSecurityException;
@@ -201,6 +203,10 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
         }
     }
 
+    private static final int DEC_DIGITS = 4;
+    private static final int NUMERIC_POS = 0x0000;
+    private static final int NUMERIC_NEG = 0x4000;
+
     public static final String DEFAULT_ENCODING = "UTF8";
     public static final String CLIENT_ENCODING = "client_encoding";
 
@@ -429,7 +435,7 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
 
     @Override
     public void flush() {
-        this.dataOut = null;
+        releaseBuffer();
         this.writer = null;
         this.ctx.flush();
     }
@@ -485,21 +491,27 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
         return tag;
     }
 
-    private void sendDataRow(ResultSet rs, List<PgColInfo> cols, short[] resultColumnFormat) throws SQLException, IOException {
+    private void sendDataRow(ResultSetImpl rs, List<PgColInfo> cols, short[] resultColumnFormat) throws SQLException, IOException {
         startMessage('D', -1);
         int lengthIndex = this.dataOut.writerIndex() - 4;
         writeShort(cols.size());
+        List<?> row = null;
         for (int i = 0; i < cols.size(); i++) {
             int dataBytesIndex = this.dataOut.writerIndex();
             writeInt(-1);
+            boolean isNull;
             if (!isBinary(cols.get(i).type)
                     || (resultColumnFormat==null || (resultColumnFormat.length==1?resultColumnFormat[0]==0:resultColumnFormat[i]==0))) {
                 getContent(rs, cols.get(i), i+1);
+                writer.flush();
+                isNull = rs.wasNull();
             } else {
-                getBinaryContent(rs, cols.get(i), i+1);
+                if (row == null) {
+                    row = rs.getCurrentRecord();
+                }
+                isNull = getBinaryContent(rs, row, cols.get(i), i+1);
             }
-            writer.flush();
-            if (!rs.wasNull()) {
+            if (!isNull) {
                 int bytes = this.dataOut.writerIndex() - dataBytesIndex - 4;
                 this.dataOut.setInt(dataBytesIndex, bytes);
             }
@@ -507,40 +519,59 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
         this.dataOut.setInt(lengthIndex, this.dataOut.writerIndex() - lengthIndex);
     }
 
-    private void getBinaryContent(ResultSet rs, PgColInfo col, int column) throws SQLException, TeiidSQLException, IOException {
+    /**
+     * Write the binary form of the value.  Numeric and boolean values are taken directly
+     * from the batch row rather than through the {@link ResultSet} getters.
+     * @return true if the value is null
+     */
+    private boolean getBinaryContent(ResultSet rs, List<?> row, PgColInfo col, int column) throws SQLException, TeiidSQLException, IOException {
+        Object value = null;
         switch (col.type) {
+        case PG_TYPE_BOOL:
+            value = row.get(column - 1);
+            if (value != null) {
+                dataOut.writeByte(((Boolean)value).booleanValue()?1:0);
+            }
+            break;
         case PG_TYPE_INT2:
-            short sval = rs.getShort(column);
-            if (!rs.wasNull()) {
-                dataOut.writeShort(sval);
+            value = row.get(column - 1);
+            if (value != null) {
+                dataOut.writeShort(((Number)value).shortValue());
             }
             break;
         case PG_TYPE_INT4:
-            int ival = rs.getInt(column);
-            if (!rs.wasNull()) {
-                dataOut.writeInt(ival);
+            value = row.get(column - 1);
+            if (value != null) {
+                dataOut.writeInt(((Number)value).intValue());
             }
             break;
         case PG_TYPE_INT8:
-            long lval = rs.getLong(column);
-            if (!rs.wasNull()) {
-                dataOut.writeLong(lval);
+            value = row.get(column - 1);
+            if (value != null) {
+                dataOut.writeLong(((Number)value).longValue());
             }
             break;
         case PG_TYPE_FLOAT4:
-            float fval = rs.getFloat(column);
-            if (!rs.wasNull()) {
-                dataOut.writeInt(Float.floatToIntBits(fval));
+            value = row.get(column - 1);
+            if (value != null) {
+                dataOut.writeInt(Float.floatToIntBits(((Number)value).floatValue()));
             }
             break;
         case PG_TYPE_FLOAT8:
-            double dval = rs.getDouble(column);
-            if (!rs.wasNull()) {
-                dataOut.writeLong(Double.doubleToLongBits(dval));
+            value = row.get(column - 1);
+            if (value != null) {
+                dataOut.writeLong(Double.doubleToLongBits(((Number)value).doubleValue()));
+            }
+            break;
+        case PG_TYPE_NUMERIC:
+            value = row.get(column - 1);
+            if (value != null) {
+                writeNumeric(dataOut, toBigDecimal(value));
             }
             break;
         case PG_TYPE_BYTEA:
             Blob blob = rs.getBlob(column);
+            value = blob;
             if (blob != null) {
                 try {
                     byte[] bytes = ObjectConverterUtil.convertToByteArray(blob.getBinaryStream(), this.maxLobSize);
@@ -552,6 +583,7 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
             break;
         case PG_TYPE_DATE:
             Date d = rs.getDate(column);
+            value = d;
             if (d != null) {
                 long millis = d.getTime();
                 millis += TimestampWithTimezone.getCalendar().getTimeZone().getOffset(millis);
@@ -561,6 +593,7 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
             break;
         case PG_TYPE_TIME:
             Time time = rs.getTime(column);
+            value = time;
             if (time != null) {
                 long millis = time.getTime();
                 millis += TimestampWithTimezone.getCalendar().getTimeZone().getOffset(millis);
@@ -570,6 +603,7 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
             break;
         case PG_TYPE_TIMESTAMP_NO_TMZONE:
             Timestamp t = rs.getTimestamp(column);
+            value = t;
             if (t != null) {
                 long millis = t.getTime();
                 millis += TimestampWithTimezone.getCalendar().getTimeZone().getOffset(millis);
@@ -583,6 +617,61 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
         default:
             throw new AssertionError();
         }
+        return value == null;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal)value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger)value);
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    /**
+     * Write the pg binary numeric form - the count of base 10000 digits, the weight of the first digit,
+     * the sign, the display scale, then the digits most significant first.
+     */
+    static void writeNumeric(ByteBuf out, BigDecimal value) {
+        int sign = value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS;
+        value = value.abs();
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        }
+        int scale = value.scale();
+        //pad the fractional part to whole base 10000 digits
+        int fractionPad = (DEC_DIGITS - scale % DEC_DIGITS) % DEC_DIGITS;
+        String digits = value.unscaledValue().toString();
+        int leadingPad = (DEC_DIGITS - (digits.length() + fractionPad) % DEC_DIGITS) % DEC_DIGITS;
+        int groups = (leadingPad + digits.length() + fractionPad) / DEC_DIGITS;
+        short[] result = new short[groups];
+        for (int i = 0; i < groups * DEC_DIGITS; i++) {
+            int pos = i - leadingPad;
+            int digit = pos < 0 || pos >= digits.length() ? 0 : digits.charAt(pos) - '0';
+            result[i / DEC_DIGITS] = (short)(result[i / DEC_DIGITS] * 10 + digit);
+        }
+        int weight = groups - (scale + fractionPad) / DEC_DIGITS - 1;
+        int start = 0;
+        while (start < groups && result[start] == 0) {
+            start++;
+            weight--;
+        }
+        int end = groups;
+        while (end > start && result[end - 1] == 0) {
+            end--;
+        }
+        if (start == end) {
+            weight = 0;
+        }
+        out.writeShort(end - start);
+        out.writeShort(weight);
+        out.writeShort(sign);
+        out.writeShort(scale);
+        for (int i = start; i < end; i++) {
+            out.writeShort(result[i]);
+        }
     }
 
     private void getContent(ResultSet rs, PgColInfo col, int column) throws SQLException, TeiidSQLException, IOException {
@@ -782,11 +871,13 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
 
     boolean isBinary(int oid) {
         switch (oid) {
+        case PG_TYPE_BOOL:
         case PG_TYPE_INT2:
         case PG_TYPE_INT4:
         case PG_TYPE_INT8:
         case PG_TYPE_FLOAT4:
         case PG_TYPE_FLOAT8:
+        case PG_TYPE_NUMERIC:
         case PG_TYPE_BYTEA:
         case PG_TYPE_DATE:
         case PG_TYPE_TIME:
@@ -985,11 +1076,26 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
     }
 
     private void initBuffer(int estimatedLength) {
-        this.dataOut = Unpooled.buffer(estimatedLength).order(ByteOrder.BIG_ENDIAN);
+        releaseBuffer();
+        if (this.ctx != null) {
+            this.dataOut = this.ctx.alloc().buffer(estimatedLength).order(ByteOrder.BIG_ENDIAN);
+        } else {
+            this.dataOut = Unpooled.buffer(estimatedLength).order(ByteOrder.BIG_ENDIAN);
+        }
         ByteBufOutputStream cbos = new ByteBufOutputStream(this.dataOut);
         this.writer = new OutputStreamWriter(cbos, this.encoding);
     }
 
+    /**
+     * Release a buffer that will not be sent, as it may have come from a pooled allocator
+     */
+    private void releaseBuffer() {
+        if (this.dataOut != null) {
+            this.dataOut.release();
+            this.dataOut = null;
+        }
+    }
+
     private void sendMessage() {
         int pos = this.dataOut.writerIndex();
         this.dataOut.setInt(1, pos - 1);
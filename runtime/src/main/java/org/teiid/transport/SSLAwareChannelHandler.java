@@ -32,8 +32,11 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
 import org.teiid.logging.MessageLevel;
+import org.teiid.net.socket.Handshake;
+import org.teiid.net.socket.MultiplexedMessage;
 import org.teiid.net.socket.ObjectChannel;
 import org.teiid.runtime.RuntimePlugin;
+import org.teiid.transport.ObjectEncoder.FailedWriteException;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -98,7 +101,56 @@ public class SSLAwareChannelHandler extends ChannelDuplexHandler {
         }
     }
 
+    /**
+     * A logical channel sharing a client socket.  Traffic is wrapped in {@link MultiplexedMessage}s
+     */
+    class LogicalObjectChannel implements ObjectChannel {
+        private final ObjectChannelImpl channel;
+        private final int id;
+        private ChannelListener listener;
+
+        LogicalObjectChannel(ObjectChannelImpl channel, int id) {
+            this.channel = channel;
+            this.id = id;
+        }
+
+        @Override
+        public void close() {
+            if (removeLogicalChannel(channel.channel, id) != null) {
+                channel.write(new MultiplexedMessage(id, MultiplexedMessage.CLOSE, null));
+                listener.disconnected();
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            Map<Integer, LogicalObjectChannel> channels = logicalChannels.get(channel.channel);
+            return channels != null && channels.containsKey(id) && channel.isOpen();
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress() {
+            return channel.getRemoteAddress();
+        }
+
+        @Override
+        public InetAddress getLocalAddress() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object read() throws IOException, ClassNotFoundException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> write(Object msg) {
+            return channel.write(new MultiplexedMessage(id, MultiplexedMessage.DATA, msg));
+        }
+    }
+
     private final ChannelListener.ChannelListenerFactory listenerFactory;
+    private Map<Channel, Map<Integer, LogicalObjectChannel>> logicalChannels = new ConcurrentHashMap<Channel, Map<Integer, LogicalObjectChannel>>();
     private Map<Channel, ChannelListener> listeners = new ConcurrentHashMap<Channel, ChannelListener>();
     private AtomicLong objectsRead = new AtomicLong(0);
     private AtomicLong objectsWritten = new AtomicLong(0);
@@ -153,6 +205,14 @@ public class SSLAwareChannelHandler extends ChannelDuplexHandler {
 
     private void writeExceptionCaught(Channel channel,
             Throwable cause) {
+        if (cause instanceof FailedWriteException && ((FailedWriteException)cause).getObject() instanceof MultiplexedMessage) {
+            MultiplexedMessage message = (MultiplexedMessage)((FailedWriteException)cause).getObject();
+            LogicalObjectChannel logical = getLogicalChannel(channel, message.getChannelId());
+            if (logical != null) {
+                logical.listener.exceptionOccurred(new FailedWriteException(message.getContents(), cause.getCause()));
+                return;
+            }
+        }
         ChannelListener listener = this.listeners.get(channel);
         if (listener != null) {
             listener.exceptionOccurred(cause);
@@ -172,12 +232,85 @@ public class SSLAwareChannelHandler extends ChannelDuplexHandler {
     public void messageReceived(ChannelHandlerContext ctx,
             Object msg) throws Exception {
         objectsRead.getAndIncrement();
+        if (msg instanceof MultiplexedMessage) {
+            logicalMessageReceived(ctx.channel(), (MultiplexedMessage)msg);
+            return;
+        }
+        checkCompression(ctx.channel(), msg);
         ChannelListener listener = this.listeners.get(ctx.channel());
         if (listener != null) {
             listener.receivedMessage(msg);
         }
     }
 
+    private void logicalMessageReceived(Channel channel, MultiplexedMessage msg) throws Exception {
+        int id = msg.getChannelId();
+        switch (msg.getType()) {
+        case MultiplexedMessage.OPEN: {
+            if (!this.listeners.containsKey(channel)) {
+                return;
+            }
+            Map<Integer, LogicalObjectChannel> channels = this.logicalChannels.get(channel);
+            if (channels == null) {
+                channels = new ConcurrentHashMap<Integer, LogicalObjectChannel>();
+                this.logicalChannels.put(channel, channels);
+            }
+            LogicalObjectChannel logical = new LogicalObjectChannel(new ObjectChannelImpl(channel), id);
+            logical.listener = this.listenerFactory.createChannelListener(logical);
+            channels.put(id, logical);
+            SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
+            logical.listener.onConnection(sslHandler != null?sslHandler.engine():null);
+            break;
+        }
+        case MultiplexedMessage.CLOSE: {
+            LogicalObjectChannel logical = removeLogicalChannel(channel, id);
+            if (logical != null) {
+                logical.listener.disconnected();
+            }
+            break;
+        }
+        default: {
+            LogicalObjectChannel logical = getLogicalChannel(channel, id);
+            if (logical != null) {
+                checkCompression(channel, msg.getContents());
+                try {
+                    logical.listener.receivedMessage(msg.getContents());
+                } catch (Exception e) {
+                    logical.listener.exceptionOccurred(e);
+                }
+            }
+        }
+        }
+    }
+
+    /**
+     * Enable compression on the channel if requested by the client handshake
+     */
+    private void checkCompression(Channel channel, Object msg) {
+        if (msg instanceof Handshake && ((Handshake)msg).isCompression()) {
+            ObjectEncoder encoder = channel.pipeline().get(ObjectEncoder.class);
+            if (encoder != null) {
+                encoder.enableCompression();
+            }
+        }
+    }
+
+    private LogicalObjectChannel getLogicalChannel(Channel channel, int id) {
+        Map<Integer, LogicalObjectChannel> channels = this.logicalChannels.get(channel);
+        if (channels == null) {
+            return null;
+        }
+        return channels.get(id);
+    }
+
+    private LogicalObjectChannel removeLogicalChannel(Channel channel, int id) {
+        Map<Integer, LogicalObjectChannel> channels = this.logicalChannels.get(channel);
+        if (channels == null) {
+            return null;
+        }
+        return channels.remove(id);
+    }
+
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         messageReceived(ctx, msg);
@@ -185,6 +318,12 @@ public class SSLAwareChannelHandler extends ChannelDuplexHandler {
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        Map<Integer, LogicalObjectChannel> channels = this.logicalChannels.remove(ctx.channel());
+        if (channels != null) {
+            for (LogicalObjectChannel logical : channels.values()) {
+                logical.listener.disconnected();
+            }
+        }
         ChannelListener listener = this.listeners.remove(ctx.channel());
         if (listener != null) {
             LogManager.logDetail(LogConstants.CTX_TRANSPORT,
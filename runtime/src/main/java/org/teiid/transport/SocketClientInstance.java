@@ -65,6 +65,7 @@ public class SocketClientInstance implements ChannelListener, ClientInstance {
     private boolean usingEncryption;
     private DhKeyGenerator keyGen;
     private DQPWorkContext workContext = new DQPWorkContext().local(false);
+    private boolean compressionSupported;
 
     public SocketClientInstance(ObjectChannel objectSocket, ClientServiceRegistryImpl csr, boolean isClientEncryptionEnabled) {
         this.objectSocket = objectSocket;
@@ -79,6 +80,13 @@ public class SocketClientInstance implements ChannelListener, ClientInstance {
         }
     }
 
+    /**
+     * @param compressionSupported true if the client should be told that large messages may be compressed
+     */
+    public void setCompressionSupported(boolean compressionSupported) {
+        this.compressionSupported = compressionSupported;
+    }
+
     public void send(Message message, Serializable messageKey) {
         message.setMessageKey(messageKey);
         if (LogManager.isMessageToBeRecorded(LogConstants.CTX_TRANSPORT, MessageLevel.DETAIL)) {
@@ -157,6 +165,7 @@ public class SocketClientInstance implements ChannelListener, ClientInstance {
             this.workContext.setSSLSession(session);
         }
         handshake.setAuthType(csr.getAuthenticationType());
+        handshake.setCompression(compressionSupported);
         if (usingEncryption) {
             keyGen = new DhKeyGenerator();
             byte[] publicKey;
@@ -54,6 +54,7 @@ import io.netty.util.concurrent.Future;
  */
 public class SocketListener implements ChannelListenerFactory {
     private static final int DEFAULT_MAX_MESSAGE_SIZE = 1 << 21;
+    private static final int DEFAULT_COMPRESSION_THRESHOLD = 1 << 13;
 
     protected SSLAwareChannelHandler channelHandler;
     private Channel serverChannel;
@@ -63,6 +64,9 @@ public class SocketListener implements ChannelListenerFactory {
 
     private int maxMessageSize = PropertiesUtils.getHierarchicalProperty("org.teiid.maxMessageSize", DEFAULT_MAX_MESSAGE_SIZE, Integer.class); //$NON-NLS-1$
     private long maxLobSize = PropertiesUtils.getHierarchicalProperty("org.teiid.maxStreamingLobSize", ObjectDecoder.MAX_LOB_SIZE, Long.class); //$NON-NLS-1$
+    private int compressionThreshold = PropertiesUtils.getHierarchicalProperty("org.teiid.compressionThreshold", DEFAULT_COMPRESSION_THRESHOLD, Integer.class); //$NON-NLS-1$
+    private boolean compressResultsOnly = PropertiesUtils.getHierarchicalProperty("org.teiid.compressResultsOnly", true, Boolean.class); //$NON-NLS-1$
+    private WireCompression compression;
 
     public SocketListener(InetSocketAddress address, SocketConfiguration config, ClientServiceRegistryImpl csr, StorageManager storageManager) {
         this(address, config.getInputBufferSize(), config.getOutputBufferSize(), config.getMaxSocketThreads(), config.getSSLConfiguration(), csr, storageManager);
@@ -78,6 +82,9 @@ public class SocketListener implements ChannelListenerFactory {
             this.isClientEncryptionEnabled = config.isClientEncryptionEnabled();
         }
         this.csr = csr;
+        if (compressionThreshold >= 0) {
+            this.compression = new WireCompression(compressionThreshold, compressResultsOnly);
+        }
 
         NamedThreadFactory nettyPool = new NamedThreadFactory("NIO"); //$NON-NLS-1$
         if (LogManager.isMessageToBeRecorded(LogConstants.CTX_TRANSPORT, MessageLevel.DETAIL)) {
@@ -125,7 +132,7 @@ public class SocketListener implements ChannelListenerFactory {
                 Thread.currentThread().getContextClassLoader(),
                 storageManager));
         pipeline.addLast("chunker", new ChunkedWriteHandler()); //$NON-NLS-1$
-        pipeline.addLast("encoder", new ObjectEncoder()); //$NON-NLS-1$
+        pipeline.addLast("encoder", new ObjectEncoder(512, true, this.compression)); //$NON-NLS-1$
         pipeline.addLast("handler", this.channelHandler); //$NON-NLS-1$
     }
 
@@ -159,6 +166,10 @@ public class SocketListener implements ChannelListenerFactory {
         stats.objectsWritten = this.channelHandler.getObjectsWritten();
         stats.sockets = this.channelHandler.getConnectedChannels();
         stats.maxSockets = this.channelHandler.getMaxConnectedChannels();
+        if (this.compression != null) {
+            stats.uncompressedBytes = this.compression.getUncompressedBytes();
+            stats.compressedBytes = this.compression.getCompressedBytes();
+        }
         return stats;
     }
 
@@ -167,7 +178,9 @@ public class SocketListener implements ChannelListenerFactory {
     }
 
     public ChannelListener createChannelListener(ObjectChannel channel) {
-        return new SocketClientInstance(channel, csr, this.isClientEncryptionEnabled);
+        SocketClientInstance instance = new SocketClientInstance(channel, csr, this.isClientEncryptionEnabled);
+        instance.setCompressionSupported(this.compression != null);
+        return instance;
     }
 
     SSLAwareChannelHandler getChannelHandler() {
@@ -32,5 +32,10 @@ public class SocketListenerStats implements Serializable {
 
     public int sockets = 0;
     public int maxSockets = 0;
+
+    /** serialized bytes of the messages considered for compression */
+    public long uncompressedBytes = 0;
+    /** bytes sent for the messages considered for compression */
+    public long compressedBytes = 0;
 }
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.transport;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+import org.teiid.client.ResultsMessage;
+import org.teiid.net.socket.Message;
+import org.teiid.net.socket.MultiplexedMessage;
+import org.teiid.netty.handler.codec.serialization.ObjectDecoderInputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Deflate compression of large messages written to clients that requested it in the handshake.
+ * <br>
+ * Compression is performed on the event loop threads, so the {@link Deflater} and the
+ * transfer buffers are held per thread rather than allocated per message.
+ */
+public class WireCompression {
+
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private static class Buffers {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] input = new byte[CHUNK_SIZE];
+        byte[] output = new byte[CHUNK_SIZE];
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = new ThreadLocal<Buffers>() {
+        @Override
+        protected Buffers initialValue() {
+            return new Buffers();
+        }
+    };
+
+    private final int threshold;
+    private final boolean resultsOnly;
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+
+    /**
+     * @param threshold the minimum serialized size of a message to compress
+     * @param resultsOnly if only messages containing a {@link ResultsMessage} should be compressed
+     */
+    public WireCompression(int threshold, boolean resultsOnly) {
+        this.threshold = threshold;
+        this.resultsOnly = resultsOnly;
+    }
+
+    boolean shouldCompress(Object msg, int length) {
+        return length >= threshold && (!resultsOnly || isResults(msg));
+    }
+
+    private static boolean isResults(Object msg) {
+        if (msg instanceof MultiplexedMessage) {
+            msg = ((MultiplexedMessage)msg).getContents();
+        }
+        return msg instanceof Message && ((Message)msg).getContents() instanceof ResultsMessage;
+    }
+
+    /**
+     * Create a compressed frame from the object data in the given buffer
+     * @return the new frame or null if compression did not reduce the size
+     */
+    ByteBuf compress(ByteBufAllocator alloc, ByteBuf buffer, int index, int length) {
+        Buffers buffers = BUFFERS.get();
+        Deflater deflater = buffers.deflater;
+        deflater.reset();
+        ByteBuf result = alloc.ioBuffer(Math.min(length, Math.max(CHUNK_SIZE, length >> 2)));
+        result.writeInt(0);
+        result.writeInt(length);
+        int pos = index;
+        int end = index + length;
+        boolean success = false;
+        try {
+            while (!deflater.finished()) {
+                if (deflater.needsInput() && pos < end) {
+                    int toRead = Math.min(CHUNK_SIZE, end - pos);
+                    buffer.getBytes(pos, buffers.input, 0, toRead);
+                    pos += toRead;
+                    deflater.setInput(buffers.input, 0, toRead);
+                    if (pos == end) {
+                        deflater.finish();
+                    }
+                }
+                int count = deflater.deflate(buffers.output);
+                if (count > 0) {
+                    result.writeBytes(buffers.output, 0, count);
+                    if (result.writerIndex() >= length + 4) {
+                        break;
+                    }
+                }
+            }
+            uncompressedBytes.addAndGet(length);
+            if (!deflater.finished() || result.writerIndex() >= length + 4) {
+                compressedBytes.addAndGet(length);
+                return null;
+            }
+            int frameLength = result.writerIndex() - 4;
+            result.setInt(0, ObjectDecoderInputStream.COMPRESSED | frameLength);
+            compressedBytes.addAndGet(frameLength);
+            success = true;
+            return result;
+        } finally {
+            //don't hold input references
+            deflater.setInput(buffers.input, 0, 0);
+            if (!success) {
+                result.release();
+            }
+        }
+    }
+
+    public long getUncompressedBytes() {
+        return uncompressedBytes.get();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+}
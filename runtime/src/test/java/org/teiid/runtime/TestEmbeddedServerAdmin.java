@@ -169,6 +169,7 @@ public class TestEmbeddedServerAdmin {
         Set<String> cacheTypes = (Set<String>) admin.getCacheTypes();
         assertTrue(cacheTypes.contains("PREPARED_PLAN_CACHE"));
         assertTrue(cacheTypes.contains("QUERY_SERVICE_RESULT_SET_CACHE"));
+        assertTrue(cacheTypes.contains("METADATA_CACHE"));
     }
 
     @SuppressWarnings("unchecked")
@@ -250,6 +251,22 @@ public class TestEmbeddedServerAdmin {
         admin.clearCache("QUERY_SERVICE_RESULT_SET_CACHE", "AdminAPITestVDB", 1);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testClearMetadataCache() throws AdminException {
+        admin.clearCache("METADATA_CACHE");
+        for (CacheStatistics stats : (List<CacheStatistics>) admin.getCacheStats("METADATA_CACHE")) {
+            assertEquals(0, stats.getTotalEntries());
+        }
+        admin.clearCache("METADATA_CACHE", "AdminAPITestVDB", 1);
+        try {
+            admin.clearCache("x");
+            fail();
+        } catch (AdminProcessingException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(Admin.Cache.METADATA_CACHE.name()));
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testGetCacheStats() throws AdminException {
@@ -257,6 +274,8 @@ public class TestEmbeddedServerAdmin {
         assertEquals(list.get(0).getName(), Admin.Cache.PREPARED_PLAN_CACHE.name());
         list = (List<CacheStatistics>) admin.getCacheStats("QUERY_SERVICE_RESULT_SET_CACHE");
         assertEquals(list.get(0).getName(), Admin.Cache.QUERY_SERVICE_RESULT_SET_CACHE.name());
+        list = (List<CacheStatistics>) admin.getCacheStats("METADATA_CACHE");
+        assertFalse(list.isEmpty());
     }
 
     @SuppressWarnings("unchecked")
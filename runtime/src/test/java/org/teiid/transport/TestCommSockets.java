@@ -344,6 +344,30 @@ public class TestCommSockets {
         conn2.close();
     }
 
+    @Test public void testMultiplexedConnections() throws Exception {
+        Properties p = new Properties();
+        p.setProperty("org.teiid.sockets.multiplex", "true");
+        SSLConfiguration config = new SSLConfiguration();
+        SocketServerConnection conn = helpEstablishConnection(false, config, p);
+        SocketServerConnection conn2 = helpEstablishConnection(false, config, p);
+        assertEquals(2, this.service.getActiveSessionsCount());
+        SocketListenerStats stats = listener.getStats();
+        assertEquals(1, stats.sockets);
+        FakeService fs = conn.getService(FakeService.class);
+        FakeService fs2 = conn2.getService(FakeService.class);
+        assertEquals(150, fs.lobMethod(new ByteArrayInputStream(new byte[100]), new StringReader(new String(new char[50]))));
+        ResultsFuture<Integer> f = fs2.delayedAsynchResult();
+        assertEquals(100, fs.lobMethod(new ByteArrayInputStream(new byte[100]), new StringReader(new String(new char[0]))));
+        assertEquals(Integer.valueOf(5), f.get(10, TimeUnit.SECONDS));
+        conn.close();
+        assertTrue(conn2.isOpen(10000));
+        conn2.close();
+        for (int i = 0; i < 10 && this.service.getActiveSessionsCount() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, this.service.getActiveSessionsCount());
+    }
+
     @Test public void testEnableCipherSuites() throws Exception {
         SSLConfiguration config = new SSLConfiguration();
         config.setEnabledCipherSuites("x,y,z");
@@ -0,0 +1,53 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+@SuppressWarnings("nls")
+public class TestPgBackendProtocol {
+
+    private static short[] helpWriteNumeric(String value) {
+        ByteBuf buf = Unpooled.buffer();
+        PgBackendProtocol.writeNumeric(buf, new BigDecimal(value));
+        short[] result = new short[buf.readableBytes()/2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = buf.readShort();
+        }
+        return result;
+    }
+
+    @Test public void testNumericBinary() {
+        //ndigits, weight, sign, dscale, digits
+        assertArrayEquals(new short[] {2, 0, 0, 1, 1, 5000}, helpWriteNumeric("1.5"));
+        assertArrayEquals(new short[] {3, 1, 0x4000, 1, 1234, 5678, 9000}, helpWriteNumeric("-12345678.9"));
+        assertArrayEquals(new short[] {1, -1, 0, 4, 1}, helpWriteNumeric("0.0001"));
+        assertArrayEquals(new short[] {1, 1, 0, 0, 1}, helpWriteNumeric("10000"));
+        assertArrayEquals(new short[] {1, 2, 0, 0, 1}, helpWriteNumeric("1E8"));
+        assertArrayEquals(new short[] {0, 0, 0, 2}, helpWriteNumeric("0.00"));
+    }
+
+}
@@ -37,6 +37,7 @@ public class ObjectSerializer {
     private static final Logger log = Logger.getLogger(ObjectSerializer.class);
 
     private static final String ATTACHMENT_SUFFIX = ".ser"; //$NON-NLS-1$
+    private static final String SNAPSHOT_SUFFIX = ".snapshot"; //$NON-NLS-1$
 
     private String storagePath;
 
@@ -93,6 +94,10 @@ public class ObjectSerializer {
         return new File(baseDirectory(vdb.getName()+"_"+vdb.getVersion()), vdb.getName()+"_"+vdb.getVersion()+"_"+modelName+ATTACHMENT_SUFFIX); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
     }
 
+    public File buildModelSnapshotFile(VDBMetaData vdb, String modelName) {
+        return new File(baseDirectory(vdb.getName()+"_"+vdb.getVersion()), vdb.getName()+"_"+vdb.getVersion()+"_"+modelName+SNAPSHOT_SUFFIX); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
     public boolean isStale(VDBMetaData vdb, long timeAfter) {
         File cacheFile = buildVDBFile(vdb);
         return (cacheFile.exists() && timeAfter > cacheFile.lastModified());
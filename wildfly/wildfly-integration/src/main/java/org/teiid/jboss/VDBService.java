@@ -62,6 +62,7 @@ import org.teiid.metadata.MetadataFactory;
 import org.teiid.metadata.MetadataRepository;
 import org.teiid.metadata.MetadataStore;
 import org.teiid.metadata.index.IndexMetadataRepository;
+import org.teiid.query.metadata.MetadataSnapshot;
 import org.teiid.query.metadata.VDBResources;
 import org.teiid.runtime.AbstractVDBDeployer;
 import org.teiid.translator.ExecutionFactory;
@@ -277,6 +278,15 @@ class VDBService extends AbstractVDBDeployer implements Service<RuntimeVDB> {
     @Override
     protected MetadataFactory getCachedMetadataFactory(
             final VDBMetaData vdb, final ModelMetaData model) {
+        final File snapshotFile = getSerializer().buildModelSnapshotFile(vdb, model.getName());
+        if (snapshotFile.exists()) {
+            try {
+                return MetadataSnapshot.open(snapshotFile).getMetadataFactory();
+            } catch (Exception e) {
+                LogManager.logWarning(LogConstants.CTX_RUNTIME, e, IntegrationPlugin.Util.gs(IntegrationPlugin.Event.TEIID50043, snapshotFile.getAbsolutePath()));
+                snapshotFile.delete();
+            }
+        }
         final File cachedFile = getSerializer().buildModelFile(vdb, model.getName());
         MetadataFactory factory = getSerializer().loadSafe(cachedFile, MetadataFactory.class);
         return factory;
@@ -304,6 +314,17 @@ class VDBService extends AbstractVDBDeployer implements Service<RuntimeVDB> {
         }
 
         if (cache) {
+            if (MetadataSnapshot.isSupported(schema)) {
+                final File snapshotFile = getSerializer().buildModelSnapshotFile(vdb, model.getName());
+                try {
+                    if (!snapshotFile.exists()) {
+                        MetadataSnapshot.write(schema, snapshotFile);
+                    }
+                    return;
+                } catch (Exception e) {
+                    LogManager.logDetail(LogConstants.CTX_RUNTIME, e, "Could not write the metadata snapshot, using serialization instead"); //$NON-NLS-1$
+                }
+            }
             final File cachedFile = getSerializer().buildModelFile(vdb, model.getName());
             try {
                 getSerializer().saveAttachment(cachedFile, schema, false);
@@ -316,6 +337,7 @@ class VDBService extends AbstractVDBDeployer implements Service<RuntimeVDB> {
     private void deleteModelCache(String modelName) {
         final File cachedFile = getSerializer().buildModelFile(vdb, modelName);
         getSerializer().removeAttachment(cachedFile);
+        getSerializer().removeAttachment(getSerializer().buildModelSnapshotFile(vdb, modelName));
     }
 
     @Override